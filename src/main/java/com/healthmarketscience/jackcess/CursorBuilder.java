@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.healthmarketscience.jackcess.impl.CursorImpl;
+import com.healthmarketscience.jackcess.impl.FilterEvalContext;
 import com.healthmarketscience.jackcess.impl.IndexCursorImpl;
 import com.healthmarketscience.jackcess.impl.IndexData;
 import com.healthmarketscience.jackcess.impl.IndexImpl;
@@ -70,6 +71,8 @@ public class CursorBuilder {
   private Cursor.Savepoint _savepoint;
   /** ColumnMatcher to be used when matching column values */
   private ColumnMatcher _columnMatcher;
+  /** optional expression used to filter the rows */
+  private String _filterExpr;
 
   public CursorBuilder(Table table) {
     _table = (TableImpl)table;
@@ -264,21 +267,66 @@ public class CursorBuilder {
     return setColumnMatcher(CaseInsensitiveColumnMatcher.INSTANCE);
   }
 
+  /**
+   * Sets an (access) expression which will be used to filter the rows
+   * returned by the cursor, e.g. {@code "[Qty] > 10 And [Name] Like 'abc*'"}.
+   * Only rows for which the expression evaluates to {@code true} will be
+   * returned.
+   * <p>
+   * If no explicit range or savepoint is configured, simple conditions in
+   * the expression (comparisons of a column to constant values joined by
+   * "And") will be used to narrow the rows which are read using an index.
+   * If no index was configured, the index which best matches the expression
+   * will be chosen (if any), in which case the cursor will traverse the
+   * table in the order of that index.
+   *
+   * @param filterExpr the filter expression, or {@code null} to disable
+   *                   filtering
+   * @usage _intermediate_method_
+   */
+  public CursorBuilder setFilterExpression(String filterExpr) {
+    _filterExpr = filterExpr;
+    return this;
+  }
+
   /**
    * Returns a new cursor for the table, constructed to the given
    * specifications.
    */
   public Cursor toCursor() throws IOException
   {
+    IndexImpl index = _index;
+    Object[] startRow = _startRow;
+    boolean startRowInclusive = _startRowInclusive;
+    Object[] endRow = _endRow;
+    boolean endRowInclusive = _endRowInclusive;
+
+    FilterEvalContext filter = null;
+    if(_filterExpr != null) {
+      filter = new FilterEvalContext(_table, _filterExpr);
+      if((_savepoint == null) && (startRow == null) && (endRow == null)) {
+        // see if we can narrow the rows using an index
+        FilterEvalContext.IndexRange range = filter.findIndexRange(index);
+        if(range != null) {
+          index = range.getIndex();
+          startRow = range.getStartRow();
+          startRowInclusive = true;
+          endRow = range.getEndRow();
+          endRowInclusive = true;
+        }
+      }
+    }
+
     CursorImpl cursor = null;
-    if(_index == null) {
+    if(index == null) {
       cursor = CursorImpl.createCursor(_table);
     } else {
-      cursor = IndexCursorImpl.createCursor(_table, _index,
-                                            _startRow, _startRowInclusive,
-                                            _endRow, _endRowInclusive);
+      cursor = IndexCursorImpl.createCursor(_table, index,
+                                            startRow, startRowInclusive,
+                                            endRow, endRowInclusive);
     }
     cursor.setColumnMatcher(_columnMatcher);
+    cursor.setFilter(filter);
     if(_savepoint == null) {
       if(!_beforeFirst) {
         cursor.afterLast();
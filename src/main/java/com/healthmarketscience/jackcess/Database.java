@@ -143,6 +143,21 @@ public interface Database extends Iterable<Table>, Closeable, Flushable
   public static final String DATE_TIME_TYPE_PROPERTY =
     "com.healthmarketscience.jackcess.dateTimeType";
 
+  /** system property which can be used to set the default number of pages
+   * which may be read ahead asynchronously (useful for databases on high
+   * latency storage).  Defaults to {@code 0} (disabled).
+   * @usage _intermediate_field_
+   */
+  public static final String READ_AHEAD_PAGES_PROPERTY =
+    "com.healthmarketscience.jackcess.readAheadPages";
+
+  /** system property which can be used to set the default deferred metadata
+   * updates policy.  Defaults to {@code false}.
+   * @usage _intermediate_field_
+   */
+  public static final String DEFER_METADATA_UPDATES_PROPERTY =
+    "com.healthmarketscience.jackcess.deferMetadataUpdates";
+
   /**
    * Enum which indicates which version of Access created the database.
    * @usage _general_class_
@@ -528,6 +543,45 @@ public interface Database extends Iterable<Table>, Closeable, Flushable
    */
   public void setEvaluateExpressions(Boolean evaluateExpressions);
 
+  /**
+   * Gets the current max number of pages which may be read ahead
+   * asynchronously while reading table data.  Read-ahead is disabled by
+   * default.
+   * @usage _intermediate_method_
+   */
+  public int getReadAheadPages();
+
+  /**
+   * Sets the max number of pages which may be read ahead asynchronously
+   * while reading table data (table scans, overflow rows and long values).
+   * This can greatly improve read performance for databases on storage with
+   * high per-read latency (e.g. network storage).  A value of {@code 0}
+   * disables read-ahead.  If {@code null}, resets to the default value.
+   * @usage _intermediate_method_
+   */
+  public void setReadAheadPages(Integer numPages);
+
+  /**
+   * Gets the current deferred metadata updates policy.  Deferred metadata
+   * updates are disabled by default.
+   * @usage _intermediate_method_
+   */
+  public boolean isDeferMetadataUpdates();
+
+  /**
+   * Sets the current deferred metadata updates policy.  If enabled, table
+   * metadata which is updated on every row write (row counts, auto number
+   * values and index pages) is kept in memory and only written when the
+   * database is flushed (i.e. on {@link #flush}, {@link #close} or, if
+   * auto-sync is enabled, at the end of every write operation).  This can
+   * greatly improve the performance of many small writes when auto-sync is
+   * disabled, but increases the amount of data which may be lost if the
+   * database is not closed cleanly.  If {@code null}, resets to the default
+   * value.
+   * @usage _intermediate_method_
+   */
+  public void setDeferMetadataUpdates(Boolean deferMetadataUpdates);
+
   /**
    * Gets currently configured ColumnValidatorFactory (always non-{@code null}).
    * @usage _intermediate_method_
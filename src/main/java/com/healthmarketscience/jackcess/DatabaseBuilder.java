@@ -79,6 +79,8 @@ public class DatabaseBuilder
   private Map<String,PropertyMap.Property> _userProps;
   /** flag indicating that the system catalog index is borked */
   private boolean _ignoreBrokenSystemCatalogIndex;
+  /** whether or not to journal changes to the database */
+  private boolean _journal;
 
   public DatabaseBuilder() {
     this((Path)null);
@@ -271,13 +273,31 @@ public class DatabaseBuilder
     return this;
   }
 
+  /**
+   * Sets whether or not to journal changes to the database.  If {@code
+   * true}, the original contents of any page modified since the last flush
+   * are saved to a "journal" file alongside the database file (the database
+   * file name plus "-journal").  If the database is not closed cleanly, the
+   * next time it is opened (for writing), the database file is restored to
+   * the state of the last successful flush (end of write operation if
+   * auto-sync is enabled, otherwise the last call to {@link Database#flush}).
+   * This allows auto-sync to be safely disabled for large batches of writes.
+   * Note that a left over journal file will always be rolled back when the
+   * database is opened for writing, regardless of this setting.
+   * @usage _intermediate_method_
+   */
+  public DatabaseBuilder setJournal(boolean journal) {
+    _journal = journal;
+    return this;
+  }
+
   /**
    * Opens an existingnew Database using the configured information.
    */
   public Database open() throws IOException {
     return DatabaseImpl.open(_mdbFile, _readOnly, _channel, _autoSync, _charset,
                              _timeZone, _codecProvider,
-                             _ignoreBrokenSystemCatalogIndex);
+                             _ignoreBrokenSystemCatalogIndex, _journal);
   }
 
   /**
@@ -285,7 +305,7 @@ public class DatabaseBuilder
    */
   public Database create() throws IOException {
     Database db = DatabaseImpl.create(_fileFormat, _mdbFile, _channel, _autoSync,
-                                      _charset, _timeZone);
+                                      _charset, _timeZone, _journal);
     if(_dbProps != null) {
       PropertyMap props = db.getDatabaseProperties();
       props.putAll(_dbProps.values());
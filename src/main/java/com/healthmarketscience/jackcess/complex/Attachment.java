@@ -16,10 +16,14 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.complex;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Date;
 import com.healthmarketscience.jackcess.DateTimeType;
+import com.healthmarketscience.jackcess.impl.ByteUtil;
 
 /**
  * Complex value corresponding to an attachment.
@@ -32,6 +36,37 @@ public interface Attachment extends ComplexValue
 
   public void setFileData(byte[] data);
 
+  /**
+   * Returns a stream of the actual file data, {@code null} if this
+   * attachment has no data.  Note that the encoded data (as stored in the
+   * database) is held in memory in its entirety, however if the data has not
+   * already been decoded, it is decoded (and decompressed) as the stream is
+   * read, so the decoded content does not need to be loaded into memory.
+   * <p>
+   * The default implementation returns a stream over the result of {@link
+   * #getFileData}.
+   */
+  public default InputStream getFileDataStream() throws IOException {
+    byte[] data = getFileData();
+    return ((data != null) ? new ByteArrayInputStream(data) : null);
+  }
+
+  /**
+   * Sets the actual file data from the given stream.  The data is encoded
+   * (and possibly compressed) as the stream is read, so only the encoded
+   * data is kept in memory.  Since the file type determines whether or not
+   * the data is compressed, it should be set before calling this method.
+   * The stream is read fully but not closed.
+   * <p>
+   * The default implementation reads the entire stream and passes the
+   * result to {@link #setFileData(byte[])}.
+   */
+  public default void setFileData(InputStream data) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    ByteUtil.copy(data, bout);
+    setFileData(bout.toByteArray());
+  }
+
   public byte[] getEncodedFileData() throws IOException;
 
   public void setEncodedFileData(byte[] data);
@@ -18,8 +18,11 @@ package com.healthmarketscience.jackcess.complex;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import com.healthmarketscience.jackcess.Row;
 
@@ -44,6 +47,52 @@ public interface ComplexColumnInfo<V extends ComplexValue>
   public List<V> getValues(ComplexValueForeignKey complexValueFk)
     throws IOException;
 
+  /**
+   * Returns the raw values for all of the given complex value foreign keys,
+   * grouped by foreign key (in ascending order, keys without any values map
+   * to an empty list).  The default implementation looks up the values for
+   * each key separately, but implementations may read the values in a single
+   * ordered sweep of the foreign key index, which is much faster when loading
+   * the values for many rows of the parent table.
+   */
+  public default Map<Integer,List<Row>> getRawValues(
+      Collection<Integer> complexValueFks, Collection<String> columnNames)
+    throws IOException
+  {
+    Map<Integer,List<Row>> valueMap = new LinkedHashMap<Integer,List<Row>>();
+    Set<Integer> fks = new TreeSet<Integer>();
+    for(Integer fk : complexValueFks) {
+      if(fk != null) {
+        fks.add(fk);
+      }
+    }
+    for(Integer fk : fks) {
+      valueMap.put(fk, getRawValues(fk, columnNames));
+    }
+    return valueMap;
+  }
+
+  /**
+   * Returns the values for all of the given complex value foreign keys,
+   * grouped by foreign key (see {@link #getRawValues(Collection,Collection)}).
+   * Implementations may also cache the values in the given foreign keys, so
+   * that subsequent calls to {@link ComplexValueForeignKey#getValues} (and
+   * related methods) do not need to read the complex value table.
+   */
+  public default Map<Integer,List<V>> getValues(
+      Collection<? extends ComplexValueForeignKey> complexValueFks)
+    throws IOException
+  {
+    Map<Integer,List<V>> valueMap = new LinkedHashMap<Integer,List<V>>();
+    for(ComplexValueForeignKey complexValueFk : complexValueFks) {
+      Integer fk = complexValueFk.get();
+      if(!valueMap.containsKey(fk)) {
+        valueMap.put(fk, getValues(complexValueFk));
+      }
+    }
+    return valueMap;
+  }
+
   public ComplexValue.Id addRawValue(Map<String,?> rawValue)
     throws IOException;
 
@@ -74,6 +74,10 @@ public abstract class BaseEvalContext implements EvalContext
     _expr = new RawExpr(exprType, exprStr);
   }
 
+  void setExpr(Expression expr) {
+    _expr = expr;
+  }
+
   protected DatabaseImpl getDatabase() {
     return _dbCtx.getDatabase();
   }
@@ -212,8 +216,7 @@ public abstract class BaseEvalContext implements EvalContext
 
     private Expression getExpr() {
       // when the expression is parsed we replace the raw version
-      Expression expr = Expressionator.parse(
-          _exprType, _exprStr, getResultType(), _dbCtx);
+      Expression expr = _dbCtx.parse(_exprType, _exprStr, getResultType());
       _expr = expr;
       return expr;
     }
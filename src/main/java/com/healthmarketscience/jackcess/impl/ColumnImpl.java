@@ -695,6 +695,14 @@ public class ColumnImpl implements Column, Comparable<ColumnImpl>, DateTimeConte
     }
   }
 
+  /**
+   * Returns {@code true} if values written to this column are not checked or
+   * modified by any validator.
+   */
+  boolean hasDefaultValidator() {
+    return (_validator == SimpleColumnValidator.INSTANCE);
+  }
+
   byte getOriginalDataType() {
     return _type.getValue();
   }
@@ -79,6 +79,8 @@ public abstract class CursorImpl implements Cursor
   protected PositionImpl _curPos;
   /** ColumnMatcher to be used when matching column values */
   protected ColumnMatcher _columnMatcher = SimpleColumnMatcher.INSTANCE;
+  /** optional filter for the rows returned by this cursor */
+  private FilterEvalContext _filter;
 
   protected CursorImpl(IdImpl id, TableImpl table, PositionImpl firstPos,
                        PositionImpl lastPos) {
@@ -136,6 +138,22 @@ public abstract class CursorImpl implements Cursor
     return _columnMatcher;
   }
 
+  /**
+   * Returns the filter which restricts the rows returned by this cursor, if
+   * any.
+   */
+  public FilterEvalContext getFilter() {
+    return _filter;
+  }
+
+  /**
+   * Sets a filter which restricts the rows returned by this cursor (rows
+   * which do not match the filter are skipped when the cursor is moved).
+   */
+  public void setFilter(FilterEvalContext filter) {
+    _filter = filter;
+  }
+
   @Override
   public void setColumnMatcher(ColumnMatcher columnMatcher) {
     if(columnMatcher == null) {
@@ -424,11 +442,18 @@ public abstract class CursorImpl implements Cursor
   private boolean moveToAnotherRowImpl(boolean moveForward)
     throws IOException
   {
-    _rowState.reset();
-    _prevPos = _curPos;
-    _curPos = findAnotherPosition(_rowState, _curPos, moveForward);
-    TableImpl.positionAtRowHeader(_rowState, _curPos.getRowId());
-    return(!_curPos.equals(getDirHandler(moveForward).getEndPosition()));
+    PositionImpl endPos = getDirHandler(moveForward).getEndPosition();
+    while(true) {
+      _rowState.reset();
+      _prevPos = _curPos;
+      _curPos = findAnotherPosition(_rowState, _curPos, moveForward);
+      TableImpl.positionAtRowHeader(_rowState, _curPos.getRowId());
+      if(_curPos.equals(endPos) || (_filter == null) ||
+         _filter.matches(this)) {
+        break;
+      }
+    }
+    return(!_curPos.equals(endPos));
   }
 
   @Override
@@ -760,6 +785,28 @@ public abstract class CursorImpl implements Cursor
     return _table.getRowValue(_rowState, _curPos.getRowId(), column);
   }
 
+  /**
+   * Reads the raw column data of the given column from the current row (see
+   * {@link TableImpl#getRawRowValue}).
+   * @usage _advanced_method_
+   */
+  public byte[] getCurrentRawRowValue(ColumnImpl column)
+    throws IOException
+  {
+    return _table.getRawRowValue(_rowState, _curPos.getRowId(), column);
+  }
+
+  /**
+   * Reads the current row using the given RowCopier (which must have been
+   * created by this cursor's table).
+   * @usage _advanced_method_
+   */
+  public Object[] getCurrentRowForCopy(TableImpl.RowCopier copier)
+    throws IOException
+  {
+    return copier.getRow(_rowState, _curPos.getRowId());
+  }
+
   @Override
   public void setCurrentRowValue(Column column, Object value)
     throws IOException
@@ -19,14 +19,18 @@ package com.healthmarketscience.jackcess.impl;
 import java.text.DecimalFormat;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
 
 import com.healthmarketscience.jackcess.expr.EvalConfig;
+import com.healthmarketscience.jackcess.expr.Expression;
 import com.healthmarketscience.jackcess.expr.FunctionLookup;
 import com.healthmarketscience.jackcess.expr.NumericConfig;
 import com.healthmarketscience.jackcess.expr.TemporalConfig;
+import com.healthmarketscience.jackcess.expr.Value;
 import com.healthmarketscience.jackcess.impl.expr.DefaultFunctions;
 import com.healthmarketscience.jackcess.impl.expr.Expressionator;
 import com.healthmarketscience.jackcess.impl.expr.NumberFormatter;
@@ -39,6 +43,14 @@ import com.healthmarketscience.jackcess.impl.expr.RandomContext;
 public class DBEvalContext implements Expressionator.ParseContext, EvalConfig
 {
   private static final int MAX_CACHE_SIZE = 10;
+  private static final int MAX_EXPR_CACHE_SIZE = 1000;
+
+  /** parsed expressions shared by all databases.  parsed expressions are
+      immutable (other than thread-safe caching of constant values), so they
+      can be shared by any contexts which would parse them identically */
+  private static final Map<ExprKey,Expression> EXPR_CACHE =
+    Collections.synchronizedMap(
+        new SimpleCache<ExprKey,Expression>(MAX_EXPR_CACHE_SIZE));
 
   private final DatabaseImpl _db;
   private FunctionLookup _funcs = DefaultFunctions.LOOKUP;
@@ -138,4 +150,74 @@ public class DBEvalContext implements Expressionator.ParseContext, EvalConfig
   public float getRandom(Integer seed) {
     return _rndCtx.getRandom(seed);
   }
+
+  /**
+   * Parses the given expression using this context.  Parsed expressions are
+   * cached (across all databases) based on the expression and the relevant
+   * parts of the current configuration, so that commonly used expressions
+   * (e.g. the same validation rules in multiple instances of a database)
+   * are only parsed once.
+   */
+  public Expression parse(Expressionator.Type exprType, String exprStr,
+                          Value.Type resultType) {
+    ExprKey key = new ExprKey(exprType, exprStr, resultType, this);
+    Expression expr = EXPR_CACHE.get(key);
+    if(expr == null) {
+      expr = Expressionator.parse(exprType, exprStr, resultType, this);
+      EXPR_CACHE.put(key, expr);
+    }
+    return expr;
+  }
+
+  /**
+   * Key for a parsed expression.  Includes everything which may affect the
+   * parsed (and compiled) form of the expression.
+   */
+  private static final class ExprKey
+  {
+    private final Expressionator.Type _exprType;
+    private final String _exprStr;
+    private final Value.Type _resultType;
+    private final FunctionLookup _funcs;
+    private final TemporalConfig _temporal;
+    private final NumericConfig _numeric;
+    private final ZoneId _zoneId;
+    private final int _hashCode;
+
+    private ExprKey(Expressionator.Type exprType, String exprStr,
+                    Value.Type resultType, DBEvalContext ctx) {
+      _exprType = exprType;
+      _exprStr = exprStr;
+      _resultType = resultType;
+      _funcs = ctx.getFunctionLookup();
+      _temporal = ctx.getTemporalConfig();
+      _numeric = ctx.getNumericConfig();
+      _zoneId = ctx.getZoneId();
+      _hashCode = Objects.hash(_exprType, _exprStr, _resultType, _funcs,
+                               _temporal, _numeric, _zoneId);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if(this == o) {
+        return true;
+      }
+      if(!(o instanceof ExprKey)) {
+        return false;
+      }
+      ExprKey other = (ExprKey)o;
+      return ((_exprType == other._exprType) &&
+              _exprStr.equals(other._exprStr) &&
+              (_resultType == other._resultType) &&
+              (_funcs == other._funcs) &&
+              (_temporal == other._temporal) &&
+              (_numeric == other._numeric) &&
+              Objects.equals(_zoneId, other._zoneId));
+    }
+  }
 }
@@ -339,6 +339,8 @@ public class DatabaseImpl implements Database, DateTimeContext
   private boolean _allowAutoNumInsert;
   /** whether or not to evaluate expressions */
   private boolean _evaluateExpressions;
+  /** whether or not to defer table metadata updates until flush */
+  private boolean _deferMetadataUpdates;
   /** factory for ColumnValidators */
   private ColumnValidatorFactory _validatorFactory = SimpleColumnValidatorFactory.INSTANCE;
   /** cache of in-use tables (or table definitions) */
@@ -388,12 +390,15 @@ public class DatabaseImpl implements Database, DateTimeContext
    * @param timeZone TimeZone to use, if {@code null}, uses default
    * @param provider CodecProvider for handling page encoding/decoding, may be
    *                 {@code null} if no special encoding is necessary
+   * @param journal  whether or not to journal changes to the database (see
+   *                 {@link DatabaseBuilder#setJournal})
    * @usage _advanced_method_
    */
   public static DatabaseImpl open(
       Path mdbFile, boolean readOnly, FileChannel channel,
       boolean autoSync, Charset charset, TimeZone timeZone,
-      CodecProvider provider, boolean ignoreSystemCatalogIndex)
+      CodecProvider provider, boolean ignoreSystemCatalogIndex,
+      boolean journal)
     throws IOException
   {
     boolean closeChannel = false;
@@ -414,6 +419,16 @@ public class DatabaseImpl implements Database, DateTimeContext
     boolean success = false;
     try {
 
+      if(mdbFile != null) {
+        // roll back any incomplete changes from a previous session
+        if(!readOnly) {
+          PageJournal.recover(mdbFile, channel);
+        } else if(Files.exists(PageJournal.getJournalPath(mdbFile))) {
+          LOG.warn("Database " + mdbFile + " has incomplete changes which " +
+                   "cannot be rolled back in read-only mode");
+        }
+      }
+
       boolean wrapChannelRO = false;
       if(!readOnly) {
         // verify that format supports writing
@@ -440,6 +455,9 @@ public class DatabaseImpl implements Database, DateTimeContext
       DatabaseImpl db = new DatabaseImpl(mdbFile, channel, closeChannel, autoSync,
                                          null, charset, timeZone, provider,
                                          readOnly, ignoreSystemCatalogIndex);
+      if(journal && !readOnly) {
+        db.enableJournal();
+      }
       success = true;
       return db;
 
@@ -469,11 +487,14 @@ public class DatabaseImpl implements Database, DateTimeContext
    *                 any time using {@link #flush}.
    * @param charset  Charset to use, if {@code null}, uses default
    * @param timeZone TimeZone to use, if {@code null}, uses default
+   * @param journal  whether or not to journal changes to the database (see
+   *                 {@link DatabaseBuilder#setJournal})
    * @usage _advanced_method_
    */
   public static DatabaseImpl create(FileFormat fileFormat, Path mdbFile,
                                     FileChannel channel, boolean autoSync,
-                                    Charset charset, TimeZone timeZone)
+                                    Charset charset, TimeZone timeZone,
+                                    boolean journal)
     throws IOException
   {
     FileFormatDetails details = getFileFormatDetails(fileFormat);
@@ -494,12 +515,19 @@ public class DatabaseImpl implements Database, DateTimeContext
 
     boolean success = false;
     try {
+      if(mdbFile != null) {
+        // any journal for a previous file is no longer relevant
+        Files.deleteIfExists(PageJournal.getJournalPath(mdbFile));
+      }
       channel.truncate(0);
       transferDbFrom(channel, getResourceAsStream(details.getEmptyFilePath()));
       channel.force(true);
       DatabaseImpl db = new DatabaseImpl(mdbFile, channel, closeChannel, autoSync,
                                          fileFormat, charset, timeZone, null,
                                          false, false);
+      if(journal) {
+        db.enableJournal();
+      }
       success = true;
       return db;
     } finally {
@@ -566,6 +594,7 @@ public class DatabaseImpl implements Database, DateTimeContext
     _enforceForeignKeys = getDefaultEnforceForeignKeys();
     _allowAutoNumInsert = getDefaultAllowAutoNumberInsert();
     _evaluateExpressions = getDefaultEvaluateExpressions();
+    _deferMetadataUpdates = getDefaultDeferMetadataUpdates();
     _fileFormat = fileFormat;
     setZoneInfo(timeZone, null);
     _dtf = ColumnImpl.getDateTimeFactory(getDefaultDateTimeType());
@@ -577,10 +606,41 @@ public class DatabaseImpl implements Database, DateTimeContext
     // constructed, but only our _format and _pageChannel refs should be
     // needed
     _pageChannel.initialize(this, provider);
+    _pageChannel.setReadAheadPages(getDefaultReadAheadPages());
     _buffer = _pageChannel.createPageBuffer();
     readSystemCatalog(ignoreSystemCatalogIndex);
   }
 
+  /**
+   * Enables journaling of changes to this database.
+   */
+  private void enableJournal() {
+    if(_file == null) {
+      throw new IllegalArgumentException(withErrorContext(
+          "Journaling requires a database file"));
+    }
+    _pageChannel.enableJournal(_file);
+  }
+
+  /**
+   * Returns {@code true} if changes to this database are journaled, {@code
+   * false} otherwise.
+   * @usage _advanced_method_
+   */
+  public boolean isJournaling() {
+    return _pageChannel.isJournaling();
+  }
+
+  /**
+   * Returns {@code true} if this database was opened from its file (as
+   * opposed to using a channel provided by the caller, e.g. an in-memory
+   * channel), and thus the file can be opened again to read the database.
+   * @usage _advanced_method_
+   */
+  public boolean isOpenedFromFile() {
+    return ((_file != null) && _pageChannel.isOwnedChannel());
+  }
+
   @Override
   public File getFile() {
     return ((_file != null) ? _file.toFile() : null);
@@ -813,6 +873,32 @@ public class DatabaseImpl implements Database, DateTimeContext
     _evaluateExpressions = evaluateExpressions;
   }
 
+  @Override
+  public boolean isDeferMetadataUpdates() {
+    return _deferMetadataUpdates;
+  }
+
+  @Override
+  public void setDeferMetadataUpdates(Boolean deferMetadataUpdates) {
+    if(deferMetadataUpdates == null) {
+      deferMetadataUpdates = getDefaultDeferMetadataUpdates();
+    }
+    _deferMetadataUpdates = deferMetadataUpdates;
+  }
+
+  @Override
+  public int getReadAheadPages() {
+    return _pageChannel.getReadAheadPages();
+  }
+
+  @Override
+  public void setReadAheadPages(Integer numPages) {
+    if(numPages == null) {
+      numPages = getDefaultReadAheadPages();
+    }
+    _pageChannel.setReadAheadPages(numPages);
+  }
+
   @Override
   public ColumnValidatorFactory getColumnValidatorFactory() {
     return _validatorFactory;
@@ -2194,6 +2280,46 @@ public class DatabaseImpl implements Database, DateTimeContext
                                  DateTimeType.LOCAL_DATE_TIME);
   }
 
+  /**
+   * Returns the default deferred metadata updates policy.  This defaults to
+   * {@code false}, but can be overridden using the system
+   * property {@value com.healthmarketscience.jackcess.Database#DEFER_METADATA_UPDATES_PROPERTY}.
+   * @usage _advanced_method_
+   */
+  public static boolean getDefaultDeferMetadataUpdates()
+  {
+    String prop = System.getProperty(DEFER_METADATA_UPDATES_PROPERTY);
+    return ((prop != null) && Boolean.TRUE.toString().equalsIgnoreCase(prop));
+  }
+
+  /**
+   * Returns the default number of read-ahead pages.  This defaults to
+   * {@code 0} (disabled), but can be overridden using the system
+   * property {@value com.healthmarketscience.jackcess.Database#READ_AHEAD_PAGES_PROPERTY}
+   * (invalid values are logged and ignored).
+   * @usage _advanced_method_
+   */
+  public static int getDefaultReadAheadPages()
+  {
+    String prop = System.getProperty(READ_AHEAD_PAGES_PROPERTY);
+    if(prop != null) {
+      prop = prop.trim();
+      if(!prop.isEmpty()) {
+        try {
+          int numPages = Integer.parseInt(prop);
+          if(numPages >= 0) {
+            return numPages;
+          }
+        } catch(NumberFormatException e) {
+          // logged below
+        }
+        LOG.warn("Ignoring invalid value '" + prop + "' for property " +
+                 READ_AHEAD_PAGES_PROPERTY);
+      }
+    }
+    return 0;
+  }
+
   /**
    * Copies the given db InputStream to the given channel using the most
    * efficient means possible.
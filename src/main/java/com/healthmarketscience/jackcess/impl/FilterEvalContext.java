@@ -0,0 +1,560 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.JackcessException;
+import com.healthmarketscience.jackcess.expr.EvalException;
+import com.healthmarketscience.jackcess.expr.Expression;
+import com.healthmarketscience.jackcess.expr.Identifier;
+import com.healthmarketscience.jackcess.expr.Value;
+import com.healthmarketscience.jackcess.impl.expr.Expressionator;
+import com.healthmarketscience.jackcess.impl.expr.Expressionator.ColumnCondition;
+
+/**
+ * EvalContext used to filter the rows of a cursor using an (access)
+ * expression, e.g. {@code "[Qty] > 10 And [Name] Like 'abc*'"}.  Column
+ * values are only read from the current row as they are referenced by the
+ * expression.  A row matches the filter if the expression evaluates to a
+ * non-null, "true" value.
+ * <p>
+ * Additionally, the simple conditions of the expression (see {@link
+ * Expressionator#getColumnConditions}) can be used to find an index and range
+ * which will contain all the matching rows (see {@link #findIndexRange}).
+ * The index range is always a superset of the matching rows (the full
+ * expression is still evaluated for every row in the range).
+ *
+ * @author James Ahlborn
+ * @usage _advanced_class_
+ */
+public class FilterEvalContext extends BaseEvalContext
+{
+  private static final BigDecimal MIN_BYTE = BigDecimal.ZERO;
+  private static final BigDecimal MAX_BYTE = BigDecimal.valueOf(255);
+  private static final BigDecimal MIN_INT = BigDecimal.valueOf(Short.MIN_VALUE);
+  private static final BigDecimal MAX_INT = BigDecimal.valueOf(Short.MAX_VALUE);
+  private static final BigDecimal MIN_LONG =
+    BigDecimal.valueOf(Integer.MIN_VALUE);
+  private static final BigDecimal MAX_LONG =
+    BigDecimal.valueOf(Integer.MAX_VALUE);
+  private static final BigDecimal MIN_BIG_INT =
+    BigDecimal.valueOf(Long.MIN_VALUE);
+  private static final BigDecimal MAX_BIG_INT =
+    BigDecimal.valueOf(Long.MAX_VALUE);
+  private static final BigDecimal MAX_MONEY = new BigDecimal("900000000000000");
+
+  private final TableImpl _table;
+  /** the name used to reference the table in the expression */
+  private final String _tableName;
+  private final Expression _expr;
+  /** the columns for the identifiers which have already been resolved */
+  private final Map<Identifier,ColumnImpl> _identCols =
+    new IdentityHashMap<Identifier,ColumnImpl>();
+  private CursorImpl _cursor;
+
+  public FilterEvalContext(TableImpl table, String exprStr) {
+    this(table, table.getName(),
+         table.getDatabase().getEvalContext().parse(
+             Expressionator.Type.EXPRESSION, exprStr, null));
+  }
+
+  /**
+   * @param table the table being filtered
+   * @param tableName the name (or alias) used to reference the table in the
+   *                  expression
+   * @param expr the parsed filter expression
+   */
+  public FilterEvalContext(TableImpl table, String tableName,
+                           Expression expr) {
+    super(table.getDatabase().getEvalContext());
+    _table = table;
+    _tableName = tableName;
+    _expr = expr;
+    setExpr(_expr);
+  }
+
+  public TableImpl getTable() {
+    return _table;
+  }
+
+  @Override
+  public Value getIdentifierValue(Identifier identifier) {
+
+    ColumnImpl col = _identCols.get(identifier);
+    if(col == null) {
+      col = resolveColumn(identifier);
+      _identCols.put(identifier, col);
+    }
+
+    try {
+      return toValue(_cursor.getCurrentRowValue(col), col.getType());
+    } catch(IOException e) {
+      throw new EvalException("Failed reading value for " + identifier, e);
+    }
+  }
+
+  private ColumnImpl resolveColumn(Identifier identifier) {
+
+    // we only support getting column values in this table from the current
+    // row
+    if(!isThisTable(identifier) ||
+       (identifier.getPropertyName() != null)) {
+      throw new EvalException("Cannot access fields outside this table for " +
+                              identifier);
+    }
+
+    return _table.getColumn(identifier.getObjectName());
+  }
+
+  /**
+   * Returns {@code true} if the current row of the given cursor matches the
+   * filter expression, {@code false} otherwise.
+   */
+  public boolean matches(CursorImpl cursor) throws IOException {
+    _cursor = cursor;
+    try {
+      Object result = eval();
+      if(result == null) {
+        return false;
+      }
+      if(result instanceof Boolean) {
+        return (Boolean)result;
+      }
+      if(result instanceof Number) {
+        return (((Number)result).doubleValue() != 0.0d);
+      }
+      throw new JackcessException(withErrorContext(
+          "Filter expression must evaluate to a boolean, found " + result));
+    } finally {
+      _cursor = null;
+    }
+  }
+
+  /**
+   * Returns the index and range which best narrows the rows which need to be
+   * checked by this filter, if any.
+   *
+   * @param index if non-{@code null}, the only index which will be
+   *              considered
+   * @return the best index range, or {@code null} if the filter cannot make
+   *         use of any index (or the given index)
+   */
+  public IndexRange findIndexRange(IndexImpl index) {
+
+    Map<ColumnImpl,Bounds> colBounds = getColumnBounds();
+    if(colBounds.isEmpty()) {
+      return null;
+    }
+
+    List<IndexImpl> indexes = ((index != null) ?
+                               Collections.singletonList(index) :
+                               _table.getIndexes());
+
+    IndexRange bestRange = null;
+    for(IndexImpl idx : indexes) {
+      IndexRange range = toIndexRange(idx, colBounds);
+      if((range != null) &&
+         ((bestRange == null) || (range._score > bestRange._score) ||
+          ((range._score == bestRange._score) && idx.isUnique() &&
+           !bestRange._index.isUnique()))) {
+        bestRange = range;
+      }
+    }
+
+    return bestRange;
+  }
+
+  private IndexRange toIndexRange(IndexImpl index,
+                                  Map<ColumnImpl,Bounds> colBounds) {
+
+    List<Object> eqValues = new ArrayList<Object>();
+    Bounds rangeBounds = null;
+    boolean rangeAscending = true;
+    for(IndexData.ColumnDescriptor idxCol : index.getColumns()) {
+      Bounds bounds = colBounds.get(idxCol.getColumn());
+      if(bounds == null) {
+        break;
+      }
+      if(bounds.isEq()) {
+        eqValues.add(bounds._lower);
+        continue;
+      }
+      rangeBounds = bounds;
+      rangeAscending = idxCol.isAscending();
+      break;
+    }
+
+    int score = (eqValues.size() * 2) + ((rangeBounds != null) ? 1 : 0);
+    if(score == 0) {
+      return null;
+    }
+
+    Object[] startRow = null;
+    Object[] endRow = null;
+    if(rangeBounds != null) {
+      Object first = (rangeAscending ? rangeBounds._lower : rangeBounds._upper);
+      Object last = (rangeAscending ? rangeBounds._upper : rangeBounds._lower);
+      startRow = toPartialRow(index, IndexData.MIN_VALUE, eqValues, first);
+      endRow = toPartialRow(index, IndexData.MAX_VALUE, eqValues, last);
+    } else {
+      startRow = toPartialRow(index, IndexData.MIN_VALUE, eqValues, null);
+      endRow = toPartialRow(index, IndexData.MAX_VALUE, eqValues, null);
+    }
+
+    return new IndexRange(index, startRow, endRow, score);
+  }
+
+  private static Object[] toPartialRow(IndexImpl index, Object filler,
+                                       List<Object> eqValues, Object bound) {
+    List<Object> values = new ArrayList<Object>(eqValues);
+    if(bound != null) {
+      values.add(bound);
+    }
+    if(values.isEmpty()) {
+      return null;
+    }
+    return index.constructPartialIndexRowFromEntry(filler, values.toArray());
+  }
+
+  /**
+   * Collects the lower and upper bounds (in terms of index values) implied by
+   * the simple conditions of the filter expression for each column.
+   */
+  private Map<ColumnImpl,Bounds> getColumnBounds() {
+    Map<ColumnImpl,Bounds> colBounds = new LinkedHashMap<ColumnImpl,Bounds>();
+    for(ColumnCondition cond :
+          Expressionator.getColumnConditions(_expr, this)) {
+
+      Identifier identifier = cond.getIdentifier();
+      if(!isThisTable(identifier) ||
+         (identifier.getPropertyName() != null)) {
+        continue;
+      }
+      ColumnImpl col = null;
+      try {
+        col = _table.getColumn(identifier.getObjectName());
+      } catch(IllegalArgumentException e) {
+        // will be handled when the expression is evaluated
+        continue;
+      }
+
+      Bounds bounds = colBounds.get(col);
+      if(bounds == null) {
+        bounds = new Bounds();
+      }
+
+      boolean added = false;
+      try {
+        added = (col.getType().isTextual() ?
+                 addTextBounds(bounds, cond) :
+                 addOrderedBounds(bounds, col, cond));
+      } catch(RuntimeException e) {
+        // can't use this condition
+      }
+
+      if(added) {
+        colBounds.put(col, bounds);
+      }
+    }
+    return colBounds;
+  }
+
+  private boolean addTextBounds(Bounds bounds, ColumnCondition cond) {
+    if(bounds._lower != null) {
+      // only use the first condition for a text column
+      return false;
+    }
+
+    Value[] vals = cond.getValues();
+    String str = null;
+    switch(cond.getOp()) {
+    case EQ:
+      str = toIndexText(vals[0]);
+      if(str != null) {
+        bounds._lower = str;
+        bounds._upper = str;
+        return true;
+      }
+      return false;
+    case IN:
+      if(vals.length == 1) {
+        str = toIndexText(vals[0]);
+        if(str != null) {
+          bounds._lower = str;
+          bounds._upper = str;
+          return true;
+        }
+      }
+      return false;
+    case LIKE:
+      str = toIndexText(vals[0]);
+      if(str != null) {
+        char lastChar = str.charAt(str.length() - 1);
+        char nextChar = (char)(lastChar + 1);
+        if(isSimpleIndexChar(nextChar)) {
+          // the upper bound is the prefix with the last char "incremented"
+          bounds._lower = str;
+          bounds._upper = str.substring(0, str.length() - 1) + nextChar;
+          return true;
+        }
+      }
+      return false;
+    default:
+      // the index text ordering does not match the expression string
+      // ordering, so text ranges cannot be used
+      return false;
+    }
+  }
+
+  private boolean addOrderedBounds(Bounds bounds, ColumnImpl col,
+                                   ColumnCondition cond) {
+    Value[] vals = cond.getValues();
+    Object lower = null;
+    Object upper = null;
+
+    switch(cond.getOp()) {
+    case EQ:
+      lower = toIndexValue(col, vals[0], null);
+      upper = lower;
+      break;
+    case LT:
+    case LTE:
+      upper = toIndexValue(col, vals[0], RoundingMode.CEILING);
+      break;
+    case GT:
+    case GTE:
+      lower = toIndexValue(col, vals[0], RoundingMode.FLOOR);
+      break;
+    case BETWEEN:
+    case IN:
+      // the range covers all the given values
+      for(Value val : vals) {
+        RoundingMode lowerMode = ((cond.getOp() == ColumnCondition.Op.IN) ?
+                                  null : RoundingMode.FLOOR);
+        RoundingMode upperMode = ((cond.getOp() == ColumnCondition.Op.IN) ?
+                                  null : RoundingMode.CEILING);
+        Object valLower = toIndexValue(col, val, lowerMode);
+        Object valUpper = toIndexValue(col, val, upperMode);
+        if((valLower == null) || (valUpper == null)) {
+          return false;
+        }
+        if((lower == null) || (compare(valLower, lower) < 0)) {
+          lower = valLower;
+        }
+        if((upper == null) || (compare(valUpper, upper) > 0)) {
+          upper = valUpper;
+        }
+      }
+      break;
+    default:
+      return false;
+    }
+
+    if((lower == null) && (upper == null)) {
+      return false;
+    }
+    if(lower != null) {
+      bounds.addLower(lower);
+    }
+    if(upper != null) {
+      bounds.addUpper(upper);
+    }
+    return true;
+  }
+
+  /**
+   * Converts the given value to a value appropriate for the index entry of
+   * the given column, or {@code null} if the value cannot be used.  Values
+   * for integral columns are rounded to whole numbers using the given mode
+   * (if {@code null}, non-integral values cannot be used).
+   */
+  private Object toIndexValue(ColumnImpl col, Value val,
+                              RoundingMode roundingMode) {
+    DataType dType = col.getType();
+    if(dType == DataType.SHORT_DATE_TIME) {
+      return (val.getType().isTemporal() ?
+              val.getAsLocalDateTime(this) : null);
+    }
+
+    if(!val.getType().isNumeric()) {
+      return null;
+    }
+    BigDecimal bd = val.getAsBigDecimal(this);
+
+    switch(dType) {
+    case BYTE:
+      return toIntegralValue(bd, roundingMode, MIN_BYTE, MAX_BYTE);
+    case INT:
+      return toIntegralValue(bd, roundingMode, MIN_INT, MAX_INT);
+    case LONG:
+      return toIntegralValue(bd, roundingMode, MIN_LONG, MAX_LONG);
+    case BIG_INT:
+      return toIntegralValue(bd, roundingMode, MIN_BIG_INT, MAX_BIG_INT);
+    case DOUBLE:
+      return bd;
+    case MONEY:
+      return (((bd.scale() <= 4) && (bd.abs().compareTo(MAX_MONEY) < 0)) ?
+              bd : null);
+    case NUMERIC:
+      return (((bd.scale() <= col.getScale()) &&
+               ((bd.precision() - bd.scale()) <=
+                (col.getPrecision() - col.getScale()))) ?
+              bd : null);
+    default:
+      return null;
+    }
+  }
+
+  private static BigDecimal toIntegralValue(
+      BigDecimal bd, RoundingMode roundingMode, BigDecimal min,
+      BigDecimal max) {
+    if(roundingMode != null) {
+      bd = bd.setScale(0, roundingMode);
+    } else if(bd.stripTrailingZeros().scale() > 0) {
+      // non-integral value
+      return null;
+    } else {
+      bd = bd.setScale(0);
+    }
+    return (((bd.compareTo(min) >= 0) && (bd.compareTo(max) <= 0)) ?
+            bd : null);
+  }
+
+  private String toIndexText(Value val) {
+    if(!val.getType().isString()) {
+      return null;
+    }
+    String str = val.getAsString(this);
+    if(str.isEmpty()) {
+      return null;
+    }
+    for(int i = 0; i < str.length(); ++i) {
+      if(!isSimpleIndexChar(str.charAt(i))) {
+        return null;
+      }
+    }
+    return str;
+  }
+
+  /**
+   * Returns {@code true} if the given char is encoded in an index entry in
+   * a way which is consistent with expression string comparison (ascii
+   * letters and digits).
+   */
+  private static boolean isSimpleIndexChar(char c) {
+    return (((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) ||
+            ((c >= '0') && (c <= '9')));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object o1, Object o2) {
+    return ((Comparable<Object>)o1).compareTo(o2);
+  }
+
+  private boolean isThisTable(Identifier identifier) {
+    String collectionName = identifier.getCollectionName();
+    return ((collectionName == null) ||
+            collectionName.equalsIgnoreCase(_tableName));
+  }
+
+  @Override
+  protected String withErrorContext(String msg) {
+    return _table.withErrorContext(msg);
+  }
+
+  /**
+   * The lower and upper (inclusive) bounds for a column.
+   */
+  private static final class Bounds
+  {
+    private Object _lower;
+    private Object _upper;
+
+    private boolean isEq() {
+      return ((_lower != null) && (_upper != null) &&
+              (compare(_lower, _upper) == 0));
+    }
+
+    private void addLower(Object lower) {
+      if((_lower == null) || (compare(lower, _lower) > 0)) {
+        _lower = lower;
+      }
+    }
+
+    private void addUpper(Object upper) {
+      if((_upper == null) || (compare(upper, _upper) < 0)) {
+        _upper = upper;
+      }
+    }
+  }
+
+  /**
+   * An index and (inclusive) range of rows within that index.
+   */
+  public static final class IndexRange
+  {
+    private final IndexImpl _index;
+    private final Object[] _startRow;
+    private final Object[] _endRow;
+    private final int _score;
+
+    private IndexRange(IndexImpl index, Object[] startRow, Object[] endRow,
+                       int score) {
+      _index = index;
+      _startRow = startRow;
+      _endRow = endRow;
+      _score = score;
+    }
+
+    public IndexImpl getIndex() {
+      return _index;
+    }
+
+    /**
+     * Returns the first row of the range (inclusive), or {@code null} for the
+     * first entry
+     */
+    public Object[] getStartRow() {
+      return _startRow;
+    }
+
+    /**
+     * Returns the last row of the range (inclusive), or {@code null} for the
+     * last entry
+     */
+    public Object[] getEndRow() {
+      return _endRow;
+    }
+
+    @Override
+    public String toString() {
+      return _index.getName() + " [" + Arrays.toString(_startRow) +
+        ", " + Arrays.toString(_endRow) + "]";
+    }
+  }
+}
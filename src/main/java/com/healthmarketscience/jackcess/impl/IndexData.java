@@ -1212,49 +1212,60 @@ public class IndexData {
     int totalEntrySize = 0;
     byte[] entryPrefix = null;
     List<Entry> entries = new ArrayList<Entry>();
-    TempBufferHolder tmpEntryBufferH =
-      TempBufferHolder.newHolder(TempBufferHolder.Type.HARD, true,
-                                 ENTRY_BYTE_ORDER);
-
-    Entry prevEntry = FIRST_ENTRY;
-    for (int i = 0; i < entryMaskLength; i++) {
-      byte entryMask = buffer.get(entryMaskPos + i);
-      for (int j = 0; j < 8; j++) {
-        if ((entryMask & (1 << j)) != 0) {
-          int length = (i * 8) + j - lastStart;
-          buffer.position(entryPos + lastStart);
-
-          // determine if we can read straight from the index page (if no
-          // entryPrefix).  otherwise, create temp buf with complete entry.
-          ByteBuffer curEntryBuffer = buffer;
-          int curEntryLen = length;
-          if(entryPrefix != null) {
-            curEntryBuffer = getTempEntryBuffer(
-                buffer, length, entryPrefix, tmpEntryBufferH);
-            curEntryLen += entryPrefix.length;
-          }
-          totalEntrySize += curEntryLen;
-
-          Entry entry = newEntry(curEntryBuffer, curEntryLen, isLeaf);
-          if(prevEntry.compareTo(entry) >= 0) {
-            throw new IOException(withErrorContext(
-                    "Unexpected order in index entries, " +
-                    prevEntry + " >= " + entry));
-          }
+    // temp buffer used to combine prefix compressed entries (borrowed from
+    // the buffer pool when first needed)
+    PageBufferPool bufferPool = getPageChannel().getBufferPool();
+    ByteBuffer tmpEntryBuffer = null;
 
-          entries.add(entry);
-
-          if((entries.size() == 1) && (entryPrefixLength > 0)) {
-            // read any shared entry prefix
-            entryPrefix = new byte[entryPrefixLength];
+    try {
+      Entry prevEntry = FIRST_ENTRY;
+      for (int i = 0; i < entryMaskLength; i++) {
+        byte entryMask = buffer.get(entryMaskPos + i);
+        for (int j = 0; j < 8; j++) {
+          if ((entryMask & (1 << j)) != 0) {
+            int length = (i * 8) + j - lastStart;
             buffer.position(entryPos + lastStart);
-            buffer.get(entryPrefix);
-          }
 
-          lastStart += length;
-          prevEntry = entry;
+            // determine if we can read straight from the index page (if no
+            // entryPrefix).  otherwise, create temp buf with complete entry.
+            ByteBuffer curEntryBuffer = buffer;
+            int curEntryLen = length;
+            if(entryPrefix != null) {
+              if(tmpEntryBuffer == null) {
+                tmpEntryBuffer = bufferPool.getPageBuffer();
+                tmpEntryBuffer.order(ENTRY_BYTE_ORDER);
+              }
+              curEntryBuffer = getTempEntryBuffer(
+                  buffer, length, entryPrefix, tmpEntryBuffer);
+              curEntryLen += entryPrefix.length;
+            }
+            totalEntrySize += curEntryLen;
+
+            Entry entry = newEntry(curEntryBuffer, curEntryLen, isLeaf);
+            if(prevEntry.compareTo(entry) >= 0) {
+              throw new IOException(withErrorContext(
+                      "Unexpected order in index entries, " +
+                      prevEntry + " >= " + entry));
+            }
+
+            entries.add(entry);
+
+            if((entries.size() == 1) && (entryPrefixLength > 0)) {
+              // read any shared entry prefix
+              entryPrefix = new byte[entryPrefixLength];
+              buffer.position(entryPos + lastStart);
+              buffer.get(entryPrefix);
+            }
+
+            lastStart += length;
+            prevEntry = entry;
+          }
         }
       }
+    } finally {
+      if(tmpEntryBuffer != null) {
+        bufferPool.releasePageBuffer(tmpEntryBuffer);
+      }
     }
 
     dataPage.setEntryPrefix(entryPrefix != null ? entryPrefix : EMPTY_PREFIX);
@@ -1287,12 +1298,11 @@ public class IndexData {
    * Returns an entry buffer containing the relevant data for an entry given
    * the valuePrefix.
    */
-  private ByteBuffer getTempEntryBuffer(
+  private static ByteBuffer getTempEntryBuffer(
       ByteBuffer indexPage, int entryLen, byte[] valuePrefix,
-      TempBufferHolder tmpEntryBufferH)
+      ByteBuffer tmpEntryBuffer)
   {
-    ByteBuffer tmpEntryBuffer = tmpEntryBufferH.getBuffer(
-        getPageChannel(), valuePrefix.length + entryLen);
+    tmpEntryBuffer.clear();
 
     // combine valuePrefix and rest of entry from indexPage, then prep for
     // reading
@@ -1385,6 +1395,28 @@ public class IndexData {
     return _entryBuffer.toByteArray();
   }
 
+  /**
+   * Creates the entry bytes for the given values of the leading columns of
+   * this index (at most the number of index columns).  The entry bytes for
+   * two indexes with the same leading column types (and text sort order)
+   * can be compared using {@link #BYTE_CODE_COMPARATOR}, and always sort in
+   * the same order as the index entries.
+   * @usage _advanced_method_
+   */
+  public byte[] createPrefixEntryBytes(Object... values) throws IOException
+  {
+    if(values.length > _columns.size()) {
+      throw new IllegalArgumentException(withErrorContext(
+          "Too many column values given " + values.length +
+          ", expected at most " + _columns.size()));
+    }
+    ByteStream bout = new ByteStream();
+    for(int i = 0; i < values.length; ++i) {
+      _columns.get(i).writeValue(values[i], bout);
+    }
+    return bout.toByteArray();
+  }
+
   /**
    * Finds the data page for the given entry.
    */
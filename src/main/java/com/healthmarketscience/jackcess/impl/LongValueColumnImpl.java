@@ -16,7 +16,9 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Collection;
@@ -120,6 +122,11 @@ class LongValueColumnImpl extends ColumnImpl
                                      ByteOrder order)
     throws IOException
   {
+    if(obj instanceof RawLongValue) {
+      // already encoded for this column type, just needs to be stored
+      return writeLongValue(((RawLongValue)obj)._bytes, remainingRowLength);
+    }
+
     switch(getType()) {
     case OLE:
       // should already be "encoded"
@@ -136,6 +143,21 @@ class LongValueColumnImpl extends ColumnImpl
     return writeLongValue(toByteArray(obj), remainingRowLength);
   }
 
+  /**
+   * Reads the encoded contents of the long value referenced by the given
+   * column data (without any decoding, e.g. text is not converted to a
+   * String).  The result may be written as is to a column with the same type
+   * and format (in this or another database).
+   *
+   * @param lvalDefinition Column value that points to an LVAL record
+   * @return The LVAL data wrapped for writing, {@code null} if the column
+   *         data is empty
+   */
+  Object readRawLongValue(byte[] lvalDefinition) throws IOException {
+    return ((lvalDefinition.length > 0) ?
+            new RawLongValue(readLongValue(lvalDefinition)) : null);
+  }
+
   /**
    * @param lvalDefinition Column value that points to an LVAL record
    * @return The LVAL data
@@ -179,67 +201,131 @@ class LongValueColumnImpl extends ColumnImpl
 
       int rowNum = ByteUtil.getUnsignedByte(def);
       int pageNum = ByteUtil.get3ByteInt(def, def.position());
-      ByteBuffer lvalPage = getPageChannel().createPageBuffer();
-
-      switch (type) {
-      case LONG_VALUE_TYPE_OTHER_PAGE:
-        {
-          getPageChannel().readPage(lvalPage, pageNum);
-
-          short rowStart = TableImpl.findRowStart(lvalPage, rowNum, getFormat());
-          short rowEnd = TableImpl.findRowEnd(lvalPage, rowNum, getFormat());
-
-          int rowLen = rowEnd - rowStart;
-          if(rowLen < length) {
-            // warn the caller, but return whatever we can
-            LOG.warn(withErrorContext(
-                    "Value may be truncated: expected length " +
-                    length + " found " + rowLen));
-            rtn = new byte[rowLen];
+      PageBufferPool bufferPool = getPageChannel().getBufferPool();
+      ByteBuffer lvalPage = bufferPool.getPageBuffer();
+
+      try {
+        switch (type) {
+        case LONG_VALUE_TYPE_OTHER_PAGE:
+          {
+            getPageChannel().readPage(lvalPage, pageNum);
+
+            short rowStart = TableImpl.findRowStart(lvalPage, rowNum, getFormat());
+            short rowEnd = TableImpl.findRowEnd(lvalPage, rowNum, getFormat());
+
+            int rowLen = rowEnd - rowStart;
+            if(rowLen < length) {
+              // warn the caller, but return whatever we can
+              LOG.warn(withErrorContext(
+                      "Value may be truncated: expected length " +
+                      length + " found " + rowLen));
+              rtn = new byte[rowLen];
+            }
+
+            lvalPage.position(rowStart);
+            lvalPage.get(rtn);
+          }
+          break;
+
+        case LONG_VALUE_TYPE_OTHER_PAGES:
+
+          ByteBuffer rtnBuf = ByteBuffer.wrap(rtn);
+          int remainingLen = length;
+          while(remainingLen > 0) {
+            lvalPage.clear();
+            getPageChannel().readPage(lvalPage, pageNum);
+
+            short rowStart = TableImpl.findRowStart(lvalPage, rowNum, getFormat());
+            short rowEnd = TableImpl.findRowEnd(lvalPage, rowNum, getFormat());
+
+            // read next page information
+            lvalPage.position(rowStart);
+            rowNum = ByteUtil.getUnsignedByte(lvalPage);
+            pageNum = ByteUtil.get3ByteInt(lvalPage);
+
+            // update rowEnd and remainingLen based on chunkLength
+            int chunkLength = (rowEnd - rowStart) - 4;
+            if(chunkLength > remainingLen) {
+              rowEnd = (short)(rowEnd - (chunkLength - remainingLen));
+              chunkLength = remainingLen;
+            }
+            remainingLen -= chunkLength;
+
+            lvalPage.limit(rowEnd);
+            rtnBuf.put(lvalPage);
           }
 
-          lvalPage.position(rowStart);
-          lvalPage.get(rtn);
-        }
-        break;
+          break;
 
-      case LONG_VALUE_TYPE_OTHER_PAGES:
+        default:
+          throw new IOException(withErrorContext(
+                  "Unrecognized long value type: " + type));
+        }
+      } finally {
+        bufferPool.releasePageBuffer(lvalPage);
+      }
+    }
 
-        ByteBuffer rtnBuf = ByteBuffer.wrap(rtn);
-        int remainingLen = length;
-        while(remainingLen > 0) {
-          lvalPage.clear();
-          getPageChannel().readPage(lvalPage, pageNum);
+    return rtn;
+  }
 
-          short rowStart = TableImpl.findRowStart(lvalPage, rowNum, getFormat());
-          short rowEnd = TableImpl.findRowEnd(lvalPage, rowNum, getFormat());
+  /**
+   * Returns the length of the long value referenced by the given column data.
+   * @param lvalDefinition Column value that points to an LVAL record
+   */
+  int getLongValueLength(byte[] lvalDefinition) {
+    return (PageChannel.wrap(lvalDefinition).getInt() &
+            (~LONG_VALUE_TYPE_MASK));
+  }
 
-          // read next page information
-          lvalPage.position(rowStart);
-          rowNum = ByteUtil.getUnsignedByte(lvalPage);
-          pageNum = ByteUtil.get3ByteInt(lvalPage);
+  /**
+   * Returns a stream over the contents of the long value referenced by the
+   * given column data.  Long values which span multiple pages are read one
+   * page at a time as the stream is consumed (the stream must not be used
+   * after the database is closed or the row is modified).
+   * @param lvalDefinition Column value that points to an LVAL record
+   */
+  InputStream readLongValueStream(byte[] lvalDefinition)
+    throws IOException
+  {
+    ByteBuffer def = PageChannel.wrap(lvalDefinition);
+    int lengthWithFlags = def.getInt();
+    byte type = (byte)((lengthWithFlags & LONG_VALUE_TYPE_MASK) >>> 24);
 
-          // update rowEnd and remainingLen based on chunkLength
-          int chunkLength = (rowEnd - rowStart) - 4;
-          if(chunkLength > remainingLen) {
-            rowEnd = (short)(rowEnd - (chunkLength - remainingLen));
-            chunkLength = remainingLen;
-          }
-          remainingLen -= chunkLength;
+    if((type != LONG_VALUE_TYPE_OTHER_PAGES) ||
+       (lvalDefinition.length != getFormat().SIZE_LONG_VALUE_DEF)) {
+      // value is at most a page, just read it
+      return new ByteArrayInputStream(readLongValue(lvalDefinition));
+    }
 
-          lvalPage.limit(rowEnd);
-          rtnBuf.put(lvalPage);
-        }
+    int rowNum = ByteUtil.getUnsignedByte(def);
+    int pageNum = ByteUtil.get3ByteInt(def, def.position());
+    return new LongValueInputStream(
+        rowNum, pageNum, lengthWithFlags & (~LONG_VALUE_TYPE_MASK));
+  }
 
-        break;
+  /**
+   * Hints to the PageChannel that the first page of the given long value
+   * will be read soon (if the value is not stored inline).
+   * @param lvalDefinition Column value that points to an LVAL record
+   */
+  void prefetchLongValue(byte[] lvalDefinition)
+  {
+    if(lvalDefinition.length != getFormat().SIZE_LONG_VALUE_DEF) {
+      // inline (or invalid) long value, nothing to read
+      return;
+    }
 
-      default:
-        throw new IOException(withErrorContext(
-                "Unrecognized long value type: " + type));
-      }
+    ByteBuffer def = PageChannel.wrap(lvalDefinition);
+    int lengthWithFlags = def.getInt();
+    byte type = (byte)((lengthWithFlags & LONG_VALUE_TYPE_MASK) >>> 24);
+    if(type == LONG_VALUE_TYPE_THIS_PAGE) {
+      return;
     }
 
-    return rtn;
+    // skip row number
+    def.get();
+    getPageChannel().prefetchPage(ByteUtil.get3ByteInt(def));
   }
 
   /**
@@ -542,4 +628,113 @@ class LongValueColumnImpl extends ColumnImpl
       pages.add(_freeSpacePages.getTablePageNumber());
     }
   }
+
+  /**
+   * InputStream which reads the chunks of a long value stored on multiple
+   * pages one page at a time.
+   */
+  private final class LongValueInputStream extends InputStream
+  {
+    private final ByteBuffer _lvalPage = getPageChannel().createPageBuffer();
+    private int _rowNum;
+    private int _pageNum;
+    /** remaining length of the long value which has not been loaded */
+    private int _remainingLen;
+
+    private LongValueInputStream(int rowNum, int pageNum, int length) {
+      _rowNum = rowNum;
+      _pageNum = pageNum;
+      _remainingLen = length;
+      _lvalPage.limit(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+      if(!loadChunk()) {
+        return -1;
+      }
+      return ByteUtil.getUnsignedByte(_lvalPage);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if(len == 0) {
+        return 0;
+      }
+      if(!loadChunk()) {
+        return -1;
+      }
+      len = Math.min(len, _lvalPage.remaining());
+      _lvalPage.get(b, off, len);
+      return len;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = 0L;
+      while((skipped < n) && loadChunk()) {
+        int len = (int)Math.min(n - skipped, _lvalPage.remaining());
+        _lvalPage.position(_lvalPage.position() + len);
+        skipped += len;
+      }
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return _lvalPage.remaining();
+    }
+
+    /**
+     * Loads the next chunk of the long value if the current chunk has been
+     * consumed, returns {@code false} if there is no more data.
+     */
+    private boolean loadChunk() throws IOException {
+      if(_lvalPage.hasRemaining()) {
+        return true;
+      }
+      if(_remainingLen <= 0) {
+        return false;
+      }
+
+      _lvalPage.clear();
+      getPageChannel().readPage(_lvalPage, _pageNum);
+
+      short rowStart = TableImpl.findRowStart(_lvalPage, _rowNum, getFormat());
+      short rowEnd = TableImpl.findRowEnd(_lvalPage, _rowNum, getFormat());
+
+      // read next page information
+      _lvalPage.position(rowStart);
+      _rowNum = ByteUtil.getUnsignedByte(_lvalPage);
+      _pageNum = ByteUtil.get3ByteInt(_lvalPage);
+
+      // update rowEnd and remainingLen based on chunkLength
+      int chunkLength = (rowEnd - rowStart) - 4;
+      if(chunkLength <= 0) {
+        throw new IOException(withErrorContext(
+                "Invalid long value chunk length " + chunkLength));
+      }
+      if(chunkLength > _remainingLen) {
+        rowEnd = (short)(rowEnd - (chunkLength - _remainingLen));
+        chunkLength = _remainingLen;
+      }
+      _remainingLen -= chunkLength;
+
+      _lvalPage.limit(rowEnd);
+      return true;
+    }
+  }
+
+  /**
+   * Wrapper for the encoded contents of a long value read from another
+   * column (see {@link #readRawLongValue}).
+   */
+  private static final class RawLongValue
+  {
+    private final byte[] _bytes;
+
+    private RawLongValue(byte[] bytes) {
+      _bytes = bytes;
+    }
+  }
 }
@@ -18,7 +18,9 @@ package com.healthmarketscience.jackcess.impl;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -57,6 +59,17 @@ public class OleUtil
         ByteBuffer blobBb, int dataBlockLen);
   }
 
+  /**
+   * Source of the data for an OleBlob which is read from the database as
+   * needed (instead of being loaded into memory up front).
+   */
+  interface BlobSource
+  {
+    public int length();
+
+    public InputStream newStream() throws IOException;
+  }
+
   private static final int PACKAGE_SIGNATURE = 0x1C15;
   private static final Charset OLE_CHARSET = StandardCharsets.US_ASCII;
   private static final Charset OLE_UTF_CHARSET = StandardCharsets.UTF_16LE;
@@ -73,6 +86,9 @@ public class OleUtil
   private static final Set<ContentType> WRITEABLE_TYPES = EnumSet.of(
       ContentType.LINK, ContentType.SIMPLE_PACKAGE, ContentType.OTHER);
   private static final byte[] NO_DATA = new byte[0];
+  /** number of bytes initially read when parsing the headers of a streamed
+      blob (larger blobs are not loaded into memory) */
+  private static final int STREAM_HEADER_SIZE = 8 * 1024;
   private static final int LINK_HEADER = 0x01;
   private static final byte[] PACKAGE_FOOTER = {
     0x01, 0x05, 0x00, 0x00, 0x00, 0x00,
@@ -105,6 +121,47 @@ public class OleUtil
     return new OleBlobImpl(bytes);
   }
 
+  /**
+   * Parses the access database blob structure in the given ole column of the
+   * current row of the given cursor and returns an appropriate OleBlob
+   * instance (or {@code null} if the column value is {@code null}).  Large
+   * blob data is not loaded into memory, but is read directly from the
+   * database as needed.  Thus, the returned blob is only valid until the
+   * current row is modified or the database is closed.
+   */
+  public static OleBlob parseBlob(CursorImpl cursor, ColumnImpl column)
+    throws IOException
+  {
+    if(!(column instanceof LongValueColumnImpl) ||
+       (column.getType() != DataType.OLE)) {
+      throw new IllegalArgumentException(
+          "Column " + column.getName() + " is not an ole column");
+    }
+
+    final LongValueColumnImpl lvalCol = (LongValueColumnImpl)column;
+    final byte[] lvalDef = cursor.getCurrentRawRowValue(column);
+    if((lvalDef == null) || (lvalDef.length == 0)) {
+      return null;
+    }
+
+    final int length = lvalCol.getLongValueLength(lvalDef);
+    if(length <= STREAM_HEADER_SIZE) {
+      // not worth streaming
+      return parseBlob(lvalCol.readLongValue(lvalDef));
+    }
+
+    return new OleBlobImpl(new BlobSource() {
+        @Override
+        public int length() {
+          return length;
+        }
+        @Override
+        public InputStream newStream() throws IOException {
+          return lvalCol.readLongValueStream(lvalDef);
+        }
+      });
+  }
+
   /**
    * Creates a new OlBlob instance using the given information.
    */
@@ -292,13 +349,31 @@ public class OleUtil
   private static ContentImpl parseContent(OleBlobImpl blob)
     throws IOException
   {
-    ByteBuffer bb = PageChannel.wrap(blob.getBytes());
+    ContentImpl content = parseContent(blob, blob.getHeaderBuffer());
+    if(content == null) {
+      // the headers extend beyond the initially loaded bytes, just load the
+      // whole blob and try again
+      content = parseContent(blob, PageChannel.wrap(blob.getBytes()));
+    }
+    return content;
+  }
 
+  /**
+   * creates the appropriate ContentImpl for the given blob using the given
+   * header buffer.  Returns {@code null} if the buffer is partial (see
+   * {@link OleBlobImpl#isPartial}) and does not contain all the headers.
+   */
+  private static ContentImpl parseContent(OleBlobImpl blob, ByteBuffer bb)
+    throws IOException
+  {
     if((bb.remaining() < 2) || (bb.getShort() != PACKAGE_SIGNATURE)) {
       return new UnknownContentImpl(blob);
     }
 
     // read outer package header
+    if(blob.isTruncated(bb, bb.position() + 18)) {
+      return null;
+    }
     int headerSize = bb.getShort();
     /* int objType = */ bb.getInt();
     int prettyNameLen = bb.getShort();
@@ -306,6 +381,11 @@ public class OleUtil
     int prettyNameOff = bb.getShort();
     int classNameOff = bb.getShort();
     /* int objSize = */ bb.getInt();
+    if(blob.isTruncated(bb, prettyNameOff + prettyNameLen) ||
+       blob.isTruncated(bb, classNameOff + classNameLen) ||
+       blob.isTruncated(bb, headerSize + 12)) {
+      return null;
+    }
     String prettyName = readStr(bb, prettyNameOff, prettyNameLen);
     String className = readStr(bb, classNameOff, classNameLen);
     bb.position(headerSize);
@@ -319,12 +399,17 @@ public class OleUtil
     }
 
     int typeNameLen = bb.getInt();
+    // need the type name, the rest of the ole header and enough of the data
+    // block to determine the content type
+    if(blob.isTruncated(bb, bb.position() + typeNameLen + 12 +
+                        COMPOUND_STORAGE_SIGNATURE.length)) {
+      return null;
+    }
     String typeName = readStr(bb, bb.position(), typeNameLen);
     bb.getLong(); // unused
     int dataBlockLen = bb.getInt();
     int dataBlockPos = bb.position();
 
-
     if(SIMPLE_PACKAGE_TYPE.equalsIgnoreCase(typeName)) {
       return createSimplePackageContent(
           blob, prettyName, className, typeName, bb, dataBlockLen);
@@ -347,11 +432,15 @@ public class OleUtil
 
   private static ContentImpl createSimplePackageContent(
       OleBlobImpl blob, String prettyName, String className, String typeName,
-      ByteBuffer blobBb, int dataBlockLen) {
-
+      ByteBuffer blobBb, int dataBlockLen)
+    throws IOException
+  {
     int dataBlockPos = blobBb.position();
-    ByteBuffer bb = PageChannel.narrowBuffer(blobBb, dataBlockPos,
-                                             dataBlockPos + dataBlockLen);
+    int dataBlockEnd = dataBlockPos + dataBlockLen;
+    ByteBuffer bb = PageChannel.narrowBuffer(
+        blobBb, dataBlockPos, (blob.isPartial(blobBb) ?
+                               Math.min(dataBlockEnd, blobBb.limit()) :
+                               dataBlockEnd));
 
     int packageSig = bb.getShort();
     if(packageSig != PACKAGE_STREAM_SIGNATURE) {
@@ -359,17 +448,30 @@ public class OleUtil
                                   typeName, dataBlockPos, dataBlockLen);
     }
 
+    if(blob.isTruncated(bb, findZeroTermStrEnd(bb))) {
+      return null;
+    }
     String fileName = readZeroTermStr(bb);
+    if(blob.isTruncated(bb, findZeroTermStrEnd(bb) + 4)) {
+      return null;
+    }
     String filePath = readZeroTermStr(bb);
     int packageType = bb.getInt();
 
     if(packageType == PS_EMBEDDED_FILE) {
 
+      if(blob.isTruncated(bb, bb.position() + 4)) {
+        return null;
+      }
       int localFilePathLen = bb.getInt();
+      if(blob.isTruncated(bb, bb.position() + localFilePathLen + 4)) {
+        return null;
+      }
       String localFilePath = readStr(bb, bb.position(), localFilePathLen);
       int dataLen = bb.getInt();
       int dataPos = bb.position();
-      bb.position(dataLen + dataPos);
+      bb = blob.getSection(bb, dataPos + dataLen,
+                           dataBlockEnd - (dataPos + dataLen));
 
       // remaining strings are in "reverse" order (local file path, file name,
       // file path).  these string usee a real utf charset, and therefore can
@@ -410,7 +512,13 @@ public class OleUtil
 
     if(packageType == PS_LINKED_FILE) {
 
+      if(blob.isTruncated(bb, bb.position() + 2)) {
+        return null;
+      }
       bb.getShort(); //unknown
+      if(blob.isTruncated(bb, findZeroTermStrEnd(bb))) {
+        return null;
+      }
       String linkStr = readZeroTermStr(bb);
 
       return new LinkContentImpl(blob, prettyName, className, typeName,
@@ -425,6 +533,20 @@ public class OleUtil
     return readStr(bb, off, len, OLE_CHARSET);
   }
 
+  /**
+   * Returns the position following the zero terminated string at the current
+   * position of the given buffer (if the buffer does not contain the
+   * terminator, returns the position following the limit).
+   */
+  private static int findZeroTermStrEnd(ByteBuffer bb) {
+    for(int pos = bb.position(); pos < bb.limit(); ++pos) {
+      if(bb.get(pos) == 0) {
+        return pos + 1;
+      }
+    }
+    return bb.limit() + 1;
+  }
+
   private static String readZeroTermStr(ByteBuffer bb) {
     int off = bb.position();
     while(bb.hasRemaining()) {
@@ -466,15 +588,34 @@ public class OleUtil
   static final class OleBlobImpl implements OleBlob, ColumnImpl.InMemoryBlob
   {
     private byte[] _bytes;
+    /** source of the blob data if it has not (yet) been loaded */
+    private BlobSource _source;
     private ContentImpl _content;
 
     private OleBlobImpl(byte[] bytes) {
       _bytes = bytes;
     }
 
+    private OleBlobImpl(BlobSource source) {
+      _source = source;
+    }
+
+    private boolean isStreamed() {
+      return ((_bytes == null) && (_source != null));
+    }
+
     @Override
     public void writeTo(OutputStream out) throws IOException {
-      out.write(_bytes);
+      if(isStreamed()) {
+        InputStream in = _source.newStream();
+        try {
+          ByteUtil.copy(in, out);
+        } finally {
+          ByteUtil.closeQuietly(in);
+        }
+        return;
+      }
+      out.write(getBytes());
     }
 
     @Override
@@ -486,37 +627,66 @@ public class OleUtil
     }
 
     @Override
-    public InputStream getBinaryStream() {
+    public InputStream getBinaryStream() throws SQLException {
+      if(isStreamed()) {
+        try {
+          return _source.newStream();
+        } catch(IOException e) {
+          throw new SQLException(e);
+        }
+      }
       return new ByteArrayInputStream(_bytes);
     }
 
     @Override
     public InputStream getBinaryStream(long pos, long len)
+      throws SQLException
     {
-      return new ByteArrayInputStream(_bytes, fromJdbcOffset(pos), (int)len);
+      try {
+        return getSectionStream(fromJdbcOffset(pos), (int)len);
+      } catch(IOException e) {
+        throw new SQLException(e);
+      }
     }
 
     @Override
     public long length() {
-      return _bytes.length;
+      return (isStreamed() ? _source.length() : _bytes.length);
     }
 
     @Override
     public byte[] getBytes() throws IOException {
       if(_bytes == null) {
-        throw new IOException("blob is closed");
+        if(_source == null) {
+          throw new IOException("blob is closed");
+        }
+        // load the entire blob
+        _bytes = readSection(0, _source.length());
       }
       return _bytes;
     }
 
     @Override
-    public byte[] getBytes(long pos, int len) {
+    public byte[] getBytes(long pos, int len) throws SQLException {
+      if(isStreamed()) {
+        try {
+          return readSection(fromJdbcOffset(pos), len);
+        } catch(IOException e) {
+          throw new SQLException(e);
+        }
+      }
       return ByteUtil.copyOf(_bytes, fromJdbcOffset(pos), len);
     }
 
     @Override
-    public long position(byte[] pattern, long start) {
-      int pos = ByteUtil.findRange(PageChannel.wrap(_bytes),
+    public long position(byte[] pattern, long start) throws SQLException {
+      byte[] bytes = null;
+      try {
+        bytes = getBytes();
+      } catch(IOException e) {
+        throw new SQLException(e);
+      }
+      int pos = ByteUtil.findRange(PageChannel.wrap(bytes),
                                    fromJdbcOffset(start), pattern);
       return((pos >= 0) ? toJdbcOffset(pos) : pos);
     }
@@ -555,10 +725,86 @@ public class OleUtil
     @Override
     public void close() {
       _bytes = null;
+      _source = null;
       ByteUtil.closeQuietly(_content);
       _content = null;
     }
 
+    /**
+     * Returns a buffer containing the initial bytes of the blob (enough to
+     * parse the blob headers).  If the blob is streamed, this may not be the
+     * entire blob (see {@link #isPartial}).
+     */
+    private ByteBuffer getHeaderBuffer() throws IOException {
+      if(isStreamed()) {
+        return PageChannel.wrap(readSection(
+            0, Math.min(_source.length(), STREAM_HEADER_SIZE)));
+      }
+      return PageChannel.wrap(getBytes());
+    }
+
+    /**
+     * Returns {@code true} if the given buffer returned from {@link
+     * #getHeaderBuffer} does not contain the entire blob.
+     */
+    private boolean isPartial(ByteBuffer bb) {
+      return (bb.capacity() < length());
+    }
+
+    /**
+     * Returns {@code true} if the given buffer returned from {@link
+     * #getHeaderBuffer} is partial and does not contain the bytes up to the
+     * given (exclusive) end position.
+     */
+    private boolean isTruncated(ByteBuffer bb, int endPos) {
+      return (isPartial(bb) && (endPos > bb.capacity()));
+    }
+
+    /**
+     * Returns a buffer positioned at the given section of the blob (if the
+     * given buffer is partial, the section is read into a new buffer starting
+     * at 0).
+     */
+    private ByteBuffer getSection(ByteBuffer bb, int pos, int len)
+      throws IOException
+    {
+      if(!isPartial(bb)) {
+        bb.position(pos);
+        return bb;
+      }
+      if((len < 0) || ((pos + len) > length())) {
+        throw new IllegalArgumentException(
+            "Invalid blob section " + pos + ", " + len);
+      }
+      return PageChannel.wrap(readSection(pos, len));
+    }
+
+    private InputStream getSectionStream(int pos, int len)
+      throws IOException
+    {
+      if(isStreamed()) {
+        DataInputStream in = new DataInputStream(_source.newStream());
+        ByteUtil.skipFully(in, pos);
+        return new SectionInputStream(in, len);
+      }
+      return new ByteArrayInputStream(getBytes(), pos, len);
+    }
+
+    private byte[] readSection(int pos, int len) throws IOException {
+      if(!isStreamed()) {
+        return ByteUtil.copyOf(getBytes(), pos, len);
+      }
+      byte[] bytes = new byte[len];
+      DataInputStream in = new DataInputStream(_source.newStream());
+      try {
+        ByteUtil.skipFully(in, pos);
+        in.readFully(bytes);
+      } finally {
+        ByteUtil.closeQuietly(in);
+      }
+      return bytes;
+    }
+
     private static int toJdbcOffset(int off) {
       return off + 1;
     }
@@ -628,11 +874,20 @@ public class OleUtil
 
     @Override
     public InputStream getStream() throws IOException {
-      return new ByteArrayInputStream(getBytes(), _position, _length);
+      return getBlob().getSectionStream(_position, _length);
     }
 
     @Override
     public void writeTo(OutputStream out) throws IOException {
+      if(getBlob().isStreamed()) {
+        InputStream in = getStream();
+        try {
+          ByteUtil.copy(in, out);
+        } finally {
+          ByteUtil.closeQuietly(in);
+        }
+        return;
+      }
       out.write(getBytes(), _position, _length);
     }
 
@@ -640,7 +895,12 @@ public class OleUtil
     protected ToStringBuilder toString(ToStringBuilder sb) {
       super.toString(sb);
       if(_position >= 0) {
-        sb.append("content", ByteBuffer.wrap(_blob._bytes, _position, _length));
+        if(_blob._bytes != null) {
+          sb.append("content",
+                    ByteBuffer.wrap(_blob._bytes, _position, _length));
+        } else {
+          sb.append("contentLength", _length);
+        }
       }
       return sb;
     }
@@ -816,6 +1076,63 @@ public class OleUtil
     }
   }
 
+  /**
+   * Stream which reads a limited number of bytes from the wrapped stream.
+   */
+  private static final class SectionInputStream extends FilterInputStream
+  {
+    private int _remaining;
+
+    private SectionInputStream(InputStream in, int length) {
+      super(in);
+      _remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if(_remaining <= 0) {
+        return -1;
+      }
+      int b = super.read();
+      if(b >= 0) {
+        --_remaining;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if(len == 0) {
+        return 0;
+      }
+      if(_remaining <= 0) {
+        return -1;
+      }
+      int numBytes = super.read(b, off, Math.min(len, _remaining));
+      if(numBytes > 0) {
+        _remaining -= numBytes;
+      }
+      return numBytes;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(Math.min(n, _remaining));
+      _remaining -= (int)skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return Math.min(super.available(), _remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
   private static final class UnknownContentImpl extends ContentImpl
   {
     private UnknownContentImpl(OleBlobImpl blob) {
@@ -0,0 +1,181 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of reusable buffers for short-lived page reads.  Page buffers are
+ * always heap buffers (the page handling code requires access to the backing
+ * array), but "raw" I/O buffers (which are only used to read data from the
+ * database file before it is copied elsewhere) may optionally be direct
+ * buffers.
+ * <p>
+ * Buffers obtained from this pool must be returned when no longer needed
+ * (and must not be used after being returned).  The pool only retains a
+ * limited number of free buffers, so failing to return a buffer is not a
+ * leak, merely a missed reuse.  Like the PageChannel, this class is
+ * <i>not</i> thread-safe.
+ *
+ * @author James Ahlborn
+ * @usage _advanced_class_
+ */
+public final class PageBufferPool
+{
+  /** the max number of free buffers of each size which will be retained */
+  private static final int MAX_FREE_BUFFERS = 16;
+
+  private final int _pageSize;
+  /** free page buffers */
+  private final Deque<ByteBuffer> _freePageBuffers =
+    new ArrayDeque<ByteBuffer>();
+  /** free I/O buffers, by capacity */
+  private final Map<Integer,Deque<ByteBuffer>> _freeIoBuffers =
+    new HashMap<Integer,Deque<ByteBuffer>>();
+  /** whether or not I/O buffers should be direct buffers */
+  private boolean _directIoBuffers;
+  /** the number of buffers allocated by this pool */
+  private long _allocatedCount;
+  /** the number of buffer requests satisfied by reusing a buffer */
+  private long _reusedCount;
+
+  PageBufferPool(int pageSize) {
+    _pageSize = pageSize;
+  }
+
+  public int getPageSize() {
+    return _pageSize;
+  }
+
+  /**
+   * Returns {@code true} if I/O buffers are allocated as direct buffers,
+   * {@code false} otherwise (the default).
+   */
+  public boolean isDirectIoBuffers() {
+    return _directIoBuffers;
+  }
+
+  /**
+   * Sets whether or not I/O buffers should be allocated as direct buffers
+   * (which may be more efficient for large reads).
+   */
+  public void setDirectIoBuffers(boolean directIoBuffers) {
+    if(directIoBuffers != _directIoBuffers) {
+      _directIoBuffers = directIoBuffers;
+      _freeIoBuffers.clear();
+    }
+  }
+
+  /**
+   * Returns the number of buffers which have been allocated by this pool.
+   */
+  public long getAllocatedCount() {
+    return _allocatedCount;
+  }
+
+  /**
+   * Returns the number of buffer requests which have been satisfied by
+   * reusing a previously returned buffer.
+   */
+  public long getReusedCount() {
+    return _reusedCount;
+  }
+
+  /**
+   * Resets the allocation counters.
+   */
+  public void resetCounts() {
+    _allocatedCount = 0L;
+    _reusedCount = 0L;
+  }
+
+  /**
+   * Returns a cleared, page sized heap buffer with the default byte order
+   * which should be returned using {@link #releasePageBuffer} when no longer
+   * needed.
+   */
+  public ByteBuffer getPageBuffer() {
+    ByteBuffer buffer = _freePageBuffers.poll();
+    if(buffer == null) {
+      ++_allocatedCount;
+      return PageChannel.createBuffer(_pageSize);
+    }
+    ++_reusedCount;
+    buffer.clear();
+    return buffer.order(PageChannel.DEFAULT_BYTE_ORDER);
+  }
+
+  /**
+   * Returns a buffer previously obtained from {@link #getPageBuffer} to the
+   * pool.
+   */
+  public void releasePageBuffer(ByteBuffer buffer) {
+    if(_freePageBuffers.size() < MAX_FREE_BUFFERS) {
+      _freePageBuffers.push(buffer);
+    }
+  }
+
+  /**
+   * Returns a cleared I/O buffer with the given capacity (which will be a
+   * direct buffer if so configured) which should be returned using {@link
+   * #releaseIoBuffer} when no longer needed.  Note, I/O buffers may not
+   * have an accessible backing array.
+   */
+  public ByteBuffer getIoBuffer(int capacity) {
+    Deque<ByteBuffer> freeBuffers = _freeIoBuffers.get(capacity);
+    ByteBuffer buffer = ((freeBuffers != null) ? freeBuffers.poll() : null);
+    if(buffer == null) {
+      ++_allocatedCount;
+      return (_directIoBuffers ? ByteBuffer.allocateDirect(capacity) :
+              ByteBuffer.allocate(capacity));
+    }
+    ++_reusedCount;
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Returns a buffer previously obtained from {@link #getIoBuffer} to the
+   * pool.
+   */
+  public void releaseIoBuffer(ByteBuffer buffer) {
+    if(buffer.isDirect() != _directIoBuffers) {
+      // config changed since this buffer was allocated
+      return;
+    }
+    Deque<ByteBuffer> freeBuffers = _freeIoBuffers.get(buffer.capacity());
+    if(freeBuffers == null) {
+      freeBuffers = new ArrayDeque<ByteBuffer>();
+      _freeIoBuffers.put(buffer.capacity(), freeBuffers);
+    }
+    if(freeBuffers.size() < MAX_FREE_BUFFERS) {
+      freeBuffers.push(buffer);
+    }
+  }
+
+  /**
+   * Discards all free buffers.
+   */
+  public void clear() {
+    _freePageBuffers.clear();
+    _freeIoBuffers.clear();
+  }
+}
@@ -22,6 +22,10 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.Channel;
 import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 
 /**
@@ -68,6 +72,16 @@ public class PageChannel implements Channel, Flushable {
   private TempPageHolder _fullPageEncodeBufferH;
   private TempBufferHolder _tempDecodeBufferH;
   private int _writeCount;
+  /** optional handler for asynchronous page reads, {@code null} if
+      read-ahead is disabled */
+  private PagePrefetcher _prefetcher;
+  /** pool of reusable buffers for short-lived page reads */
+  private final PageBufferPool _bufferPool;
+  /** updates which should be written on the next flush */
+  private final Set<Flushable> _deferredUpdates =
+    new LinkedHashSet<Flushable>();
+  /** optional rollback journal, {@code null} if journaling is disabled */
+  private PageJournal _journal;
 
   /**
    * Only used by unit tests
@@ -80,6 +94,7 @@ public class PageChannel implements Channel, Flushable {
     _closeChannel = false;
     _format = JetFormat.VERSION_4;
     _autoSync = false;
+    _bufferPool = new PageBufferPool(_format.PAGE_SIZE);
   }
 
   /**
@@ -93,6 +108,7 @@ public class PageChannel implements Channel, Flushable {
     _closeChannel = closeChannel;
     _format = format;
     _autoSync = autoSync;
+    _bufferPool = new PageBufferPool(format.PAGE_SIZE);
   }
 
   /**
@@ -126,6 +142,99 @@ public class PageChannel implements Channel, Flushable {
     return _autoSync;
   }
 
+  /**
+   * Returns the pool of reusable buffers for short-lived page reads.
+   * @usage _advanced_method_
+   */
+  public PageBufferPool getBufferPool() {
+    return _bufferPool;
+  }
+
+  /**
+   * Returns {@code true} if modified pages are journaled by this channel,
+   * {@code false} otherwise.
+   */
+  public boolean isJournaling() {
+    return (_journal != null);
+  }
+
+  /**
+   * Returns {@code true} if the underlying channel is owned (and will be
+   * closed) by this PageChannel, {@code false} if it was provided by the
+   * caller.
+   */
+  boolean isOwnedChannel() {
+    return _closeChannel;
+  }
+
+  /**
+   * Enables journaling of modified pages for the given database file (see
+   * {@link PageJournal}).  Must be called before any pages are written.
+   */
+  void enableJournal(Path dbFile) {
+    _journal = new PageJournal(dbFile, _channel, getFormat().PAGE_SIZE);
+  }
+
+  /**
+   * Returns the max number of pages which may be read ahead asynchronously
+   * by this channel, {@code 0} if read-ahead is disabled.
+   */
+  public int getReadAheadPages() {
+    return ((_prefetcher != null) ? _prefetcher.getMaxPages() : 0);
+  }
+
+  /**
+   * Sets the max number of pages which may be read ahead asynchronously by
+   * this channel.  A value of {@code 0} disables read-ahead (the default).
+   * When enabled, callers may use {@link #prefetchPage} to indicate pages
+   * which will most likely be read in the near future.
+   */
+  public void setReadAheadPages(int numPages) {
+    if(numPages < 0) {
+      throw new IllegalArgumentException(
+          "Invalid read-ahead page count " + numPages);
+    }
+    if(numPages == getReadAheadPages()) {
+      return;
+    }
+    if(_prefetcher != null) {
+      _prefetcher.close();
+      _prefetcher = null;
+    }
+    if(numPages > 0) {
+      _prefetcher = new PagePrefetcher(_channel, _bufferPool, numPages);
+    }
+  }
+
+  /**
+   * Returns {@code true} if read-ahead is enabled for this channel, {@code
+   * false} otherwise.
+   */
+  public boolean isReadAheadEnabled() {
+    return (_prefetcher != null);
+  }
+
+  /**
+   * Hints that the given page will most likely be read in the near future.
+   * If read-ahead is enabled, an asynchronous read of the page will be
+   * issued, otherwise this method does nothing.
+   */
+  public void prefetchPage(int pageNumber) {
+    prefetchPages(pageNumber, 1);
+  }
+
+  /**
+   * Hints that the given run of contiguous pages will most likely be read in
+   * the near future.  If read-ahead is enabled, asynchronous reads of the
+   * pages will be issued (using as few large reads as possible), otherwise
+   * this method does nothing.
+   */
+  public void prefetchPages(int firstPageNumber, int numPages) {
+    if((_prefetcher != null) && (firstPageNumber > 0)) {
+      _prefetcher.prefetchPages(firstPageNumber, numPages);
+    }
+  }
+
   /**
    * Begins a "logical" write operation.  See {@link #finishWrite} for more
    * details.
@@ -161,6 +270,53 @@ public class PageChannel implements Channel, Flushable {
     }
   }
 
+  /**
+   * Adds an update which will be written the next time this channel is
+   * flushed (the update will be invoked within a logical write operation).
+   * Adding the same update multiple times before a flush has no additional
+   * effect.
+   */
+  public void addDeferredUpdate(Flushable update) {
+    _deferredUpdates.add(update);
+  }
+
+  /**
+   * Removes a previously added deferred update.
+   * @return {@code true} if the update was pending, {@code false} otherwise
+   */
+  public boolean removeDeferredUpdate(Flushable update) {
+    return _deferredUpdates.remove(update);
+  }
+
+  /**
+   * Writes any pending deferred updates.
+   */
+  private void writeDeferredUpdates() throws IOException {
+    if(_deferredUpdates.isEmpty()) {
+      return;
+    }
+
+    // note, we don't use finishWrite here because we are most likely already
+    // in the middle of a flush
+    startWrite();
+    try {
+      while(!_deferredUpdates.isEmpty()) {
+        Iterator<Flushable> iter = _deferredUpdates.iterator();
+        Flushable update = iter.next();
+        iter.remove();
+        try {
+          update.flush();
+        } catch(IOException | RuntimeException e) {
+          // keep the update so that the next flush tries again
+          _deferredUpdates.add(update);
+          throw e;
+        }
+      }
+    } finally {
+      --_writeCount;
+    }
+  }
+
   /**
    * Returns {@code true} if a logical write operation is in progress, {@code
    * false} otherwise.
@@ -226,8 +382,11 @@ public class PageChannel implements Channel, Flushable {
     }
 
     inPage.clear();
-    int bytesRead = _channel.read(
-        inPage, (long) pageNumber * (long) getFormat().PAGE_SIZE);
+    int bytesRead = getFormat().PAGE_SIZE;
+    if((_prefetcher == null) || !_prefetcher.readPage(inPage, pageNumber)) {
+      bytesRead = _channel.read(
+          inPage, (long) pageNumber * (long) getFormat().PAGE_SIZE);
+    }
     inPage.flip();
     if(bytesRead != getFormat().PAGE_SIZE) {
       throw new IOException("Failed attempting to read " +
@@ -280,6 +439,10 @@ public class PageChannel implements Channel, Flushable {
   {
     assertWriting();
     validatePageNumber(pageNumber);
+    invalidatePrefetchedPage(pageNumber);
+    if(_journal != null) {
+      _journal.beforeWrite(pageNumber);
+    }
 
     page.rewind().position(pageOffset);
 
@@ -364,9 +527,14 @@ public class PageChannel implements Channel, Flushable {
     long offset = size + pageOffset;
     int pageNumber = getNextPageNumber(size);
 
+    if(_journal != null) {
+      _journal.beforeExtend();
+    }
+
     // since we are just allocating page space at this point and not writing
     // meaningful data, we do _not_ encode the page.
     _channel.write(_forceBytes, offset);
+    invalidatePrefetchedPage(pageNumber);
 
     _globalUsageMap.removePageNumber(pageNumber);
     return pageNumber;
@@ -379,6 +547,10 @@ public class PageChannel implements Channel, Flushable {
     assertWriting();
 
     validatePageNumber(pageNumber);
+    invalidatePrefetchedPage(pageNumber);
+    if(_journal != null) {
+      _journal.beforeWrite(pageNumber);
+    }
 
     // don't write the whole page, just wipe out the header (which should be
     // enough to let us know if we accidentally try to use an invalid page)
@@ -388,6 +560,16 @@ public class PageChannel implements Channel, Flushable {
     _globalUsageMap.addPageNumber(pageNumber);  //force is done here
   }
 
+  /**
+   * Discards any read-ahead data for the given page (which is about to be
+   * modified).
+   */
+  private void invalidatePrefetchedPage(int pageNumber) {
+    if(_prefetcher != null) {
+      _prefetcher.invalidate(pageNumber);
+    }
+  }
+
   /**
    * @return A newly-allocated buffer that can be passed to readPage
    */
@@ -412,12 +594,26 @@ public class PageChannel implements Channel, Flushable {
 
   @Override
   public void flush() throws IOException {
+    writeDeferredUpdates();
     _channel.force(true);
+    if(_journal != null) {
+      // all changes are now safely on disk
+      _journal.commit();
+    }
   }
 
   @Override
   public void close() throws IOException {
+    if(_prefetcher != null) {
+      _prefetcher.close();
+      _prefetcher = null;
+    }
+    _bufferPool.clear();
     flush();
+    if(_journal != null) {
+      _journal.close();
+      _journal = null;
+    }
     if(_closeChannel) {
       _channel.close();
     }
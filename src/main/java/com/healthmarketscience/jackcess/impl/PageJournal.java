@@ -0,0 +1,329 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Rollback journal which records the original contents of every page which
+ * is modified in a database file between two flushes.  The journal is kept
+ * in a "sidecar" file next to the database file (the database file name
+ * plus {@value #JOURNAL_SUFFIX}).
+ * <p>
+ * The original contents of a page are synced to the journal before the page
+ * is first modified, and the journal is discarded once the database file has
+ * been synced (see {@link #commit}).  If the database is not closed cleanly,
+ * the journal will be left behind, and the next time the database is opened
+ * (for writing) the database file will be rolled back to the state of the
+ * last successful flush (see {@link #recover}).  This allows the database
+ * to be used with auto-sync disabled without risking an inconsistent file.
+ * <p>
+ * Like the PageChannel, this class is <i>not</i> thread-safe.
+ *
+ * @author James Ahlborn
+ */
+class PageJournal implements Closeable
+{
+  private static final Log LOG = LogFactory.getLog(PageJournal.class);
+
+  /** suffix appended to the database file name to get the journal file
+      name */
+  static final String JOURNAL_SUFFIX = "-journal";
+
+  private static final byte[] MAGIC =
+    "JACKJRNL".getBytes(StandardCharsets.US_ASCII);
+  /** magic, page size, original database size, header checksum */
+  private static final int HEADER_SIZE = MAGIC.length + 4 + 8 + 4;
+  /** page number, page checksum */
+  private static final int ENTRY_HEADER_SIZE = 4 + 4;
+
+  private final Path _path;
+  private final FileChannel _dbChannel;
+  private final int _pageSize;
+  /** journal file channel, opened on first use */
+  private FileChannel _channel;
+  /** the size of the database file at the start of the current batch of
+      changes, {@code -1} if there are no outstanding changes */
+  private long _origDbSize = -1L;
+  /** the current end of the journal */
+  private long _journalSize;
+  /** the pages which have already been journaled in the current batch */
+  private final BitSet _journaledPages = new BitSet();
+  /** buffer used to write journal entries */
+  private final ByteBuffer _entryBuffer;
+  private final CRC32 _crc = new CRC32();
+
+  PageJournal(Path dbFile, FileChannel dbChannel, int pageSize) {
+    _path = getJournalPath(dbFile);
+    _dbChannel = dbChannel;
+    _pageSize = pageSize;
+    _entryBuffer = PageChannel.createBuffer(
+        Math.max(HEADER_SIZE, ENTRY_HEADER_SIZE + pageSize));
+  }
+
+  /**
+   * Returns the path of the journal for the given database file.
+   */
+  static Path getJournalPath(Path dbFile) {
+    return dbFile.resolveSibling(dbFile.getFileName() + JOURNAL_SUFFIX);
+  }
+
+  public Path getPath() {
+    return _path;
+  }
+
+  /**
+   * Must be called before the given page is modified.  If the page existed
+   * at the start of the current batch of changes and has not yet been
+   * journaled, the current contents of the page are synced to the journal.
+   */
+  public void beforeWrite(int pageNumber) throws IOException {
+    boolean newBatch = (_origDbSize < 0L);
+    if(newBatch) {
+      writeHeader();
+    }
+
+    long pageOffset = (long)pageNumber * (long)_pageSize;
+    if(!_journaledPages.get(pageNumber) &&
+       ((pageOffset + _pageSize) <= _origDbSize)) {
+
+      ByteBuffer entry = _entryBuffer;
+      entry.clear();
+      entry.putInt(pageNumber);
+      entry.putInt(0);
+      entry.limit(ENTRY_HEADER_SIZE + _pageSize);
+      while(entry.hasRemaining()) {
+        int bytesRead = _dbChannel.read(
+            entry, pageOffset + entry.position() - ENTRY_HEADER_SIZE);
+        if(bytesRead < 0) {
+          throw new IOException("Failed reading page " + pageNumber +
+                                " for journal");
+        }
+      }
+      entry.putInt(4, pageChecksum(entry));
+      entry.flip();
+
+      _journalSize += writeFully(_channel, entry, _journalSize);
+      _journaledPages.set(pageNumber);
+
+    } else if(!newBatch) {
+      // nothing needs to be synced
+      return;
+    }
+
+    // the journal must be on disk before the page is modified
+    _channel.force(false);
+  }
+
+  /**
+   * Must be called before the database file is extended.
+   */
+  public void beforeExtend() throws IOException {
+    if(_origDbSize < 0L) {
+      writeHeader();
+      _channel.force(false);
+    }
+  }
+
+  /**
+   * Discards the current journal contents.  Must only be called after the
+   * database file has been synced.
+   */
+  public void commit() throws IOException {
+    if(_origDbSize < 0L) {
+      return;
+    }
+    _channel.truncate(0L);
+    _channel.force(false);
+    _origDbSize = -1L;
+    _journalSize = 0L;
+    _journaledPages.clear();
+  }
+
+  /**
+   * Closes and deletes the journal.  Must only be called after the database
+   * file has been synced.
+   */
+  @Override
+  public void close() throws IOException {
+    if(_channel != null) {
+      _channel.close();
+      _channel = null;
+      Files.deleteIfExists(_path);
+    }
+    _origDbSize = -1L;
+    _journalSize = 0L;
+    _journaledPages.clear();
+  }
+
+  private void writeHeader() throws IOException {
+    if(_channel == null) {
+      _channel = FileChannel.open(_path, StandardOpenOption.CREATE,
+                                  StandardOpenOption.READ,
+                                  StandardOpenOption.WRITE);
+    }
+
+    long origDbSize = _dbChannel.size();
+
+    ByteBuffer header = _entryBuffer;
+    header.clear();
+    header.put(MAGIC);
+    header.putInt(_pageSize);
+    header.putLong(origDbSize);
+    header.putInt(headerChecksum(header));
+    header.flip();
+
+    _channel.truncate(0L);
+    _journalSize = writeFully(_channel, header, 0L);
+    _origDbSize = origDbSize;
+  }
+
+  private int pageChecksum(ByteBuffer entry) {
+    _crc.reset();
+    _crc.update(entry.array(), 0, 4);
+    _crc.update(entry.array(), ENTRY_HEADER_SIZE, _pageSize);
+    return (int)_crc.getValue();
+  }
+
+  private static int headerChecksum(ByteBuffer header) {
+    CRC32 crc = new CRC32();
+    crc.update(header.array(), 0, HEADER_SIZE - 4);
+    return (int)crc.getValue();
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer,
+                                long position)
+    throws IOException
+  {
+    int len = buffer.remaining();
+    while(buffer.hasRemaining()) {
+      channel.write(buffer, position + (len - buffer.remaining()));
+    }
+    return len;
+  }
+
+  /**
+   * Rolls back any changes recorded in the journal for the given database
+   * file (if one exists) and deletes the journal.  The database file must
+   * not be in use.
+   *
+   * @return {@code true} if a journal was found, {@code false} otherwise
+   */
+  static boolean recover(Path dbFile, FileChannel dbChannel)
+    throws IOException
+  {
+    Path path = getJournalPath(dbFile);
+    if(!Files.exists(path)) {
+      return false;
+    }
+
+    try(FileChannel channel = FileChannel.open(path,
+                                               StandardOpenOption.READ)) {
+
+      ByteBuffer header = PageChannel.createBuffer(HEADER_SIZE);
+      readFully(channel, header, 0L);
+      if(header.hasRemaining() ||
+         !Arrays.equals(MAGIC, Arrays.copyOf(header.array(), MAGIC.length)) ||
+         (header.getInt(HEADER_SIZE - 4) != headerChecksum(header))) {
+        // empty (committed) or incomplete journal, nothing was modified
+        LOG.debug("Discarding inactive journal " + path);
+      } else {
+        rollback(dbFile, dbChannel, path, channel, header);
+      }
+    }
+
+    Files.delete(path);
+    return true;
+  }
+
+  /**
+   * Writes the original page contents saved in the given (active) journal
+   * back to the database file.
+   */
+  private static void rollback(Path dbFile, FileChannel dbChannel,
+                               Path path, FileChannel channel,
+                               ByteBuffer header)
+    throws IOException
+  {
+    int pageSize = header.getInt(MAGIC.length);
+    long origDbSize = header.getLong(MAGIC.length + 4);
+
+    LOG.warn("Rolling back incomplete changes to database " + dbFile +
+             " using journal " + path);
+
+    CRC32 crc = new CRC32();
+    ByteBuffer entry = PageChannel.createBuffer(ENTRY_HEADER_SIZE + pageSize);
+    long position = HEADER_SIZE;
+    int numPages = 0;
+    while(true) {
+      entry.clear();
+      readFully(channel, entry, position);
+      if(entry.hasRemaining()) {
+        // end of journal (partial entries were never synced, so the
+        // corresponding pages were never modified)
+        break;
+      }
+      crc.reset();
+      crc.update(entry.array(), 0, 4);
+      crc.update(entry.array(), ENTRY_HEADER_SIZE, pageSize);
+      if(entry.getInt(4) != (int)crc.getValue()) {
+        break;
+      }
+
+      int pageNumber = entry.getInt(0);
+      entry.position(ENTRY_HEADER_SIZE);
+      writeFully(dbChannel, entry, (long)pageNumber * (long)pageSize);
+      position += entry.capacity();
+      ++numPages;
+    }
+
+    if(dbChannel.size() > origDbSize) {
+      dbChannel.truncate(origDbSize);
+    }
+    dbChannel.force(true);
+
+    if(LOG.isDebugEnabled()) {
+      LOG.debug("Restored " + numPages + " pages from journal " + path);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer,
+                                long position)
+    throws IOException
+  {
+    long startPos = position - buffer.position();
+    while(buffer.hasRemaining()) {
+      int bytesRead = channel.read(buffer, startPos + buffer.position());
+      if(bytesRead < 0) {
+        break;
+      }
+    }
+  }
+}
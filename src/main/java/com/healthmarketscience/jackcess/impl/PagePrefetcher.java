@@ -0,0 +1,273 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Issues asynchronous reads of raw (still encoded) pages from a database
+ * file so that the latency of multiple page reads can be overlapped.  Runs
+ * of contiguous pages are read using a single large read into a (pooled)
+ * multi-page buffer.  Pages read by this class are handed back to the {@link
+ * PageChannel} which decodes them on the calling thread exactly as if they
+ * were read synchronously.
+ * <p>
+ * Like the rest of the PageChannel, the bookkeeping in this class is
+ * <i>not</i> thread-safe, only the actual reads are done on background
+ * threads.  Any page which is written (or allocated/deallocated) is
+ * discarded from the prefetched pages, so stale data will never be returned.
+ *
+ * @author James Ahlborn
+ */
+class PagePrefetcher
+{
+  private static final Log LOG = LogFactory.getLog(PagePrefetcher.class);
+
+  /** the max number of pages which will be read in a single read */
+  static final int MAX_RUN_PAGES = 64;
+  /** the max number of threads used to read pages */
+  private static final int MAX_READ_THREADS = 4;
+  /** pool thread keep alive time (seconds) */
+  private static final long THREAD_KEEP_ALIVE = 30L;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final FileChannel _channel;
+  private final int _pageSize;
+  /** the max number of pages which may be outstanding at any time */
+  private final int _maxPages;
+  /** the max number of pages in a single run */
+  private final int _maxRunPages;
+  private final ExecutorService _executor;
+  /** the currently outstanding (and/or completed) page reads, in request
+      order */
+  private final Map<Integer,PageRun> _pages;
+  /** source of the (reusable) buffers for the page reads */
+  private final PageBufferPool _bufferPool;
+
+  PagePrefetcher(FileChannel channel, PageBufferPool bufferPool,
+                 int maxPages) {
+    _channel = channel;
+    _bufferPool = bufferPool;
+    _pageSize = bufferPool.getPageSize();
+    _maxPages = maxPages;
+    _maxRunPages = Math.min(maxPages, MAX_RUN_PAGES);
+    _pages = new LinkedHashMap<Integer,PageRun>((maxPages * 4) / 3 + 1);
+    int numThreads = Math.min(maxPages, MAX_READ_THREADS);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        numThreads, numThreads, THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+    _executor = executor;
+  }
+
+  public int getMaxPages() {
+    return _maxPages;
+  }
+
+  public boolean isPending(int pageNumber) {
+    return _pages.containsKey(pageNumber);
+  }
+
+  /**
+   * Issues asynchronous reads for the given run of pages (skipping any pages
+   * which are already outstanding).  Contiguous pages are read using as few
+   * reads as possible.  If the max number of pages are already outstanding,
+   * the oldest requests are discarded.
+   */
+  public void prefetchPages(int firstPageNumber, int numPages) {
+    numPages = Math.min(numPages, _maxPages);
+    int runStart = firstPageNumber;
+    int runLen = 0;
+    for(int i = 0; i < numPages; ++i) {
+      int pageNumber = firstPageNumber + i;
+      if(isPending(pageNumber) || (runLen == _maxRunPages)) {
+        submitRun(runStart, runLen);
+        runStart = pageNumber;
+        runLen = 0;
+        if(isPending(pageNumber)) {
+          ++runStart;
+          continue;
+        }
+      }
+      ++runLen;
+    }
+    submitRun(runStart, runLen);
+  }
+
+  /**
+   * Copies the raw data for the given page into the given buffer if the page
+   * was prefetched, waiting for the read to finish if necessary.
+   *
+   * @return {@code true} if the page was prefetched and a full page of data
+   *         was copied into the given buffer, {@code false} otherwise (in
+   *         which case the caller must read the page itself)
+   */
+  public boolean readPage(ByteBuffer buffer, int pageNumber) {
+    PageRun run = _pages.remove(pageNumber);
+    if(run == null) {
+      return false;
+    }
+
+    ByteBuffer data = null;
+    try {
+      data = run._future.get();
+    } catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch(ExecutionException e) {
+      // we'll let the caller re-read the page and handle any failure
+      if(LOG.isDebugEnabled()) {
+        LOG.debug("Failed prefetching page " + pageNumber, e.getCause());
+      }
+    }
+
+    boolean found = false;
+    if(data != null) {
+      int pageOffset = (pageNumber - run._firstPageNumber) * _pageSize;
+      if(data.limit() >= (pageOffset + _pageSize)) {
+        buffer.put(PageChannel.narrowBuffer(data, pageOffset,
+                                            pageOffset + _pageSize));
+        found = true;
+      }
+    }
+
+    releasePage(run);
+    return found;
+  }
+
+  /**
+   * Discards any prefetched data for the given page.
+   */
+  public void invalidate(int pageNumber) {
+    PageRun run = _pages.remove(pageNumber);
+    if(run != null) {
+      releasePage(run);
+    }
+  }
+
+  /**
+   * Discards all prefetched data and stops the read threads.
+   */
+  public void close() {
+    for(PageRun run : _pages.values()) {
+      run._future.cancel(false);
+    }
+    _pages.clear();
+    _executor.shutdown();
+  }
+
+  private void submitRun(int firstPageNumber, int numPages) {
+    if(numPages <= 0) {
+      return;
+    }
+
+    // make room for the new pages
+    Iterator<PageRun> iter = _pages.values().iterator();
+    while((_pages.size() + numPages) > _maxPages) {
+      PageRun run = iter.next();
+      iter.remove();
+      releasePage(run);
+    }
+
+    final ByteBuffer buffer = _bufferPool.getIoBuffer(
+        ((numPages == 1) ? 1 : _maxRunPages) * _pageSize);
+    buffer.limit(numPages * _pageSize);
+    final long offset = (long)firstPageNumber * (long)_pageSize;
+    PageRun run = new PageRun(firstPageNumber, numPages, buffer,
+                              _executor.submit(() -> {
+          while(buffer.hasRemaining()) {
+            int bytesRead = _channel.read(
+                buffer, offset + buffer.position());
+            if(bytesRead < 0) {
+              break;
+            }
+          }
+          buffer.flip();
+          return buffer;
+        }));
+
+    for(int i = 0; i < numPages; ++i) {
+      _pages.put(firstPageNumber + i, run);
+    }
+  }
+
+  private void releasePage(PageRun run) {
+    if(--run._numPages > 0) {
+      return;
+    }
+
+    Future<ByteBuffer> future = run._future;
+    if(future.isDone() && !future.isCancelled()) {
+      // the read is complete, so the buffer can be reused
+      _bufferPool.releaseIoBuffer(run._buffer);
+    } else {
+      // a read which has not started yet can simply be cancelled, but we
+      // cannot reuse the buffer of a read which may still be in progress
+      future.cancel(false);
+    }
+  }
+
+  /**
+   * Tracks a single asynchronous read of one or more contiguous pages.
+   */
+  private static final class PageRun
+  {
+    private final int _firstPageNumber;
+    private final ByteBuffer _buffer;
+    private final Future<ByteBuffer> _future;
+    /** the number of pages from this run which have not been consumed */
+    private int _numPages;
+
+    private PageRun(int firstPageNumber, int numPages, ByteBuffer buffer,
+                    Future<ByteBuffer> future) {
+      _firstPageNumber = firstPageNumber;
+      _numPages = numPages;
+      _buffer = buffer;
+      _future = future;
+    }
+  }
+
+  /**
+   * ThreadFactory which creates daemon threads so that an unclosed database
+   * will not prevent the vm from exiting.
+   */
+  private static final class DaemonThreadFactory implements ThreadFactory
+  {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "jackcess-prefetch-" +
+                            THREAD_COUNT.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
@@ -16,6 +16,9 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.impl;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.healthmarketscience.jackcess.expr.EvalException;
 import com.healthmarketscience.jackcess.expr.Identifier;
 import com.healthmarketscience.jackcess.expr.Value;
@@ -27,6 +30,11 @@ import com.healthmarketscience.jackcess.expr.Value;
 public abstract class RowEvalContext extends BaseEvalContext
 {
   private Object[] _row;
+  /** the columns for the identifiers which have already been resolved
+      (identifiers are compared by identity, as the identifiers of a parsed
+      expression do not change) */
+  private final Map<Identifier,ColumnImpl> _identCols =
+    new IdentityHashMap<Identifier,ColumnImpl>();
 
   public RowEvalContext(DatabaseImpl db) {
     super(db.getEvalContext());
@@ -43,6 +51,19 @@ public abstract class RowEvalContext extends BaseEvalContext
   @Override
   public Value getIdentifierValue(Identifier identifier) {
 
+    ColumnImpl col = _identCols.get(identifier);
+    if(col == null) {
+      col = resolveColumn(identifier);
+      _identCols.put(identifier, col);
+    }
+
+    Object val = col.getRowValue(_row);
+
+    return toValue(val, col.getType());
+  }
+
+  private ColumnImpl resolveColumn(Identifier identifier) {
+
     TableImpl table = getTable();
 
     // we only support getting column values in this table from the current
@@ -53,11 +74,7 @@ public abstract class RowEvalContext extends BaseEvalContext
                               identifier);
     }
 
-    ColumnImpl col = table.getColumn(identifier.getObjectName());
-
-    Object val = col.getRowValue(_row);
-
-    return toValue(val, col.getType());
+    return table.getColumn(identifier.getObjectName());
   }
 
   protected abstract TableImpl getTable();
@@ -17,6 +17,7 @@ limitations under the License.
 package com.healthmarketscience.jackcess.impl;
 
 import java.io.BufferedWriter;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.BufferOverflowException;
@@ -30,6 +31,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -42,6 +44,7 @@ import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
 import com.healthmarketscience.jackcess.ConstraintViolationException;
 import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Index;
 import com.healthmarketscience.jackcess.IndexBuilder;
 import com.healthmarketscience.jackcess.InvalidValueException;
@@ -78,6 +81,11 @@ public class TableImpl implements Table, PropertyMaps.Owner
 
   private static final int MAX_BYTE = 256;
 
+  /** column value handling for copied rows (see {@link RowCopier}) */
+  private static final byte COPY_DECODED = 0;
+  private static final byte COPY_RAW = 1;
+  private static final byte COPY_RAW_LONG_VALUE = 2;
+
   /**
    * Table type code for system tables
    * @usage _intermediate_class_
@@ -134,6 +142,9 @@ public class TableImpl implements Table, PropertyMaps.Owner
   private short _maxVarColumnCount;
   /** List of columns in this table, ordered by column number */
   private final List<ColumnImpl> _columns = new ArrayList<ColumnImpl>();
+  /** the columns in this table, keyed by lookup name */
+  private final Map<String,ColumnImpl> _columnsByName =
+    new HashMap<String,ColumnImpl>();
   /** List of variable length columns in this table, ordered by offset */
   private final List<ColumnImpl> _varColumns = new ArrayList<ColumnImpl>();
   /** List of autonumber columns in this table, ordered by column number */
@@ -168,6 +179,8 @@ public class TableImpl implements Table, PropertyMaps.Owner
   /** page buffer used to update the table def page */
   private final TempPageHolder _tableDefBufferH =
     TempPageHolder.newHolder(TempBufferHolder.Type.SOFT);
+  /** writes the table def updates when metadata updates are deferred */
+  private final Flushable _deferredTdefUpdate = this::writeTableDefinitionUpdates;
   /** buffer used to writing rows of data */
   private final TempBufferHolder _writeRowBufferH =
     TempBufferHolder.newHolder(TempBufferHolder.Type.SOFT, true);
@@ -210,6 +223,7 @@ public class TableImpl implements Table, PropertyMaps.Owner
       if(col.getType().isVariableLength()) {
         _varColumns.add(col);
       }
+      addColumnLookup(col);
     }
     _maxColumnCount = (short)_columns.size();
     _maxVarColumnCount = (short)_varColumns.size();
@@ -449,22 +463,50 @@ public class TableImpl implements Table, PropertyMaps.Owner
 
   @Override
   public ColumnImpl getColumn(String name) {
-    for(ColumnImpl column : _columns) {
-      if(column.getName().equalsIgnoreCase(name)) {
-        return column;
-      }
+    ColumnImpl column = findColumn(name);
+    if(column != null) {
+      return column;
     }
     throw new IllegalArgumentException(withErrorContext(
             "Column with name " + name + " does not exist in this table"));
   }
 
   public boolean hasColumn(String name) {
-    for(ColumnImpl column : _columns) {
-      if(column.getName().equalsIgnoreCase(name)) {
-        return true;
-      }
+    return (findColumn(name) != null);
+  }
+
+  /**
+   * Returns the column with the given name (case-insensitive), {@code null}
+   * if there is no such column.
+   */
+  ColumnImpl findColumn(String name) {
+    return _columnsByName.get(toColumnLookupName(name));
+  }
+
+  private void addColumnLookup(ColumnImpl column) {
+    String lookupName = toColumnLookupName(column.getName());
+    if(!_columnsByName.containsKey(lookupName)) {
+      _columnsByName.put(lookupName, column);
     }
-    return false;
+  }
+
+  /**
+   * Returns the key for the given column name in the column lookup map.  Two
+   * names have the same key if they are equal according to {@link
+   * String#equalsIgnoreCase} (the key does not depend on the default
+   * locale).
+   */
+  private static String toColumnLookupName(String name) {
+    if(name == null) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder(name.length());
+    for(int i = 0; i < name.length(); ) {
+      int cp = name.codePointAt(i);
+      sb.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp)));
+      i += Character.charCount(cp);
+    }
+    return sb.toString();
   }
 
   @Override
@@ -748,6 +790,38 @@ public class TableImpl implements Table, PropertyMaps.Owner
     return getRowColumn(getFormat(), rowBuffer, column, rowState, null);
   }
 
+  /**
+   * Reads the raw column data of a single column from the given row (for a
+   * long value column, this is the long value definition, not the actual
+   * long value).  Returns {@code null} if the column value is {@code null}.
+   * @usage _advanced_method_
+   */
+  public byte[] getRawRowValue(RowState rowState, RowIdImpl rowId,
+                               ColumnImpl column)
+    throws IOException
+  {
+    if(this != column.getTable()) {
+      throw new IllegalArgumentException(withErrorContext(
+          "Given column " + column + " is not from this table"));
+    }
+    if(column.storeInNullMask()) {
+      throw new IllegalArgumentException(withErrorContext(
+          "Given column " + column + " has no column data"));
+    }
+    requireValidRowId(rowId);
+
+    // position at correct row
+    ByteBuffer rowBuffer = positionAtRowData(rowState, rowId);
+    requireNonDeletedRow(rowState, rowId);
+
+    NullMask nullMask = rowState.getNullMask(rowBuffer);
+    if(nullMask.isNull(column)) {
+      return null;
+    }
+    return getRowColumnData(getFormat(), rowBuffer, column, rowState,
+                            nullMask);
+  }
+
   /**
    * Reads some columns from the given row.
    * @param columnNames Only column names in this collection will be returned
@@ -778,6 +852,10 @@ public class TableImpl implements Table, PropertyMaps.Owner
       Collection<String> columnNames)
     throws IOException
   {
+    if(rowState.getTable().getPageChannel().isReadAheadEnabled()) {
+      prefetchLongValues(format, rowState, rowBuffer, columns, columnNames);
+    }
+
     RowImpl rtn = new RowImpl(rowState.getHeaderRowId(), columns.size());
     for(ColumnImpl column : columns) {
 
@@ -790,6 +868,70 @@ public class TableImpl implements Table, PropertyMaps.Owner
     return rtn;
   }
 
+  /**
+   * Returns a RowCopier which reads the rows of this table as row values for
+   * the given table, or {@code null} if the tables are not compatible for
+   * copying raw column data.  The tables are compatible if they have the
+   * same format and charset and the same columns (matched by name) with the
+   * same definitions, neither table has calculated or complex columns and
+   * the given table has no row validator.
+   * @usage _advanced_method_
+   */
+  public RowCopier newRowCopier(TableImpl destTable) {
+    if((getFormat() != destTable.getFormat()) ||
+       !getDatabase().getCharset().equals(
+           destTable.getDatabase().getCharset()) ||
+       (_columns.size() != destTable._columns.size()) ||
+       (destTable._rowValidator != null)) {
+      return null;
+    }
+
+    Set<ColumnImpl> indexedCols = new HashSet<ColumnImpl>();
+    for(IndexData idxData : destTable._indexDatas) {
+      for(IndexData.ColumnDescriptor iCol : idxData.getColumns()) {
+        indexedCols.add(iCol.getColumn());
+      }
+    }
+
+    ColumnImpl[] srcCols = new ColumnImpl[_columns.size()];
+    byte[] modes = new byte[_columns.size()];
+    for(ColumnImpl destCol : destTable._columns) {
+      ColumnImpl srcCol = findColumn(destCol.getName());
+      if(!isRawCopyCompatible(srcCol, destCol)) {
+        return null;
+      }
+
+      int idx = destCol.getColumnIndex();
+      srcCols[idx] = srcCol;
+      if(indexedCols.contains(destCol) || destCol.isAutoNumber() ||
+         destCol.storeInNullMask() || !destCol.hasDefaultValidator()) {
+        // the destination table needs the actual value
+        modes[idx] = COPY_DECODED;
+      } else if(srcCol instanceof LongValueColumnImpl) {
+        modes[idx] = COPY_RAW_LONG_VALUE;
+      } else {
+        modes[idx] = COPY_RAW;
+      }
+    }
+
+    return new RowCopier(srcCols, modes);
+  }
+
+  private static boolean isRawCopyCompatible(ColumnImpl srcCol,
+                                             ColumnImpl destCol)
+  {
+    if((srcCol == null) || (srcCol.getType() != destCol.getType()) ||
+       (srcCol.getType() == DataType.COMPLEX_TYPE) ||
+       srcCol.isCalculated() || destCol.isCalculated() ||
+       (srcCol.isVariableLength() != destCol.isVariableLength()) ||
+       (srcCol.getLength() != destCol.getLength())) {
+      return false;
+    }
+    return (!srcCol.getType().getHasScalePrecision() ||
+            ((srcCol.getScale() == destCol.getScale()) &&
+             (srcCol.getPrecision() == destCol.getPrecision())));
+  }
+
   /**
    * Reads the column data from the given row buffer.  Leaves limit unchanged.
    * Caches the returned value in the rowState.
@@ -822,51 +964,9 @@ public class TableImpl implements Table, PropertyMaps.Owner
         return cachedValue;
       }
 
-      // reset position to row start
-      rowBuffer.reset();
-
-      // locate the column data bytes
-      int rowStart = rowBuffer.position();
-      int colDataPos = 0;
-      int colDataLen = 0;
-      if(!column.isVariableLength()) {
-
-        // read fixed length value (non-boolean at this point)
-        int dataStart = rowStart + format.OFFSET_COLUMN_FIXED_DATA_ROW_OFFSET;
-        colDataPos = dataStart + column.getFixedDataOffset();
-        colDataLen = column.getFixedDataSize();
-
-      } else {
-        int varDataStart;
-        int varDataEnd;
-
-        if(format.SIZE_ROW_VAR_COL_OFFSET == 2) {
-
-          // read simple var length value
-          int varColumnOffsetPos =
-            (rowBuffer.limit() - nullMask.byteSize() - 4) -
-            (column.getVarLenTableIndex() * 2);
-
-          varDataStart = rowBuffer.getShort(varColumnOffsetPos);
-          varDataEnd = rowBuffer.getShort(varColumnOffsetPos - 2);
-
-        } else {
-
-          // read jump-table based var length values
-          short[] varColumnOffsets = readJumpTableVarColOffsets(
-              rowState, rowBuffer, rowStart, nullMask);
-
-          varDataStart = varColumnOffsets[column.getVarLenTableIndex()];
-          varDataEnd = varColumnOffsets[column.getVarLenTableIndex() + 1];
-        }
-
-        colDataPos = rowStart + varDataStart;
-        colDataLen = varDataEnd - varDataStart;
-      }
-
       // grab the column data
-      rowBuffer.position(colDataPos);
-      columnData = ByteUtil.getBytes(rowBuffer, colDataLen);
+      columnData = getRowColumnData(format, rowBuffer, column, rowState,
+                                    nullMask);
 
       if((rawVarValues != null) && column.isVariableLength()) {
         // caller wants raw value as well
@@ -890,6 +990,133 @@ public class TableImpl implements Table, PropertyMaps.Owner
     }
   }
 
+  /**
+   * Reads the raw bytes for the given non-null column from the given row
+   * buffer.  Leaves limit unchanged.
+   */
+  private static byte[] getRowColumnData(JetFormat format,
+                                         ByteBuffer rowBuffer,
+                                         ColumnImpl column,
+                                         RowState rowState,
+                                         NullMask nullMask)
+  {
+    // reset position to row start
+    rowBuffer.reset();
+
+    // locate the column data bytes
+    int rowStart = rowBuffer.position();
+    int colDataPos = 0;
+    int colDataLen = 0;
+    if(!column.isVariableLength()) {
+
+      // read fixed length value (non-boolean at this point)
+      int dataStart = rowStart + format.OFFSET_COLUMN_FIXED_DATA_ROW_OFFSET;
+      colDataPos = dataStart + column.getFixedDataOffset();
+      colDataLen = column.getFixedDataSize();
+
+    } else {
+      int varDataStart;
+      int varDataEnd;
+
+      if(format.SIZE_ROW_VAR_COL_OFFSET == 2) {
+
+        // read simple var length value
+        int varColumnOffsetPos =
+          (rowBuffer.limit() - nullMask.byteSize() - 4) -
+          (column.getVarLenTableIndex() * 2);
+
+        varDataStart = rowBuffer.getShort(varColumnOffsetPos);
+        varDataEnd = rowBuffer.getShort(varColumnOffsetPos - 2);
+
+      } else {
+
+        // read jump-table based var length values
+        short[] varColumnOffsets = readJumpTableVarColOffsets(
+            rowState, rowBuffer, rowStart, nullMask);
+
+        varDataStart = varColumnOffsets[column.getVarLenTableIndex()];
+        varDataEnd = varColumnOffsets[column.getVarLenTableIndex() + 1];
+      }
+
+      colDataPos = rowStart + varDataStart;
+      colDataLen = varDataEnd - varDataStart;
+    }
+
+    // grab the column data
+    rowBuffer.position(colDataPos);
+    return ByteUtil.getBytes(rowBuffer, colDataLen);
+  }
+
+  /**
+   * Hints to the PageChannel that any long value pages referenced by the
+   * given row will be read soon, so that the reads can proceed concurrently
+   * with the decoding of the row.
+   */
+  private static void prefetchLongValues(
+      JetFormat format,
+      RowState rowState,
+      ByteBuffer rowBuffer,
+      Collection<ColumnImpl> columns,
+      Collection<String> columnNames)
+  {
+    for(ColumnImpl column : columns) {
+
+      if(!(column instanceof LongValueColumnImpl) ||
+         ((columnNames != null) && !columnNames.contains(column.getName())) ||
+         (rowState.getRowCacheValue(column.getColumnIndex()) != null)) {
+        continue;
+      }
+
+      try {
+        NullMask nullMask = rowState.getNullMask(rowBuffer);
+        if(!nullMask.isNull(column)) {
+          ((LongValueColumnImpl)column).prefetchLongValue(
+              getRowColumnData(format, rowBuffer, column, rowState, nullMask));
+        }
+      } catch(RuntimeException e) {
+        // ignore, any problems will be handled when the column is read
+      }
+    }
+  }
+
+  /**
+   * Hints to the PageChannel that the pages referenced by any overflow rows
+   * on the current header page of the given rowState will be read soon.
+   * @usage _advanced_method_
+   */
+  static void prefetchOverflowRows(RowState rowState)
+    throws IOException
+  {
+    if(!rowState.isHeaderPageNumberValid()) {
+      return;
+    }
+
+    ByteBuffer rowBuffer = rowState.getHeaderPage();
+    JetFormat format = rowState.getTable().getFormat();
+    PageChannel pageChannel = rowState.getTable().getPageChannel();
+    int headerPageNumber = rowState.getHeaderRowId().getPageNumber();
+    int numRows = rowState.getRowsOnHeaderPage();
+
+    for(int rowNum = 0; rowNum < numRows; ++rowNum) {
+
+      short rowStart = rowBuffer.getShort(getRowStartOffset(rowNum, format));
+      if(isDeletedRow(rowStart) || !isOverflowRow(rowStart)) {
+        continue;
+      }
+
+      rowStart = (short)(rowStart & OFFSET_MASK);
+      if((findRowEnd(rowBuffer, rowNum, format) - rowStart) < 4) {
+        // invalid overflow info, will be handled when the row is read
+        continue;
+      }
+
+      int overflowPageNum = ByteUtil.get3ByteInt(rowBuffer, rowStart + 1);
+      if(overflowPageNum != headerPageNumber) {
+        pageChannel.prefetchPage(overflowPageNum);
+      }
+    }
+  }
+
   private static short[] readJumpTableVarColOffsets(
       RowState rowState, ByteBuffer rowBuffer, int rowStart,
       NullMask nullMask)
@@ -1352,6 +1579,7 @@ public class TableImpl implements Table, PropertyMaps.Owner
     // now, update current TableImpl
 
     _columns.add(newCol);
+    addColumnLookup(newCol);
     ++_maxColumnCount;
     if(newCol.isVariableLength()) {
       _varColumns.add(newCol);
@@ -1633,6 +1861,9 @@ public class TableImpl implements Table, PropertyMaps.Owner
       TableUpdater mutator)
     throws IOException
   {
+    // the table definition on disk must be current before we rewrite it
+    flushDeferredTableDefinition();
+
     // load complete table definition
     ByteBuffer tableBuffer = _tableDefBufferH.setPage(getPageChannel(),
                                                       _tableDefPageNumber);
@@ -2001,6 +2232,9 @@ public class TableImpl implements Table, PropertyMaps.Owner
     }
 
     Collections.sort(_columns);
+    for(ColumnImpl column : _columns) {
+      addColumnLookup(column);
+    }
     initAutoNumberColumns();
     initCalculatedColumns();
 
@@ -2246,36 +2480,67 @@ public class TableImpl implements Table, PropertyMaps.Owner
 
         List<Object[]> dupeRows = null;
         final int numCols = _columns.size();
-        for (int i = 0; i < rows.size(); i++) {
 
-          // we need to make sure the row is the right length and is an
-          // Object[] (fill with null if too short).  note, if the row is
-          // copied the caller will not be able to access any generated
-          // auto-number value, but if they need that info they should use a
-          // row array of the right size/type!
-          Object[] row = rows.get(i);
-          if((row.length < numCols) || (row.getClass() != Object[].class)) {
-            row = dupeRow(row, numCols);
-            // copy the input rows to a modifiable list so we can update the
-            // elements
-            if(dupeRows == null) {
-              dupeRows = new ArrayList<Object[]>(rows);
-              rows = dupeRows;
+        // when possible, the calculated values for the whole batch are
+        // computed before any rows are written.  any failure is deferred
+        // until the failed row is reached so that the results are the same
+        // as when each row is handled individually
+        BatchFailure batchFailure = null;
+        final boolean isBatchCalc = ((rows.size() > 1) &&
+                                     _calcColEval.isBatchCalculation());
+        if(isBatchCalc) {
+          for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            if((row.length < numCols) || (row.getClass() != Object[].class)) {
+              if(dupeRows == null) {
+                dupeRows = new ArrayList<Object[]>(rows);
+                rows = dupeRows;
+              }
+              row = dupeRow(row, numCols);
+              dupeRows.set(i, row);
+            }
+            try {
+              prepareRowForAdd(row);
+            } catch(Exception e) {
+              batchFailure = new BatchFailure(i, false, e);
+              break;
             }
-            // we copied the row, so put the copy back into the rows list
-            dupeRows.set(i, row);
           }
+          BatchFailure calcFailure = _calcColEval.calculate(
+              rows, ((batchFailure != null) ?
+                     batchFailure._rowIdx : rows.size()));
+          if(calcFailure != null) {
+            batchFailure = calcFailure;
+          }
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
 
-          // handle various value massaging activities
-          for(ColumnImpl column : _columns) {
-            if(!column.isAutoNumber()) {
-              Object val = column.getRowValue(row);
-              if(val == null) {
-                val = column.generateDefaultValue();
+          Object[] row = rows.get(i);
+          if(!isBatchCalc) {
+
+            // we need to make sure the row is the right length and is an
+            // Object[] (fill with null if too short).  note, if the row is
+            // copied the caller will not be able to access any generated
+            // auto-number value, but if they need that info they should use
+            // a row array of the right size/type!
+            if((row.length < numCols) || (row.getClass() != Object[].class)) {
+              row = dupeRow(row, numCols);
+              // copy the input rows to a modifiable list so we can update the
+              // elements
+              if(dupeRows == null) {
+                dupeRows = new ArrayList<Object[]>(rows);
+                rows = dupeRows;
               }
-              // pass input value through column validator
-              column.setRowValue(row, column.validate(val));
+              // we copied the row, so put the copy back into the rows list
+              dupeRows.set(i, row);
             }
+
+            prepareRowForAdd(row);
+
+          } else if((batchFailure != null) && (batchFailure._rowIdx == i) &&
+                    !batchFailure._isCalc) {
+            throw batchFailure._cause;
           }
 
           // fill in autonumbers
@@ -2284,7 +2549,11 @@ public class TableImpl implements Table, PropertyMaps.Owner
 
           // need to assign calculated values after all the other fields are
           // filled in but before final validation
-          _calcColEval.calculate(row);
+          if(!isBatchCalc) {
+            _calcColEval.calculate(row);
+          } else if((batchFailure != null) && (batchFailure._rowIdx == i)) {
+            throw batchFailure._cause;
+          }
 
           // run row validation if enabled
           if(_rowValidator != null) {
@@ -2412,6 +2681,23 @@ public class TableImpl implements Table, PropertyMaps.Owner
     return rows;
   }
 
+  /**
+   * Handles the various value massaging activities for a row which is being
+   * added (default values and column validation).
+   */
+  private void prepareRowForAdd(Object[] row) throws IOException {
+    for(ColumnImpl column : _columns) {
+      if(!column.isAutoNumber()) {
+        Object val = column.getRowValue(row);
+        if(val == null) {
+          val = column.generateDefaultValue();
+        }
+        // pass input value through column validator
+        column.setRowValue(row, column.validate(val));
+      }
+    }
+  }
+
   private static boolean isWriteFailure(Throwable t) {
     while(t != null) {
       if((t instanceof IOException) && !(t instanceof JackcessException)) {
@@ -2719,13 +3005,39 @@ public class TableImpl implements Table, PropertyMaps.Owner
    * Updates the table definition after rows are modified.
    */
   private void updateTableDefinition(int rowCountInc) throws IOException
+  {
+    _rowCount += rowCountInc;
+
+    if(getDatabase().isDeferMetadataUpdates()) {
+      // the table definition will be updated on the next flush
+      getPageChannel().addDeferredUpdate(_deferredTdefUpdate);
+      return;
+    }
+
+    writeTableDefinitionUpdates();
+  }
+
+  /**
+   * Writes any pending deferred table definition updates.
+   */
+  private void flushDeferredTableDefinition() throws IOException
+  {
+    if(getPageChannel().removeDeferredUpdate(_deferredTdefUpdate)) {
+      writeTableDefinitionUpdates();
+    }
+  }
+
+  /**
+   * Writes the current row count, auto numbers and index state to the
+   * database.
+   */
+  private void writeTableDefinitionUpdates() throws IOException
   {
     // load table definition
     ByteBuffer tdefPage = _tableDefBufferH.setPage(getPageChannel(),
                                                    _tableDefPageNumber);
 
     // make sure rowcount and autonumber are up-to-date
-    _rowCount += rowCountInc;
     tdefPage.putInt(getFormat().OFFSET_NUM_ROWS, _rowCount);
     tdefPage.putInt(getFormat().OFFSET_NEXT_AUTO_NUMBER, _lastLongAutoNumber);
     int ctypeOff = getFormat().OFFSET_NEXT_COMPLEX_AUTO_NUMBER;
@@ -3328,6 +3640,64 @@ public class TableImpl implements Table, PropertyMaps.Owner
     INIT, AT_HEADER, AT_FINAL;
   }
 
+  /**
+   * Reads the rows of one table as row values for adding to another table
+   * with a compatible layout (see {@link #newRowCopier}).  The values of
+   * the columns which the destination table needs to inspect (indexed,
+   * autonumber, boolean and validated columns) are decoded normally, all
+   * other values are returned as the raw column data (long values as their
+   * encoded contents), which the destination table writes as is.  This
+   * avoids converting most of the values to and from java objects.
+   * @usage _advanced_class_
+   */
+  public final class RowCopier
+  {
+    /** the source columns in the order of the destination table columns */
+    private final ColumnImpl[] _srcCols;
+    private final byte[] _modes;
+
+    private RowCopier(ColumnImpl[] srcCols, byte[] modes) {
+      _srcCols = srcCols;
+      _modes = modes;
+    }
+
+    /**
+     * Reads the given row of the source table as row values for the
+     * destination table.
+     */
+    public Object[] getRow(RowState rowState, RowIdImpl rowId)
+      throws IOException
+    {
+      requireValidRowId(rowId);
+
+      // position at correct row
+      ByteBuffer rowBuffer = positionAtRowData(rowState, rowId);
+      requireNonDeletedRow(rowState, rowId);
+
+      JetFormat format = getFormat();
+      NullMask nullMask = rowState.getNullMask(rowBuffer);
+      Object[] row = new Object[_srcCols.length];
+      for(int i = 0; i < _srcCols.length; ++i) {
+        ColumnImpl column = _srcCols[i];
+        if(_modes[i] == COPY_DECODED) {
+          row[i] = getRowColumn(format, rowBuffer, column, rowState, null);
+          continue;
+        }
+
+        if(nullMask.isNull(column)) {
+          continue;
+        }
+
+        byte[] columnData = getRowColumnData(format, rowBuffer, column,
+                                             rowState, nullMask);
+        row[i] = ((_modes[i] == COPY_RAW) ?
+                  ColumnImpl.rawDataWrapper(columnData) :
+                  ((LongValueColumnImpl)column).readRawLongValue(columnData));
+      }
+      return row;
+    }
+  }
+
   /**
    * Maintains state for writing a new row of data.
    */
@@ -3348,6 +3718,25 @@ public class TableImpl implements Table, PropertyMaps.Owner
     }
   }
 
+  /**
+   * Failure which occurred while preparing a batch of rows to be added,
+   * which is thrown when the row is reached.
+   */
+  private static final class BatchFailure
+  {
+    private final int _rowIdx;
+    /** whether the failure occurred in the calculated columns (after the
+        auto-numbers are assigned) */
+    private final boolean _isCalc;
+    private final Exception _cause;
+
+    private BatchFailure(int rowIdx, boolean isCalc, Exception cause) {
+      _rowIdx = rowIdx;
+      _isCalc = isCalc;
+      _cause = cause;
+    }
+  }
+
   /**
    * Maintains the state of reading/updating a row of data.
    * @usage _advanced_class_
@@ -3623,6 +4012,8 @@ public class TableImpl implements Table, PropertyMaps.Owner
         dependency */
     private final List<ColumnImpl> _calcColumns = new ArrayList<ColumnImpl>(1);
     private boolean _sorted;
+    /** whether any of the calculated columns use auto-number columns */
+    private boolean _usesAutoNumbers;
 
     public void add(ColumnImpl col) {
       if(!getDatabase().isEvaluateExpressions()) {
@@ -3650,8 +4041,68 @@ public class TableImpl implements Table, PropertyMaps.Owner
       }
     }
 
+    /**
+     * Returns {@code true} if the calculated values for a batch of rows can
+     * be computed before any of the rows are written, {@code false}
+     * otherwise.  This is not possible if any calculated column depends on
+     * an auto-number column (which are assigned as each row is written).
+     */
+    public boolean isBatchCalculation() {
+      if(!_sorted) {
+        sortColumnsByDeps();
+        _sorted = true;
+      }
+      return (!_calcColumns.isEmpty() && !_usesAutoNumbers);
+    }
+
+    /**
+     * Calculates the values for the first {@code numRows} of the given rows,
+     * evaluating each calculated column for all the rows before moving on to
+     * the next column.
+     *
+     * @return the failure for the first row which could not be calculated
+     *         (later rows are not calculated), {@code null} if all rows
+     *         were calculated
+     */
+    public BatchFailure calculate(List<? extends Object[]> rows, int numRows)
+    {
+      if(!_sorted) {
+        sortColumnsByDeps();
+        _sorted = true;
+      }
+
+      BatchFailure failure = null;
+      for(ColumnImpl col : _calcColumns) {
+        CalcColEvalContext calcCtx = col.getCalculationContext();
+        for(int i = 0; i < numRows; ++i) {
+          Object[] row = rows.get(i);
+          try {
+            col.setRowValue(row, calcCtx.eval(row));
+          } catch(Exception e) {
+            // any rows after this one do not matter
+            failure = new BatchFailure(i, true, e);
+            numRows = i;
+          }
+        }
+      }
+      return failure;
+    }
+
     private void sortColumnsByDeps() {
 
+      _usesAutoNumbers = false;
+      for(ColumnImpl calcCol : _calcColumns) {
+        Set<Identifier> identifiers = new LinkedHashSet<Identifier>();
+        calcCol.getCalculationContext().collectIdentifiers(identifiers);
+        for(Identifier identifier : identifiers) {
+          if(isThisTable(identifier) &&
+             hasColumn(identifier.getObjectName()) &&
+             getColumn(identifier.getObjectName()).isAutoNumber()) {
+            _usesAutoNumbers = true;
+          }
+        }
+      }
+
       // a topological sort sorts nodes where A -> B such that A ends up in
       // the list before B (assuming that we are working with a DAG).  In our
       // case, we return "descendent" info as Field1 -> Field2 (where Field1
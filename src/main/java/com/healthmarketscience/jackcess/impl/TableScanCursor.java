@@ -44,6 +44,12 @@ public class TableScanCursor extends CursorImpl
     new ReverseScanDirHandler();
   /** Cursor over the pages that this table owns */
   private final UsageMap.PageCursor _ownedPagesCursor;
+  /** the last page which has been hinted for read-ahead */
+  private int _readAheadPageNumber;
+  /** the number of hinted pages which have not been reached yet */
+  private int _readAheadRemaining;
+  /** the direction of the current read-ahead */
+  private boolean _readAheadForward;
 
   public TableScanCursor(TableImpl table) {
     super(new IdImpl(table, null), table,
@@ -64,6 +70,7 @@ public class TableScanCursor extends CursorImpl
   @Override
   protected void reset(boolean moveForward) {
     _ownedPagesCursor.reset(moveForward);
+    _readAheadRemaining = 0;
     super.reset(moveForward);
   }
 
@@ -78,6 +85,7 @@ public class TableScanCursor extends CursorImpl
     }
     _ownedPagesCursor.restorePosition(curPos.getRowId().getPageNumber(),
                                       prevPos.getRowId().getPageNumber());
+    _readAheadRemaining = 0;
     super.restorePositionImpl(curPos, prevPos);
   }
 
@@ -112,6 +120,13 @@ public class TableScanCursor extends CursorImpl
         // load next page
         curRowId = new RowIdImpl(handler.getAnotherPageNumber(),
                                  RowIdImpl.INVALID_ROW_NUMBER);
+
+        PageChannel pageChannel = getTable().getPageChannel();
+        if(pageChannel.isReadAheadEnabled()) {
+          // start reading the pages we will need after this one
+          readAhead(pageChannel, curRowId.getPageNumber(), moveForward);
+        }
+
         TableImpl.positionAtRowHeader(rowState, curRowId);
 
         if(!rowState.isHeaderPageNumberValid()) {
@@ -119,6 +134,11 @@ public class TableScanCursor extends CursorImpl
           return handler.getEndPosition();
         }
 
+        if(pageChannel.isReadAheadEnabled()) {
+          // start reading any overflow row data referenced from this page
+          TableImpl.prefetchOverflowRows(rowState);
+        }
+
         // update row count and initial row number
         currentRowNumber = handler.getInitialRowNumber(
             rowState.getRowsOnHeaderPage());
@@ -132,6 +152,34 @@ public class TableScanCursor extends CursorImpl
     }
   }
 
+  /**
+   * Hints upcoming owned pages to the PageChannel.  Pages are hinted in
+   * chunks (once half of the previously hinted pages have been reached) so
+   * that runs of contiguous pages can be read using large reads.
+   */
+  private void readAhead(PageChannel pageChannel, int curPageNumber,
+                         boolean moveForward)
+  {
+    int numPages = pageChannel.getReadAheadPages();
+    if((_readAheadRemaining <= 0) || (moveForward != _readAheadForward) ||
+       (moveForward ? (curPageNumber > _readAheadPageNumber) :
+        (curPageNumber < _readAheadPageNumber))) {
+      // (re)start read-ahead from the current page
+      _readAheadForward = moveForward;
+      _readAheadPageNumber = curPageNumber;
+      _readAheadRemaining = 0;
+    } else {
+      --_readAheadRemaining;
+    }
+
+    if(_readAheadRemaining <= (numPages / 2)) {
+      int numNewPages = numPages - _readAheadRemaining;
+      _readAheadPageNumber = _ownedPagesCursor.prefetchPages(
+          moveForward, _readAheadPageNumber, numNewPages);
+      _readAheadRemaining += numNewPages;
+    }
+  }
+
   /**
    * Handles moving the table scan cursor in a given direction.  Separates
    * cursor logic from value storage.
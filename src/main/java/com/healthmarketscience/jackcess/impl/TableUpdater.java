@@ -72,12 +72,8 @@ public class TableUpdater extends TableMutator
 
   @Override
   short getColumnNumber(String colName) {
-    for(ColumnImpl col : _table.getColumns()) {
-      if(col.getName().equalsIgnoreCase(colName)) {
-        return col.getColumnNumber();
-      }
-    }
-    return IndexData.COLUMN_UNUSED;
+    ColumnImpl col = _table.findColumn(colName);
+    return ((col != null) ? col.getColumnNumber() : IndexData.COLUMN_UNUSED);
   }
 
   @Override
@@ -964,6 +964,58 @@ public class UsageMap
       return getAnotherPage(CursorImpl.MOVE_REVERSE);
     }
 
+    /**
+     * Hints to the PageChannel that the pages following the given page in
+     * the given direction will be read soon.  Runs of contiguous pages are
+     * hinted together so that they may be read using a single large read.
+     * Does not move the cursor.
+     * @param pageNumber the page after which to start hinting
+     * @param numPages max number of pages to hint
+     * @return the last page hinted (or the end page number for the given
+     *         direction if there are no more pages)
+     */
+    public int prefetchPages(boolean moveForward, int pageNumber,
+                             int numPages) {
+      DirHandler handler = getDirHandler(moveForward);
+      PageChannel pageChannel = getPageChannel();
+      int step = (moveForward ? 1 : -1);
+      int runStart = PageChannel.INVALID_PAGE_NUMBER;
+      int runLen = 0;
+      if(pageNumber == handler.getEndPageNumber()) {
+        return pageNumber;
+      }
+      if(pageNumber != handler.getBeginningPageNumber()) {
+        pageNumber = updatePosition(pageNumber);
+      }
+      for(int i = 0; i < numPages; ++i) {
+        if(pageNumber == handler.getEndPageNumber()) {
+          break;
+        }
+        pageNumber = handler.getAnotherPageNumber(pageNumber);
+        if(pageNumber == handler.getEndPageNumber()) {
+          break;
+        }
+        if((runLen > 0) && (pageNumber == (runStart + (runLen * step)))) {
+          // extend the current run
+          ++runLen;
+          continue;
+        }
+        prefetchRun(pageChannel, runStart, runLen, moveForward);
+        runStart = pageNumber;
+        runLen = 1;
+      }
+      prefetchRun(pageChannel, runStart, runLen, moveForward);
+      return pageNumber;
+    }
+
+    private void prefetchRun(PageChannel pageChannel, int runStart,
+                             int runLen, boolean moveForward) {
+      if(runLen > 0) {
+        pageChannel.prefetchPages(
+            (moveForward ? runStart : (runStart - runLen + 1)), runLen);
+      }
+    }
+
     /**
      * Gets another page in the given direction, returning the new page.
      */
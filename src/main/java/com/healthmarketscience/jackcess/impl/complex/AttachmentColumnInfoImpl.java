@@ -18,6 +18,7 @@ package com.healthmarketscience.jackcess.impl.complex;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -280,10 +281,28 @@ public class AttachmentColumnInfoImpl extends ComplexColumnInfoImpl<Attachment>
       _encodedData = null;
     }
 
+    @Override
+    public InputStream getFileDataStream() throws IOException {
+      if(_data != null) {
+        return new ByteArrayInputStream(_data);
+      }
+      if(_encodedData != null) {
+        return new DecodedDataStream(_encodedData);
+      }
+      return null;
+    }
+
+    @Override
+    public void setFileData(InputStream data) throws IOException {
+      _encodedData = encodeData(_type, data, 0);
+      _data = null;
+    }
+
     @Override
     public byte[] getEncodedFileData() throws IOException {
       if((_encodedData == null) && (_data != null)) {
-        _encodedData = encodeData();
+        _encodedData = encodeData(_type, new ByteArrayInputStream(_data),
+                                  _data.length);
       }
       return _encodedData;
     }
@@ -390,110 +409,187 @@ public class AttachmentColumnInfoImpl extends ComplexColumnInfoImpl<Attachment>
      */
     private byte[] decodeData() throws IOException {
 
-      if(_encodedData.length < WRAPPER_HEADER_SIZE) {
+      DecodedDataStream contentStream = null;
+      try {
+        contentStream = new DecodedDataStream(_encodedData);
+        byte[] tmpBytes = new byte[contentStream.getLength()];
+        new DataInputStream(contentStream).readFully(tmpBytes);
+        return tmpBytes;
+      } finally {
+        ByteUtil.closeQuietly(contentStream);
+      }
+    }
+  }
+
+  /**
+   * Encodes the actual attachment file data to get the raw, stored format.
+   * The data is encoded (and possibly compressed) as it is read from the
+   * given stream.
+   */
+  private static byte[] encodeData(String fileType, InputStream data,
+                                   int dataLenHint)
+    throws IOException
+  {
+    // possibly compress data based on file type
+    String type = ((fileType != null) ? fileType.toLowerCase() : "");
+    boolean shouldCompress = !COMPRESSED_FORMATS.contains(type);
+
+    // encode extension, which ends w/ a null byte
+    type += '\0';
+    ByteBuffer typeBytes = ColumnImpl.encodeUncompressedText(
+        type, JetFormat.VERSION_12.CHARSET);
+    int headerLen = typeBytes.remaining() + CONTENT_HEADER_SIZE;
+
+    ByteUtil.ByteStream dataStream = new ByteUtil.ByteStream(
+        WRAPPER_HEADER_SIZE + headerLen + dataLenHint);
+
+    // write the wrapper header info (the data length is filled in after the
+    // data has been written)
+    dataStream.skip(WRAPPER_HEADER_SIZE);
+
+    OutputStream contentStream = dataStream;
+    Deflater deflater = null;
+    try {
+
+      if(shouldCompress) {
+        contentStream = new DeflaterOutputStream(
+            contentStream, deflater = new Deflater(3));
+      }
+
+      // write the header w/ the file extension
+      byte[] tmpBytes = new byte[CONTENT_HEADER_SIZE];
+      PageChannel.wrap(tmpBytes)
+        .putInt(headerLen)
+        .putInt(UNKNOWN_HEADER_VAL)
+        .putInt(type.length());
+      contentStream.write(tmpBytes);
+      contentStream.write(typeBytes.array(), 0, typeBytes.remaining());
+
+      // write the _actual_ contents
+      long dataLen = 0L;
+      byte[] buf = new byte[8 * 1024];
+      int read = 0;
+      while((read = data.read(buf)) >= 0) {
+        contentStream.write(buf, 0, read);
+        dataLen += read;
+      }
+      contentStream.close();
+      contentStream = null;
+
+      if((dataLen + headerLen) > Integer.MAX_VALUE) {
+        throw new IOException("Attachment data too large " + dataLen);
+      }
+
+      PageChannel.wrap(dataStream.getBytes())
+        .putInt(shouldCompress ? DATA_TYPE_COMPRESSED : DATA_TYPE_RAW)
+        .putInt((int)(dataLen + headerLen));
+
+      return dataStream.toByteArray();
+
+    } finally {
+      ByteUtil.closeQuietly(contentStream);
+      if(deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+
+  /**
+   * Stream which decodes (and decompresses) the actual content from the raw
+   * attachment file data as it is read.
+   */
+  private static final class DecodedDataStream extends FilterInputStream
+  {
+    private final int _length;
+    private int _remaining;
+
+    private DecodedDataStream(byte[] encodedData) throws IOException {
+      super(null);
+
+      if(encodedData.length < WRAPPER_HEADER_SIZE) {
         // nothing we can do
         throw new IOException("Unknown encoded attachment data format");
       }
 
       // read initial header info
-      ByteBuffer bb = PageChannel.wrap(_encodedData);
+      ByteBuffer bb = PageChannel.wrap(encodedData);
       int typeFlag = bb.getInt();
       int dataLen = bb.getInt();
 
-      DataInputStream contentStream = null;
-      try {
-        InputStream bin = new ByteArrayInputStream(
-            _encodedData, WRAPPER_HEADER_SIZE,
-            _encodedData.length - WRAPPER_HEADER_SIZE);
-
-        if(typeFlag == DATA_TYPE_RAW) {
-          // nothing else to do
-        } else if(typeFlag == DATA_TYPE_COMPRESSED) {
-          // actual content is deflate compressed
-          bin = new InflaterInputStream(bin);
-        } else {
-          throw new IOException(
-              "Unknown encoded attachment data type " + typeFlag);
-        }
-
-        contentStream = new DataInputStream(bin);
-
-        // header is an unknown flag followed by the "file extension" of the
-        // data (no clue why we need that again since it's already a separate
-        // field in the attachment table).  just skip all of it
-        byte[] tmpBytes = new byte[4];
-        contentStream.readFully(tmpBytes);
-        int headerLen = PageChannel.wrap(tmpBytes).getInt();
-        ByteUtil.skipFully(contentStream, headerLen - 4);
+      InputStream bin = new ByteArrayInputStream(
+          encodedData, WRAPPER_HEADER_SIZE,
+          encodedData.length - WRAPPER_HEADER_SIZE);
+
+      if(typeFlag == DATA_TYPE_RAW) {
+        // nothing else to do
+      } else if(typeFlag == DATA_TYPE_COMPRESSED) {
+        // actual content is deflate compressed
+        bin = new InflaterInputStream(bin);
+      } else {
+        throw new IOException(
+            "Unknown encoded attachment data type " + typeFlag);
+      }
 
-        // calculate actual data length and read it (note, header length
-        // includes the bytes for the length)
-        tmpBytes = new byte[dataLen - headerLen];
-        contentStream.readFully(tmpBytes);
+      DataInputStream contentStream = new DataInputStream(bin);
+      in = contentStream;
+
+      // header is an unknown flag followed by the "file extension" of the
+      // data (no clue why we need that again since it's already a separate
+      // field in the attachment table).  just skip all of it
+      byte[] tmpBytes = new byte[4];
+      contentStream.readFully(tmpBytes);
+      int headerLen = PageChannel.wrap(tmpBytes).getInt();
+      ByteUtil.skipFully(contentStream, headerLen - 4);
+
+      // calculate actual data length (note, header length includes the bytes
+      // for the length)
+      _length = dataLen - headerLen;
+      _remaining = _length;
+    }
 
-        return tmpBytes;
+    public int getLength() {
+      return _length;
+    }
 
-      } finally {
-        ByteUtil.closeQuietly(contentStream);
+    @Override
+    public int read() throws IOException {
+      if(_remaining <= 0) {
+        return -1;
       }
+      int b = in.read();
+      if(b >= 0) {
+        --_remaining;
+      }
+      return b;
     }
 
-    /**
-     * Encodes the actual attachment file data to get the raw, stored format.
-     */
-    private byte[] encodeData() throws IOException {
-
-      // possibly compress data based on file type
-      String type = ((_type != null) ? _type.toLowerCase() : "");
-      boolean shouldCompress = !COMPRESSED_FORMATS.contains(type);
-
-      // encode extension, which ends w/ a null byte
-      type += '\0';
-      ByteBuffer typeBytes = ColumnImpl.encodeUncompressedText(
-          type, JetFormat.VERSION_12.CHARSET);
-      int headerLen = typeBytes.remaining() + CONTENT_HEADER_SIZE;
-
-      int dataLen = _data.length;
-      ByteUtil.ByteStream dataStream = new ByteUtil.ByteStream(
-          WRAPPER_HEADER_SIZE + headerLen + dataLen);
-
-      // write the wrapper header info
-      ByteBuffer bb = PageChannel.wrap(dataStream.getBytes());
-      bb.putInt(shouldCompress ? DATA_TYPE_COMPRESSED : DATA_TYPE_RAW);
-      bb.putInt(dataLen + headerLen);
-      dataStream.skip(WRAPPER_HEADER_SIZE);
-
-      OutputStream contentStream = dataStream;
-      Deflater deflater = null;
-      try {
-
-        if(shouldCompress) {
-          contentStream = new DeflaterOutputStream(
-              contentStream, deflater = new Deflater(3));
-        }
-
-        // write the header w/ the file extension
-        byte[] tmpBytes = new byte[CONTENT_HEADER_SIZE];
-        PageChannel.wrap(tmpBytes)
-          .putInt(headerLen)
-          .putInt(UNKNOWN_HEADER_VAL)
-          .putInt(type.length());
-        contentStream.write(tmpBytes);
-        contentStream.write(typeBytes.array(), 0, typeBytes.remaining());
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if(_remaining <= 0) {
+        return -1;
+      }
+      int read = in.read(b, off, Math.min(len, _remaining));
+      if(read > 0) {
+        _remaining -= read;
+      }
+      return read;
+    }
 
-        // write the _actual_ contents
-        contentStream.write(_data);
-        contentStream.close();
-        contentStream = null;
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(Math.min(n, _remaining));
+      _remaining -= (int)skipped;
+      return skipped;
+    }
 
-        return dataStream.toByteArray();
+    @Override
+    public int available() throws IOException {
+      return Math.min(in.available(), _remaining);
+    }
 
-      } finally {
-        ByteUtil.closeQuietly(contentStream);
-        if(deflater != null) {
-          deflater.end();
-        }
-      }
+    @Override
+    public boolean markSupported() {
+      return false;
     }
   }
 
@@ -20,9 +20,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.DataType;
@@ -49,6 +52,10 @@ public abstract class ComplexColumnInfoImpl<V extends ComplexValue>
   implements ComplexColumnInfo<V>
 {
   private static final int INVALID_ID_VALUE = -1;
+  /** max ratio of the foreign key range to the number of requested foreign
+      keys for which a sweep of the index range is used to load the values
+      for multiple foreign keys */
+  private static final int MAX_SWEEP_SPARSENESS = 4;
   public static final ComplexValue.Id INVALID_ID = new ComplexValueIdImpl(
       INVALID_ID_VALUE, null);
   public static final ComplexValueForeignKey INVALID_FK =
@@ -181,6 +188,97 @@ public abstract class ComplexColumnInfoImpl<V extends ComplexValue>
     return toValues(complexValueFk, rawValues);
   }
 
+  @Override
+  public Map<Integer,List<Row>> getRawValues(
+      Collection<Integer> complexValueFks, Collection<String> columnNames)
+    throws IOException
+  {
+    int[] fks = complexValueFks.stream()
+      .filter(fk -> (fk != null))
+      .mapToInt(Integer::intValue)
+      .distinct().sorted().toArray();
+
+    Map<Integer,List<Row>> valueMap = new LinkedHashMap<Integer,List<Row>>();
+    if(fks.length == 0) {
+      return valueMap;
+    }
+
+    long fkRange = ((long)fks[fks.length - 1] - fks[0]) + 1L;
+    if(fkRange > ((long)fks.length * MAX_SWEEP_SPARSENESS)) {
+      // the keys are too spread out, a sweep would read too many unwanted
+      // rows, so just look up each key
+      for(int fk : fks) {
+        valueMap.put(fk, getRawValues(fk, columnNames));
+      }
+      return valueMap;
+    }
+
+    for(int fk : fks) {
+      valueMap.put(fk, new ArrayList<Row>());
+    }
+
+    // need the foreign key column for grouping the values
+    Collection<String> sweepColumnNames = columnNames;
+    if((columnNames != null) &&
+       !columnNames.contains(_complexValFkCol.getName())) {
+      Set<String> tmpColumnNames = new HashSet<String>(columnNames);
+      tmpColumnNames.add(_complexValFkCol.getName());
+      sweepColumnNames = tmpColumnNames;
+    }
+
+    // sweep the index range which covers all the requested keys
+    IndexCursor cursor = _flatTable.newCursor()
+      .setIndexByColumns(_complexValFkCol)
+      .setStartEntry(fks[0])
+      .setEndEntry(fks[fks.length - 1])
+      .toIndexCursor();
+    for(Row row : cursor.newIterable().setColumnNames(sweepColumnNames)) {
+      Object fk = _complexValFkCol.getRowValue(row);
+      List<Row> values = ((fk != null) ? valueMap.get(fk) : null);
+      if(values != null) {
+        values.add(row);
+      }
+    }
+
+    for(Map.Entry<Integer,List<Row>> e : valueMap.entrySet()) {
+      if(e.getValue().isEmpty()) {
+        e.setValue(Collections.<Row>emptyList());
+      }
+    }
+
+    return valueMap;
+  }
+
+  @Override
+  public Map<Integer,List<V>> getValues(
+      Collection<? extends ComplexValueForeignKey> complexValueFks)
+    throws IOException
+  {
+    List<Integer> fkVals = new ArrayList<Integer>(complexValueFks.size());
+    for(ComplexValueForeignKey complexValueFk : complexValueFks) {
+      fkVals.add(complexValueFk.get());
+    }
+
+    Map<Integer,List<Row>> rawValueMap = getRawValues(fkVals, null);
+
+    Map<Integer,List<V>> valueMap = new LinkedHashMap<Integer,List<V>>();
+    for(ComplexValueForeignKey complexValueFk : complexValueFks) {
+      Integer fk = complexValueFk.get();
+      List<V> values = valueMap.get(fk);
+      if(values == null) {
+        List<Row> rawValues = rawValueMap.get(fk);
+        values = (rawValues.isEmpty() ? Collections.<V>emptyList() :
+                  toValues(complexValueFk, rawValues));
+        valueMap.put(fk, values);
+      }
+      if(complexValueFk instanceof ComplexValueForeignKeyImpl) {
+        ((ComplexValueForeignKeyImpl)complexValueFk).setValues(values);
+      }
+    }
+
+    return valueMap;
+  }
+
   protected List<V> toValues(ComplexValueForeignKey complexValueFk,
                              List<Row> rawValues)
   {
@@ -155,6 +155,13 @@ public class ComplexValueForeignKeyImpl extends ComplexValueForeignKey
     return (List<UnsupportedValue>)getValues();
   }
 
+  /**
+   * Caches the given values (loaded in bulk) for this foreign key.
+   */
+  void setValues(List<? extends ComplexValue> values) {
+    _values = values;
+  }
+
   @Override
   public void reset() {
     // discard any cached values
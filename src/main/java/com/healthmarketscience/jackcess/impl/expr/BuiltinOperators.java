@@ -17,6 +17,11 @@ limitations under the License.
 package com.healthmarketscience.jackcess.impl.expr;
 
 import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import com.healthmarketscience.jackcess.expr.EvalException;
@@ -467,11 +472,26 @@ public class BuiltinOperators
     return toValue(pattern.matcher(param1.getAsString(ctx)).matches());
   }
 
+  public static Value like(
+      LocaleContext ctx, Value param1, Predicate<String> matcher) {
+    if(param1.isNull()) {
+      // null propagation
+      return NULL_VAL;
+    }
+
+    return toValue(matcher.test(param1.getAsString(ctx)));
+  }
+
   public static Value notLike(
       LocaleContext ctx, Value param1, Pattern pattern) {
     return not(ctx, like(ctx, param1, pattern));
   }
 
+  public static Value notLike(
+      LocaleContext ctx, Value param1, Predicate<String> matcher) {
+    return not(ctx, like(ctx, param1, matcher));
+  }
+
   public static Value between(
       LocaleContext ctx, Value param1, Value param2, Value param3) {
     // null propagate any param.  uses short circuit eval of params
@@ -523,6 +543,19 @@ public class BuiltinOperators
     return not(ctx, in(ctx, param1, params));
   }
 
+  static Value in(LocaleContext ctx, Value param1, InSet inSet) {
+    if(param1.isNull()) {
+      // null propagation
+      return NULL_VAL;
+    }
+
+    return toValue(inSet.contains(ctx, param1));
+  }
+
+  static Value notIn(LocaleContext ctx, Value param1, InSet inSet) {
+    return not(ctx, in(ctx, param1, inSet));
+  }
+
 
   private static boolean anyParamIsNull(Value param1, Value param2) {
     return (param1.isNull() || param2.isNull());
@@ -533,6 +566,17 @@ public class BuiltinOperators
     return (param1.isNull() || param2.isNull() || param3.isNull());
   }
 
+  /**
+   * Compares the given values using the same rules as the comparison
+   * operators, except that null values sort before all other values.
+   */
+  public static int compareTo(LocaleContext ctx, Value param1, Value param2) {
+    if(param1.isNull() || param2.isNull()) {
+      return (param1.isNull() ? (param2.isNull() ? 0 : -1) : 1);
+    }
+    return nonNullCompareTo(ctx, param1, param2);
+  }
+
   protected static int nonNullCompareTo(
       LocaleContext ctx, Value param1, Value param2)
   {
@@ -609,6 +653,24 @@ public class BuiltinOperators
                                    t2.getPreferredNumericType());
   }
 
+  /**
+   * Returns the type which values of the given (non-null) types will be
+   * converted to for comparison (same as {@link CoercionType#COMPARE}).
+   */
+  private static Value.Type getCompareType(Value.Type t1, Value.Type t2)
+  {
+    if(t1 == t2) {
+      return (t1.isTemporal() ? t1.getPreferredNumericType() : t1);
+    }
+
+    if(t1.isString() || t2.isString()) {
+      return Value.Type.STRING;
+    }
+
+    return getPreferredNumericType(t1.getPreferredNumericType(),
+                                   t2.getPreferredNumericType());
+  }
+
   private static Value.Type getPreferredNumericType(Value.Type t1, Value.Type t2)
   {
     // if both types are integral, choose "largest"
@@ -674,4 +736,143 @@ public class BuiltinOperators
     return ((d == id) && (d >= MIN_INT) && (d <= MAX_INT) &&
             !Double.isInfinite(d) && !Double.isNaN(d));
   }
+
+  /**
+   * Pre-computed lookup for the "In" operator with a list of constant
+   * values.  The constant values are converted up front to hashable keys
+   * using the same type coercion rules as the comparison operators, so that
+   * membership tests do not need to compare against every value in the list.
+   * Lists which mix strings and non-string values (which can only be
+   * evaluated by comparing each value in order) fall back to the normal
+   * evaluation.  Instances are immutable once created.
+   */
+  static final class InSet
+  {
+    private static final Value.Type[] NON_STRING_TYPES = {
+      Value.Type.DATE, Value.Type.TIME, Value.Type.DATE_TIME,
+      Value.Type.LONG, Value.Type.DOUBLE, Value.Type.BIG_DEC
+    };
+
+    /** the non-null constant values */
+    private final Value[] _values;
+    /** normalized keys if all the values are strings, {@code null}
+        otherwise */
+    private final Set<String> _strKeys;
+    /** for each non-string value type, the keys for each compare type, if
+        none of the values are strings, {@code null} otherwise */
+    private final Map<Value.Type,Map<Value.Type,Set<Object>>> _keys;
+
+    private InSet(Value[] values, Set<String> strKeys,
+                  Map<Value.Type,Map<Value.Type,Set<Object>>> keys) {
+      _values = values;
+      _strKeys = strKeys;
+      _keys = keys;
+    }
+
+    /**
+     * Returns a new InSet for the given constant values.
+     */
+    static InSet create(LocaleContext ctx, Value[] params)
+    {
+      int numVals = 0;
+      int numStrs = 0;
+      Value[] values = new Value[params.length];
+      for(Value val : params) {
+        if(!val.isNull()) {
+          values[numVals++] = val;
+          if(val.getType().isString()) {
+            ++numStrs;
+          }
+        }
+      }
+      if(numVals < values.length) {
+        Value[] tmp = new Value[numVals];
+        System.arraycopy(values, 0, tmp, 0, numVals);
+        values = tmp;
+      }
+
+      Set<String> strKeys = null;
+      Map<Value.Type,Map<Value.Type,Set<Object>>> keys = null;
+      if((numStrs == numVals) && (numVals > 0)) {
+        strKeys = new HashSet<String>();
+        for(Value val : values) {
+          strKeys.add(toStringKey(val.getAsString(ctx)));
+        }
+      } else if(numStrs == 0) {
+        keys = new EnumMap<Value.Type,Map<Value.Type,Set<Object>>>(
+            Value.Type.class);
+        for(Value.Type type : NON_STRING_TYPES) {
+          Map<Value.Type,Set<Object>> typeKeys =
+            new EnumMap<Value.Type,Set<Object>>(Value.Type.class);
+          for(Value val : values) {
+            Value.Type compareType = getCompareType(type, val.getType());
+            Set<Object> compareKeys = typeKeys.get(compareType);
+            if(compareKeys == null) {
+              compareKeys = new HashSet<Object>();
+              typeKeys.put(compareType, compareKeys);
+            }
+            compareKeys.add(toKey(ctx, val, compareType));
+          }
+          keys.put(type, typeKeys);
+        }
+      }
+
+      return new InSet(values, strKeys, keys);
+    }
+
+    boolean contains(LocaleContext ctx, Value param1)
+    {
+      Value.Type type = param1.getType();
+      if(type.isString()) {
+        if(_strKeys != null) {
+          return _strKeys.contains(toStringKey(param1.getAsString(ctx)));
+        }
+      } else if(_keys != null) {
+        for(Map.Entry<Value.Type,Set<Object>> e :
+              _keys.get(type).entrySet()) {
+          if(e.getValue().contains(toKey(ctx, param1, e.getKey()))) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      if(_values.length == 0) {
+        return false;
+      }
+
+      // mixed strings and non-strings, need to compare in order
+      return in(ctx, param1, _values).getAsBoolean(ctx);
+    }
+
+    private static Object toKey(LocaleContext ctx, Value val,
+                                Value.Type compareType)
+    {
+      switch(compareType) {
+      case LONG:
+        return val.getAsLongInt(ctx);
+      case DOUBLE:
+        return val.getAsDouble(ctx);
+      case BIG_DEC:
+        BigDecimal bd = val.getAsBigDecimal(ctx);
+        // BigDecimal equality is sensitive to scale, comparison is not
+        return ((bd.signum() == 0) ? BigDecimal.ZERO : bd.stripTrailingZeros());
+      default:
+        throw new EvalException("Unexpected type " + compareType);
+      }
+    }
+
+    /**
+     * Returns a key for the given string for which two keys are equal if the
+     * strings are equal according to {@link String#compareToIgnoreCase}.
+     */
+    private static String toStringKey(String str)
+    {
+      char[] chars = str.toCharArray();
+      for(int i = 0; i < chars.length; ++i) {
+        chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+      }
+      return new String(chars);
+    }
+  }
 }
@@ -30,6 +30,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -324,12 +325,12 @@ public class Expressionator
     },
     LIKE("Like") {
       @Override public Value eval(EvalContext ctx, Value param1, Object param2, Object param3) {
-        return BuiltinOperators.like(ctx, param1, (Pattern)param2);
+        return BuiltinOperators.like(ctx, param1, toMatcher(param2));
       }
     },
     NOT_LIKE("Not Like") {
       @Override public Value eval(EvalContext ctx, Value param1, Object param2, Object param3) {
-        return BuiltinOperators.notLike(ctx, param1, (Pattern)param2);
+        return BuiltinOperators.notLike(ctx, param1, toMatcher(param2));
       }
     },
     BETWEEN("Between") {
@@ -344,12 +345,16 @@ public class Expressionator
     },
     IN("In") {
       @Override public Value eval(EvalContext ctx, Value param1, Object param2, Object param3) {
-        return BuiltinOperators.in(ctx, param1, (Value[])param2);
+        return ((param2 instanceof BuiltinOperators.InSet) ?
+                BuiltinOperators.in(ctx, param1, (BuiltinOperators.InSet)param2) :
+                BuiltinOperators.in(ctx, param1, (Value[])param2));
       }
     },
     NOT_IN("Not In") {
       @Override public Value eval(EvalContext ctx, Value param1, Object param2, Object param3) {
-        return BuiltinOperators.notIn(ctx, param1, (Value[])param2);
+        return ((param2 instanceof BuiltinOperators.InSet) ?
+                BuiltinOperators.notIn(ctx, param1, (BuiltinOperators.InSet)param2) :
+                BuiltinOperators.notIn(ctx, param1, (Value[])param2));
       }
     };
 
@@ -458,6 +463,203 @@ public class Expressionator
     }
   }
 
+  /**
+   * Returns the simple conditions which must all be satisfied for the given
+   * (parsed) expression to be {@code true}.  These are the top level (i.e.
+   * joined by "And") conditions which compare an object identifier to
+   * constant values ("=", "&lt;", "&lt;=", "&gt;", "&gt;=", "Between", "In"
+   * and "Like" with a literal prefix).  Note that the returned conditions
+   * are not necessarily sufficient (the expression may contain other
+   * conditions).
+   *
+   * @param expr expression returned by {@link #parse}
+   * @param ctx context used to evaluate the constant values
+   * @return the simple conditions, empty if none were found
+   */
+  public static List<ColumnCondition> getColumnConditions(
+      Expression expr, EvalContext ctx) {
+    List<ColumnCondition> conds = new ArrayList<ColumnCondition>();
+    if(expr instanceof BaseExprWrapper) {
+      collectColumnConditions(((BaseExprWrapper)expr)._expr, ctx, conds);
+    }
+    return conds;
+  }
+
+  /**
+   * Returns the identifier referenced by the given (parsed) expression if the
+   * expression is just a (possibly parenthesized) object reference, {@code
+   * null} otherwise.
+   *
+   * @param expr expression returned by {@link #parse}
+   */
+  public static Identifier getIdentifier(Expression expr) {
+    if(expr instanceof BaseExprWrapper) {
+      Expr objExpr = unwrapParens(((BaseExprWrapper)expr)._expr);
+      if(objExpr instanceof EObjValue) {
+        return ((EObjValue)objExpr)._identifier;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the pairs of identifiers which must be equal for the given
+   * (parsed) expression to be {@code true}.  These are the top level
+   * (i.e. joined by "And") conditions which compare two object references
+   * using "=" (e.g. the conditions of a typical join expression).
+   *
+   * @param expr expression returned by {@link #parse}
+   * @return the pairs of identifiers, empty if none were found
+   */
+  public static List<Identifier[]> getIdentifierEqualities(Expression expr) {
+    List<Identifier[]> pairs = new ArrayList<Identifier[]>();
+    if(expr instanceof BaseExprWrapper) {
+      collectIdentifierEqualities(((BaseExprWrapper)expr)._expr, pairs);
+    }
+    return pairs;
+  }
+
+  private static void collectIdentifierEqualities(
+      Expr expr, List<Identifier[]> pairs) {
+
+    expr = unwrapParens(expr);
+
+    if(expr instanceof ELogicalOp) {
+      ELogicalOp logOp = (ELogicalOp)expr;
+      if(logOp._op == LogOp.AND) {
+        collectIdentifierEqualities(logOp._left, pairs);
+        collectIdentifierEqualities(logOp._right, pairs);
+      }
+    } else if((expr instanceof ECompOp) &&
+              (((ECompOp)expr)._op == CompOp.EQ)) {
+      ECompOp compOp = (ECompOp)expr;
+      Expr left = unwrapParens(compOp._left);
+      Expr right = unwrapParens(compOp._right);
+      if((left instanceof EObjValue) && (right instanceof EObjValue)) {
+        pairs.add(new Identifier[]{((EObjValue)left)._identifier,
+                                   ((EObjValue)right)._identifier});
+      }
+    }
+  }
+
+  private static void collectColumnConditions(
+      Expr expr, EvalContext ctx, List<ColumnCondition> conds) {
+
+    expr = unwrapParens(expr);
+
+    if(expr instanceof ELogicalOp) {
+      ELogicalOp logOp = (ELogicalOp)expr;
+      if(logOp._op == LogOp.AND) {
+        collectColumnConditions(logOp._left, ctx, conds);
+        collectColumnConditions(logOp._right, ctx, conds);
+      }
+    } else if(expr instanceof ECompOp) {
+      ECompOp compOp = (ECompOp)expr;
+      ColumnCondition.Op op = toConditionOp((CompOp)compOp._op);
+      Expr left = unwrapParens(compOp._left);
+      Expr right = unwrapParens(compOp._right);
+      if(op == null) {
+        return;
+      }
+      if(!(left instanceof EObjValue)) {
+        // try the reverse comparison
+        Expr tmp = left;
+        left = right;
+        right = tmp;
+        op = op.reverse();
+      }
+      addColumnCondition(op, left, ctx, conds, right);
+    } else if(expr instanceof EBetweenOp) {
+      EBetweenOp betweenOp = (EBetweenOp)expr;
+      if(betweenOp._op == SpecOp.BETWEEN) {
+        addColumnCondition(ColumnCondition.Op.BETWEEN, betweenOp._expr, ctx,
+                           conds, betweenOp._startRangeExpr,
+                           betweenOp._endRangeExpr);
+      }
+    } else if(expr instanceof EInOp) {
+      EInOp inOp = (EInOp)expr;
+      if(inOp._op == SpecOp.IN) {
+        addColumnCondition(ColumnCondition.Op.IN, inOp._expr, ctx, conds,
+                           inOp._exprs.toArray(new Expr[0]));
+      }
+    } else if(expr instanceof ELikeOp) {
+      ELikeOp likeOp = (ELikeOp)expr;
+      String prefix = getLikePatternPrefix(likeOp._patternStr);
+      if((likeOp._op == SpecOp.LIKE) && !prefix.isEmpty()) {
+        addColumnCondition(ColumnCondition.Op.LIKE, likeOp._expr, ctx, conds,
+                           new ELiteralValue(Value.Type.STRING, prefix));
+      }
+    }
+  }
+
+  private static void addColumnCondition(
+      ColumnCondition.Op op, Expr objExpr, EvalContext ctx,
+      List<ColumnCondition> conds, Expr... valueExprs) {
+
+    objExpr = unwrapParens(objExpr);
+    if(!(objExpr instanceof EObjValue)) {
+      return;
+    }
+
+    Value[] values = new Value[valueExprs.length];
+    for(int i = 0; i < valueExprs.length; ++i) {
+      Expr valueExpr = valueExprs[i];
+      if(!valueExpr.isConstant()) {
+        return;
+      }
+      try {
+        values[i] = valueExpr.eval(ctx);
+      } catch(RuntimeException e) {
+        // can't use this condition
+        return;
+      }
+      if(values[i].isNull()) {
+        return;
+      }
+    }
+
+    conds.add(new ColumnCondition(((EObjValue)objExpr)._identifier, op,
+                                  values));
+  }
+
+  private static Expr unwrapParens(Expr expr) {
+    while(expr instanceof EParen) {
+      expr = ((EParen)expr)._expr;
+    }
+    return expr;
+  }
+
+  private static ColumnCondition.Op toConditionOp(CompOp op) {
+    switch(op) {
+    case LT:
+      return ColumnCondition.Op.LT;
+    case LTE:
+      return ColumnCondition.Op.LTE;
+    case GT:
+      return ColumnCondition.Op.GT;
+    case GTE:
+      return ColumnCondition.Op.GTE;
+    case EQ:
+      return ColumnCondition.Op.EQ;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Returns the literal prefix of the given access like pattern (the
+   * characters before the first wildcard), possibly empty.
+   */
+  static String getLikePatternPrefix(String pattern) {
+    for(int i = 0; i < pattern.length(); ++i) {
+      char c = pattern.charAt(i);
+      if((c == '*') || (c == '?') || (c == '#') || (c == '[')) {
+        return pattern.substring(0, i);
+      }
+    }
+    return pattern;
+  }
+
   private static List<Token> trimSpaces(List<Token> tokens) {
     if(tokens == null) {
       return null;
@@ -1214,11 +1416,25 @@ public class Expressionator
       List<Expr> exprs, EvalContext ctx) {
     Value[] paramVals = new Value[exprs.size()];
     for(int i = 0; i < exprs.size(); ++i) {
-      paramVals[i] = new DelayedValue(exprs.get(i), ctx);
+      paramVals[i] = toDelayedValue(exprs.get(i), ctx);
     }
     return paramVals;
   }
 
+  private static Value toDelayedValue(Expr expr, EvalContext ctx) {
+    // no need to delay evaluation of a value which is already known
+    Value val = expr.getConstantValue();
+    return ((val != null) ? val : new DelayedValue(expr, ctx));
+  }
+
+  private static List<Expr> compileExprList(List<Expr> exprs) {
+    List<Expr> compiledExprs = new ArrayList<Expr>(exprs.size());
+    for(Expr expr : exprs) {
+      compiledExprs.add(expr.compile());
+    }
+    return compiledExprs;
+  }
+
   private static boolean areConstant(List<Expr> exprs) {
     for(Expr expr : exprs) {
       if(!expr.isConstant()) {
@@ -1311,6 +1527,68 @@ public class Expressionator
     }
   }
 
+  /**
+   * Returns a matcher for the given Access LIKE pattern.  Common patterns
+   * (plain strings with an optional leading and/or trailing '*') are matched
+   * directly, all other patterns are matched using the regex from {@link
+   * #likePatternToRegex}.
+   */
+  public static Predicate<String> likePatternToMatcher(String pattern) {
+
+    int start = 0;
+    int end = pattern.length();
+    while((start < end) && (pattern.charAt(start) == '*')) {
+      ++start;
+    }
+    boolean anyPrefix = (start > 0);
+    while((end > start) && (pattern.charAt(end - 1) == '*')) {
+      --end;
+    }
+    boolean anySuffix = (end < pattern.length());
+
+    for(int i = start; i < end; ++i) {
+      char c = pattern.charAt(i);
+      if((c == '*') || (c == '?') || (c == '#') || (c == '[')) {
+        // needs the full pattern matching
+        return toMatcher(likePatternToRegex(pattern));
+      }
+    }
+
+    final String literal = pattern.substring(start, end);
+    final int len = literal.length();
+    if(anyPrefix) {
+      if(anySuffix) {
+        if(len == 0) {
+          return s -> true;
+        }
+        return s -> {
+          for(int i = 0; i <= (s.length() - len); ++i) {
+            if(s.regionMatches(true, i, literal, 0, len)) {
+              return true;
+            }
+          }
+          return false;
+        };
+      }
+      return s -> ((s.length() >= len) &&
+                   s.regionMatches(true, s.length() - len, literal, 0, len));
+    }
+    if(anySuffix) {
+      return s -> s.regionMatches(true, 0, literal, 0, len);
+    }
+    return s -> ((s.length() == len) &&
+                 s.regionMatches(true, 0, literal, 0, len));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Predicate<String> toMatcher(Object pattern) {
+    if(pattern instanceof Pattern) {
+      Pattern regex = (Pattern)pattern;
+      return s -> regex.matcher(s).matches();
+    }
+    return (Predicate<String>)pattern;
+  }
+
   public static boolean isRegexSpecialChar(char c) {
     return REGEX_SPEC_CHARS.contains(c);
   }
@@ -1468,6 +1746,34 @@ public class Expressionator
       return outerExpr;
     }
 
+    /**
+     * Returns an equivalent Expr which is optimized for repeated evaluation.
+     * The returned Expr may share nodes with this Expr, but this Expr is not
+     * modified (so the original form of the expression is retained for
+     * display purposes).  Pure constant sub-expressions of the returned Expr
+     * will be evaluated at most once.
+     */
+    protected Expr compile() {
+      Expr expr = compileChildren();
+      return (expr.isConstant() ? new EFoldedValue(expr) : expr);
+    }
+
+    /**
+     * Returns a version of this Expr with all child expressions compiled (or
+     * this Expr if there are no children).
+     */
+    protected Expr compileChildren() {
+      return this;
+    }
+
+    /**
+     * Returns the value of this Expr if it is already known (without
+     * evaluation), {@code null} otherwise.
+     */
+    protected Value getConstantValue() {
+      return null;
+    }
+
     public abstract boolean isConstant();
 
     public abstract Value eval(EvalContext ctx);
@@ -1493,6 +1799,16 @@ public class Expressionator
       return true;
     }
 
+    @Override
+    protected Expr compile() {
+      return this;
+    }
+
+    @Override
+    protected Value getConstantValue() {
+      return _val;
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _val;
@@ -1510,6 +1826,55 @@ public class Expressionator
     }
   }
 
+  private static final class EFoldedValue extends Expr
+  {
+    private final Expr _expr;
+    private volatile Value _val;
+
+    private EFoldedValue(Expr expr) {
+      _expr = expr;
+    }
+
+    @Override
+    public boolean isConstant() {
+      return true;
+    }
+
+    @Override
+    protected boolean isValidationExpr() {
+      return _expr.isValidationExpr();
+    }
+
+    @Override
+    protected Expr compile() {
+      return this;
+    }
+
+    @Override
+    protected Value getConstantValue() {
+      return _val;
+    }
+
+    @Override
+    public Value eval(EvalContext ctx) {
+      if(_val == null) {
+        _val = _expr.eval(ctx);
+      }
+      return _val;
+    }
+
+    @Override
+    public void collectIdentifiers(Collection<Identifier> identifiers) {
+      _expr.collectIdentifiers(identifiers);
+    }
+
+    @Override
+    protected void toExprString(
+        LocaleContext ctx, StringBuilder sb, boolean isDebug) {
+      _expr.toString(ctx, sb, isDebug);
+    }
+  }
+
   private static final class EThisValue extends Expr
   {
     @Override
@@ -1546,6 +1911,16 @@ public class Expressionator
       return true;
     }
 
+    @Override
+    protected Expr compile() {
+      return this;
+    }
+
+    @Override
+    protected Value getConstantValue() {
+      return _val;
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _val;
@@ -1617,6 +1992,12 @@ public class Expressionator
       return _expr.isValidationExpr();
     }
 
+    @Override
+    protected Expr compile() {
+      // parens are irrelevant once the expression has been parsed
+      return _expr.compile();
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _expr.eval(ctx);
@@ -1651,6 +2032,11 @@ public class Expressionator
       return _func.isPure() && areConstant(_params);
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new EFunc(_func, compileExprList(_params));
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _func.eval(ctx, exprListToValues(_params, ctx));
@@ -1740,6 +2126,11 @@ public class Expressionator
       super(op, left, right);
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new EBinaryOp((BinaryOp)_op, _left.compile(), _right.compile());
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return ((BinaryOp)_op).eval(ctx, _left.eval(ctx), _right.eval(ctx));
@@ -1777,6 +2168,11 @@ public class Expressionator
       _expr = right;
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new EUnaryOp((UnaryOp)_op, _expr.compile());
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return ((UnaryOp)_op).eval(ctx, _expr.eval(ctx));
@@ -1809,6 +2205,11 @@ public class Expressionator
       return true;
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new ECompOp((CompOp)_op, _left.compile(), _right.compile());
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return ((CompOp)_op).eval(ctx, _left.eval(ctx), _right.eval(ctx));
@@ -1845,13 +2246,19 @@ public class Expressionator
       return true;
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new ELogicalOp((LogOp)_op, _left.compile(), _right.compile());
+    }
+
     @Override
     public Value eval(final EvalContext ctx) {
 
       // logical operations do short circuit evaluation, so we need to delay
-      // computing results until necessary
-      return ((LogOp)_op).eval(ctx, new DelayedValue(_left, ctx),
-                               new DelayedValue(_right, ctx));
+      // computing results until necessary (note, all the logical operations
+      // always evaluate the left value)
+      return ((LogOp)_op).eval(ctx, _left.eval(ctx),
+                               toDelayedValue(_right, ctx));
     }
   }
 
@@ -1903,6 +2310,11 @@ public class Expressionator
       super(op, expr);
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new ENullOp(_op, _expr.compile());
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _op.eval(ctx, _expr.eval(ctx), null, null);
@@ -1920,6 +2332,7 @@ public class Expressionator
   {
     private final String _patternStr;
     private Pattern _pattern;
+    private Predicate<String> _matcher;
 
     private ELikeOp(SpecOp op, Expr expr, String patternStr) {
       super(op, expr);
@@ -1934,9 +2347,24 @@ public class Expressionator
       return _pattern;
     }
 
+    private Predicate<String> getMatcher()
+    {
+      if(_matcher == null) {
+        _matcher = likePatternToMatcher(_patternStr);
+      }
+      return _matcher;
+    }
+
+    @Override
+    protected Expr compileChildren() {
+      ELikeOp likeOp = new ELikeOp(_op, _expr.compile(), _patternStr);
+      likeOp._matcher = getMatcher();
+      return likeOp;
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
-      return _op.eval(ctx, _expr.eval(ctx), getPattern(), null);
+      return _op.eval(ctx, _expr.eval(ctx), getMatcher(), null);
     }
 
     @Override
@@ -1953,7 +2381,7 @@ public class Expressionator
 
   private static class EInOp extends ESpecOp
   {
-    private final List<Expr> _exprs;
+    protected final List<Expr> _exprs;
 
     private EInOp(SpecOp op, Expr expr, List<Expr> exprs) {
       super(op, expr);
@@ -1965,6 +2393,15 @@ public class Expressionator
       return super.isConstant() && areConstant(_exprs);
     }
 
+    @Override
+    protected Expr compileChildren() {
+      List<Expr> exprs = compileExprList(_exprs);
+      if(areConstant(exprs)) {
+        return new EConstInOp(_op, _expr.compile(), exprs);
+      }
+      return new EInOp(_op, _expr.compile(), exprs);
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _op.eval(ctx, _expr.eval(ctx),
@@ -1988,6 +2425,40 @@ public class Expressionator
     }
   }
 
+  /**
+   * "In" operator with a list of constant values, which are converted to a
+   * lookup set on first evaluation.
+   */
+  private static final class EConstInOp extends EInOp
+  {
+    private volatile BuiltinOperators.InSet _inSet;
+
+    private EConstInOp(SpecOp op, Expr expr, List<Expr> exprs) {
+      super(op, expr, exprs);
+    }
+
+    @Override
+    protected Expr compileChildren() {
+      return this;
+    }
+
+    @Override
+    public Value eval(EvalContext ctx) {
+      Value param1 = _expr.eval(ctx);
+      BuiltinOperators.InSet inSet = _inSet;
+      if(inSet == null) {
+        if(param1.isNull()) {
+          // no need to evaluate the list values
+          return _op.eval(ctx, param1, null, null);
+        }
+        inSet = BuiltinOperators.InSet.create(
+            ctx, exprListToValues(_exprs, ctx));
+        _inSet = inSet;
+      }
+      return _op.eval(ctx, param1, inSet, null);
+    }
+  }
+
   private static class EBetweenOp extends ESpecOp
     implements RightAssocExpr
   {
@@ -2016,11 +2487,17 @@ public class Expressionator
       _endRangeExpr = right;
     }
 
+    @Override
+    protected Expr compileChildren() {
+      return new EBetweenOp(_op, _expr.compile(), _startRangeExpr.compile(),
+                            _endRangeExpr.compile());
+    }
+
     @Override
     public Value eval(EvalContext ctx) {
       return _op.eval(ctx, _expr.eval(ctx),
-                      new DelayedValue(_startRangeExpr, ctx),
-                      new DelayedValue(_endRangeExpr, ctx));
+                      toDelayedValue(_startRangeExpr, ctx),
+                      toDelayedValue(_endRangeExpr, ctx));
     }
 
     @Override
@@ -2048,10 +2525,13 @@ public class Expressionator
   {
     private final String _rawExprStr;
     private final Expr _expr;
+    /** optimized version of the Expr used for evaluation */
+    private final Expr _compiledExpr;
 
     private BaseExprWrapper(String rawExprStr, Expr expr) {
       _rawExprStr = rawExprStr;
       _expr = expr;
+      _compiledExpr = expr.compile();
     }
 
     @Override
@@ -2085,7 +2565,7 @@ public class Expressionator
     }
 
     protected Object evalValue(Value.Type resultType, EvalContext ctx) {
-      Value val = _expr.eval(ctx);
+      Value val = _compiledExpr.eval(ctx);
 
       if(val.isNull()) {
         return null;
@@ -2116,7 +2596,7 @@ public class Expressionator
     }
 
     protected Boolean evalCondition(EvalContext ctx) {
-      Value val = _expr.eval(ctx);
+      Value val = _compiledExpr.eval(ctx);
 
       if(val.isNull()) {
         // null can't be coerced to a boolean
@@ -2167,7 +2647,7 @@ public class Expressionator
    */
   private static final class MemoizedExprWrapper extends ExprWrapper
   {
-    private Object _val;
+    private volatile Object _val;
 
     private MemoizedExprWrapper(String rawExprStr, Expr expr,
                                 Value.Type resultType) {
@@ -2189,7 +2669,7 @@ public class Expressionator
    */
   private static final class MemoizedCondExprWrapper extends CondExprWrapper
   {
-    private Object _val;
+    private volatile Object _val;
 
     private MemoizedCondExprWrapper(String rawExprStr, Expr expr) {
       super(rawExprStr, expr);
@@ -2203,4 +2683,77 @@ public class Expressionator
       return _val;
     }
   }
+
+  /**
+   * A simple condition comparing an object identifier to constant values,
+   * see {@link Expressionator#getColumnConditions}.
+   */
+  public static final class ColumnCondition
+  {
+    public enum Op {
+      /** identifier equals the value */
+      EQ,
+      /** identifier is less than the value */
+      LT,
+      /** identifier is less than or equal to the value */
+      LTE,
+      /** identifier is greater than the value */
+      GT,
+      /** identifier is greater than or equal to the value */
+      GTE,
+      /** identifier is between the two values (in either order) */
+      BETWEEN,
+      /** identifier equals one of the values */
+      IN,
+      /** identifier (as a string) starts with the value (case-insensitive) */
+      LIKE;
+
+      private Op reverse() {
+        switch(this) {
+        case LT:
+          return GT;
+        case LTE:
+          return GTE;
+        case GT:
+          return LT;
+        case GTE:
+          return LTE;
+        default:
+          return this;
+        }
+      }
+    }
+
+    private final Identifier _identifier;
+    private final Op _op;
+    private final Value[] _values;
+
+    private ColumnCondition(Identifier identifier, Op op, Value[] values) {
+      _identifier = identifier;
+      _op = op;
+      _values = values;
+    }
+
+    public Identifier getIdentifier() {
+      return _identifier;
+    }
+
+    public Op getOp() {
+      return _op;
+    }
+
+    /**
+     * Returns the constant (non-null) values for this condition (one value
+     * except for "Between" which has two values and "In" which has one or
+     * more values).
+     */
+    public Value[] getValues() {
+      return _values;
+    }
+
+    @Override
+    public String toString() {
+      return _identifier + " " + _op + " " + Arrays.toString(_values);
+    }
+  }
 }
@@ -0,0 +1,1413 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl.query;
+
+import java.io.IOException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.IndexCursor;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.RuntimeIOException;
+import com.healthmarketscience.jackcess.expr.EvalException;
+import com.healthmarketscience.jackcess.expr.Expression;
+import com.healthmarketscience.jackcess.expr.Identifier;
+import com.healthmarketscience.jackcess.expr.Value;
+import com.healthmarketscience.jackcess.impl.BaseEvalContext;
+import com.healthmarketscience.jackcess.impl.ColumnImpl;
+import com.healthmarketscience.jackcess.impl.DBEvalContext;
+import com.healthmarketscience.jackcess.impl.DatabaseImpl;
+import com.healthmarketscience.jackcess.impl.FilterEvalContext;
+import com.healthmarketscience.jackcess.impl.IndexData;
+import com.healthmarketscience.jackcess.impl.IndexImpl;
+import com.healthmarketscience.jackcess.impl.RowImpl;
+import com.healthmarketscience.jackcess.impl.TableImpl;
+import com.healthmarketscience.jackcess.impl.expr.BuiltinOperators;
+import com.healthmarketscience.jackcess.impl.expr.Expressionator;
+import com.healthmarketscience.jackcess.impl.expr.ValueSupport;
+import com.healthmarketscience.jackcess.query.Query;
+import com.healthmarketscience.jackcess.query.SelectQuery;
+import com.healthmarketscience.jackcess.util.CaseInsensitiveColumnMatcher;
+import com.healthmarketscience.jackcess.util.HashJoiner;
+import static com.healthmarketscience.jackcess.impl.query.QueryFormat.*;
+
+/**
+ * Executes a saved select query against a database (read-only), e.g.:
+ * <pre>
+ *   SelectQuery query = (SelectQuery)...;
+ *   for(Row row : new SelectQueryExecutor(db, query)) {
+ *     // ... process each result row ...
+ *   }
+ * </pre>
+ * <p>
+ * The query may select from tables (possibly aliased) and other saved select
+ * queries, joined using inner, left and right joins, and may include where,
+ * group by (with the aggregate functions Sum, Count, Avg, Min, Max, First,
+ * Last, StDev, StDevP, Var and VarP), having and order by clauses as well as
+ * "DISTINCT" and "TOP" select types.  All expressions are evaluated using the
+ * expression support of the database (see {@link
+ * Database#getEvalConfig}).  Query parameters may be provided using {@link
+ * #setParameter}.
+ * <p>
+ * Where possible, the where clause is used to narrow the rows read from the
+ * first table (using an index range) and joined rows are found using index
+ * lookups on the join columns (or an in-memory hash table of the joined rows
+ * if no usable index exists).  Results are streamed unless the query
+ * requires all the rows to be read first (grouping, ordering, etc.).
+ * <p>
+ * Tables in remote databases and sub-select table expressions are not
+ * supported.
+ *
+ * @author James Ahlborn
+ * @usage _intermediate_class_
+ */
+public class SelectQueryExecutor implements Iterable<Row>
+{
+  /** pattern matching the start of an aggregate function call */
+  private static final Pattern AGGREGATE_PAT = Pattern.compile(
+      "(Sum|Count|Avg|Min|Max|First|Last|StDevP|StDev|VarP|Var)\\s*\\(",
+      Pattern.CASE_INSENSITIVE);
+  /** pattern matching a "table.*" select column */
+  private static final Pattern ALL_COLUMNS_PAT = Pattern.compile(
+      "\\s*(?:\\[([^\\]]+)\\]|([^\\s.\\[\\]]+))\\.\\*\\s*");
+  /** prefix of the identifiers which replace aggregate function calls */
+  private static final String AGGREGATE_PREFIX = "@Agg";
+  /** prefix of the names of unnamed select expressions */
+  private static final String EXPR_NAME_PREFIX = "Expr";
+  private static final int FIRST_EXPR_NUM = 1000;
+
+  private static final short INNER_JOIN = 1;
+  private static final short LEFT_JOIN = 2;
+  private static final short RIGHT_JOIN = 3;
+
+  private final DatabaseImpl _db;
+  private final SelectQueryImpl _query;
+  private final Map<String,Object> _params =
+    new TreeMap<String,Object>(String.CASE_INSENSITIVE_ORDER);
+
+  public SelectQueryExecutor(Database db, SelectQuery query) {
+    _db = (DatabaseImpl)db;
+    _query = (SelectQueryImpl)query;
+  }
+
+  public Database getDatabase() {
+    return _db;
+  }
+
+  public SelectQuery getQuery() {
+    return _query;
+  }
+
+  /**
+   * Sets the value of a query parameter (or any other name which is not
+   * otherwise resolvable within the query).
+   *
+   * @param name the parameter name (without brackets)
+   * @param value the parameter value
+   */
+  public SelectQueryExecutor setParameter(String name, Object value) {
+    _params.put(name, value);
+    return this;
+  }
+
+  /**
+   * Returns the names of the columns of the result rows.
+   */
+  public List<String> getColumnNames() throws IOException {
+    List<String> names = new ArrayList<String>();
+    for(Execution.SelectColumn col : new Execution()._columns) {
+      names.add(col._name);
+    }
+    return names;
+  }
+
+  /**
+   * Executes the query and returns an Iterator over the result rows.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  @Override
+  public Iterator<Row> iterator() {
+    return stream().iterator();
+  }
+
+  /**
+   * Executes the query and returns a Stream of the result rows.  The
+   * returned stream is sequential and may only be consumed once (the stream
+   * stages share the evaluation state of the execution, so it must
+   * <i>not</i> be made parallel).  Each call to this method executes the
+   * query again.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  public Stream<Row> stream() {
+    try {
+      return new Execution().execute();
+    } catch(IOException e) {
+      throw new RuntimeIOException(withErrorContext(
+                                       "Failed executing query"), e);
+    }
+  }
+
+  private String withErrorContext(String msg) {
+    return msg + " (Query: " + _query.getName() + ")";
+  }
+
+  private static boolean isTrue(Object result) {
+    if(result == null) {
+      return false;
+    }
+    if(result instanceof Boolean) {
+      return (Boolean)result;
+    }
+    if(result instanceof Number) {
+      return (((Number)result).doubleValue() != 0.0d);
+    }
+    throw new EvalException("Condition must evaluate to a boolean, found " +
+                            result);
+  }
+
+  private static Row[] with(Row[] tuple, int idx, Row row) {
+    Row[] newTuple = tuple.clone();
+    newTuple[idx] = row;
+    return newTuple;
+  }
+
+  private static DataType inferType(Object val) {
+    if((val == null) || (val instanceof String)) {
+      return DataType.TEXT;
+    }
+    if(val instanceof Boolean) {
+      return DataType.BOOLEAN;
+    }
+    if((val instanceof Byte) || (val instanceof Short) ||
+       (val instanceof Integer)) {
+      return DataType.LONG;
+    }
+    if(val instanceof Long) {
+      return DataType.BIG_INT;
+    }
+    if(val instanceof java.math.BigDecimal) {
+      return DataType.NUMERIC;
+    }
+    if(val instanceof Number) {
+      return DataType.DOUBLE;
+    }
+    if((val instanceof Date) || (val instanceof TemporalAccessor)) {
+      return DataType.SHORT_DATE_TIME;
+    }
+    return DataType.TEXT;
+  }
+
+  private static boolean isNumericType(DataType type) {
+    switch(type) {
+    case BYTE:
+    case INT:
+    case LONG:
+    case BIG_INT:
+    case FLOAT:
+    case DOUBLE:
+    case MONEY:
+    case NUMERIC:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Returns the index of the end of the quoted section (string, date or
+   * bracketed identifier) starting at the given position.
+   */
+  private static int skipQuoted(String str, int start) {
+    char startChar = str.charAt(start);
+    char endChar = ((startChar == '[') ? ']' : startChar);
+    int pos = start + 1;
+    while(pos < str.length()) {
+      char c = str.charAt(pos++);
+      if(c == endChar) {
+        if((endChar != ']') && (pos < str.length()) &&
+           (str.charAt(pos) == endChar)) {
+          // escaped quote
+          ++pos;
+          continue;
+        }
+        return pos;
+      }
+    }
+    return pos;
+  }
+
+  private static boolean isQuoteStart(char c) {
+    return ((c == '"') || (c == '\'') || (c == '[') || (c == '#'));
+  }
+
+  /**
+   * Returns the index of the close paren matching the open paren before the
+   * given position, or {@code -1} if none is found.
+   */
+  private static int findCloseParen(String str, int start) {
+    int depth = 1;
+    int pos = start;
+    while(pos < str.length()) {
+      char c = str.charAt(pos);
+      if(isQuoteStart(c)) {
+        pos = skipQuoted(str, pos);
+        continue;
+      }
+      if(c == '(') {
+        ++depth;
+      } else if((c == ')') && (--depth == 0)) {
+        return pos;
+      }
+      ++pos;
+    }
+    return -1;
+  }
+
+  /** the supported aggregate functions */
+  private enum AggregateType {
+    SUM, COUNT, AVG, MIN, MAX, FIRST, LAST, STDEV, STDEVP, VAR, VARP;
+  }
+
+  /**
+   * Finder of the rows of a source which may match the current rows.
+   */
+  private interface RowLookup
+  {
+    public Stream<Row> find(Row[] tuple);
+  }
+
+  /**
+   * Reference to a value which can be looked up using an identifier.
+   */
+  private interface ValueRef
+  {
+    public Value getValue();
+
+    public Object getRawValue();
+  }
+
+  /**
+   * The state of a single execution of the query (parsed expressions,
+   * current row, etc.).  The current row and group values are shared by all
+   * the stages of the stream returned from {@link #execute}, so that stream
+   * must be consumed sequentially (and only once).
+   */
+  private final class Execution extends BaseEvalContext
+  {
+    private final List<Source> _sources = new ArrayList<Source>();
+    private final List<SelectColumn> _columns = new ArrayList<SelectColumn>();
+    private final List<Aggregate> _aggregates = new ArrayList<Aggregate>();
+    private final Expression _where;
+    private final List<Expression> _groupings = new ArrayList<Expression>();
+    private final Expression _having;
+    private final List<Expression> _orderings = new ArrayList<Expression>();
+    private final List<Boolean> _descendings = new ArrayList<Boolean>();
+    private final Map<Identifier,ValueRef> _refs =
+      new IdentityHashMap<Identifier,ValueRef>();
+    private final boolean _grouped;
+    private int _exprNum = FIRST_EXPR_NUM;
+    /** the queries in the database, loaded on demand */
+    private List<Query> _queries;
+    /** the current source rows */
+    private Row[] _tuple;
+    /** the aggregate values for the current group */
+    private Value[] _groupValues;
+
+    private Execution() throws IOException {
+      super((DBEvalContext)_db.getEvalConfig());
+
+      for(QueryImpl.Row tableRow : _query.getTableRows()) {
+        if(tableRow.expression != null) {
+          throw new UnsupportedOperationException(withErrorContext(
+              "Remote tables and table expressions are not supported"));
+        }
+        addSource(tableRow.name1, tableRow.name2);
+      }
+      for(QueryImpl.Row joinRow : _query.getJoinRows()) {
+        if(findSource(joinRow.name1) == null) {
+          addSource(joinRow.name1, null);
+        }
+        if(findSource(joinRow.name2) == null) {
+          addSource(joinRow.name2, null);
+        }
+      }
+
+      for(QueryImpl.Row colRow : _query.getColumnRows()) {
+        Matcher m = ALL_COLUMNS_PAT.matcher(colRow.expression);
+        if(m.matches()) {
+          String srcName = ((m.group(1) != null) ? m.group(1) : m.group(2));
+          Source src = findSource(srcName);
+          if(src == null) {
+            throw new IllegalArgumentException(withErrorContext(
+                "Unknown table " + srcName));
+          }
+          addAllColumns(src);
+          continue;
+        }
+        addColumn(colRow.name1, colRow.expression);
+      }
+      if(_query.hasFlag(SELECT_STAR_SELECT_TYPE)) {
+        for(Source src : _sources) {
+          addAllColumns(src);
+        }
+      }
+
+      String whereExpr = _query.getWhereExpression();
+      int numAggs = _aggregates.size();
+      _where = parse(whereExpr);
+      if(_aggregates.size() != numAggs) {
+        throw new IllegalArgumentException(withErrorContext(
+            "Aggregate functions are not allowed in the where clause"));
+      }
+
+      for(QueryImpl.Row groupRow : _query.getGroupByRows()) {
+        _groupings.add(parse(groupRow.expression));
+      }
+      _having = parse(_query.getHavingExpression());
+      for(QueryImpl.Row orderRow : _query.getOrderByRows()) {
+        _orderings.add(parse(orderRow.expression));
+        _descendings.add(DESCENDING_FLAG.equalsIgnoreCase(orderRow.name1));
+      }
+
+      _grouped = (!_groupings.isEmpty() || !_aggregates.isEmpty());
+
+      // determine the names of the result columns
+      Set<String> names = new HashSet<String>();
+      for(SelectColumn col : _columns) {
+        col.initName(names);
+      }
+    }
+
+    private void addSource(String tableName, String alias) throws IOException {
+      String name = ((alias != null) ? alias : tableName);
+      TableImpl table = _db.getTable(tableName);
+      if(table != null) {
+        _sources.add(new Source(_sources.size(), name, table, null));
+        return;
+      }
+
+      if(_queries == null) {
+        _queries = _db.getQueries();
+      }
+      for(Query query : _queries) {
+        if(query.getName().equalsIgnoreCase(tableName)) {
+          if(!(query instanceof SelectQuery)) {
+            throw new UnsupportedOperationException(withErrorContext(
+                "Query " + tableName + " is not a select query"));
+          }
+          SelectQueryExecutor subQuery = new SelectQueryExecutor(
+              _db, (SelectQuery)query);
+          subQuery._params.putAll(_params);
+          _sources.add(new Source(_sources.size(), name, null, subQuery));
+          return;
+        }
+      }
+
+      throw new IllegalArgumentException(withErrorContext(
+          "Unknown table or query " + tableName));
+    }
+
+    private Source findSource(String name) {
+      for(Source src : _sources) {
+        if(src._name.equalsIgnoreCase(name)) {
+          return src;
+        }
+      }
+      return null;
+    }
+
+    private void addAllColumns(Source src) {
+      for(String colName : src._columnNames) {
+        SelectColumn col = new SelectColumn(null, null);
+        col._ref = new ColumnRef(src, colName);
+        _columns.add(col);
+      }
+    }
+
+    private void addColumn(String alias, String exprStr) {
+      SelectColumn col = new SelectColumn(alias, parse(exprStr));
+      Identifier identifier = Expressionator.getIdentifier(col._expr);
+      if(identifier != null) {
+        try {
+          ValueRef ref = resolve(identifier);
+          if(ref instanceof ColumnRef) {
+            // simple column references return the original column value
+            col._ref = (ColumnRef)ref;
+          }
+        } catch(RuntimeException e) {
+          // will be handled when the expression is evaluated
+        }
+      }
+      _columns.add(col);
+    }
+
+    /**
+     * Parses the given expression (replacing any aggregate function calls).
+     */
+    private Expression parse(String exprStr) {
+      if(exprStr == null) {
+        return null;
+      }
+      return ((DBEvalContext)_db.getEvalConfig()).parse(
+          Expressionator.Type.EXPRESSION, extractAggregates(exprStr), null);
+    }
+
+    /**
+     * Replaces the aggregate function calls in the given expression with
+     * identifiers referencing the values of the aggregates for the current
+     * group.
+     */
+    private String extractAggregates(String exprStr) {
+      StringBuilder sb = null;
+      Matcher m = AGGREGATE_PAT.matcher(exprStr);
+      int len = exprStr.length();
+      int pos = 0;
+      int copyPos = 0;
+      while(pos < len) {
+        char c = exprStr.charAt(pos);
+        if(isQuoteStart(c)) {
+          pos = skipQuoted(exprStr, pos);
+          continue;
+        }
+
+        boolean wordStart = ((pos == 0) ||
+                             !isIdentifierChar(exprStr.charAt(pos - 1)));
+        if(wordStart && m.region(pos, len).lookingAt()) {
+          int argEnd = findCloseParen(exprStr, m.end());
+          if(argEnd >= 0) {
+            String argStr = exprStr.substring(m.end(), argEnd).trim();
+            AggregateType type = AggregateType.valueOf(
+                m.group(1).toUpperCase());
+            Expression arg = null;
+            if(!"*".equals(argStr)) {
+              int numAggs = _aggregates.size();
+              arg = parse(argStr);
+              if(_aggregates.size() != numAggs) {
+                throw new IllegalArgumentException(withErrorContext(
+                    "Nested aggregate functions are not supported"));
+              }
+            } else if(type != AggregateType.COUNT) {
+              throw new IllegalArgumentException(withErrorContext(
+                  "Invalid aggregate " + exprStr.substring(pos, argEnd + 1)));
+            }
+
+            if(sb == null) {
+              sb = new StringBuilder(len);
+            }
+            sb.append(exprStr, copyPos, pos)
+              .append('[').append(AGGREGATE_PREFIX)
+              .append(_aggregates.size()).append(']');
+            _aggregates.add(new Aggregate(type, arg));
+            pos = argEnd + 1;
+            copyPos = pos;
+            continue;
+          }
+        }
+        ++pos;
+      }
+
+      if(sb == null) {
+        return exprStr;
+      }
+      return sb.append(exprStr, copyPos, len).toString();
+    }
+
+    private boolean isIdentifierChar(char c) {
+      return (Character.isLetterOrDigit(c) || (c == '_') || (c == '.') ||
+              (c == ']'));
+    }
+
+    @Override
+    public Value getIdentifierValue(Identifier identifier) {
+      return resolve(identifier).getValue();
+    }
+
+    /**
+     * Returns the reference for the given identifier.
+     */
+    private ValueRef resolve(Identifier identifier) {
+      ValueRef ref = _refs.get(identifier);
+      if(ref == null) {
+        ref = resolveImpl(identifier);
+        _refs.put(identifier, ref);
+      }
+      return ref;
+    }
+
+    private ValueRef resolveImpl(Identifier identifier) {
+      if(identifier.getPropertyName() != null) {
+        throw new EvalException("Properties are not supported for " +
+                                identifier);
+      }
+
+      String collectionName = identifier.getCollectionName();
+      String objectName = identifier.getObjectName();
+
+      if(collectionName != null) {
+        Source src = findSource(collectionName);
+        String colName = ((src != null) ? src.findColumn(objectName) : null);
+        if(colName == null) {
+          throw new EvalException("Unknown field " + identifier);
+        }
+        return new ColumnRef(src, colName);
+      }
+
+      if(objectName.startsWith(AGGREGATE_PREFIX)) {
+        final int aggIdx = Integer.parseInt(
+            objectName.substring(AGGREGATE_PREFIX.length()));
+        return new ValueRef() {
+          @Override
+          public Value getValue() {
+            return _groupValues[aggIdx];
+          }
+          @Override
+          public Object getRawValue() {
+            return getValue().get();
+          }
+        };
+      }
+
+      ColumnRef colRef = null;
+      for(Source src : _sources) {
+        String colName = src.findColumn(objectName);
+        if(colName != null) {
+          if(colRef != null) {
+            throw new EvalException("Ambiguous field reference " + identifier);
+          }
+          colRef = new ColumnRef(src, colName);
+        }
+      }
+      if(colRef != null) {
+        return colRef;
+      }
+
+      for(SelectColumn col : _columns) {
+        if(objectName.equalsIgnoreCase(col._alias)) {
+          return col;
+        }
+      }
+
+      if(_params.containsKey(objectName)) {
+        final Object paramVal = _params.get(objectName);
+        final Value paramValue = toValue(paramVal, inferType(paramVal));
+        return new ValueRef() {
+          @Override
+          public Value getValue() {
+            return paramValue;
+          }
+          @Override
+          public Object getRawValue() {
+            return paramVal;
+          }
+        };
+      }
+
+      throw new EvalException("Unknown field or parameter " + identifier);
+    }
+
+    private Object eval(Expression expr, Row[] tuple) {
+      _tuple = tuple;
+      try {
+        return expr.eval(this);
+      } catch(EvalException e) {
+        throw new EvalException(withErrorContext(e.getMessage()), e);
+      }
+    }
+
+    private Stream<Row> execute() throws IOException {
+
+      Stream<Row[]> tuples = joinSources();
+
+      if(_where != null) {
+        tuples = tuples.filter(t -> isTrue(eval(_where, t)));
+      }
+
+      Stream<ResultRow> results = null;
+      if(_grouped) {
+        results = Stream.of(tuples).flatMap(this::groupTuples);
+      } else {
+        results = tuples.map(t -> toResultRow(t, null));
+      }
+
+      if(_query.hasFlag(DISTINCT_SELECT_TYPE)) {
+        Set<List<Object>> seen = new HashSet<List<Object>>();
+        results = results.filter(r -> seen.add(r.getDistinctKey()));
+      }
+
+      if(!_orderings.isEmpty()) {
+        results = results.sorted(this::compareResults);
+      }
+
+      if(_query.hasFlag(TOP_SELECT_TYPE)) {
+        long top = Long.parseLong(_query.getFlagRow().name1.trim());
+        if(_query.hasFlag(PERCENT_SELECT_TYPE)) {
+          final long percent = top;
+          results = Stream.of(results).flatMap(rs -> {
+              List<ResultRow> all = rs.collect(Collectors.toList());
+              long limit = ((all.size() * percent) + 99L) / 100L;
+              return all.stream().limit(limit);
+            });
+        } else {
+          results = results.limit(top);
+        }
+      }
+
+      // the stream stages share the current row state
+      return results.map(r -> r._row).sequential();
+    }
+
+    /**
+     * Returns a Stream of the rows from all the sources, combined using the
+     * query joins (if any).
+     */
+    private Stream<Row[]> joinSources() {
+      final int numSources = _sources.size();
+      if(numSources == 0) {
+        return Stream.<Row[]>of(new Row[0]);
+      }
+
+      Source first = _sources.get(0);
+      Stream<Row[]> tuples = first.scan(_where).map(r -> {
+          Row[] tuple = new Row[numSources];
+          tuple[0] = r;
+          return tuple;
+        });
+
+      List<Source> joined = new ArrayList<Source>();
+      joined.add(first);
+      List<Source> remaining = new ArrayList<Source>(
+          _sources.subList(1, numSources));
+      while(!remaining.isEmpty()) {
+        // prefer sources which are joined to the current sources
+        Source next = remaining.get(0);
+        List<QueryImpl.Row> joinRows = null;
+        for(Source src : remaining) {
+          joinRows = findJoinRows(src, joined);
+          if(!joinRows.isEmpty()) {
+            next = src;
+            break;
+          }
+        }
+        remaining.remove(next);
+
+        tuples = joinSource(tuples, next, joinRows, joined);
+        joined.add(next);
+      }
+
+      return tuples;
+    }
+
+    private List<QueryImpl.Row> findJoinRows(Source src, List<Source> joined) {
+      List<QueryImpl.Row> joinRows = new ArrayList<QueryImpl.Row>();
+      for(QueryImpl.Row joinRow : _query.getJoinRows()) {
+        Source src1 = findSource(joinRow.name1);
+        Source src2 = findSource(joinRow.name2);
+        if(((src1 == src) && joined.contains(src2)) ||
+           ((src2 == src) && joined.contains(src1))) {
+          joinRows.add(joinRow);
+        }
+      }
+      return joinRows;
+    }
+
+    private Stream<Row[]> joinSource(Stream<Row[]> tuples, Source src,
+                                     List<QueryImpl.Row> joinRows,
+                                     List<Source> joined) {
+      final int idx = src._idx;
+
+      if(joinRows.isEmpty()) {
+        // cross join
+        return tuples.flatMap(t -> src.scan(null).map(r -> with(t, idx, r)));
+      }
+
+      short joinType = joinRows.get(0).flag;
+      List<Expression> ons = new ArrayList<Expression>();
+      for(QueryImpl.Row joinRow : joinRows) {
+        if(joinRow.flag != joinType) {
+          throw new IllegalStateException(withErrorContext(
+              "Inconsistent join types for " + joinRow.name1 + " and " +
+              joinRow.name2));
+        }
+        ons.add(parse(joinRow.expression));
+      }
+
+      boolean srcIsFrom = (findSource(joinRows.get(0).name1) == src);
+      boolean preserveSrc = false;
+      boolean preserveJoined = false;
+      switch(joinType) {
+      case INNER_JOIN:
+        break;
+      case LEFT_JOIN:
+        preserveSrc = srcIsFrom;
+        preserveJoined = !srcIsFrom;
+        break;
+      case RIGHT_JOIN:
+        preserveSrc = !srcIsFrom;
+        preserveJoined = srcIsFrom;
+        break;
+      default:
+        throw new IllegalStateException(withErrorContext(
+            "Unknown join type " + joinType));
+      }
+
+      if(preserveSrc) {
+        // every row from the new source must be included, so we need to
+        // compare each of them to all of the current rows
+        final int numSources = _sources.size();
+        return Stream.of(tuples).flatMap(ts -> {
+            List<Row[]> current = ts.collect(Collectors.toList());
+            return src.scan(null).flatMap(r -> {
+                List<Row[]> matched = new ArrayList<Row[]>();
+                for(Row[] t : current) {
+                  Row[] newTuple = with(t, idx, r);
+                  if(matchesAll(ons, newTuple)) {
+                    matched.add(newTuple);
+                  }
+                }
+                if(matched.isEmpty()) {
+                  Row[] newTuple = new Row[numSources];
+                  newTuple[idx] = r;
+                  matched.add(newTuple);
+                }
+                return matched.stream();
+              });
+          });
+      }
+
+      RowLookup lookup = findLookup(src, ons, joined);
+      final boolean outer = preserveJoined;
+      return tuples.flatMap(t -> {
+          List<Row[]> matched = new ArrayList<Row[]>();
+          Stream<Row> candidates = ((lookup != null) ? lookup.find(t) :
+                                    src.scan(null));
+          candidates.forEach(r -> {
+              Row[] newTuple = with(t, idx, r);
+              if(matchesAll(ons, newTuple)) {
+                matched.add(newTuple);
+              }
+            });
+          if(matched.isEmpty() && outer) {
+            matched.add(t);
+          }
+          return matched.stream();
+        });
+    }
+
+    private boolean matchesAll(List<Expression> exprs, Row[] tuple) {
+      for(Expression expr : exprs) {
+        if(!isTrue(eval(expr, tuple))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Returns a lookup for finding the rows of the given source which match
+     * the current rows based on the column equalities in the join
+     * expressions, or {@code null} if there are no such equalities.  An
+     * index lookup is preferred, otherwise the rows of the source are loaded
+     * into a hash table.
+     */
+    private RowLookup findLookup(Source src, List<Expression> ons,
+                                 List<Source> joined) {
+      Map<String,ColumnRef> keyRefs =
+        new TreeMap<String,ColumnRef>(String.CASE_INSENSITIVE_ORDER);
+      for(Expression on : ons) {
+        for(Identifier[] pair : Expressionator.getIdentifierEqualities(on)) {
+          try {
+            addKeyRef(src, resolve(pair[0]), resolve(pair[1]), joined,
+                      keyRefs);
+            addKeyRef(src, resolve(pair[1]), resolve(pair[0]), joined,
+                      keyRefs);
+          } catch(RuntimeException e) {
+            // will be handled when the expression is evaluated
+          }
+        }
+      }
+      if(keyRefs.isEmpty()) {
+        return null;
+      }
+
+      IndexLookup lookup = findIndexLookup(src, keyRefs);
+      return ((lookup != null) ? lookup : new HashLookup(src, keyRefs));
+    }
+
+    private IndexLookup findIndexLookup(Source src,
+                                        Map<String,ColumnRef> keyRefs) {
+      if(src._table == null) {
+        return null;
+      }
+
+      IndexImpl bestIndex = null;
+      List<ColumnRef> bestRefs = null;
+      for(IndexImpl index : src._table.getIndexes()) {
+        List<ColumnRef> refs = new ArrayList<ColumnRef>();
+        for(IndexData.ColumnDescriptor idxCol : index.getColumns()) {
+          ColumnRef ref = keyRefs.get(idxCol.getName());
+          if((ref == null) ||
+             !isIndexCompatible(src.getColumnType(idxCol.getName()),
+                                ref._type)) {
+            break;
+          }
+          refs.add(ref);
+        }
+        if(!refs.isEmpty() &&
+           ((bestRefs == null) || (refs.size() > bestRefs.size()) ||
+            ((refs.size() == bestRefs.size()) && index.isUnique() &&
+             !bestIndex.isUnique()))) {
+          bestIndex = index;
+          bestRefs = refs;
+        }
+      }
+
+      return ((bestIndex != null) ? new IndexLookup(bestIndex, bestRefs) :
+              null);
+    }
+
+    private void addKeyRef(Source src, ValueRef srcRef, ValueRef otherRef,
+                           List<Source> joined, Map<String,ColumnRef> keyRefs) {
+      if(!(srcRef instanceof ColumnRef) || !(otherRef instanceof ColumnRef)) {
+        return;
+      }
+      ColumnRef srcColRef = (ColumnRef)srcRef;
+      ColumnRef otherColRef = (ColumnRef)otherRef;
+      if((srcColRef._src == src) && joined.contains(otherColRef._src)) {
+        keyRefs.put(srcColRef._colName, otherColRef);
+      }
+    }
+
+    private boolean isIndexCompatible(DataType srcType, DataType otherType) {
+      return ((otherType != null) &&
+              ((srcType == otherType) ||
+               (isNumericType(srcType) && isNumericType(otherType))));
+    }
+
+    /**
+     * Groups the given rows and returns the results for each group.
+     */
+    private Stream<ResultRow> groupTuples(Stream<Row[]> tuples) {
+      Map<List<Object>,Group> groups = new LinkedHashMap<List<Object>,Group>();
+      tuples.forEachOrdered(t -> {
+          List<Object> key = new ArrayList<Object>(_groupings.size());
+          for(Expression grouping : _groupings) {
+            key.add(HashJoiner.toKeyValue(eval(grouping, t)));
+          }
+          Group group = groups.get(key);
+          if(group == null) {
+            group = new Group(t, _aggregates.size());
+            groups.put(key, group);
+          }
+          for(int i = 0; i < _aggregates.size(); ++i) {
+            Aggregate agg = _aggregates.get(i);
+            Value val = ValueSupport.TRUE_VAL;
+            if(agg._arg != null) {
+              Object argVal = eval(agg._arg, t);
+              val = toValue(argVal, inferType(argVal));
+            }
+            group._aggs[i].accumulate(val);
+          }
+        });
+
+      if(groups.isEmpty() && _groupings.isEmpty()) {
+        // aggregates without groupings always produce a result
+        groups.put(new ArrayList<Object>(),
+                   new Group(new Row[_sources.size()], _aggregates.size()));
+      }
+
+      return groups.values().stream().map(group -> {
+          Value[] groupValues = new Value[group._aggs.length];
+          for(int i = 0; i < groupValues.length; ++i) {
+            groupValues[i] = group._aggs[i].getResult();
+          }
+          _groupValues = groupValues;
+          if((_having != null) && !isTrue(eval(_having, group._tuple))) {
+            return null;
+          }
+          return toResultRow(group._tuple, groupValues);
+        }).filter(r -> (r != null));
+    }
+
+    private ResultRow toResultRow(Row[] tuple, Value[] groupValues) {
+      _groupValues = groupValues;
+      RowImpl row = new RowImpl((com.healthmarketscience.jackcess.impl.RowIdImpl)
+                                null, _columns.size());
+      for(SelectColumn col : _columns) {
+        _tuple = tuple;
+        row.put(col._name, col.getRawValue());
+      }
+      Value[] orderValues = new Value[_orderings.size()];
+      for(int i = 0; i < orderValues.length; ++i) {
+        Object val = eval(_orderings.get(i), tuple);
+        orderValues[i] = toValue(val, inferType(val));
+      }
+      return new ResultRow(row, orderValues);
+    }
+
+    private int compareResults(ResultRow r1, ResultRow r2) {
+      for(int i = 0; i < r1._orderValues.length; ++i) {
+        int cmp = BuiltinOperators.compareTo(this, r1._orderValues[i],
+                                             r2._orderValues[i]);
+        if(cmp != 0) {
+          return (_descendings.get(i) ? -cmp : cmp);
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    protected String withErrorContext(String msg) {
+      return SelectQueryExecutor.this.withErrorContext(msg);
+    }
+
+    /**
+     * A table or query from which the query reads rows.
+     */
+    private final class Source
+    {
+      private final int _idx;
+      private final String _name;
+      private final TableImpl _table;
+      private final SelectQueryExecutor _subQuery;
+      private final List<String> _columnNames;
+      /** the rows of the sub-query, loaded on demand */
+      private List<Row> _subQueryRows;
+
+      private Source(int idx, String name, TableImpl table,
+                     SelectQueryExecutor subQuery) throws IOException {
+        _idx = idx;
+        _name = name;
+        _table = table;
+        _subQuery = subQuery;
+        if(table != null) {
+          _columnNames = new ArrayList<String>();
+          for(ColumnImpl col : table.getColumns()) {
+            _columnNames.add(col.getName());
+          }
+        } else {
+          _columnNames = subQuery.getColumnNames();
+        }
+      }
+
+      private String findColumn(String name) {
+        for(String colName : _columnNames) {
+          if(colName.equalsIgnoreCase(name)) {
+            return colName;
+          }
+        }
+        return null;
+      }
+
+      private DataType getColumnType(String colName) {
+        return ((_table != null) ? _table.getColumn(colName).getType() : null);
+      }
+
+      /**
+       * Returns the rows of this source, possibly narrowed using the given
+       * (where) expression.
+       */
+      private Stream<Row> scan(Expression where) {
+        if(_table == null) {
+          if(_subQueryRows == null) {
+            _subQueryRows = _subQuery.stream().collect(Collectors.toList());
+          }
+          return _subQueryRows.stream();
+        }
+
+        try {
+          if(where != null) {
+            FilterEvalContext.IndexRange range = null;
+            try {
+              range = new FilterEvalContext(_table, _name, where)
+                .findIndexRange(null);
+            } catch(RuntimeException e) {
+              // just scan the table
+            }
+            if(range != null) {
+              return CursorBuilder.createCursor(
+                  range.getIndex(), range.getStartRow(),
+                  range.getEndRow()).stream();
+            }
+          }
+          return CursorBuilder.createCursor(_table).stream();
+        } catch(IOException e) {
+          throw new RuntimeIOException(withErrorContext(
+              "Failed reading table " + _table.getName()), e);
+        }
+      }
+    }
+
+    /**
+     * Reference to a column of a source.
+     */
+    private final class ColumnRef implements ValueRef
+    {
+      private final Source _src;
+      private final String _colName;
+      private final DataType _type;
+
+      private ColumnRef(Source src, String colName) {
+        _src = src;
+        _colName = colName;
+        _type = src.getColumnType(colName);
+      }
+
+      @Override
+      public Value getValue() {
+        Object val = getRawValue();
+        return toValue(val, ((_type != null) ? _type : inferType(val)));
+      }
+
+      @Override
+      public Object getRawValue() {
+        Row row = _tuple[_src._idx];
+        return ((row != null) ? row.get(_colName) : null);
+      }
+    }
+
+    /**
+     * A result column of the query.
+     */
+    private final class SelectColumn implements ValueRef
+    {
+      private final String _alias;
+      private final Expression _expr;
+      /** reference to a source column, if this is a simple column
+          reference */
+      private ColumnRef _ref;
+      private String _name;
+      private boolean _evaluating;
+
+      private SelectColumn(String alias, Expression expr) {
+        _alias = alias;
+        _expr = expr;
+      }
+
+      private void initName(Set<String> names) {
+        String name = _alias;
+        if(name == null) {
+          Identifier identifier = ((_expr != null) ?
+                                   Expressionator.getIdentifier(_expr) : null);
+          if(_ref != null) {
+            name = _ref._colName;
+          } else if((identifier != null) &&
+                    !identifier.getObjectName().startsWith(AGGREGATE_PREFIX)) {
+            name = identifier.getObjectName();
+          } else {
+            name = EXPR_NAME_PREFIX + _exprNum++;
+          }
+          if(names.contains(name.toUpperCase()) && (_ref != null)) {
+            name = _ref._src._name + "." + name;
+          }
+        }
+        String baseName = name;
+        int suffix = 1;
+        while(!names.add(name.toUpperCase())) {
+          name = baseName + suffix++;
+        }
+        _name = name;
+      }
+
+      @Override
+      public Value getValue() {
+        Object val = getRawValue();
+        return toValue(val, inferType(val));
+      }
+
+      @Override
+      public Object getRawValue() {
+        if(_ref != null) {
+          return _ref.getRawValue();
+        }
+        if(_evaluating) {
+          throw new EvalException("Circular reference to " + _name);
+        }
+        _evaluating = true;
+        try {
+          return _expr.eval(Execution.this);
+        } catch(EvalException e) {
+          throw new EvalException(withErrorContext(e.getMessage()), e);
+        } finally {
+          _evaluating = false;
+        }
+      }
+    }
+
+    /**
+     * Lookup of the rows of a source using an index.
+     */
+    private final class IndexLookup implements RowLookup
+    {
+      private final IndexImpl _index;
+      private final List<ColumnRef> _keyRefs;
+      private IndexCursor _cursor;
+
+      private IndexLookup(IndexImpl index, List<ColumnRef> keyRefs) {
+        _index = index;
+        _keyRefs = keyRefs;
+      }
+
+      @Override
+      public Stream<Row> find(Row[] tuple) {
+        _tuple = tuple;
+        Object[] entryValues = new Object[_keyRefs.size()];
+        for(int i = 0; i < entryValues.length; ++i) {
+          entryValues[i] = _keyRefs.get(i).getRawValue();
+          if(entryValues[i] == null) {
+            // null never matches anything
+            return Stream.empty();
+          }
+        }
+
+        try {
+          if(_cursor == null) {
+            _cursor = CursorBuilder.createCursor(_index);
+          }
+        } catch(IOException e) {
+          throw new RuntimeIOException(withErrorContext(
+              "Failed reading index " + _index.getName()), e);
+        }
+
+        return _cursor.newEntryIterable(entryValues)
+          .setColumnMatcher(CaseInsensitiveColumnMatcher.INSTANCE)
+          .stream();
+      }
+    }
+
+    /**
+     * Lookup of the rows of a source using an in-memory hash table of all
+     * the rows of the source (built on first use).
+     */
+    private final class HashLookup implements RowLookup
+    {
+      private final Source _src;
+      private final List<String> _colNames;
+      private final List<ColumnRef> _keyRefs;
+      private Map<List<Object>,List<Row>> _rows;
+
+      private HashLookup(Source src, Map<String,ColumnRef> keyRefs) {
+        _src = src;
+        _colNames = new ArrayList<String>(keyRefs.keySet());
+        _keyRefs = new ArrayList<ColumnRef>(keyRefs.values());
+      }
+
+      @Override
+      public Stream<Row> find(Row[] tuple) {
+        if(_rows == null) {
+          _rows = new HashMap<List<Object>,List<Row>>();
+          _src.scan(null).forEach(r -> {
+              List<Object> key = toKey(_colNames.size(),
+                                       i -> r.get(_colNames.get(i)));
+              if(key != null) {
+                _rows.computeIfAbsent(key, k -> new ArrayList<Row>(1)).add(r);
+              }
+            });
+        }
+
+        _tuple = tuple;
+        List<Object> key = toKey(_keyRefs.size(),
+                                 i -> _keyRefs.get(i).getRawValue());
+        List<Row> rows = ((key != null) ? _rows.get(key) : null);
+        return ((rows != null) ? rows.stream() : Stream.<Row>empty());
+      }
+
+      private List<Object> toKey(int numVals, IntFunction<Object> valueFn) {
+        List<Object> key = new ArrayList<Object>(numVals);
+        for(int i = 0; i < numVals; ++i) {
+          Object val = valueFn.apply(i);
+          if(val == null) {
+            // null never matches anything
+            return null;
+          }
+          key.add(HashJoiner.toKeyValue(val));
+        }
+        return key;
+      }
+    }
+
+    /**
+     * An aggregate function call.
+     */
+    private final class Aggregate
+    {
+      private final AggregateType _type;
+      /** the argument of the aggregate, {@code null} for "*" */
+      private final Expression _arg;
+
+      private Aggregate(AggregateType type, Expression arg) {
+        _type = type;
+        _arg = arg;
+      }
+    }
+
+    /**
+     * The accumulated state of an aggregate for a single group.
+     */
+    private final class AggregateState
+    {
+      private final AggregateType _type;
+      private Value _val;
+      private long _count;
+      private double _mean;
+      private double _m2;
+
+      private AggregateState(AggregateType type) {
+        _type = type;
+      }
+
+      private void accumulate(Value val) {
+        switch(_type) {
+        case FIRST:
+          if(_count++ == 0L) {
+            _val = val;
+          }
+          return;
+        case LAST:
+          _val = val;
+          ++_count;
+          return;
+        default:
+          // all other aggregates ignore nulls
+        }
+
+        if(val.isNull()) {
+          return;
+        }
+        ++_count;
+
+        switch(_type) {
+        case SUM:
+        case AVG:
+          _val = ((_val == null) ? val :
+                  BuiltinOperators.add(Execution.this, _val, val));
+          break;
+        case MIN:
+          if((_val == null) ||
+             (BuiltinOperators.compareTo(Execution.this, val, _val) < 0)) {
+            _val = val;
+          }
+          break;
+        case MAX:
+          if((_val == null) ||
+             (BuiltinOperators.compareTo(Execution.this, val, _val) > 0)) {
+            _val = val;
+          }
+          break;
+        case STDEV:
+        case STDEVP:
+        case VAR:
+        case VARP:
+          double d = val.getAsDouble(Execution.this);
+          double delta = d - _mean;
+          _mean += delta / _count;
+          _m2 += delta * (d - _mean);
+          break;
+        default:
+          // nothing else to do
+        }
+      }
+
+      private Value getResult() {
+        switch(_type) {
+        case COUNT:
+          return ValueSupport.toValue((int)_count);
+        case AVG:
+          return ((_count > 0L) ?
+                  BuiltinOperators.divide(Execution.this, _val,
+                                          ValueSupport.toValue((int)_count)) :
+                  ValueSupport.NULL_VAL);
+        case STDEV:
+          return ((_count > 1L) ?
+                  ValueSupport.toValue(Math.sqrt(_m2 / (_count - 1L))) :
+                  ValueSupport.NULL_VAL);
+        case STDEVP:
+          return ((_count > 0L) ?
+                  ValueSupport.toValue(Math.sqrt(_m2 / _count)) :
+                  ValueSupport.NULL_VAL);
+        case VAR:
+          return ((_count > 1L) ?
+                  ValueSupport.toValue(_m2 / (_count - 1L)) :
+                  ValueSupport.NULL_VAL);
+        case VARP:
+          return ((_count > 0L) ?
+                  ValueSupport.toValue(_m2 / _count) :
+                  ValueSupport.NULL_VAL);
+        default:
+          return ((_val != null) ? _val : ValueSupport.NULL_VAL);
+        }
+      }
+    }
+
+    /**
+     * The state of a single group of rows.
+     */
+    private final class Group
+    {
+      /** the first rows in the group */
+      private final Row[] _tuple;
+      private final AggregateState[] _aggs;
+
+      private Group(Row[] tuple, int numAggs) {
+        _tuple = tuple;
+        _aggs = new AggregateState[numAggs];
+        for(int i = 0; i < numAggs; ++i) {
+          _aggs[i] = new AggregateState(_aggregates.get(i)._type);
+        }
+      }
+    }
+  }
+
+  /**
+   * A result row along with the values used to order the results.
+   */
+  private static final class ResultRow
+  {
+    private final Row _row;
+    private final Value[] _orderValues;
+
+    private ResultRow(Row row, Value[] orderValues) {
+      _row = row;
+      _orderValues = orderValues;
+    }
+
+    private List<Object> getDistinctKey() {
+      List<Object> key = new ArrayList<Object>(_row.size());
+      for(Object val : _row.values()) {
+        key.add(HashJoiner.toKeyValue(val));
+      }
+      return key;
+    }
+  }
+}
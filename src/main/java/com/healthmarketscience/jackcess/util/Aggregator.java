@@ -0,0 +1,703 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexCursor;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import com.healthmarketscience.jackcess.impl.RowImpl;
+
+/**
+ * Utility for computing aggregate values (count, sum, average, min and max)
+ * over the rows of a cursor, optionally grouped by one or more columns,
+ * e.g.:
+ * <pre>
+ *   for(Row row : Aggregator.create(table)
+ *         .addGroupByColumns("Region")
+ *         .count("NumOrders")
+ *         .sum("Total", "Amount")
+ *         .max("Largest", "Amount")) {
+ *     // row contains "Region", "NumOrders", "Total" and "Largest"
+ *   }
+ * </pre>
+ * <p>
+ * Only the relevant columns are read from the cursor, and the aggregates are
+ * accumulated using primitive values where possible (sums of integer
+ * columns are computed using {@code long} values, sums of floating point
+ * columns using {@code double} values and sums of money/numeric columns
+ * using {@link BigDecimal} values).  Like Access, {@code null} values are
+ * ignored by all aggregates except row counts, text values are grouped (and
+ * compared) case-insensitively, and aggregating rows without any group by
+ * columns always produces exactly one result row.
+ * <p>
+ * If the cursor is an {@link IndexCursor} whose leading index columns are
+ * the group by columns, the rows are already ordered by group, so each group
+ * is produced as soon as it is complete and only a single group is held in
+ * memory (see {@link #isSortedGrouping}).  Otherwise, all groups are held in
+ * memory until the cursor is exhausted (and are produced in the order in
+ * which they were first encountered).
+ * <p>
+ * Each iteration over the aggregator resets and re-reads the given cursor.
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public class Aggregator implements Iterable<Row>
+{
+  /** the supported aggregate functions */
+  public enum Function {
+    /** number of rows (if no column is given) or non-{@code null} values */
+    COUNT,
+    /** sum of the values (returns the same type as the sum accumulator) */
+    SUM,
+    /** average of the values ({@code Double} or {@code BigDecimal}) */
+    AVG,
+    /** min of the values */
+    MIN,
+    /** max of the values */
+    MAX;
+  }
+
+  /** the kinds of accumulators used for numeric values */
+  private enum NumberKind {
+    INTEGRAL, FLOATING, DECIMAL;
+  }
+
+  private final Cursor _cursor;
+  private final List<String> _groupColumns = new ArrayList<String>();
+  private final List<AggregateDef> _aggregates = new ArrayList<AggregateDef>();
+  private final Set<String> _resultNames =
+    new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+
+  private Aggregator(Cursor cursor) {
+    _cursor = cursor;
+  }
+
+  /**
+   * Creates a new Aggregator over all the rows of the given table.
+   */
+  public static Aggregator create(Table table) throws IOException {
+    return create(CursorBuilder.createCursor(table));
+  }
+
+  /**
+   * Creates a new Aggregator over all the rows of the given cursor.  If the
+   * cursor is an IndexCursor, it may be used to efficiently group rows (see
+   * {@link #isSortedGrouping}).
+   */
+  public static Aggregator create(Cursor cursor) {
+    return new Aggregator(cursor);
+  }
+
+  public Cursor getCursor() {
+    return _cursor;
+  }
+
+  public List<String> getGroupByColumns() {
+    return Collections.unmodifiableList(_groupColumns);
+  }
+
+  /**
+   * Adds the given columns to the columns by which the rows are grouped.  The
+   * values of these columns are included in each result row.
+   */
+  public Aggregator addGroupByColumns(String... columnNames) {
+    for(String columnName : columnNames) {
+      Column col = _cursor.getTable().getColumn(columnName);
+      addResultName(col.getName());
+      _groupColumns.add(col.getName());
+    }
+    return this;
+  }
+
+  /**
+   * Adds a count of the rows to the result with the given name.
+   */
+  public Aggregator count(String resultName) {
+    return addAggregate(Function.COUNT, resultName, null);
+  }
+
+  /**
+   * Adds a count of the non-{@code null} values of the given column to the
+   * result with the given name.
+   */
+  public Aggregator count(String resultName, String columnName) {
+    return addAggregate(Function.COUNT, resultName, columnName);
+  }
+
+  /**
+   * Adds the sum of the values of the given (numeric) column to the result
+   * with the given name.
+   */
+  public Aggregator sum(String resultName, String columnName) {
+    return addAggregate(Function.SUM, resultName, columnName);
+  }
+
+  /**
+   * Adds the average of the values of the given (numeric) column to the
+   * result with the given name.
+   */
+  public Aggregator avg(String resultName, String columnName) {
+    return addAggregate(Function.AVG, resultName, columnName);
+  }
+
+  /**
+   * Adds the minimum of the values of the given column to the result with
+   * the given name.
+   */
+  public Aggregator min(String resultName, String columnName) {
+    return addAggregate(Function.MIN, resultName, columnName);
+  }
+
+  /**
+   * Adds the maximum of the values of the given column to the result with
+   * the given name.
+   */
+  public Aggregator max(String resultName, String columnName) {
+    return addAggregate(Function.MAX, resultName, columnName);
+  }
+
+  /**
+   * Adds the given aggregate of the values of the given column to the result
+   * with the given name.
+   *
+   * @param function the aggregate function
+   * @param resultName the name of the aggregate in the result rows
+   * @param columnName the name of the aggregated column (may only be {@code
+   *                   null} for {@link Function#COUNT})
+   * @throws IllegalArgumentException if the column type is not supported for
+   *         the given function
+   */
+  public Aggregator addAggregate(Function function, String resultName,
+                                 String columnName) {
+    Column col = null;
+    NumberKind kind = null;
+    if(columnName != null) {
+      col = _cursor.getTable().getColumn(columnName);
+      DataType type = col.getType();
+      switch(function) {
+      case SUM:
+      case AVG:
+        kind = getNumberKind(type);
+        if(kind == null) {
+          throw new IllegalArgumentException(
+              "Cannot sum values of non-numeric column " + col.getName());
+        }
+        break;
+      case MIN:
+      case MAX:
+        if(!isComparable(type)) {
+          throw new IllegalArgumentException(
+              "Cannot compare values of column " + col.getName());
+        }
+        break;
+      default:
+        // any column can be counted
+      }
+    } else if(function != Function.COUNT) {
+      throw new IllegalArgumentException(
+          "Must provide column for aggregate " + function);
+    }
+
+    addResultName(resultName);
+    _aggregates.add(new AggregateDef(function, resultName,
+                                     ((col != null) ? col.getName() : null),
+                                     kind));
+    return this;
+  }
+
+  private void addResultName(String name) {
+    if(!_resultNames.add(name)) {
+      throw new IllegalArgumentException("Duplicate result name " + name);
+    }
+  }
+
+  /**
+   * Returns {@code true} if the rows of the cursor are already ordered by the
+   * group by columns (the cursor is an IndexCursor whose leading index
+   * columns are the group by columns), {@code false} otherwise.
+   */
+  public boolean isSortedGrouping() {
+    if(_groupColumns.isEmpty() || !(_cursor instanceof IndexCursor)) {
+      return false;
+    }
+    List<? extends Index.Column> idxCols =
+      ((IndexCursor)_cursor).getIndex().getColumns();
+    if(idxCols.size() < _groupColumns.size()) {
+      return false;
+    }
+    Set<String> leadingCols = new TreeSet<String>(
+        String.CASE_INSENSITIVE_ORDER);
+    for(int i = 0; i < _groupColumns.size(); ++i) {
+      leadingCols.add(idxCols.get(i).getName());
+    }
+    return leadingCols.containsAll(_groupColumns);
+  }
+
+  /**
+   * Computes the aggregates and returns an Iterator over the result rows.
+   * @throws com.healthmarketscience.jackcess.RuntimeIOException if an
+   *         IOException is thrown
+   */
+  @Override
+  public Iterator<Row> iterator() {
+    Iterator<Row> rows = newRowIterable().iterator();
+    if(isSortedGrouping()) {
+      return new SortedGroupIterator(rows);
+    }
+
+    Map<List<Object>,Group> groups = new LinkedHashMap<List<Object>,Group>();
+    while(rows.hasNext()) {
+      Row row = rows.next();
+      List<Object> key = toGroupKey(row);
+      Group group = groups.get(key);
+      if(group == null) {
+        group = new Group(row);
+        groups.put(key, group);
+      }
+      group.accumulate(row);
+    }
+
+    if(groups.isEmpty() && _groupColumns.isEmpty()) {
+      // aggregates without grouping always produce a result
+      groups.put(Collections.emptyList(), new Group(null));
+    }
+
+    Iterator<Group> groupIter = groups.values().iterator();
+    return new Iterator<Row>() {
+      @Override
+      public boolean hasNext() {
+        return groupIter.hasNext();
+      }
+      @Override
+      public Row next() {
+        return groupIter.next().toRow();
+      }
+    };
+  }
+
+  /**
+   * Computes the aggregates and returns a Stream of the result rows.
+   * @throws com.healthmarketscience.jackcess.RuntimeIOException if an
+   *         IOException is thrown
+   */
+  public Stream<Row> stream() {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED),
+        false);
+  }
+
+  private IterableBuilder newRowIterable() {
+    Set<String> colNames = new LinkedHashSet<String>(_groupColumns);
+    for(AggregateDef agg : _aggregates) {
+      if(agg._columnName != null) {
+        colNames.add(agg._columnName);
+      }
+    }
+    return _cursor.newIterable().reset(true).forward()
+      .setColumnNames(colNames);
+  }
+
+  private List<Object> toGroupKey(Row row) {
+    if(_groupColumns.size() == 1) {
+      return Collections.singletonList(
+          HashJoiner.toKeyValue(row.get(_groupColumns.get(0))));
+    }
+    List<Object> key = new ArrayList<Object>(_groupColumns.size());
+    for(String groupCol : _groupColumns) {
+      key.add(HashJoiner.toKeyValue(row.get(groupCol)));
+    }
+    return key;
+  }
+
+  private static NumberKind getNumberKind(DataType type) {
+    switch(type) {
+    case BYTE:
+    case INT:
+    case LONG:
+    case BIG_INT:
+      return NumberKind.INTEGRAL;
+    case FLOAT:
+    case DOUBLE:
+      return NumberKind.FLOATING;
+    case MONEY:
+    case NUMERIC:
+      return NumberKind.DECIMAL;
+    default:
+      return null;
+    }
+  }
+
+  private static boolean isComparable(DataType type) {
+    switch(type) {
+    case BINARY:
+    case OLE:
+    case COMPLEX_TYPE:
+    case UNKNOWN_0D:
+    case UNKNOWN_11:
+    case UNSUPPORTED_FIXEDLEN:
+    case UNSUPPORTED_VARLEN:
+      return false;
+    default:
+      return true;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object val1, Object val2) {
+    if((val1 instanceof String) && (val2 instanceof String)) {
+      return ((String)val1).compareToIgnoreCase((String)val2);
+    }
+    return ((Comparable<Object>)val1).compareTo(val2);
+  }
+
+  /**
+   * Definition of a single aggregate.
+   */
+  private static final class AggregateDef
+  {
+    private final Function _function;
+    private final String _resultName;
+    private final String _columnName;
+    private final NumberKind _kind;
+
+    private AggregateDef(Function function, String resultName,
+                         String columnName, NumberKind kind) {
+      _function = function;
+      _resultName = resultName;
+      _columnName = columnName;
+      _kind = kind;
+    }
+
+    private Accumulator newAccumulator() {
+      switch(_function) {
+      case COUNT:
+        return ((_columnName != null) ? new CountAccumulator(_columnName) :
+                new RowCountAccumulator());
+      case SUM:
+      case AVG:
+        boolean avg = (_function == Function.AVG);
+        switch(_kind) {
+        case INTEGRAL:
+          return new LongSumAccumulator(_columnName, avg);
+        case FLOATING:
+          return new DoubleSumAccumulator(_columnName, avg);
+        default:
+          return new DecimalSumAccumulator(_columnName, avg);
+        }
+      default:
+        return new MinMaxAccumulator(_columnName,
+                                     (_function == Function.MIN));
+      }
+    }
+  }
+
+  /**
+   * The accumulated state of a single aggregate for a single group.
+   */
+  private static abstract class Accumulator
+  {
+    protected abstract void accumulate(Row row);
+
+    protected abstract Object getResult();
+  }
+
+  private static final class RowCountAccumulator extends Accumulator
+  {
+    private long _count;
+
+    @Override
+    protected void accumulate(Row row) {
+      ++_count;
+    }
+
+    @Override
+    protected Object getResult() {
+      return _count;
+    }
+  }
+
+  /**
+   * Base class for accumulators of the non-{@code null} values of a column.
+   */
+  private static abstract class ColumnAccumulator extends Accumulator
+  {
+    private final String _columnName;
+    protected long _count;
+
+    protected ColumnAccumulator(String columnName) {
+      _columnName = columnName;
+    }
+
+    @Override
+    protected final void accumulate(Row row) {
+      Object val = row.get(_columnName);
+      if(val != null) {
+        ++_count;
+        accumulateValue(val);
+      }
+    }
+
+    protected abstract void accumulateValue(Object val);
+  }
+
+  private static final class CountAccumulator extends ColumnAccumulator
+  {
+    private CountAccumulator(String columnName) {
+      super(columnName);
+    }
+
+    @Override
+    protected void accumulateValue(Object val) {
+      // nothing to do
+    }
+
+    @Override
+    protected Object getResult() {
+      return _count;
+    }
+  }
+
+  private static final class LongSumAccumulator extends ColumnAccumulator
+  {
+    private final boolean _avg;
+    private long _sum;
+    /** used if the long sum overflows */
+    private BigDecimal _bigSum;
+
+    private LongSumAccumulator(String columnName, boolean avg) {
+      super(columnName);
+      _avg = avg;
+    }
+
+    @Override
+    protected void accumulateValue(Object val) {
+      long longVal = ((Number)val).longValue();
+      if(_bigSum == null) {
+        long sum = _sum + longVal;
+        // overflow iff both values have the opposite sign of the result
+        if(((_sum ^ sum) & (longVal ^ sum)) >= 0L) {
+          _sum = sum;
+          return;
+        }
+        _bigSum = BigDecimal.valueOf(_sum);
+      }
+      _bigSum = _bigSum.add(BigDecimal.valueOf(longVal));
+    }
+
+    @Override
+    protected Object getResult() {
+      if(_count == 0L) {
+        return null;
+      }
+      if(_avg) {
+        return ((_bigSum == null) ? ((double)_sum / _count) :
+                (_bigSum.doubleValue() / _count));
+      }
+      return ((_bigSum == null) ? (Object)_sum : _bigSum);
+    }
+  }
+
+  private static final class DoubleSumAccumulator extends ColumnAccumulator
+  {
+    private final boolean _avg;
+    private double _sum;
+
+    private DoubleSumAccumulator(String columnName, boolean avg) {
+      super(columnName);
+      _avg = avg;
+    }
+
+    @Override
+    protected void accumulateValue(Object val) {
+      _sum += ((Number)val).doubleValue();
+    }
+
+    @Override
+    protected Object getResult() {
+      if(_count == 0L) {
+        return null;
+      }
+      return (_avg ? (_sum / _count) : _sum);
+    }
+  }
+
+  private static final class DecimalSumAccumulator extends ColumnAccumulator
+  {
+    private final boolean _avg;
+    private BigDecimal _sum = BigDecimal.ZERO;
+
+    private DecimalSumAccumulator(String columnName, boolean avg) {
+      super(columnName);
+      _avg = avg;
+    }
+
+    @Override
+    protected void accumulateValue(Object val) {
+      _sum = _sum.add((BigDecimal)val);
+    }
+
+    @Override
+    protected Object getResult() {
+      if(_count == 0L) {
+        return null;
+      }
+      return (_avg ? _sum.divide(BigDecimal.valueOf(_count),
+                                 MathContext.DECIMAL128) :
+              _sum);
+    }
+  }
+
+  private static final class MinMaxAccumulator extends ColumnAccumulator
+  {
+    private final boolean _min;
+    private Object _val;
+
+    private MinMaxAccumulator(String columnName, boolean min) {
+      super(columnName);
+      _min = min;
+    }
+
+    @Override
+    protected void accumulateValue(Object val) {
+      if(_val == null) {
+        _val = val;
+        return;
+      }
+      int cmp = compare(val, _val);
+      if(_min ? (cmp < 0) : (cmp > 0)) {
+        _val = val;
+      }
+    }
+
+    @Override
+    protected Object getResult() {
+      return _val;
+    }
+  }
+
+  /**
+   * The accumulated state of a single group of rows.
+   */
+  private final class Group
+  {
+    /** the group by column values (from the first row in the group) */
+    private final Object[] _groupValues;
+    private final Accumulator[] _accumulators;
+
+    private Group(Row firstRow) {
+      _groupValues = new Object[_groupColumns.size()];
+      if(firstRow != null) {
+        for(int i = 0; i < _groupValues.length; ++i) {
+          _groupValues[i] = firstRow.get(_groupColumns.get(i));
+        }
+      }
+      _accumulators = new Accumulator[_aggregates.size()];
+      for(int i = 0; i < _accumulators.length; ++i) {
+        _accumulators[i] = _aggregates.get(i).newAccumulator();
+      }
+    }
+
+    private void accumulate(Row row) {
+      for(Accumulator acc : _accumulators) {
+        acc.accumulate(row);
+      }
+    }
+
+    private Row toRow() {
+      RowImpl row = new RowImpl((RowIdImpl)null,
+                                _groupValues.length + _accumulators.length);
+      for(int i = 0; i < _groupValues.length; ++i) {
+        row.put(_groupColumns.get(i), _groupValues[i]);
+      }
+      for(int i = 0; i < _accumulators.length; ++i) {
+        row.put(_aggregates.get(i)._resultName,
+                _accumulators[i].getResult());
+      }
+      return row;
+    }
+  }
+
+  /**
+   * Iterator which produces each group as soon as it is complete for rows
+   * which are already ordered by group.
+   */
+  private final class SortedGroupIterator implements Iterator<Row>
+  {
+    private final Iterator<Row> _rows;
+    private Row _nextRow;
+    private List<Object> _nextKey;
+
+    private SortedGroupIterator(Iterator<Row> rows) {
+      _rows = rows;
+      advance();
+    }
+
+    private void advance() {
+      if(_rows.hasNext()) {
+        _nextRow = _rows.next();
+        _nextKey = toGroupKey(_nextRow);
+      } else {
+        _nextRow = null;
+        _nextKey = null;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return (_nextRow != null);
+    }
+
+    @Override
+    public Row next() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Group group = new Group(_nextRow);
+      List<Object> key = _nextKey;
+      do {
+        group.accumulate(_nextRow);
+        advance();
+      } while((_nextRow != null) && key.equals(_nextKey));
+      return group.toRow();
+    }
+  }
+}
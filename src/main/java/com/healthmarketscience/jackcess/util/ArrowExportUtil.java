@@ -0,0 +1,890 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.impl.ByteUtil;
+import com.healthmarketscience.jackcess.impl.ColumnImpl;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+
+/**
+ * Utility class for exporting tables from an Access database to files in
+ * the <a href="https://arrow.apache.org/docs/format/Columnar.html">Apache
+ * Arrow</a> IPC file format (no Arrow library is necessary).  The rows of a
+ * table are written as columnar record batches (a record batch never splits
+ * the rows of a single data page), and the Arrow type of each column is
+ * chosen based on the column's {@link com.healthmarketscience.jackcess.DataType}:
+ * <ul>
+ * <li>BOOLEAN: Bool</li>
+ * <li>BYTE: unsigned 8-bit Int</li>
+ * <li>INT, LONG, BIG_INT: signed 16-bit, 32-bit, 64-bit Int</li>
+ * <li>COMPLEX_TYPE: 32-bit Int (the complex value foreign key)</li>
+ * <li>FLOAT, DOUBLE: single, double precision FloatingPoint</li>
+ * <li>MONEY, NUMERIC: 128-bit Decimal</li>
+ * <li>SHORT_DATE_TIME, EXT_DATE_TIME: microsecond Timestamp (without
+ *     timezone)</li>
+ * <li>BINARY, OLE (and unknown types): Binary</li>
+ * <li>everything else (TEXT, MEMO, GUID): Utf8</li>
+ * </ul>
+ * All columns are nullable.  The {@link ExportFilter#filterRow} method of a
+ * custom filter must return values compatible with the column types.
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public class ArrowExportUtil
+{
+  public static final String DEFAULT_FILE_EXT = "arrow";
+  /** min number of rows in each record batch (batches end at the end of a
+      data page) */
+  public static final int DEFAULT_BATCH_SIZE = 10000;
+
+  private static final byte[] MAGIC =
+    "ARROW1".getBytes(StandardCharsets.US_ASCII);
+  private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+  // various constants from the arrow flatbuffer schemas
+  private static final short METADATA_V5 = 4;
+  private static final byte HEADER_SCHEMA = 1;
+  private static final byte HEADER_RECORD_BATCH = 3;
+  private static final byte TYPE_INT = 2;
+  private static final byte TYPE_FLOATING_POINT = 3;
+  private static final byte TYPE_BINARY = 4;
+  private static final byte TYPE_UTF8 = 5;
+  private static final byte TYPE_BOOL = 6;
+  private static final byte TYPE_DECIMAL = 7;
+  private static final byte TYPE_TIMESTAMP = 10;
+  private static final short PRECISION_SINGLE = 1;
+  private static final short PRECISION_DOUBLE = 2;
+  private static final short TIME_UNIT_MICROSECOND = 2;
+
+  private ArrowExportUtil() {}
+
+  /**
+   * Copy all tables into new Arrow files in the given directory.
+   * Equivalent to: {@code exportAll(db, dir, "arrow", SimpleExportFilter.INSTANCE);}
+   *
+   * @see #exportAll(Database,File,String,ExportFilter)
+   * @see Builder
+   */
+  public static void exportAll(Database db, File dir) throws IOException {
+    exportAll(db, dir, DEFAULT_FILE_EXT, SimpleExportFilter.INSTANCE);
+  }
+
+  /**
+   * Copy all tables into new Arrow files in the given directory.
+   *
+   * @param db Database the tables to export belong to
+   * @param dir The directory where the new files will be created
+   * @param ext The file extension of the new files
+   * @param filter valid export filter
+   *
+   * @see Builder
+   */
+  public static void exportAll(Database db, File dir, String ext,
+                               ExportFilter filter)
+    throws IOException
+  {
+    exportAll(db, dir, ext, filter, DEFAULT_BATCH_SIZE);
+  }
+
+  private static void exportAll(Database db, File dir, String ext,
+                                ExportFilter filter, int batchSize)
+    throws IOException
+  {
+    for(String tableName : db.getTableNames()) {
+      exportFile(db, tableName, new File(dir, tableName + "." + ext), filter,
+                 batchSize);
+    }
+  }
+
+  /**
+   * Copy a table into a new Arrow file.
+   * Equivalent to: {@code exportFile(db, name, f, SimpleExportFilter.INSTANCE);}
+   *
+   * @see #exportFile(Database,String,File,ExportFilter)
+   * @see Builder
+   */
+  public static void exportFile(Database db, String tableName, File f)
+    throws IOException
+  {
+    exportFile(db, tableName, f, SimpleExportFilter.INSTANCE);
+  }
+
+  /**
+   * Copy a table into a new Arrow file.
+   *
+   * @param db Database the table to export belongs to
+   * @param tableName Name of the table to export
+   * @param f New file to create
+   * @param filter valid export filter
+   *
+   * @see Builder
+   */
+  public static void exportFile(Database db, String tableName, File f,
+                                ExportFilter filter)
+    throws IOException
+  {
+    exportFile(db, tableName, f, filter, DEFAULT_BATCH_SIZE);
+  }
+
+  private static void exportFile(Database db, String tableName, File f,
+                                 ExportFilter filter, int batchSize)
+    throws IOException
+  {
+    OutputStream out = null;
+    try {
+      out = new BufferedOutputStream(new FileOutputStream(f),
+                                     FILE_BUFFER_SIZE);
+      exportStream(CursorBuilder.createCursor(db.getTable(tableName)), out,
+                   filter, batchSize);
+      out.close();
+    } finally {
+      ByteUtil.closeQuietly(out);
+    }
+  }
+
+  /**
+   * Copy the rows of the given cursor to the given stream in the Arrow IPC
+   * file format.  The stream is flushed but not closed.
+   *
+   * @param cursor Cursor to export
+   * @param out Stream to export to
+   * @param filter valid export filter
+   *
+   * @see Builder
+   */
+  public static void exportStream(Cursor cursor, OutputStream out,
+                                  ExportFilter filter)
+    throws IOException
+  {
+    exportStream(cursor, out, filter, DEFAULT_BATCH_SIZE);
+  }
+
+  private static void exportStream(Cursor cursor, OutputStream out,
+                                   ExportFilter filter, int batchSize)
+    throws IOException
+  {
+    List<? extends Column> origCols = cursor.getTable().getColumns();
+    List<Column> columns = new ArrayList<Column>(origCols);
+    columns = filter.filterColumns(columns);
+
+    Collection<String> columnNames = null;
+    if(!origCols.equals(columns)) {
+
+      // columns have been filtered
+      columnNames = new HashSet<String>();
+      for (Column c : columns) {
+        columnNames.add(c.getName());
+      }
+    }
+
+    ZoneId zoneId = cursor.getTable().getDatabase().getZoneId();
+    List<ArrowVector> vectors = new ArrayList<ArrowVector>(columns.size());
+    for(Column col : columns) {
+      vectors.add(ArrowVector.create(col, zoneId));
+    }
+
+    ArrowFileWriter writer = new ArrowFileWriter(out, vectors);
+    writer.writeStart();
+
+    Object[] unfilteredRowData = new Object[columns.size()];
+    int numRows = 0;
+    int lastPageNum = -1;
+    Row row;
+    while((row = cursor.getNextRow(columnNames)) != null) {
+
+      // end the current batch at the end of a data page
+      int pageNum = ((row.getId() instanceof RowIdImpl) ?
+                     ((RowIdImpl)row.getId()).getPageNumber() : -1);
+      if((numRows >= batchSize) && (pageNum != lastPageNum)) {
+        writer.writeRecordBatch(numRows);
+        numRows = 0;
+      }
+      lastPageNum = pageNum;
+
+      for(int i = 0; i < columns.size(); i++) {
+        unfilteredRowData[i] = columns.get(i).getRowValue(row);
+      }
+
+      Object[] rowData = filter.filterRow(unfilteredRowData);
+      if(rowData == null) {
+        continue;
+      }
+
+      for(int i = 0; i < vectors.size(); i++) {
+        vectors.get(i).add(rowData[i]);
+      }
+      ++numRows;
+    }
+
+    if((numRows > 0) || writer.isEmpty()) {
+      writer.writeRecordBatch(numRows);
+    }
+
+    writer.writeEnd();
+    out.flush();
+  }
+
+  /**
+   * Writes the messages of an Arrow IPC file and keeps track of the record
+   * batch locations for the file footer.
+   */
+  private static final class ArrowFileWriter
+  {
+    private final OutputStream _out;
+    private final List<ArrowVector> _vectors;
+    private long _pos;
+    /** the (offset, metadata length, body length) of each record batch */
+    private final List<Long> _blocks = new ArrayList<Long>();
+
+    private ArrowFileWriter(OutputStream out, List<ArrowVector> vectors) {
+      _out = out;
+      _vectors = vectors;
+    }
+
+    public boolean isEmpty() {
+      return _blocks.isEmpty();
+    }
+
+    public void writeStart() throws IOException {
+      write(MAGIC, MAGIC.length);
+      write(new byte[2], 2);
+
+      FlatBufferWriter fb = new FlatBufferWriter();
+      int schema = addSchema(fb);
+      writeMessage(fb, HEADER_SCHEMA, schema, null, 0L);
+    }
+
+    public void writeRecordBatch(int numRows) throws IOException {
+
+      // lay out the body buffers (each 8 byte aligned)
+      List<ByteUtil.ByteStream> buffers = new ArrayList<ByteUtil.ByteStream>();
+      long[] nodes = new long[_vectors.size() * 2];
+      for(int i = 0; i < _vectors.size(); ++i) {
+        ArrowVector vec = _vectors.get(i);
+        nodes[i * 2] = numRows;
+        nodes[(i * 2) + 1] = vec._nullCount;
+        vec.getBuffers(buffers);
+      }
+
+      long[] bufLocs = new long[buffers.size() * 2];
+      long bodyLen = 0L;
+      for(int i = 0; i < buffers.size(); ++i) {
+        int len = buffers.get(i).getLength();
+        bufLocs[i * 2] = bodyLen;
+        bufLocs[(i * 2) + 1] = len;
+        bodyLen += pad8(len);
+      }
+
+      FlatBufferWriter fb = new FlatBufferWriter();
+      int nodesVec = fb.createLongStructVector(2, nodes);
+      int buffersVec = fb.createLongStructVector(2, bufLocs);
+      fb.startTable(5);
+      fb.addLong(0, numRows);
+      fb.addOffset(1, nodesVec);
+      fb.addOffset(2, buffersVec);
+      int batch = fb.endTable();
+
+      writeMessage(fb, HEADER_RECORD_BATCH, batch, buffers, bodyLen);
+
+      for(ArrowVector vec : _vectors) {
+        vec.reset();
+      }
+    }
+
+    public void writeEnd() throws IOException {
+      // end of stream marker
+      writeInt(-1);
+      writeInt(0);
+
+      FlatBufferWriter fb = new FlatBufferWriter();
+      int schema = addSchema(fb);
+      long[] blockVals = new long[_blocks.size()];
+      for(int i = 0; i < blockVals.length; ++i) {
+        blockVals[i] = _blocks.get(i);
+      }
+      int dictionaries = fb.createBlockVector();
+      int batches = fb.createBlockVector(blockVals);
+      fb.startTable(5);
+      fb.addShort(0, METADATA_V5);
+      fb.addOffset(1, schema);
+      fb.addOffset(2, dictionaries);
+      fb.addOffset(3, batches);
+      byte[] footer = fb.finish(fb.endTable());
+
+      write(footer, footer.length);
+      writeInt(footer.length);
+      write(MAGIC, MAGIC.length);
+    }
+
+    private int addSchema(FlatBufferWriter fb) {
+      int[] fields = new int[_vectors.size()];
+      for(int i = 0; i < fields.length; ++i) {
+        fields[i] = _vectors.get(i).addField(fb);
+      }
+      int fieldsVec = fb.createOffsetVector(fields);
+      fb.startTable(4);
+      // endianness little (0)
+      fb.addShort(0, 0);
+      fb.addOffset(1, fieldsVec);
+      return fb.endTable();
+    }
+
+    private void writeMessage(FlatBufferWriter fb, byte headerType,
+                              int header, List<ByteUtil.ByteStream> buffers,
+                              long bodyLen)
+      throws IOException
+    {
+      fb.startTable(5);
+      fb.addShort(0, METADATA_V5);
+      fb.addByte(1, headerType);
+      fb.addOffset(2, header);
+      fb.addLong(3, bodyLen);
+      byte[] metadata = fb.finish(fb.endTable());
+
+      long start = _pos;
+      // continuation marker, metadata length (padded so that the body starts
+      // 8 byte aligned)
+      int metadataLen = pad8(metadata.length);
+      writeInt(-1);
+      writeInt(metadataLen);
+      write(metadata, metadata.length);
+      writePadding(metadataLen - metadata.length);
+
+      if(buffers != null) {
+        for(ByteUtil.ByteStream buf : buffers) {
+          write(buf.getBytes(), buf.getLength());
+          writePadding(pad8(buf.getLength()) - buf.getLength());
+        }
+        _blocks.add(start);
+        _blocks.add((long)(metadataLen + 8));
+        _blocks.add(bodyLen);
+      }
+    }
+
+    private void writeInt(int val) throws IOException {
+      byte[] bytes = new byte[4];
+      putIntLE(bytes, 0, val);
+      write(bytes, 4);
+    }
+
+    private void writePadding(int len) throws IOException {
+      write(new byte[len], len);
+    }
+
+    private void write(byte[] bytes, int len) throws IOException {
+      _out.write(bytes, 0, len);
+      _pos += len;
+    }
+  }
+
+  private static int pad8(int len) {
+    return (len + 7) & ~7;
+  }
+
+  private static void putIntLE(byte[] bytes, int offset, int val) {
+    bytes[offset] = (byte)val;
+    bytes[offset + 1] = (byte)(val >>> 8);
+    bytes[offset + 2] = (byte)(val >>> 16);
+    bytes[offset + 3] = (byte)(val >>> 24);
+  }
+
+  private static void writeLE(ByteUtil.ByteStream out, long val, int size) {
+    for(int i = 0; i < size; ++i) {
+      out.write((int)(val >>> (i * 8)));
+    }
+  }
+
+  /**
+   * Accumulates the values of a single column for the current record batch.
+   */
+  private static abstract class ArrowVector
+  {
+    private final String _name;
+    private final ByteUtil.ByteStream _validity = new ByteUtil.ByteStream();
+    private int _length;
+    private int _nullCount;
+
+    protected ArrowVector(String name) {
+      _name = name;
+    }
+
+    static ArrowVector create(Column col, ZoneId zoneId) {
+      String name = col.getName();
+      switch(col.getType()) {
+      case BOOLEAN:
+        return new BoolVector(name);
+      case BYTE:
+        return new IntVector(name, 1, false);
+      case INT:
+        return new IntVector(name, 2, true);
+      case LONG:
+      case COMPLEX_TYPE:
+        return new IntVector(name, 4, true);
+      case BIG_INT:
+        return new IntVector(name, 8, true);
+      case FLOAT:
+        return new FloatVector(name, false);
+      case DOUBLE:
+        return new FloatVector(name, true);
+      case MONEY:
+      case NUMERIC:
+        return new DecimalVector(name, col.getPrecision(), col.getScale());
+      case SHORT_DATE_TIME:
+      case EXT_DATE_TIME:
+        return new TimestampVector(name, zoneId);
+      case TEXT:
+      case MEMO:
+      case GUID:
+        return new VarBinaryVector(name, true);
+      default:
+        return new VarBinaryVector(name, false);
+      }
+    }
+
+    public void add(Object value) throws IOException {
+      int idx = _length++;
+      if((idx % 8) == 0) {
+        _validity.write(0);
+      }
+      if(value != null) {
+        _validity.setBits(idx / 8, (byte)(1 << (idx % 8)));
+        addValue(value);
+      } else {
+        ++_nullCount;
+        addNull();
+      }
+    }
+
+    public int addField(FlatBufferWriter fb) {
+      int name = fb.createString(_name);
+      int type = addType(fb);
+      int children = fb.createOffsetVector();
+      fb.startTable(7);
+      fb.addOffset(0, name);
+      fb.addBoolean(1, true);
+      fb.addByte(2, getTypeId());
+      fb.addOffset(3, type);
+      fb.addOffset(5, children);
+      return fb.endTable();
+    }
+
+    public void getBuffers(List<ByteUtil.ByteStream> buffers) {
+      buffers.add(_validity);
+      getValueBuffers(buffers);
+    }
+
+    public void reset() {
+      _validity.reset();
+      _length = 0;
+      _nullCount = 0;
+      resetValues();
+    }
+
+    protected int getLength() {
+      return _length;
+    }
+
+    protected abstract byte getTypeId();
+
+    protected abstract int addType(FlatBufferWriter fb);
+
+    protected abstract void addValue(Object value) throws IOException;
+
+    protected abstract void addNull();
+
+    protected abstract void getValueBuffers(List<ByteUtil.ByteStream> buffers);
+
+    protected abstract void resetValues();
+  }
+
+  /**
+   * Base class for vectors with a single buffer of fixed size values.
+   */
+  private static abstract class FixedVector extends ArrowVector
+  {
+    protected final ByteUtil.ByteStream _values = new ByteUtil.ByteStream();
+    protected final int _size;
+
+    protected FixedVector(String name, int size) {
+      super(name);
+      _size = size;
+    }
+
+    @Override
+    protected void addNull() {
+      _values.writeFill(_size, (byte)0);
+    }
+
+    @Override
+    protected void getValueBuffers(List<ByteUtil.ByteStream> buffers) {
+      buffers.add(_values);
+    }
+
+    @Override
+    protected void resetValues() {
+      _values.reset();
+    }
+  }
+
+  private static final class IntVector extends FixedVector
+  {
+    private final boolean _signed;
+
+    private IntVector(String name, int size, boolean signed) {
+      super(name, size);
+      _signed = signed;
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return TYPE_INT;
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(2);
+      fb.addInt(0, _size * 8);
+      fb.addBoolean(1, _signed);
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      writeLE(_values, ((Number)value).longValue(), _size);
+    }
+  }
+
+  private static final class FloatVector extends FixedVector
+  {
+    private FloatVector(String name, boolean isDouble) {
+      super(name, (isDouble ? 8 : 4));
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return TYPE_FLOATING_POINT;
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(1);
+      fb.addShort(0, ((_size == 8) ? PRECISION_DOUBLE : PRECISION_SINGLE));
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      Number num = (Number)value;
+      writeLE(_values, ((_size == 8) ?
+                        Double.doubleToLongBits(num.doubleValue()) :
+                        Float.floatToIntBits(num.floatValue())), _size);
+    }
+  }
+
+  private static final class DecimalVector extends FixedVector
+  {
+    private final int _precision;
+    private final int _scale;
+
+    private DecimalVector(String name, int precision, int scale) {
+      super(name, 16);
+      _precision = precision;
+      _scale = scale;
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return TYPE_DECIMAL;
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(3);
+      fb.addInt(0, _precision);
+      fb.addInt(1, _scale);
+      fb.addInt(2, 128);
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      BigDecimal dec = ((value instanceof BigDecimal) ? (BigDecimal)value :
+                        new BigDecimal(value.toString()));
+      // big-endian two's complement, written as 16 little-endian bytes
+      byte[] bytes = dec.setScale(_scale, RoundingMode.HALF_EVEN)
+        .unscaledValue().toByteArray();
+      byte signByte = (byte)((bytes[0] < 0) ? -1 : 0);
+      for(int i = bytes.length - 1; i >= 0; --i) {
+        _values.write(bytes[i]);
+      }
+      _values.writeFill(_size - bytes.length, signByte);
+    }
+  }
+
+  private static final class TimestampVector extends FixedVector
+  {
+    private final ZoneId _zoneId;
+
+    private TimestampVector(String name, ZoneId zoneId) {
+      super(name, 8);
+      _zoneId = zoneId;
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return TYPE_TIMESTAMP;
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(2);
+      fb.addShort(0, TIME_UNIT_MICROSECOND);
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      LocalDateTime ldt = null;
+      if(value instanceof Date) {
+        ldt = LocalDateTime.ofInstant(((Date)value).toInstant(), _zoneId);
+      } else {
+        ldt = LocalDateTime.from((TemporalAccessor)value);
+      }
+      // timestamps without a timezone are the "wall clock" time
+      long micros = (ldt.toEpochSecond(ZoneOffset.UTC) * 1000000L) +
+        (ldt.getNano() / 1000);
+      writeLE(_values, micros, _size);
+    }
+  }
+
+  private static final class BoolVector extends ArrowVector
+  {
+    private final ByteUtil.ByteStream _values = new ByteUtil.ByteStream();
+
+    private BoolVector(String name) {
+      super(name);
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return TYPE_BOOL;
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(0);
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      int idx = addBit();
+      if(ColumnImpl.toBooleanValue(value)) {
+        _values.setBits(idx / 8, (byte)(1 << (idx % 8)));
+      }
+    }
+
+    @Override
+    protected void addNull() {
+      addBit();
+    }
+
+    private int addBit() {
+      // the length has already been incremented
+      int idx = getLength() - 1;
+      if((idx % 8) == 0) {
+        _values.write(0);
+      }
+      return idx;
+    }
+
+    @Override
+    protected void getValueBuffers(List<ByteUtil.ByteStream> buffers) {
+      buffers.add(_values);
+    }
+
+    @Override
+    protected void resetValues() {
+      _values.reset();
+    }
+  }
+
+  private static final class VarBinaryVector extends ArrowVector
+  {
+    private final boolean _utf8;
+    private final ByteUtil.ByteStream _offsets = new ByteUtil.ByteStream();
+    private final ByteUtil.ByteStream _data = new ByteUtil.ByteStream();
+
+    private VarBinaryVector(String name, boolean utf8) {
+      super(name);
+      _utf8 = utf8;
+      resetValues();
+    }
+
+    @Override
+    protected byte getTypeId() {
+      return (_utf8 ? TYPE_UTF8 : TYPE_BINARY);
+    }
+
+    @Override
+    protected int addType(FlatBufferWriter fb) {
+      fb.startTable(0);
+      return fb.endTable();
+    }
+
+    @Override
+    protected void addValue(Object value) {
+      byte[] bytes = (((value instanceof byte[]) && !_utf8) ?
+                      (byte[])value :
+                      value.toString().getBytes(StandardCharsets.UTF_8));
+      _data.write(bytes);
+      writeLE(_offsets, _data.getLength(), 4);
+    }
+
+    @Override
+    protected void addNull() {
+      writeLE(_offsets, _data.getLength(), 4);
+    }
+
+    @Override
+    protected void getValueBuffers(List<ByteUtil.ByteStream> buffers) {
+      buffers.add(_offsets);
+      buffers.add(_data);
+    }
+
+    @Override
+    protected void resetValues() {
+      _offsets.reset();
+      _data.reset();
+      // initial offset
+      writeLE(_offsets, 0, 4);
+    }
+  }
+
+  /**
+   * Builder which simplifies configuration of an Arrow export operation.
+   */
+  public static class Builder
+  {
+    private Database _db;
+    private String _tableName;
+    private String _ext = DEFAULT_FILE_EXT;
+    private Cursor _cursor;
+    private ExportFilter _filter = SimpleExportFilter.INSTANCE;
+    private int _batchSize = DEFAULT_BATCH_SIZE;
+
+    public Builder(Database db) {
+      this(db, null);
+    }
+
+    public Builder(Database db, String tableName) {
+      _db = db;
+      _tableName = tableName;
+    }
+
+    public Builder(Cursor cursor) {
+      _cursor = cursor;
+    }
+
+    public Builder setDatabase(Database db) {
+      _db = db;
+      return this;
+    }
+
+    public Builder setTableName(String tableName) {
+      _tableName = tableName;
+      return this;
+    }
+
+    public Builder setCursor(Cursor cursor) {
+      _cursor = cursor;
+      return this;
+    }
+
+    public Builder setFilter(ExportFilter filter) {
+      _filter = filter;
+      return this;
+    }
+
+    public Builder setFileNameExtension(String ext) {
+      _ext = ext;
+      return this;
+    }
+
+    /**
+     * Sets the minimum number of rows in each record batch (a batch is
+     * ended at the end of the data page which contains the given number of
+     * rows).  Defaults to {@value ArrowExportUtil#DEFAULT_BATCH_SIZE}.
+     */
+    public Builder setBatchSize(int batchSize) {
+      if(batchSize <= 0) {
+        throw new IllegalArgumentException("Invalid batch size " + batchSize);
+      }
+      _batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * @see ArrowExportUtil#exportAll(Database,File,String,ExportFilter)
+     */
+    public void exportAll(File dir) throws IOException {
+      ArrowExportUtil.exportAll(_db, dir, _ext, _filter, _batchSize);
+    }
+
+    /**
+     * @see ArrowExportUtil#exportFile(Database,String,File,ExportFilter)
+     */
+    public void exportFile(File f) throws IOException {
+      ArrowExportUtil.exportFile(_db, _tableName, f, _filter, _batchSize);
+    }
+
+    /**
+     * @see ArrowExportUtil#exportStream(Cursor,OutputStream,ExportFilter)
+     */
+    public void exportStream(OutputStream out) throws IOException {
+      Cursor cursor = _cursor;
+      if(cursor == null) {
+        cursor = CursorBuilder.createCursor(_db.getTable(_tableName));
+      }
+      ArrowExportUtil.exportStream(cursor, out, _filter, _batchSize);
+    }
+  }
+}
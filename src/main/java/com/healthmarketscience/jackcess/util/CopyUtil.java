@@ -0,0 +1,290 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import com.healthmarketscience.jackcess.impl.CursorImpl;
+import com.healthmarketscience.jackcess.impl.TableImpl;
+
+/**
+ * Utility class for copying tables from one Access database to another.  See
+ * the {@link Builder} for convenient configuration of the copy
+ * functionality.
+ * <p>
+ * If the source and destination tables are compatible (same database format
+ * and charset, same column definitions, no calculated or complex columns),
+ * most column values are copied as raw column data, without converting them
+ * to java values and back (only the values of the columns which the
+ * destination table needs to inspect, e.g. indexed and autonumber columns,
+ * are decoded).  Otherwise, the rows are copied by reading the row values
+ * from the source table and adding them to the destination table.
+ * <p>
+ * Autonumber values are copied as is.  Complex column values (attachments,
+ * multi-value data, version history) are not copied (the copied rows get new,
+ * empty complex values if the destination table has complex columns).
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public class CopyUtil
+{
+  /** batch size for adding rows to the destination table */
+  public static final int DEFAULT_BATCH_SIZE = 200;
+
+  private CopyUtil() {}
+
+  /**
+   * Copies all the rows of the given table into the table with the same name
+   * in the given database (which is created with the same columns and
+   * indexes if it does not exist).
+   * <p>
+   * Equivalent to: {@code copyTable(CursorBuilder.createCursor(srcTable),
+   * destDb, null);}
+   *
+   * @param srcTable the table to copy
+   * @param destDb the database to copy to
+   *
+   * @return the destination table
+   *
+   * @see #copyTable(Cursor,Database,String)
+   * @see Builder
+   */
+  public static Table copyTable(Table srcTable, Database destDb)
+    throws IOException
+  {
+    return copyTable(CursorBuilder.createCursor(srcTable), destDb, null);
+  }
+
+  /**
+   * Copies the remaining rows of the given cursor into the table with the
+   * given name in the given database (which is created with the same columns
+   * and indexes as the source table if it does not exist).
+   *
+   * @param srcCursor the cursor over the rows to copy
+   * @param destDb the database to copy to
+   * @param destTableName the name of the destination table, {@code null} to
+   *                      use the name of the source table
+   *
+   * @return the destination table
+   *
+   * @see Builder
+   */
+  public static Table copyTable(Cursor srcCursor, Database destDb,
+                                String destTableName)
+    throws IOException
+  {
+    return copyTable(srcCursor, destDb, destTableName, DEFAULT_BATCH_SIZE,
+                     true);
+  }
+
+  private static Table copyTable(Cursor srcCursor, Database destDb,
+                                 String destTableName, int batchSize,
+                                 boolean allowRawCopy)
+    throws IOException
+  {
+    Table srcTable = srcCursor.getTable();
+    if(destTableName == null) {
+      destTableName = srcTable.getName();
+    }
+
+    Table destTable = destDb.getTable(destTableName);
+    if(destTable == null) {
+      destTable = createTableLike(srcTable, destDb, destTableName);
+    }
+
+    TableImpl.RowCopier copier = null;
+    if(allowRawCopy && (srcCursor instanceof CursorImpl) &&
+       (destTable instanceof TableImpl)) {
+      copier = ((TableImpl)srcTable).newRowCopier((TableImpl)destTable);
+    }
+
+    // the copied rows keep their autonumber values
+    boolean allowAutoNumInsert = destTable.isAllowAutoNumberInsert();
+    if(!allowAutoNumInsert) {
+      destTable.setAllowAutoNumberInsert(Boolean.TRUE);
+    }
+    try {
+
+      List<Object[]> rows = new ArrayList<Object[]>(batchSize);
+      if(copier != null) {
+        CursorImpl cursor = (CursorImpl)srcCursor;
+        while(cursor.moveToNextRow()) {
+          rows.add(cursor.getCurrentRowForCopy(copier));
+          rows = addRows(destTable, rows, batchSize);
+        }
+      } else {
+        // complex values are not copied, the destination table generates
+        // its own complex value foreign keys
+        List<Column> complexCols = new ArrayList<Column>();
+        for(Column col : destTable.getColumns()) {
+          if(col.getType() == DataType.COMPLEX_TYPE) {
+            complexCols.add(col);
+          }
+        }
+        Row row = null;
+        while((row = srcCursor.getNextRow()) != null) {
+          Object[] rowValues = destTable.asRow(row);
+          for(Column col : complexCols) {
+            rowValues[col.getColumnIndex()] = null;
+          }
+          rows.add(rowValues);
+          rows = addRows(destTable, rows, batchSize);
+        }
+      }
+      addRows(destTable, rows, 0);
+
+    } finally {
+      if(!allowAutoNumInsert) {
+        destTable.setAllowAutoNumberInsert(Boolean.FALSE);
+      }
+    }
+
+    return destTable;
+  }
+
+  /**
+   * Adds the given rows to the table if the batch is full, returning the
+   * list for the next batch.
+   */
+  private static List<Object[]> addRows(Table table, List<Object[]> rows,
+                                        int batchSize)
+    throws IOException
+  {
+    if((rows.size() < batchSize) || rows.isEmpty()) {
+      return rows;
+    }
+    table.addRows(rows);
+    rows.clear();
+    return rows;
+  }
+
+  /**
+   * Creates a new table with the given name with the same columns (except
+   * complex columns) and indexes (except foreign key indexes) as the given
+   * table.
+   */
+  private static Table createTableLike(Table srcTable, Database destDb,
+                                       String name)
+    throws IOException
+  {
+    TableBuilder tb = new TableBuilder(name);
+    for(Column col : srcTable.getColumns()) {
+      if(col.getType() == DataType.COMPLEX_TYPE) {
+        continue;
+      }
+      tb.addColumn(new ColumnBuilder(col.getName()).setFromColumn(col));
+    }
+
+    for(Index idx : srcTable.getIndexes()) {
+      if(idx.isForeignKey()) {
+        continue;
+      }
+      IndexBuilder ib = new IndexBuilder(idx.getName());
+      for(Index.Column col : idx.getColumns()) {
+        ib.addColumns(col.isAscending(), col.getName());
+      }
+      if(idx.isPrimaryKey()) {
+        ib.setPrimaryKey();
+      } else {
+        if(idx.isUnique()) {
+          ib.setUnique();
+        }
+        if(idx.isRequired()) {
+          ib.setRequired();
+        }
+      }
+      if(idx.shouldIgnoreNulls()) {
+        ib.setIgnoreNulls();
+      }
+      tb.addIndex(ib);
+    }
+
+    return tb.toTable(destDb);
+  }
+
+  /**
+   * Builder which simplifies configuration of a copy operation.
+   */
+  public static class Builder
+  {
+    private Cursor _srcCursor;
+    private Table _srcTable;
+    private Database _destDb;
+    private String _destTableName;
+    private int _batchSize = DEFAULT_BATCH_SIZE;
+    private boolean _allowRawCopy = true;
+
+    public Builder(Table srcTable, Database destDb) {
+      _srcTable = srcTable;
+      _destDb = destDb;
+    }
+
+    public Builder(Cursor srcCursor, Database destDb) {
+      _srcCursor = srcCursor;
+      _destDb = destDb;
+    }
+
+    public Builder setDestTableName(String destTableName) {
+      _destTableName = destTableName;
+      return this;
+    }
+
+    /**
+     * Sets the number of rows which are added to the destination table at a
+     * time.  Defaults to {@value CopyUtil#DEFAULT_BATCH_SIZE}.
+     */
+    public Builder setBatchSize(int batchSize) {
+      _batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets whether or not compatible tables are copied using the raw column
+     * data (see {@link CopyUtil}).  Defaults to {@code true}.
+     */
+    public Builder setAllowRawCopy(boolean allowRawCopy) {
+      _allowRawCopy = allowRawCopy;
+      return this;
+    }
+
+    /**
+     * @see CopyUtil#copyTable(Cursor,Database,String)
+     */
+    public Table copy() throws IOException {
+      Cursor cursor = _srcCursor;
+      if(cursor == null) {
+        cursor = CursorBuilder.createCursor(_srcTable);
+      }
+      return CopyUtil.copyTable(cursor, _destDb, _destTableName,
+                                Math.max(_batchSize, 1), _allowRawCopy);
+    }
+  }
+}
@@ -0,0 +1,305 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.impl.ByteUtil;
+import com.healthmarketscience.jackcess.impl.CodecProvider;
+import com.healthmarketscience.jackcess.impl.DatabaseImpl;
+
+/**
+ * Exports all the tables of a database to separate files in a directory or
+ * to separate entries in a zip file.  If more than one thread is configured,
+ * the tables are exported concurrently, where each worker thread reads from
+ * its own read-only instance of the database file (a {@link Database} is not
+ * thread-safe).  Databases which are not backed by their file (e.g.
+ * in-memory databases) are always exported on the calling thread.  Progress
+ * is reported (and zip entries are written) on the calling thread.
+ *
+ * @author James Ahlborn
+ */
+final class DatabaseDumper
+{
+  private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+  private static final ThreadFactory THREAD_FACTORY = (r) -> {
+    Thread t = new Thread(r, "jackcess-dump");
+    t.setDaemon(true);
+    return t;
+  };
+
+  /** writes a single table to the given writer */
+  interface TableExporter
+  {
+    public void exportTable(Database db, String tableName, BufferedWriter out)
+      throws IOException;
+  }
+
+  /** exports a single table on a worker thread, returning the output file */
+  private interface TableTask
+  {
+    public File run(Database db, String tableName) throws IOException;
+  }
+
+  /** handles the output of a single table on the calling thread */
+  private interface ResultHandler
+  {
+    public void handle(String tableName, File f) throws IOException;
+  }
+
+  private final Database _db;
+  private final TableExporter _exporter;
+  private final String _ext;
+  private final int _numThreads;
+  private final ExportProgressListener _listener;
+  private final CodecProvider _codecProvider;
+  private int _numTables;
+  private int _numExported;
+
+  DatabaseDumper(Database db, TableExporter exporter, String ext,
+                 int numThreads, ExportProgressListener listener,
+                 CodecProvider codecProvider)
+  {
+    _db = db;
+    _exporter = exporter;
+    _ext = ext;
+    // the worker threads need to open their own instances of the database
+    // file, so an in-memory database (or one using a custom channel) can
+    // only be exported on the calling thread
+    _numThreads = (canOpenReadOnly(db) ? numThreads : 1);
+    _listener = listener;
+    _codecProvider = codecProvider;
+  }
+
+  /**
+   * Exports each table to a file named "&lt;tableName&gt;.&lt;ext&gt;" in the
+   * given directory.
+   */
+  public void dumpToDir(final File dir) throws IOException
+  {
+    List<String> tableNames = initTableNames();
+
+    if(_numThreads <= 1) {
+      for(String tableName : tableNames) {
+        exportFile(_db, tableName, new File(dir, getFileName(tableName)));
+        tableExported(tableName);
+      }
+      return;
+    }
+
+    dumpParallel(tableNames, (db, tableName) -> {
+        exportFile(db, tableName, new File(dir, getFileName(tableName)));
+        return null;
+      }, (tableName, f) -> {});
+  }
+
+  /**
+   * Exports each table to an entry named "&lt;tableName&gt;.&lt;ext&gt;" in
+   * the given zip stream.  The stream is not closed (or finished).
+   */
+  public void dumpToZip(final ZipOutputStream out) throws IOException
+  {
+    List<String> tableNames = initTableNames();
+
+    if(_numThreads <= 1) {
+      // same encoding as the FileWriter used for file exports
+      BufferedWriter writer = new BufferedWriter(
+          new OutputStreamWriter(out), FILE_BUFFER_SIZE);
+      for(String tableName : tableNames) {
+        out.putNextEntry(new ZipEntry(getFileName(tableName)));
+        _exporter.exportTable(_db, tableName, writer);
+        writer.flush();
+        out.closeEntry();
+        tableExported(tableName);
+      }
+      return;
+    }
+
+    // the tables are exported to temp files, which are copied into the zip
+    // on the calling thread as they are completed
+    final File tmpDir = Files.createTempDirectory("jackcess-dump").toFile();
+    try {
+      dumpParallel(tableNames, (db, tableName) -> {
+          File f = File.createTempFile("table", ".tmp", tmpDir);
+          exportFile(db, tableName, f);
+          return f;
+        }, (tableName, f) -> {
+          out.putNextEntry(new ZipEntry(getFileName(tableName)));
+          Files.copy(f.toPath(), out);
+          out.closeEntry();
+          f.delete();
+        });
+    } finally {
+      File[] tmpFiles = tmpDir.listFiles();
+      if(tmpFiles != null) {
+        for(File f : tmpFiles) {
+          f.delete();
+        }
+      }
+      tmpDir.delete();
+    }
+  }
+
+  private List<String> initTableNames() throws IOException {
+    List<String> tableNames = new ArrayList<String>(_db.getTableNames());
+    _numTables = tableNames.size();
+    _numExported = 0;
+    return tableNames;
+  }
+
+  private String getFileName(String tableName) {
+    return tableName + "." + _ext;
+  }
+
+  private void exportFile(Database db, String tableName, File f)
+    throws IOException
+  {
+    BufferedWriter out = null;
+    try {
+      out = new BufferedWriter(new FileWriter(f), FILE_BUFFER_SIZE);
+      _exporter.exportTable(db, tableName, out);
+      out.close();
+    } finally {
+      ByteUtil.closeQuietly(out);
+    }
+  }
+
+  private void tableExported(String tableName) {
+    ++_numExported;
+    if(_listener != null) {
+      _listener.tableExported(tableName, _numExported, _numTables);
+    }
+  }
+
+  private void dumpParallel(List<String> tableNames, final TableTask task,
+                            ResultHandler handler)
+    throws IOException
+  {
+    if(tableNames.isEmpty()) {
+      return;
+    }
+
+    // make sure the workers see any pending changes
+    _db.flush();
+
+    final ThreadLocal<Database> workerDb = new ThreadLocal<Database>();
+    final List<Database> workerDbs =
+      Collections.synchronizedList(new ArrayList<Database>());
+    ExecutorService workers = Executors.newFixedThreadPool(
+        Math.min(_numThreads, tableNames.size()), THREAD_FACTORY);
+    CompletionService<Map.Entry<String,File>> results =
+      new ExecutorCompletionService<Map.Entry<String,File>>(workers);
+
+    try {
+
+      for(final String tableName : tableNames) {
+        results.submit(() -> {
+            Database db = workerDb.get();
+            if(db == null) {
+              db = openReadOnly();
+              workerDbs.add(db);
+              workerDb.set(db);
+            }
+            return new AbstractMap.SimpleImmutableEntry<String,File>(
+                tableName, task.run(db, tableName));
+          });
+      }
+
+      for(int i = 0; i < tableNames.size(); ++i) {
+        Map.Entry<String,File> result = results.take().get();
+        handler.handle(result.getKey(), result.getValue());
+        tableExported(result.getKey());
+      }
+
+    } catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Export interrupted");
+    } catch(ExecutionException e) {
+      Throwable cause = e.getCause();
+      if(cause instanceof IOException) {
+        throw (IOException)cause;
+      }
+      if(cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      }
+      if(cause instanceof Error) {
+        throw (Error)cause;
+      }
+      throw new IOException(cause.getMessage(), cause);
+    } finally {
+      workers.shutdownNow();
+      try {
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      for(Database db : workerDbs) {
+        ByteUtil.closeQuietly(db);
+      }
+    }
+  }
+
+  private static boolean canOpenReadOnly(Database db) {
+    if(db.getFile() == null) {
+      return false;
+    }
+    return (!(db instanceof DatabaseImpl) ||
+            ((DatabaseImpl)db).isOpenedFromFile());
+  }
+
+  /**
+   * Opens a read-only instance of the database file with the same
+   * configuration as the original database.
+   */
+  private Database openReadOnly() throws IOException
+  {
+    Database db = new DatabaseBuilder(_db.getFile())
+      .setReadOnly(true)
+      .setCharset(_db.getCharset())
+      .setTimeZone(_db.getTimeZone())
+      .setCodecProvider(_codecProvider)
+      .open();
+    db.setDateTimeType(_db.getDateTimeType());
+    db.setColumnOrder(_db.getColumnOrder());
+    db.setErrorHandler(_db.getErrorHandler());
+    db.setLinkResolver(_db.getLinkResolver());
+    return db;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming tokenizer for delimited text with a single character delimiter.
+ * Reads the input directly into a character buffer (no intermediate line
+ * strings or regex matching), only allocating the strings for the token
+ * values.  The tokens are split using the same rules as the regex based
+ * splitting in {@link ImportUtil}: a token starting with the quote character
+ * is a quoted value (which may contain delimiters, line breaks and doubled
+ * quote characters) and anything following the end quote up to the next
+ * delimiter is ignored.  Line breaks within quoted values are replaced with
+ * the platform line separator.
+ *
+ * @author James Ahlborn
+ */
+final class DelimitedTokenizer
+{
+  private static final int BUF_SIZE = 32 * 1024;
+  private static final String REGEX_SPECIAL_CHARS = ".$|()[]{}^?*+\\";
+
+  private final Reader _in;
+  private final char _delim;
+  private final char _quote;
+  private final char[] _buf = new char[BUF_SIZE];
+  private int _pos;
+  private int _limit;
+  private final StringBuilder _token = new StringBuilder();
+  private final List<String> _tokens = new ArrayList<String>();
+
+  DelimitedTokenizer(Reader in, char delim, char quote) {
+    _in = in;
+    _delim = delim;
+    _quote = quote;
+  }
+
+  /**
+   * Returns the single character matched by the given delimiter regex, or
+   * -1 if the regex does not match exactly one literal character (or the
+   * character cannot be handled by this tokenizer).
+   */
+  static int toDelimiterChar(String delim, char quote) {
+    int delimChar = -1;
+    if(delim.length() == 1) {
+      char c = delim.charAt(0);
+      if(REGEX_SPECIAL_CHARS.indexOf(c) < 0) {
+        delimChar = c;
+      }
+    } else if((delim.length() == 2) && (delim.charAt(0) == '\\')) {
+      char c = delim.charAt(1);
+      if(c == 't') {
+        delimChar = '\t';
+      } else if(!Character.isLetterOrDigit(c)) {
+        delimChar = c;
+      }
+    }
+    if((delimChar == '\r') || (delimChar == '\n') || (delimChar == quote)) {
+      delimChar = -1;
+    }
+    return delimChar;
+  }
+
+  /**
+   * Returns the tokens of the next record (in an array of at least the given
+   * length), {@code null} if there are no more records.
+   */
+  public Object[] readRecord(int numColumns) throws IOException
+  {
+    if(!ensureAvailable()) {
+      return null;
+    }
+
+    _tokens.clear();
+    while(true) {
+
+      int c = peek();
+      if((c < 0) || isLineEnd(c)) {
+        break;
+      }
+
+      if(c == _quote) {
+        ++_pos;
+        _tokens.add(readQuoted());
+        skipToDelimiter();
+      } else {
+        _tokens.add(readUnquoted());
+      }
+
+      c = peek();
+      if(c != _delim) {
+        break;
+      }
+      // skip the delimiter
+      ++_pos;
+    }
+    skipLineEnd();
+
+    return _tokens.toArray(new Object[Math.max(_tokens.size(), numColumns)]);
+  }
+
+  private String readUnquoted() throws IOException
+  {
+    _token.setLength(0);
+    while(ensureAvailable()) {
+      int start = _pos;
+      int end = start;
+      while((end < _limit) && !isTokenEnd(_buf[end])) {
+        ++end;
+      }
+      _pos = end;
+      if(end < _limit) {
+        // found the end of the token
+        if(_token.length() == 0) {
+          // common case, the entire token was in the buffer
+          return new String(_buf, start, end - start);
+        }
+        _token.append(_buf, start, end - start);
+        break;
+      }
+      // token continues past the end of the buffer
+      _token.append(_buf, start, end - start);
+    }
+    return _token.toString();
+  }
+
+  private String readQuoted() throws IOException
+  {
+    _token.setLength(0);
+    while(true) {
+      if(!ensureAvailable()) {
+        throw new EOFException("Missing end of quoted value " + _token);
+      }
+      int start = _pos;
+      int end = start;
+      while((end < _limit) && (_buf[end] != _quote) && !isLineEnd(_buf[end])) {
+        ++end;
+      }
+      _token.append(_buf, start, end - start);
+      _pos = end;
+      if(end == _limit) {
+        continue;
+      }
+
+      char c = _buf[_pos++];
+      if(c == _quote) {
+        if(peek() == _quote) {
+          // embedded quote
+          _token.append(_quote);
+          ++_pos;
+          continue;
+        }
+        // done
+        return _token.toString();
+      }
+
+      // line wrap
+      if((c == '\r') && (peek() == '\n')) {
+        ++_pos;
+      }
+      _token.append(ImportUtil.LINE_SEPARATOR);
+    }
+  }
+
+  private void skipToDelimiter() throws IOException {
+    int c = 0;
+    while(((c = peek()) >= 0) && !isTokenEnd((char)c)) {
+      ++_pos;
+    }
+  }
+
+  private void skipLineEnd() throws IOException {
+    int c = peek();
+    if(c == '\r') {
+      ++_pos;
+      c = peek();
+      if(c == '\n') {
+        ++_pos;
+      }
+    } else if(c == '\n') {
+      ++_pos;
+    }
+  }
+
+  private boolean isTokenEnd(char c) {
+    return ((c == _delim) || isLineEnd(c));
+  }
+
+  private static boolean isLineEnd(int c) {
+    return ((c == '\n') || (c == '\r'));
+  }
+
+  private int peek() throws IOException {
+    return (ensureAvailable() ? _buf[_pos] : -1);
+  }
+
+  private boolean ensureAvailable() throws IOException {
+    while(_pos >= _limit) {
+      int num = _in.read(_buf, 0, _buf.length);
+      if(num < 0) {
+        return false;
+      }
+      _pos = 0;
+      _limit = num;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+/**
+ * Callback which receives progress updates while exporting all the tables of
+ * a database (see {@link ExportUtil.Builder#setProgressListener}).  The
+ * callback is always invoked on the thread which started the export, even if
+ * the tables are exported in parallel.
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public interface ExportProgressListener
+{
+  /**
+   * Called after each table has been exported.
+   *
+   * @param tableName the name of the exported table
+   * @param numExported the number of tables exported so far (including this
+   *                    one)
+   * @param numTables the total number of tables being exported
+   */
+  public void tableExported(String tableName, int numExported, int numTables);
+}
@@ -16,16 +16,26 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.util;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.ZipOutputStream;
 
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.Cursor;
@@ -33,6 +43,7 @@ import com.healthmarketscience.jackcess.CursorBuilder;
 import com.healthmarketscience.jackcess.Database;
 import com.healthmarketscience.jackcess.Row;
 import com.healthmarketscience.jackcess.impl.ByteUtil;
+import com.healthmarketscience.jackcess.impl.CodecProvider;
 
 /**
  * Utility class for exporting tables from an Access database to other
@@ -49,6 +60,16 @@ public class ExportUtil {
   public static final char DEFAULT_QUOTE_CHAR = '"';
   public static final String DEFAULT_FILE_EXT = "csv";
 
+  /** number of rows formatted at a time when exporting in parallel */
+  private static final int EXPORT_BATCH_SIZE = 200;
+  /** buffer size used when writing export files */
+  private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+  private static final ThreadFactory THREAD_FACTORY = (r) -> {
+    Thread t = new Thread(r, "jackcess-export");
+    t.setDaemon(true);
+    return t;
+  };
 
   private ExportUtil() {
   }
@@ -199,10 +220,17 @@ public class ExportUtil {
   public static void exportFile(Database db, String tableName,
       File f, boolean header, String delim, char quote,
       ExportFilter filter) throws IOException {
+    exportFile(db, tableName, f, header, delim, quote, filter, 1);
+  }
+
+  private static void exportFile(Database db, String tableName,
+      File f, boolean header, String delim, char quote,
+      ExportFilter filter, int numThreads) throws IOException {
     BufferedWriter out = null;
     try {
-      out = new BufferedWriter(new FileWriter(f));
-      exportWriter(db, tableName, out, header, delim, quote, filter);
+      out = new BufferedWriter(new FileWriter(f), FILE_BUFFER_SIZE);
+      exportWriter(CursorBuilder.createCursor(db.getTable(tableName)), out,
+                   header, delim, quote, filter, numThreads);
       out.close();
     } finally {
       ByteUtil.closeQuietly(out);
@@ -284,13 +312,15 @@ public class ExportUtil {
       char quote, ExportFilter filter)
       throws IOException 
   {
-    String delimiter = (delim == null) ? DEFAULT_DELIMITER : delim;
+    exportWriter(cursor, out, header, delim, quote, filter, 1);
+  }
 
-    // create pattern which will indicate whether or not a value needs to be
-    // quoted or not (contains delimiter, separator, or newline)
-    Pattern needsQuotePattern = Pattern.compile(
-        "(?:" + Pattern.quote(delimiter) + ")|(?:" + 
-        Pattern.quote("" + quote) + ")|(?:[\n\r])");
+  private static void exportWriter(Cursor cursor,
+      BufferedWriter out, boolean header, String delim,
+      char quote, ExportFilter filter, int numThreads)
+      throws IOException 
+  {
+    String delimiter = (delim == null) ? DEFAULT_DELIMITER : delim;
 
     List<? extends Column> origCols = cursor.getTable().getColumns();
     List<Column> columns = new ArrayList<Column>(origCols);
@@ -306,17 +336,23 @@ public class ExportUtil {
       }
     }
 
+    RowFormatter formatter = new RowFormatter(delimiter, quote,
+                                              columns.size());
+
     // print the header row (if desired)
     if (header) {
-      for (Iterator<Column> iter = columns.iterator(); iter.hasNext();) {
-
-        writeValue(out, iter.next().getName(), quote, needsQuotePattern);
-
-        if (iter.hasNext()) {
-          out.write(delimiter);
-        }
+      Object[] names = new Object[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        names[i] = columns.get(i).getName();
       }
-      out.newLine();
+      formatter.appendRow(out, names);
+    }
+
+    if(numThreads > 1) {
+      exportRows(cursor, columnNames, columns, out, filter, formatter,
+                 numThreads);
+      out.flush();
+      return;
     }
 
     // print the data rows
@@ -336,7 +372,124 @@ public class ExportUtil {
       }
 
       // print row
-      for (int i = 0; i < columns.size(); i++) {
+      formatter.appendRow(out, rowData);
+    }
+
+    out.flush();
+  }
+
+  /**
+   * Exports the rows of the given cursor, filtering and formatting batches
+   * of rows in parallel.  The rows are read from the cursor and the
+   * formatted batches are written (in the original order) on the calling
+   * thread.
+   */
+  private static void exportRows(Cursor cursor, Collection<String> columnNames,
+                                 List<Column> columns, BufferedWriter out,
+                                 final ExportFilter filter,
+                                 final RowFormatter formatter, int numThreads)
+    throws IOException
+  {
+    ExecutorService workers = Executors.newFixedThreadPool(
+        numThreads, THREAD_FACTORY);
+    Deque<Future<String>> batches = new ArrayDeque<Future<String>>();
+    try {
+
+      List<Object[]> rows = new ArrayList<Object[]>(EXPORT_BATCH_SIZE);
+      Row row;
+      while ((row = cursor.getNextRow(columnNames)) != null) {
+
+        Object[] rowData = new Object[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+          rowData[i] = columns.get(i).getRowValue(row);
+        }
+        rows.add(rowData);
+
+        if(rows.size() == EXPORT_BATCH_SIZE) {
+          batches.add(workers.submit(newFormatTask(rows, filter, formatter)));
+          rows = new ArrayList<Object[]>(EXPORT_BATCH_SIZE);
+
+          // bound the number of batches in flight
+          if(batches.size() > (numThreads * 2)) {
+            writeBatch(out, batches.remove());
+          }
+        }
+      }
+      if(!rows.isEmpty()) {
+        batches.add(workers.submit(newFormatTask(rows, filter, formatter)));
+      }
+
+      while(!batches.isEmpty()) {
+        writeBatch(out, batches.remove());
+      }
+
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private static Callable<String> newFormatTask(
+      final List<Object[]> rows, final ExportFilter filter,
+      final RowFormatter formatter)
+  {
+    return () -> {
+      StringBuilder sb = new StringBuilder(rows.size() * 64);
+      for(Object[] rowData : rows) {
+        rowData = filter.filterRow(rowData);
+        if(rowData != null) {
+          formatter.appendRow(sb, rowData);
+        }
+      }
+      return sb.toString();
+    };
+  }
+
+  private static void writeBatch(BufferedWriter out, Future<String> batch)
+    throws IOException
+  {
+    try {
+      out.write(batch.get());
+    } catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Export interrupted");
+    } catch(ExecutionException e) {
+      Throwable cause = e.getCause();
+      if(cause instanceof IOException) {
+        throw (IOException)cause;
+      }
+      if(cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      }
+      if(cause instanceof Error) {
+        throw (Error)cause;
+      }
+      throw new IOException(cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Formats rows of values as delimited text.  Thread-safe.
+   */
+  private static final class RowFormatter
+  {
+    private final String _delim;
+    private final char _quote;
+    /** the delimiter character if the delimiter is a single character, -1
+        otherwise */
+    private final int _delimChar;
+    private final int _numColumns;
+
+    private RowFormatter(String delim, char quote, int numColumns) {
+      _delim = delim;
+      _quote = quote;
+      _delimChar = ((delim.length() == 1) ? delim.charAt(0) : -1);
+      _numColumns = numColumns;
+    }
+
+    public void appendRow(Appendable out, Object[] rowData)
+      throws IOException
+    {
+      for (int i = 0; i < _numColumns; i++) {
 
         Object obj = rowData[i];
         if(obj != null) {
@@ -348,45 +501,56 @@ public class ExportUtil {
 
           } else {
 
-            value = String.valueOf(rowData[i]);
+            value = String.valueOf(obj);
           }
 
-          writeValue(out, value, quote, needsQuotePattern);
+          appendValue(out, value);
         }
 
-        if (i < columns.size() - 1) {
-          out.write(delimiter);
+        if (i < _numColumns - 1) {
+          out.append(_delim);
         }
       }
 
-      out.newLine();
+      out.append(ImportUtil.LINE_SEPARATOR);
     }
 
-    out.flush();
-  }
+    private void appendValue(Appendable out, String value)
+      throws IOException
+    {
+      if(!needsQuote(value)) {
 
-  private static void writeValue(BufferedWriter out, String value, char quote,
-                                 Pattern needsQuotePattern) 
-    throws IOException
-  {
-    if(!needsQuotePattern.matcher(value).find()) {
+        // no quotes necessary
+        out.append(value);
+        return;
+      }
 
-      // no quotes necessary
-      out.write(value);
-      return;
-    }
+      // wrap the value in quotes and handle internal quotes
+      out.append(_quote);
+      for (int i = 0; i < value.length(); ++i) {
+        char c = value.charAt(i);
 
-    // wrap the value in quotes and handle internal quotes
-    out.write(quote);
-    for (int i = 0; i < value.length(); ++i) {
-      char c = value.charAt(i);
+        if (c == _quote) {
+          out.append(_quote);
+        }
+        out.append(c);
+      }
+      out.append(_quote);
+    }
 
-      if (c == quote) {
-        out.write(quote);
+    /**
+     * Returns {@code true} if the given value contains the delimiter, the
+     * quote character or a newline.
+     */
+    private boolean needsQuote(String value) {
+      for (int i = 0; i < value.length(); ++i) {
+        char c = value.charAt(i);
+        if((c == _delimChar) || (c == _quote) || (c == '\n') || (c == '\r')) {
+          return true;
+        }
       }
-      out.write(c);
+      return ((_delimChar < 0) && (value.indexOf(_delim) >= 0));
     }
-    out.write(quote);
   }
 
 
@@ -403,6 +567,10 @@ public class ExportUtil {
     private char _quote = DEFAULT_QUOTE_CHAR;
     private ExportFilter _filter = SimpleExportFilter.INSTANCE;
     private boolean _header;
+    private int _numThreads = 1;
+    private int _numTableThreads = 1;
+    private ExportProgressListener _progressListener;
+    private CodecProvider _codecProvider;
 
     public Builder(Database db) {
       this(db, null);
@@ -457,11 +625,89 @@ public class ExportUtil {
       return this;
     }
 
+    /**
+     * Sets the number of threads used to filter and format the exported
+     * rows.  If greater than 1, batches of rows are filtered and formatted
+     * in parallel while the rows are read from the database and the
+     * formatted text is written (in the original order) on the calling
+     * thread.  Note that in this case the {@link ExportFilter#filterRow}
+     * method of the filter must be thread-safe.  Defaults to 1 (everything
+     * is handled on the calling thread).
+     */
+    public Builder setNumThreads(int numThreads) {
+      if(numThreads < 1) {
+        throw new IllegalArgumentException(
+            "Invalid number of threads " + numThreads);
+      }
+      _numThreads = numThreads;
+      return this;
+    }
+
+    /**
+     * Sets the number of tables which are exported concurrently by {@link
+     * #exportAll} and {@link #exportZip}.  If greater than 1, each worker
+     * thread opens its own read-only instance of the database file (see
+     * {@link Database#getFile}) and any pending changes are flushed before
+     * the export starts.  Note that in this case the filter must be
+     * thread-safe.  Databases which are not backed by their file (e.g.
+     * in-memory databases) are always exported using only the calling
+     * thread.  Defaults to 1 (the tables are exported one after another
+     * using the given database).
+     */
+    public Builder setNumTableThreads(int numTableThreads) {
+      if(numTableThreads < 1) {
+        throw new IllegalArgumentException(
+            "Invalid number of table threads " + numTableThreads);
+      }
+      _numTableThreads = numTableThreads;
+      return this;
+    }
+
+    /**
+     * Sets the listener which is notified after each table has been exported
+     * by {@link #exportAll} and {@link #exportZip}.
+     */
+    public Builder setProgressListener(ExportProgressListener listener) {
+      _progressListener = listener;
+      return this;
+    }
+
+    /**
+     * Sets the CodecProvider used to open the additional read-only database
+     * instances when exporting tables concurrently (only necessary for
+     * encoded databases).
+     *
+     * @see #setNumTableThreads
+     */
+    public Builder setCodecProvider(CodecProvider codecProvider) {
+      _codecProvider = codecProvider;
+      return this;
+    }
+
     /**
      * @see ExportUtil#exportAll(Database,File,String,boolean,String,char,ExportFilter)
      */
     public void exportAll(File dir) throws IOException {
-      ExportUtil.exportAll(_db, dir, _ext, _header, _delim, _quote, _filter);
+      newDumper().dumpToDir(dir);
+    }
+
+    /**
+     * Exports all tables to separate entries (named
+     * "&lt;tableName&gt;.&lt;ext&gt;") in a new zip file.
+     *
+     * @see #exportAll
+     */
+    public void exportZip(File f) throws IOException {
+      ZipOutputStream out = null;
+      try {
+        out = new ZipOutputStream(new BufferedOutputStream(
+                                      new FileOutputStream(f),
+                                      FILE_BUFFER_SIZE));
+        newDumper().dumpToZip(out);
+        out.close();
+      } finally {
+        ByteUtil.closeQuietly(out);
+      }
     }
 
     /**
@@ -469,7 +715,7 @@ public class ExportUtil {
      */
     public void exportFile(File f) throws IOException {
       ExportUtil.exportFile(_db, _tableName, f, _header, _delim, _quote,
-                            _filter);
+                            _filter, _numThreads);
     }
 
     /**
@@ -477,13 +723,20 @@ public class ExportUtil {
      * @see ExportUtil#exportWriter(Cursor,BufferedWriter,boolean,String,char,ExportFilter)
      */
     public void exportWriter(BufferedWriter writer) throws IOException {
-      if(_cursor != null) {
-        ExportUtil.exportWriter(_cursor, writer, _header, _delim, 
-                                _quote, _filter);
-      } else {
-        ExportUtil.exportWriter(_db, _tableName, writer, _header, _delim, 
-                                _quote, _filter);
+      Cursor cursor = _cursor;
+      if(cursor == null) {
+        cursor = CursorBuilder.createCursor(_db.getTable(_tableName));
       }
+      ExportUtil.exportWriter(cursor, writer, _header, _delim, _quote,
+                              _filter, _numThreads);
+    }
+
+    private DatabaseDumper newDumper() {
+      return new DatabaseDumper(
+          _db, (db, tableName, out) -> ExportUtil.exportWriter(
+              CursorBuilder.createCursor(db.getTable(tableName)), out,
+              _header, _delim, _quote, _filter, _numThreads),
+          _ext, _numTableThreads, _progressListener, _codecProvider);
     }
   }
 
@@ -0,0 +1,229 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal writer for the <a href="https://flatbuffers.dev/">FlatBuffers</a>
+ * binary format (just enough to write Arrow IPC metadata).  Like the
+ * reference builder, the buffer is built back to front, so nested objects
+ * (strings, vectors, tables) must be completed before the object which
+ * refers to them is started.  All "offsets" returned by this class are
+ * relative to the end of the buffer.
+ *
+ * @author James Ahlborn
+ */
+final class FlatBufferWriter
+{
+  private byte[] _buf = new byte[1024];
+  /** the start of the written data (data is written from the end) */
+  private int _space = _buf.length;
+  private int _minAlign = 1;
+  /** field offsets of the current table */
+  private int[] _vtable;
+  private int _objectStart;
+
+  FlatBufferWriter() {}
+
+  /**
+   * Returns the current offset (from the end of the buffer).
+   */
+  public int offset() {
+    return _buf.length - _space;
+  }
+
+  /**
+   * Pads the buffer so that an object of the given alignment will be aligned
+   * after the given additional bytes have been written.
+   */
+  private void prep(int size, int additionalBytes) {
+    if(size > _minAlign) {
+      _minAlign = size;
+    }
+    int alignSize = (-(offset() + additionalBytes)) & (size - 1);
+    int needed = alignSize + size + additionalBytes;
+    if(_space < needed) {
+      int used = offset();
+      int newLen = Math.max(_buf.length * 2, used + needed);
+      byte[] newBuf = new byte[newLen];
+      System.arraycopy(_buf, _space, newBuf, newLen - used, used);
+      _buf = newBuf;
+      _space = newLen - used;
+    }
+    _space -= alignSize;
+  }
+
+  private void putByte(int b) {
+    _buf[--_space] = (byte)b;
+  }
+
+  private void putShort(int s) {
+    putByte(s >>> 8);
+    putByte(s);
+  }
+
+  private void putInt(int i) {
+    putShort(i >>> 16);
+    putShort(i);
+  }
+
+  private void putLong(long l) {
+    putInt((int)(l >>> 32));
+    putInt((int)l);
+  }
+
+  private void putOffset(int off) {
+    prep(4, 0);
+    putInt(offset() - off + 4);
+  }
+
+  public int createString(String str) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    prep(4, bytes.length + 1);
+    // null terminated
+    putByte(0);
+    _space -= bytes.length;
+    System.arraycopy(bytes, 0, _buf, _space, bytes.length);
+    putInt(bytes.length);
+    return offset();
+  }
+
+  /**
+   * Creates a vector of the objects at the given offsets.
+   */
+  public int createOffsetVector(int... offs) {
+    prep(4, offs.length * 4);
+    for(int i = offs.length - 1; i >= 0; --i) {
+      putOffset(offs[i]);
+    }
+    putInt(offs.length);
+    return offset();
+  }
+
+  /**
+   * Creates a vector of structs, each consisting of the given long values.
+   */
+  public int createLongStructVector(int numFields, long... values) {
+    int numStructs = values.length / numFields;
+    prep(4, values.length * 8);
+    prep(8, values.length * 8);
+    for(int i = values.length - 1; i >= 0; --i) {
+      putLong(values[i]);
+    }
+    prep(4, 0);
+    putInt(numStructs);
+    return offset();
+  }
+
+  /**
+   * Creates a vector of Arrow "Block" structs (long offset, int metadata
+   * length, long body length) from the given triples of values.
+   */
+  public int createBlockVector(long... values) {
+    int numBlocks = values.length / 3;
+    prep(4, numBlocks * 24);
+    prep(8, numBlocks * 24);
+    for(int i = values.length - 3; i >= 0; i -= 3) {
+      putLong(values[i + 2]);
+      // padding
+      putInt(0);
+      putInt((int)values[i + 1]);
+      putLong(values[i]);
+    }
+    prep(4, 0);
+    putInt(numBlocks);
+    return offset();
+  }
+
+  public void startTable(int numFields) {
+    _vtable = new int[numFields];
+    _objectStart = offset();
+  }
+
+  public void addByte(int field, int value) {
+    prep(1, 0);
+    putByte(value);
+    _vtable[field] = offset();
+  }
+
+  public void addBoolean(int field, boolean value) {
+    addByte(field, (value ? 1 : 0));
+  }
+
+  public void addShort(int field, int value) {
+    prep(2, 0);
+    putShort(value);
+    _vtable[field] = offset();
+  }
+
+  public void addInt(int field, int value) {
+    prep(4, 0);
+    putInt(value);
+    _vtable[field] = offset();
+  }
+
+  public void addLong(int field, long value) {
+    prep(8, 0);
+    putLong(value);
+    _vtable[field] = offset();
+  }
+
+  public void addOffset(int field, int off) {
+    putOffset(off);
+    _vtable[field] = offset();
+  }
+
+  public int endTable() {
+    // placeholder for the vtable offset
+    prep(4, 0);
+    putInt(0);
+    int objectOffset = offset();
+
+    // write the vtable (immediately before the table)
+    prep(2, (_vtable.length + 2) * 2);
+    for(int i = _vtable.length - 1; i >= 0; --i) {
+      putShort((_vtable[i] != 0) ? (objectOffset - _vtable[i]) : 0);
+    }
+    putShort(objectOffset - _objectStart);
+    putShort((_vtable.length + 2) * 2);
+    int vtableOffset = offset();
+
+    // the table refers to its vtable via a signed offset (table pos - vtable
+    // pos)
+    int tablePos = _buf.length - objectOffset;
+    int val = vtableOffset - objectOffset;
+    _buf[tablePos] = (byte)val;
+    _buf[tablePos + 1] = (byte)(val >>> 8);
+    _buf[tablePos + 2] = (byte)(val >>> 16);
+    _buf[tablePos + 3] = (byte)(val >>> 24);
+
+    _vtable = null;
+    return objectOffset;
+  }
+
+  /**
+   * Finishes the buffer with the given root table and returns the bytes.
+   * The length of the result is a multiple of the largest alignment used.
+   */
+  public byte[] finish(int rootTable) {
+    prep(_minAlign, 4);
+    putOffset(rootTable);
+    return Arrays.copyOfRange(_buf, _space, _buf.length);
+  }
+}
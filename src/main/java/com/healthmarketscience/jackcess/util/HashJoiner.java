@@ -0,0 +1,562 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.RuntimeIOException;
+import com.healthmarketscience.jackcess.Table;
+
+/**
+ * Utility for joining the rows of two tables on arbitrary columns (which do
+ * not need to be indexed) using a hash join.  All the (projected) rows of the
+ * "to" table are loaded into a hash table keyed on the join columns, and then
+ * the rows of the "from" table are matched against the hash table.  Like the
+ * {@link Joiner}, text values are compared case-insensitively.  Numeric
+ * values are compared by value regardless of the column type.  Rows with
+ * any {@code null} join column values never match.
+ * <p>
+ * If the number of "to" rows exceeds the configured max (see {@link
+ * #setMaxBuildRows}), the rows of both tables are partitioned by join key
+ * into temporary files which are then joined one partition at a time (in
+ * this case, the results are no longer in "from" table order).  Spilling
+ * rows requires all the selected column values to be {@link
+ * java.io.Serializable} (complex column values are not).
+ * <p>
+ * Each iteration over the joiner re-reads the tables.
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public class HashJoiner implements Iterable<JoinedRow>
+{
+  /** the max number of partitions used when spilling rows */
+  private static final int MAX_PARTITIONS = 256;
+
+  private final Cursor _fromCursor;
+  private final List<String> _fromKeyColumns;
+  private final Cursor _toCursor;
+  private final List<String> _toKeyColumns;
+  private Collection<String> _fromColumnNames;
+  private Collection<String> _toColumnNames;
+  private boolean _outerJoin;
+  private int _maxBuildRows = Integer.MAX_VALUE;
+  private File _tempDir;
+
+  private HashJoiner(Cursor fromCursor, List<String> fromKeyColumns,
+                     Cursor toCursor, List<String> toKeyColumns)
+  {
+    if(fromKeyColumns.isEmpty() ||
+       (fromKeyColumns.size() != toKeyColumns.size())) {
+      throw new IllegalArgumentException(
+          "Must provide the same number of (non-zero) join columns for both " +
+          "tables");
+    }
+    _fromCursor = fromCursor;
+    _fromKeyColumns = new ArrayList<String>(fromKeyColumns);
+    _toCursor = toCursor;
+    _toKeyColumns = new ArrayList<String>(toKeyColumns);
+  }
+
+  /**
+   * Creates a new HashJoiner which joins the rows of the given tables on the
+   * given columns.
+   *
+   * @param fromTable the "from" side of the join
+   * @param fromKeyColumns the join columns of the "from" table
+   * @param toTable the "to" side of the join, the rows of which will be
+   *                loaded into the hash table
+   * @param toKeyColumns the join columns of the "to" table (in the same
+   *                     order as the "from" columns)
+   */
+  public static HashJoiner create(Table fromTable, List<String> fromKeyColumns,
+                                  Table toTable, List<String> toKeyColumns)
+    throws IOException
+  {
+    return create(CursorBuilder.createCursor(fromTable), fromKeyColumns,
+                  CursorBuilder.createCursor(toTable), toKeyColumns);
+  }
+
+  /**
+   * Creates a new HashJoiner which joins the rows read from the given
+   * cursors on the given columns.
+   *
+   * @param fromCursor cursor for the "from" side of the join
+   * @param fromKeyColumns the join columns of the "from" cursor
+   * @param toCursor cursor for the "to" side of the join, the rows of which
+   *                 will be loaded into the hash table
+   * @param toKeyColumns the join columns of the "to" cursor (in the same
+   *                     order as the "from" columns)
+   */
+  public static HashJoiner create(Cursor fromCursor,
+                                  List<String> fromKeyColumns,
+                                  Cursor toCursor, List<String> toKeyColumns)
+  {
+    return new HashJoiner(fromCursor, fromKeyColumns, toCursor, toKeyColumns);
+  }
+
+  public Cursor getFromCursor() {
+    return _fromCursor;
+  }
+
+  public Cursor getToCursor() {
+    return _toCursor;
+  }
+
+  /**
+   * Sets the columns which will be read from the "from" table (the join
+   * columns are always read).  By default, all columns are read.
+   */
+  public HashJoiner setFromColumnNames(Collection<String> columnNames) {
+    _fromColumnNames = columnNames;
+    return this;
+  }
+
+  /**
+   * Sets the columns which will be read from the "to" table (the join
+   * columns are always read).  By default, all columns are read.
+   */
+  public HashJoiner setToColumnNames(Collection<String> columnNames) {
+    _toColumnNames = columnNames;
+    return this;
+  }
+
+  /**
+   * If {@code true}, "from" rows without any matching "to" rows will be
+   * included in the results (a left outer join).  Defaults to {@code
+   * false}.
+   */
+  public HashJoiner setOuterJoin(boolean outerJoin) {
+    _outerJoin = outerJoin;
+    return this;
+  }
+
+  /**
+   * Sets the max number of "to" rows which will be held in memory before the
+   * rows are spilled to temporary files.  Defaults to {@link
+   * Integer#MAX_VALUE} (never spill).
+   */
+  public HashJoiner setMaxBuildRows(int maxBuildRows) {
+    _maxBuildRows = maxBuildRows;
+    return this;
+  }
+
+  /**
+   * Sets the directory in which temporary files will be created when rows
+   * are spilled, {@code null} for the default temporary directory.
+   */
+  public HashJoiner setTempDirectory(File tempDir) {
+    _tempDir = tempDir;
+    return this;
+  }
+
+  /**
+   * Executes the join and returns an Iterator over the results.  The
+   * returned Iterator is also {@link Closeable}.  If rows were spilled, any
+   * remaining temporary files are removed once the Iterator is exhausted or
+   * when it is closed.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  @Override
+  public Iterator<JoinedRow> iterator() {
+    return new JoinIterator(stream());
+  }
+
+  /**
+   * Executes the join and returns a Stream of the results.  If rows were
+   * spilled, closing the Stream before it is exhausted will remove any
+   * remaining temporary files.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  public Stream<JoinedRow> stream() {
+    Map<List<Object>,List<Row>> table = new HashMap<List<Object>,List<Row>>();
+    Spill spill = null;
+    int numRows = 0;
+    try {
+      Iterator<Row> toIter = newIterable(
+          _toCursor, _toColumnNames, _toKeyColumns).iterator();
+      while(toIter.hasNext()) {
+        Row toRow = toIter.next();
+        List<Object> key = toKey(toRow, _toKeyColumns);
+        if(key == null) {
+          continue;
+        }
+        if(spill != null) {
+          spill.writeToRow(key, toRow);
+          continue;
+        }
+        addToRow(table, key, toRow);
+        if(++numRows > _maxBuildRows) {
+          spill = new Spill(getNumPartitions());
+          for(Map.Entry<List<Object>,List<Row>> e : table.entrySet()) {
+            for(Row row : e.getValue()) {
+              spill.writeToRow(e.getKey(), row);
+            }
+          }
+          table = null;
+        }
+      }
+
+      Stream<Row> fromRows = newIterable(
+          _fromCursor, _fromColumnNames, _fromKeyColumns).stream();
+      if(spill == null) {
+        final Map<List<Object>,List<Row>> fTable = table;
+        return fromRows.flatMap(r -> join(fTable, r));
+      }
+
+      for(Iterator<Row> fromIter = fromRows.iterator(); fromIter.hasNext(); ) {
+        Row fromRow = fromIter.next();
+        spill.writeFromRow(toKey(fromRow, _fromKeyColumns), fromRow);
+      }
+      spill.finishWrite();
+      return spill.stream();
+
+    } catch(IOException e) {
+      if(spill != null) {
+        spill.close();
+      }
+      throw new RuntimeIOException("Failed joining tables", e);
+    } catch(RuntimeException e) {
+      if(spill != null) {
+        spill.close();
+      }
+      throw e;
+    }
+  }
+
+  private int getNumPartitions() {
+    long numRows = Math.max(_toCursor.getTable().getRowCount(), 1);
+    long numPartitions = ((numRows * 2L) / Math.max(_maxBuildRows, 1)) + 1L;
+    return (int)Math.max(2L, Math.min(numPartitions, MAX_PARTITIONS));
+  }
+
+  private Stream<JoinedRow> join(Map<List<Object>,List<Row>> table,
+                                 Row fromRow) {
+    List<Object> key = toKey(fromRow, _fromKeyColumns);
+    List<Row> toRows = ((key != null) ? table.get(key) : null);
+    if(toRows == null) {
+      return (_outerJoin ? Stream.of(new JoinedRow(fromRow, null)) :
+              Stream.<JoinedRow>empty());
+    }
+    return toRows.stream().map(r -> new JoinedRow(fromRow, r));
+  }
+
+  private static void addToRow(Map<List<Object>,List<Row>> table,
+                               List<Object> key, Row toRow) {
+    List<Row> rows = table.get(key);
+    if(rows == null) {
+      rows = new ArrayList<Row>(1);
+      table.put(key, rows);
+    }
+    rows.add(toRow);
+  }
+
+  private static IterableBuilder newIterable(
+      Cursor cursor, Collection<String> columnNames, List<String> keyColumns)
+  {
+    IterableBuilder iterable = cursor.newIterable().reset(true);
+    if(columnNames != null) {
+      Set<String> allNames = new LinkedHashSet<String>(columnNames);
+      allNames.addAll(keyColumns);
+      iterable.setColumnNames(allNames);
+    }
+    return iterable;
+  }
+
+  /**
+   * Returns the join key for the given row, {@code null} if any of the key
+   * values are {@code null}.
+   */
+  private static List<Object> toKey(Row row, List<String> keyColumns) {
+    if(keyColumns.size() == 1) {
+      Object keyVal = toKeyValue(row.get(keyColumns.get(0)));
+      return ((keyVal != null) ? Collections.singletonList(keyVal) : null);
+    }
+    List<Object> key = new ArrayList<Object>(keyColumns.size());
+    for(String keyCol : keyColumns) {
+      Object keyVal = toKeyValue(row.get(keyCol));
+      if(keyVal == null) {
+        return null;
+      }
+      key.add(keyVal);
+    }
+    return key;
+  }
+
+  /**
+   * Returns a value which can be used to compare the given column value for
+   * equality in a hash based structure using the same semantics as Access:
+   * text values are compared case-insensitively and numeric values are
+   * compared by value regardless of the actual numeric type.
+   * @usage _advanced_method_
+   */
+  public static Object toKeyValue(Object value) {
+    if(value instanceof String) {
+      return ((String)value).toUpperCase(Locale.ROOT);
+    }
+    if(value instanceof Number) {
+      return toKeyNumber((Number)value);
+    }
+    if(value instanceof byte[]) {
+      return ByteBuffer.wrap((byte[])value);
+    }
+    return value;
+  }
+
+  private static Object toKeyNumber(Number num) {
+    BigDecimal dec = null;
+    if(num instanceof BigDecimal) {
+      dec = (BigDecimal)num;
+    } else if(num instanceof BigInteger) {
+      dec = new BigDecimal((BigInteger)num);
+    } else if((num instanceof Double) || (num instanceof Float)) {
+      double d = num.doubleValue();
+      if(Double.isNaN(d) || Double.isInfinite(d)) {
+        return d;
+      }
+      dec = BigDecimal.valueOf(d);
+    } else {
+      dec = BigDecimal.valueOf(num.longValue());
+    }
+    if(dec.signum() == 0) {
+      return BigDecimal.ZERO;
+    }
+    return dec.stripTrailingZeros();
+  }
+
+  /**
+   * Manages the temporary partition files used when rows are spilled.
+   */
+  private final class Spill implements Closeable
+  {
+    private final Partition[] _toParts;
+    private final Partition[] _fromParts;
+    /** "from" rows which can never match (only used for outer joins) */
+    private final Partition _unmatched;
+
+    private Spill(int numPartitions) throws IOException {
+      _toParts = new Partition[numPartitions];
+      _fromParts = new Partition[numPartitions];
+      _unmatched = new Partition();
+      for(int i = 0; i < numPartitions; ++i) {
+        _toParts[i] = new Partition();
+        _fromParts[i] = new Partition();
+      }
+    }
+
+    private int getPartition(List<Object> key) {
+      return (key.hashCode() & Integer.MAX_VALUE) % _toParts.length;
+    }
+
+    private void writeToRow(List<Object> key, Row row) throws IOException {
+      _toParts[getPartition(key)].write(row);
+    }
+
+    private void writeFromRow(List<Object> key, Row row) throws IOException {
+      if(key == null) {
+        if(_outerJoin) {
+          _unmatched.write(row);
+        }
+        return;
+      }
+      _fromParts[getPartition(key)].write(row);
+    }
+
+    private void finishWrite() throws IOException {
+      _unmatched.finishWrite();
+      for(int i = 0; i < _toParts.length; ++i) {
+        _toParts[i].finishWrite();
+        _fromParts[i].finishWrite();
+      }
+    }
+
+    private Stream<JoinedRow> stream() {
+      // note, flatMap closes each partition stream once it is consumed
+      Stream<JoinedRow> unmatched = Stream.of(_unmatched)
+        .flatMap(Partition::stream)
+        .map(r -> new JoinedRow(r, null));
+      Stream<JoinedRow> matched = IntStream.range(0, _toParts.length)
+        .boxed()
+        .flatMap(i -> {
+            Map<List<Object>,List<Row>> table =
+              new HashMap<List<Object>,List<Row>>();
+            try(Stream<Row> toRows = _toParts[i].stream()) {
+              toRows.forEach(r -> addToRow(table, toKey(r, _toKeyColumns), r));
+            }
+            return _fromParts[i].stream()
+              .flatMap(r -> join(table, r))
+              .onClose(_fromParts[i]::close);
+          });
+      return Stream.concat(matched, unmatched).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+      _unmatched.close();
+      for(int i = 0; i < _toParts.length; ++i) {
+        _toParts[i].close();
+        _fromParts[i].close();
+      }
+    }
+  }
+
+  /**
+   * A temporary file holding the rows of one partition.
+   */
+  private final class Partition implements Closeable
+  {
+    private File _file;
+    private ObjectOutputStream _out;
+    private int _numRows;
+
+    private void write(Row row) throws IOException {
+      if(_out == null) {
+        _file = File.createTempFile("jackcess_join_", ".tmp", _tempDir);
+        _out = new ObjectOutputStream(new BufferedOutputStream(
+                                          Files.newOutputStream(_file.toPath())));
+      }
+      _out.writeObject(row);
+      // do not let the stream hold references to all the written rows
+      _out.reset();
+      ++_numRows;
+    }
+
+    private void finishWrite() throws IOException {
+      if(_out != null) {
+        _out.close();
+        _out = null;
+      }
+    }
+
+    private Stream<Row> stream() {
+      if(_numRows == 0) {
+        return Stream.empty();
+      }
+      try {
+        final ObjectInputStream in = new ObjectInputStream(
+            new BufferedInputStream(Files.newInputStream(_file.toPath())));
+        return IntStream.range(0, _numRows)
+          .mapToObj(i -> {
+              try {
+                return (Row)in.readObject();
+              } catch(IOException e) {
+                throw new RuntimeIOException("Failed reading spilled rows", e);
+              } catch(ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+              }
+            })
+          .onClose(() -> {
+              try {
+                in.close();
+              } catch(IOException e) {
+                // ignored
+              }
+              close();
+            });
+      } catch(IOException e) {
+        throw new RuntimeIOException("Failed reading spilled rows", e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if(_out != null) {
+        try {
+          _out.close();
+        } catch(IOException e) {
+          // ignored
+        }
+        _out = null;
+      }
+      if(_file != null) {
+        _file.delete();
+        _file = null;
+        _numRows = 0;
+      }
+    }
+  }
+
+  /**
+   * Iterator over the join results which closes the underlying Stream (thus
+   * removing any temporary files) once it is exhausted or closed.
+   */
+  private static final class JoinIterator
+    implements Iterator<JoinedRow>, Closeable
+  {
+    private final Stream<JoinedRow> _stream;
+    private Iterator<JoinedRow> _iter;
+
+    private JoinIterator(Stream<JoinedRow> stream) {
+      _stream = stream;
+      _iter = stream.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if(_iter == null) {
+        return false;
+      }
+      if(!_iter.hasNext()) {
+        close();
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public JoinedRow next() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return _iter.next();
+    }
+
+    @Override
+    public void close() {
+      if(_iter != null) {
+        _iter = null;
+        _stream.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.healthmarketscience.jackcess.Table;
+
+/**
+ * Pipelined import of rows into a table.  Raw records are read in batches on
+ * a dedicated reader thread, the batches are parsed (and filtered) on a pool
+ * of worker threads, and the resulting rows are written to the table in the
+ * original order on the calling thread (the only thread which accesses the
+ * database).  The number of batches in flight is bounded, so a slow writer
+ * will block the reader.
+ *
+ * @param <T> the type of the raw records
+ *
+ * @author James Ahlborn
+ */
+abstract class ImportPipeline<T>
+{
+  private static final ThreadFactory THREAD_FACTORY = (r) -> {
+    Thread t = new Thread(r, "jackcess-import");
+    t.setDaemon(true);
+    return t;
+  };
+
+  private final Table _table;
+  private final ImportFilter _filter;
+  private final int _batchSize;
+  private final int _numThreads;
+
+  protected ImportPipeline(Table table, ImportFilter filter, int batchSize,
+                           int numThreads)
+  {
+    _table = table;
+    _filter = filter;
+    _batchSize = batchSize;
+    _numThreads = numThreads;
+  }
+
+  /**
+   * Returns the next raw record, {@code null} if there are no more records.
+   * Called on the reader thread (the reader thread is interrupted if the
+   * import is abandoned).
+   */
+  protected abstract T readRecord() throws Exception;
+
+  /**
+   * Returns the row values for the given raw record (before filtering).
+   * Called on the worker threads.
+   */
+  protected abstract Object[] parseRecord(T record) throws Exception;
+
+  /**
+   * Imports all the records into the table.
+   */
+  public void run() throws SQLException, IOException
+  {
+    ExecutorService reader = Executors.newSingleThreadExecutor(THREAD_FACTORY);
+    ExecutorService workers = Executors.newFixedThreadPool(
+        _numThreads, THREAD_FACTORY);
+    BlockingQueue<Future<List<Object[]>>> batches =
+      new ArrayBlockingQueue<Future<List<Object[]>>>(_numThreads * 2);
+
+    try {
+
+      reader.submit(() -> {
+        readBatches(workers, batches);
+        return null;
+      });
+
+      while(true) {
+        List<Object[]> rows = batches.take().get();
+        if(rows == null) {
+          // all done
+          break;
+        }
+        if(!rows.isEmpty()) {
+          _table.addRows(rows);
+        }
+      }
+
+    } catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Import interrupted");
+    } catch(ExecutionException e) {
+      Throwable cause = e.getCause();
+      if(cause instanceof IOException) {
+        throw (IOException)cause;
+      }
+      if(cause instanceof SQLException) {
+        throw (SQLException)cause;
+      }
+      if(cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      }
+      if(cause instanceof Error) {
+        throw (Error)cause;
+      }
+      throw new IOException(cause.getMessage(), cause);
+    } finally {
+      // stops the reader if the import failed.  the reader may still be
+      // using the caller's input, so wait for it to actually finish
+      reader.shutdownNow();
+      workers.shutdownNow();
+      awaitTermination(reader);
+      awaitTermination(workers);
+    }
+  }
+
+  /**
+   * Waits for the given (shutdown) executor to finish running tasks.  If the
+   * calling thread is interrupted, it keeps waiting and restores the
+   * interrupted status afterwards.
+   */
+  private static void awaitTermination(ExecutorService executor) {
+    boolean interrupted = false;
+    while(true) {
+      try {
+        if(executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+          break;
+        }
+      } catch(InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if(interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void readBatches(ExecutorService workers,
+                           BlockingQueue<Future<List<Object[]>>> batches)
+    throws InterruptedException
+  {
+    try {
+
+      List<T> records = new ArrayList<T>(_batchSize);
+      T record = null;
+      while((record = nextRecord()) != null) {
+        records.add(record);
+        if(records.size() == _batchSize) {
+          batches.put(workers.submit(newParseTask(records)));
+          records = new ArrayList<T>(_batchSize);
+        }
+      }
+      if(!records.isEmpty()) {
+        batches.put(workers.submit(newParseTask(records)));
+      }
+
+      // signal the end of the records
+      batches.put(CompletableFuture.completedFuture(null));
+
+    } catch(InterruptedException e) {
+      // the import has been abandoned
+      throw e;
+    } catch(Throwable t) {
+      CompletableFuture<List<Object[]>> failure =
+        new CompletableFuture<List<Object[]>>();
+      failure.completeExceptionally(t);
+      batches.put(failure);
+    }
+  }
+
+  /**
+   * Returns the next raw record, stopping promptly if the import has been
+   * abandoned.
+   */
+  private T nextRecord() throws Exception {
+    if(Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    return readRecord();
+  }
+
+  private Callable<List<Object[]>> newParseTask(final List<T> records) {
+    return () -> {
+      List<Object[]> rows = new ArrayList<Object[]>(records.size());
+      for(T record : records) {
+        Object[] row = _filter.filterRow(parseRecord(record));
+        if(row != null) {
+          rows.add(row);
+        }
+      }
+      return rows;
+    };
+  }
+}
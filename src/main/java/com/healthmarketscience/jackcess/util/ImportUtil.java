@@ -155,6 +155,16 @@ public class ImportUtil
                                        String name, ImportFilter filter,
                                        boolean useExistingTable)
     throws SQLException, IOException
+  {
+    return importResultSet(source, db, name, filter, useExistingTable,
+                           COPY_TABLE_BATCH_SIZE, 1);
+  }
+
+  private static String importResultSet(final ResultSet source, Database db,
+                                        String name, ImportFilter filter,
+                                        boolean useExistingTable,
+                                        int batchSize, int numThreads)
+    throws SQLException, IOException
   {
     ResultSetMetaData md = source.getMetaData();
 
@@ -165,20 +175,34 @@ public class ImportUtil
       table = createUniqueTable(db, name, columns, md, filter);
     }
 
-    List<Object[]> rows = new ArrayList<Object[]>(COPY_TABLE_BATCH_SIZE);
-    int numColumns = md.getColumnCount();
+    final int numColumns = md.getColumnCount();
+
+    if(numThreads > 1) {
+      // the result set must be read on a single thread, but the filtering
+      // can happen in parallel
+      new ImportPipeline<Object[]>(table, filter, batchSize, numThreads) {
+        @Override
+        protected Object[] readRecord() throws SQLException {
+          return (source.next() ? readRow(source, numColumns) : null);
+        }
+        @Override
+        protected Object[] parseRecord(Object[] record) {
+          return record;
+        }
+      }.run();
+      return table.getName();
+    }
+
+    List<Object[]> rows = new ArrayList<Object[]>(batchSize);
 
     while (source.next()) {
-      Object[] row = new Object[numColumns];
-      for (int i = 0; i < row.length; i++) {
-        row[i] = source.getObject(i + 1);
-      }
+      Object[] row = readRow(source, numColumns);
       row = filter.filterRow(row);
       if(row == null) {
         continue;
       }
       rows.add(row);
-      if (rows.size() == COPY_TABLE_BATCH_SIZE) {
+      if (rows.size() == batchSize) {
         table.addRows(rows);
         rows.clear();
       }
@@ -190,6 +214,16 @@ public class ImportUtil
     return table.getName();
   }
 
+  private static Object[] readRow(ResultSet source, int numColumns)
+    throws SQLException
+  {
+    Object[] row = new Object[numColumns];
+    for (int i = 0; i < row.length; i++) {
+      row[i] = source.getObject(i + 1);
+    }
+    return row;
+  }
+
   /**
    * Copy a delimited text file into a new table in this database.
    * <p>
@@ -432,17 +466,35 @@ public class ImportUtil
                                     ImportFilter filter,
                                     boolean useExistingTable, boolean header)
     throws IOException
+  {
+    return importReader(in, db, name, delim, quote, filter, useExistingTable,
+                        header, COPY_TABLE_BATCH_SIZE, 1, 0);
+  }
+
+  private static String importReader(final BufferedReader in, Database db,
+                                     String name, String delim,
+                                     final char quote, ImportFilter filter,
+                                     boolean useExistingTable, boolean header,
+                                     int batchSize, int numThreads,
+                                     int numSampleRows)
+    throws IOException
   {
     String line = in.readLine();
     if(DatabaseImpl.isBlank(line)) {
       return null;
     }
 
-    Pattern delimPat = Pattern.compile(delim);
+    final Pattern delimPat = Pattern.compile(delim);
+
+    // single character delimiters can be handled by the (much faster)
+    // streaming tokenizer
+    int delimChar = DelimitedTokenizer.toDelimiterChar(delim, quote);
+    DelimitedTokenizer tokenizer = null;
 
     try {
       name = TableBuilder.escapeIdentifier(name);
       Table table = null;
+      List<Object[]> sampleRows = null;
       if(!useExistingTable || ((table = db.getTable(name)) == null)) {
 
         List<ColumnBuilder> columns = new ArrayList<ColumnBuilder>();
@@ -455,14 +507,62 @@ public class ImportUtil
                       .toColumn());
         }
 
+        if(numSampleRows > 0) {
+          // read the first rows and use them to determine the column types
+          if(delimChar >= 0) {
+            tokenizer = new DelimitedTokenizer(in, (char)delimChar, quote);
+          }
+          sampleRows = readSampleRows(in, tokenizer, delimPat, quote,
+                                      columnNames.length, numSampleRows);
+          filter = InferredColumnTypes.infer(columns, sampleRows)
+            .toFilter(filter);
+        }
+
         table = createUniqueTable(db, name, columns, null, filter);
 
         // the first row was a header row
         header = true;
       }
 
-      List<Object[]> rows = new ArrayList<Object[]>(COPY_TABLE_BATCH_SIZE);
-      int numColumns = table.getColumnCount();
+      final int numColumns = table.getColumnCount();
+
+      if(sampleRows != null) {
+        // the sample rows were already read, import them first
+        addRows(table, filter, sampleRows, batchSize);
+      }
+
+      if(delimChar >= 0) {
+        Object[] firstRow = (header ? null :
+                             splitLine(line, delimPat, quote, in, numColumns));
+        if(tokenizer == null) {
+          tokenizer = new DelimitedTokenizer(in, (char)delimChar, quote);
+        }
+        importTokens(tokenizer, firstRow, table, filter, batchSize,
+                     numThreads);
+        return table.getName();
+      }
+
+      if(numThreads > 1) {
+        final String firstLine = (header ? null : line);
+        // the lines must be read on a single thread, but the values can be
+        // split in parallel
+        new ImportPipeline<String>(table, filter, batchSize, numThreads) {
+          private String _nextLine = firstLine;
+          @Override
+          protected String readRecord() throws IOException {
+            String record = ((_nextLine != null) ? _nextLine : in.readLine());
+            _nextLine = null;
+            return readRecordLines(record, delimPat, quote, in);
+          }
+          @Override
+          protected Object[] parseRecord(String record) throws IOException {
+            return splitLine(record, delimPat, quote, null, numColumns);
+          }
+        }.run();
+        return table.getName();
+      }
+
+      List<Object[]> rows = new ArrayList<Object[]>(batchSize);
 
       if(!header) {
         // first line is _not_ a header line
@@ -481,7 +581,7 @@ public class ImportUtil
           continue;
         }
         rows.add(data);
-        if (rows.size() == COPY_TABLE_BATCH_SIZE) {
+        if (rows.size() == batchSize) {
           table.addRows(rows);
           rows.clear();
         }
@@ -497,9 +597,191 @@ public class ImportUtil
     }
   }
 
+  private static void importTokens(final DelimitedTokenizer tokenizer,
+                                   final Object[] firstRow, Table table,
+                                   ImportFilter filter, int batchSize,
+                                   int numThreads)
+    throws SQLException, IOException
+  {
+    final int numColumns = table.getColumnCount();
+
+    if(numThreads > 1) {
+      // the tokenizing is cheap, so it is done on the reader thread (only the
+      // filtering happens in parallel)
+      new ImportPipeline<Object[]>(table, filter, batchSize, numThreads) {
+        private Object[] _nextRow = firstRow;
+        @Override
+        protected Object[] readRecord() throws IOException {
+          Object[] row = ((_nextRow != null) ? _nextRow :
+                          tokenizer.readRecord(numColumns));
+          _nextRow = null;
+          return row;
+        }
+        @Override
+        protected Object[] parseRecord(Object[] record) {
+          return record;
+        }
+      }.run();
+      return;
+    }
+
+    List<Object[]> rows = new ArrayList<Object[]>(batchSize);
+    Object[] data = firstRow;
+    if(data == null) {
+      data = tokenizer.readRecord(numColumns);
+    }
+    while(data != null) {
+      data = filter.filterRow(data);
+      if(data != null) {
+        rows.add(data);
+        if (rows.size() == batchSize) {
+          table.addRows(rows);
+          rows.clear();
+        }
+      }
+      data = tokenizer.readRecord(numColumns);
+    }
+    if (rows.size() > 0) {
+      table.addRows(rows);
+    }
+  }
+
+  /**
+   * Returns up to the given number of rows read from the given tokenizer (if
+   * non-{@code null}) or reader.
+   */
+  private static List<Object[]> readSampleRows(
+      BufferedReader in, DelimitedTokenizer tokenizer, Pattern delim,
+      char quote, int numColumns, int numRows)
+    throws IOException
+  {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    while(rows.size() < numRows) {
+      Object[] row = null;
+      if(tokenizer != null) {
+        row = tokenizer.readRecord(numColumns);
+      } else {
+        String line = in.readLine();
+        if(line != null) {
+          row = splitLine(line, delim, quote, in, numColumns);
+        }
+      }
+      if(row == null) {
+        break;
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * Filters the given rows and adds them to the given table in batches.
+   */
+  private static void addRows(Table table, ImportFilter filter,
+                              List<Object[]> rows, int batchSize)
+    throws SQLException, IOException
+  {
+    List<Object[]> batch = new ArrayList<Object[]>(batchSize);
+    for(Object[] row : rows) {
+      row = filter.filterRow(row);
+      if(row == null) {
+        continue;
+      }
+      batch.add(row);
+      if(batch.size() == batchSize) {
+        table.addRows(batch);
+        batch.clear();
+      }
+    }
+    if(batch.size() > 0) {
+      table.addRows(batch);
+    }
+  }
+
+  /**
+   * Returns the given line along with any additional lines needed to
+   * complete a quoted value spanning newlines (joined by the line
+   * separator), so that the result can be handled by {@link #splitLine}
+   * without the reader.
+   */
+  private static String readRecordLines(String line, Pattern delim,
+                                        char quote, BufferedReader in)
+    throws IOException
+  {
+    if(line == null) {
+      return null;
+    }
+    StringBuilder sb = null;
+    while(isPartialRecord(((sb != null) ? sb : line), delim, quote)) {
+      String nextLine = in.readLine();
+      if(nextLine == null) {
+        // splitLine will fail on the missing end quote
+        break;
+      }
+      if(sb == null) {
+        sb = new StringBuilder(line);
+      }
+      sb.append(LINE_SEPARATOR).append(nextLine);
+    }
+    return ((sb != null) ? sb.toString() : line);
+  }
+
+  /**
+   * Returns {@code true} if the given line ends within a quoted value (using
+   * the same logic as {@link #splitLine}), {@code false} otherwise.
+   */
+  private static boolean isPartialRecord(CharSequence line, Pattern delim,
+                                         char quote)
+  {
+    Matcher m = null;
+    int idx = 0;
+    int len = line.length();
+
+    while(idx < len) {
+
+      if(line.charAt(idx) == quote) {
+
+        // find end of quoted value (skipping any embedded quotes)
+        ++idx;
+        while(true) {
+          while((idx < len) && (line.charAt(idx) != quote)) {
+            ++idx;
+          }
+          if(idx == len) {
+            return true;
+          }
+          ++idx;
+          if((idx < len) && (line.charAt(idx) == quote)) {
+            ++idx;
+          } else {
+            break;
+          }
+        }
+      }
+
+      // a quoted value can only start after a delimiter, so we only need to
+      // find the next delimiter if there are more quotes
+      int quoteIdx = idx;
+      while((quoteIdx < len) && (line.charAt(quoteIdx) != quote)) {
+        ++quoteIdx;
+      }
+      if(quoteIdx == len) {
+        return false;
+      }
+
+      if(m == null) {
+        m = delim.matcher(line);
+      }
+      idx = (m.find(idx) ? m.end() : len);
+    }
+
+    return false;
+  }
+
   /**
    * Splits the given line using the given delimiter pattern and quote
-   * character.  May read additional lines for quotes spanning newlines.
+   * character.  May read additional lines for quotes spanning newlines (if
+   * a reader is given).
    */
   private static Object[] splitLine(String line, Pattern delim, char quote,
                                     BufferedReader in, int numColumns)
@@ -546,10 +828,11 @@ public class ImportUtil
             sb.append(LINE_SEPARATOR);
 
             idx = 0;
-            line = in.readLine();
+            line = ((in != null) ? in.readLine() : null);
             if(line == null) {
               throw new EOFException("Missing end of quoted value " + sb);
             }
+            m.reset(line);
           }
         }
 
@@ -608,6 +891,9 @@ public class ImportUtil
     private ImportFilter _filter = SimpleImportFilter.INSTANCE;
     private boolean _useExistingTable;
     private boolean _header = true;
+    private int _batchSize = COPY_TABLE_BATCH_SIZE;
+    private int _numThreads = 1;
+    private int _numSampleRows;
 
     public Builder(Database db) {
       this(db, null);
@@ -653,6 +939,54 @@ public class ImportUtil
       return this;
     }
 
+    /**
+     * Sets the number of rows which are added to the table at a time.
+     * Defaults to 200.
+     */
+    public Builder setBatchSize(int batchSize) {
+      if(batchSize <= 0) {
+        throw new IllegalArgumentException("Invalid batch size " + batchSize);
+      }
+      _batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of threads used to parse and filter the input rows.  If
+     * greater than 1, the input is read on a separate thread and batches of
+     * rows are parsed and filtered in parallel while the rows are written to
+     * the table on the calling thread (in the original order).  Note that in
+     * this case the {@link ImportFilter#filterRow} method of the filter must
+     * be thread-safe.  Defaults to 1 (everything is handled on the calling
+     * thread).
+     */
+    public Builder setNumThreads(int numThreads) {
+      if(numThreads < 1) {
+        throw new IllegalArgumentException(
+            "Invalid number of threads " + numThreads);
+      }
+      _numThreads = numThreads;
+      return this;
+    }
+
+    /**
+     * Sets the number of rows which are used to infer the column types when
+     * a delimited text import creates a new table.  If greater than 0, the
+     * first rows (after the header) are examined and each new column is
+     * created as a {@code LONG}, {@code NUMERIC}, {@code DOUBLE}, {@code
+     * BOOLEAN} or {@code SHORT_DATE_TIME} column if all the sample values
+     * can be converted to that type (otherwise, a {@code TEXT} or {@code
+     * MEMO} column).  The values of the typed columns are converted before
+     * they are passed to the {@link ImportFilter#filterRow} method (empty
+     * values become {@code null}), and the import fails if a later value
+     * cannot be converted.  Defaults to 0 (all new columns are {@code TEXT}
+     * columns).
+     */
+    public Builder setInferColumnTypes(int numSampleRows) {
+      _numSampleRows = numSampleRows;
+      return this;
+    }
+
     /**
      * @see ImportUtil#importResultSet(ResultSet,Database,String,ImportFilter,boolean)
      */
@@ -660,15 +994,21 @@ public class ImportUtil
       throws SQLException, IOException
     {
       return ImportUtil.importResultSet(source, _db, _tableName, _filter,
-                                        _useExistingTable);
+                                        _useExistingTable, _batchSize,
+                                        _numThreads);
     }
 
     /**
      * @see ImportUtil#importFile(File,Database,String,String,char,ImportFilter,boolean,boolean)
      */
     public String importFile(File f) throws IOException {
-      return ImportUtil.importFile(f, _db, _tableName, _delim, _quote, _filter,
-                                   _useExistingTable, _header);
+      BufferedReader in = null;
+      try {
+        in = new BufferedReader(new FileReader(f));
+        return importReader(in);
+      } finally {
+        ByteUtil.closeQuietly(in);
+      }
     }
 
     /**
@@ -676,7 +1016,9 @@ public class ImportUtil
      */
     public String importReader(BufferedReader reader) throws IOException {
       return ImportUtil.importReader(reader, _db, _tableName, _delim, _quote,
-                                     _filter, _useExistingTable, _header);
+                                     _filter, _useExistingTable, _header,
+                                     _batchSize, _numThreads,
+                                     _numSampleRows);
     }
   }
 
@@ -0,0 +1,331 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+
+/**
+ * Column types inferred from a sample of the rows of a delimited text import.
+ * The type of each column is the most specific of {@code LONG}, {@code
+ * NUMERIC}, {@code DOUBLE}, {@code BOOLEAN}, {@code SHORT_DATE_TIME} which
+ * can represent all the (non-empty) sample values, otherwise {@code TEXT} (or
+ * {@code MEMO} if the sample values are too long for a text column).  The
+ * text values of the typed columns are converted to the relevant java type
+ * before the rows are passed to the import filter (empty values become {@code
+ * null}).
+ *
+ * @author James Ahlborn
+ */
+final class InferredColumnTypes
+{
+  private static final Pattern INT_PAT = Pattern.compile("[-+]?\\d{1,10}");
+  private static final Pattern DECIMAL_PAT = Pattern.compile(
+      "[-+]?(\\d+\\.?\\d*|\\.\\d+)");
+  private static final Pattern FLOAT_PAT = Pattern.compile(
+      "[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+  /** supported date(/time) formats, in order of preference */
+  private static final DateTimeFormatter[] DATE_FORMATS = {
+    dateFormat("uuuu-MM-dd[['T'][' ']HH:mm[:ss[.SSS]]]"),
+    dateFormat("M/d/uuuu[' 'h:mm[:ss]' 'a]"),
+    dateFormat("M/d/uuuu[' 'H:mm[:ss]]"),
+  };
+
+  private enum Kind { LONG, NUMERIC, DOUBLE, BOOLEAN, DATE, TEXT }
+
+  private final String[] _names;
+  private final Kind[] _kinds;
+  private final DateTimeFormatter[] _dateFormats;
+
+  private InferredColumnTypes(int numColumns) {
+    _names = new String[numColumns];
+    _kinds = new Kind[numColumns];
+    _dateFormats = new DateTimeFormatter[numColumns];
+  }
+
+  private static DateTimeFormatter dateFormat(String pattern) {
+    return DateTimeFormatter.ofPattern(pattern, Locale.US)
+      .withResolverStyle(ResolverStyle.STRICT);
+  }
+
+  /**
+   * Updates the types of the given columns based on the values in the given
+   * sample rows and returns the inferred types.
+   */
+  static InferredColumnTypes infer(List<ColumnBuilder> columns,
+                                   List<Object[]> sampleRows)
+  {
+    InferredColumnTypes types = new InferredColumnTypes(columns.size());
+    for(int i = 0; i < columns.size(); ++i) {
+      types.inferColumn(i, columns.get(i), sampleRows);
+    }
+    return types;
+  }
+
+  private void inferColumn(int idx, ColumnBuilder column,
+                           List<Object[]> sampleRows)
+  {
+    _names[idx] = column.getName();
+
+    boolean isLong = true;
+    boolean isDecimal = true;
+    boolean isFloat = true;
+    boolean isBoolean = true;
+    int maxScale = 0;
+    int maxIntDigits = 0;
+    int maxLen = 0;
+    List<String> values = new ArrayList<String>();
+
+    for(Object[] row : sampleRows) {
+      String str = getValue(row, idx);
+      if(str == null) {
+        continue;
+      }
+      maxLen = Math.max(maxLen, str.length());
+      str = str.trim();
+      if(str.isEmpty()) {
+        continue;
+      }
+      values.add(str);
+
+      if(hasLeadingZero(str)) {
+        // most likely an identifier (e.g. zip code), keep the value as is
+        isLong = false;
+        isDecimal = false;
+        isFloat = false;
+      }
+
+      isLong = isLong && isInt(str);
+      if(isDecimal) {
+        isDecimal = DECIMAL_PAT.matcher(str).matches();
+        if(isDecimal) {
+          BigDecimal dec = new BigDecimal(str);
+          maxScale = Math.max(maxScale, dec.scale());
+          maxIntDigits = Math.max(maxIntDigits, dec.precision() - dec.scale());
+        }
+      }
+      isFloat = isFloat && FLOAT_PAT.matcher(str).matches();
+      isBoolean = isBoolean && (toBoolean(str) != null);
+    }
+
+    DateTimeFormatter dateFmt = null;
+    if(!values.isEmpty() && !isFloat && !isBoolean) {
+      dateFmt = findDateFormat(values);
+    }
+
+    if(values.isEmpty()) {
+      // nothing to go on
+      _kinds[idx] = Kind.TEXT;
+    } else if(isLong) {
+      _kinds[idx] = Kind.LONG;
+    } else if(isDecimal && ((maxScale + maxIntDigits) <=
+                            DataType.NUMERIC.getMaxPrecision())) {
+      _kinds[idx] = Kind.NUMERIC;
+    } else if(isFloat) {
+      _kinds[idx] = Kind.DOUBLE;
+    } else if(isBoolean) {
+      _kinds[idx] = Kind.BOOLEAN;
+    } else if(dateFmt != null) {
+      _kinds[idx] = Kind.DATE;
+    } else {
+      _kinds[idx] = Kind.TEXT;
+    }
+    _dateFormats[idx] = dateFmt;
+
+    switch(_kinds[idx]) {
+    case LONG:
+      setFixedType(column, DataType.LONG);
+      break;
+    case NUMERIC:
+      setFixedType(column, DataType.NUMERIC)
+        .setPrecision(DataType.NUMERIC.getMaxPrecision())
+        .setScale(maxScale);
+      break;
+    case DOUBLE:
+      setFixedType(column, DataType.DOUBLE);
+      break;
+    case BOOLEAN:
+      setFixedType(column, DataType.BOOLEAN);
+      break;
+    case DATE:
+      setFixedType(column, DataType.SHORT_DATE_TIME);
+      break;
+    default:
+      if(maxLen > DataType.TEXT.toUnitSize(DataType.TEXT.getMaxSize())) {
+        column.setType(DataType.MEMO).setMaxLength();
+      }
+    }
+  }
+
+  private static ColumnBuilder setFixedType(ColumnBuilder column,
+                                            DataType type) {
+    return column.setType(type).setLength(type.getFixedSize());
+  }
+
+  private static DateTimeFormatter findDateFormat(List<String> values) {
+    for(DateTimeFormatter fmt : DATE_FORMATS) {
+      boolean matches = true;
+      for(String value : values) {
+        if(parseDate(fmt, value) == null) {
+          matches = false;
+          break;
+        }
+      }
+      if(matches) {
+        return fmt;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a filter which converts the text values of the typed columns
+   * before passing the rows to the given filter.
+   */
+  ImportFilter toFilter(final ImportFilter filter) {
+    return new ImportFilter() {
+      @Override
+      public List<ColumnBuilder> filterColumns(List<ColumnBuilder> destColumns,
+                                               ResultSetMetaData srcColumns)
+        throws SQLException, IOException
+      {
+        return filter.filterColumns(destColumns, srcColumns);
+      }
+      @Override
+      public Object[] filterRow(Object[] row)
+        throws SQLException, IOException
+      {
+        return filter.filterRow(convertRow(row));
+      }
+    };
+  }
+
+  /**
+   * Converts the text values of the typed columns in the given row (in
+   * place).
+   */
+  Object[] convertRow(Object[] row) throws IOException
+  {
+    int numColumns = Math.min(row.length, _kinds.length);
+    for(int i = 0; i < numColumns; ++i) {
+      if(_kinds[i] != Kind.TEXT) {
+        row[i] = convertValue(i, getValue(row, i));
+      }
+    }
+    return row;
+  }
+
+  private Object convertValue(int idx, String str) throws IOException
+  {
+    if(str == null) {
+      return null;
+    }
+    str = str.trim();
+    if(str.isEmpty()) {
+      return null;
+    }
+
+    Object value = null;
+    try {
+      switch(_kinds[idx]) {
+      case LONG:
+        value = (isInt(str) ? Integer.valueOf(str) : null);
+        break;
+      case NUMERIC:
+        value = (DECIMAL_PAT.matcher(str).matches() ? new BigDecimal(str) :
+                 null);
+        break;
+      case DOUBLE:
+        value = (FLOAT_PAT.matcher(str).matches() ? Double.valueOf(str) : null);
+        break;
+      case BOOLEAN:
+        value = toBoolean(str);
+        break;
+      case DATE:
+        value = parseDate(_dateFormats[idx], str);
+        break;
+      default:
+        throw new IllegalStateException("unexpected kind " + _kinds[idx]);
+      }
+    } catch(NumberFormatException e) {
+      // handled below
+    }
+
+    if(value == null) {
+      throw new IOException(
+          "Could not convert value '" + str + "' for column " + _names[idx] +
+          " to inferred type " + _kinds[idx] +
+          " (consider increasing the number of sample rows)");
+    }
+    return value;
+  }
+
+  private static String getValue(Object[] row, int idx) {
+    return ((idx < row.length) ? (String)row[idx] : null);
+  }
+
+  private static boolean isInt(String str) {
+    if(!INT_PAT.matcher(str).matches()) {
+      return false;
+    }
+    long val = Long.parseLong(str);
+    return ((val >= Integer.MIN_VALUE) && (val <= Integer.MAX_VALUE));
+  }
+
+  private static boolean hasLeadingZero(String str) {
+    int start = (((str.charAt(0) == '-') || (str.charAt(0) == '+')) ? 1 : 0);
+    return ((str.length() > (start + 1)) && (str.charAt(start) == '0') &&
+            Character.isDigit(str.charAt(start + 1)));
+  }
+
+  private static Boolean toBoolean(String str) {
+    if(str.equalsIgnoreCase("true") || str.equalsIgnoreCase("yes")) {
+      return Boolean.TRUE;
+    }
+    if(str.equalsIgnoreCase("false") || str.equalsIgnoreCase("no")) {
+      return Boolean.FALSE;
+    }
+    return null;
+  }
+
+  private static LocalDateTime parseDate(DateTimeFormatter fmt, String str) {
+    try {
+      TemporalAccessor ta = fmt.parseBest(str, LocalDateTime::from,
+                                          LocalDate::from);
+      return ((ta instanceof LocalDate) ? ((LocalDate)ta).atStartOfDay() :
+              (LocalDateTime)ta);
+    } catch(DateTimeParseException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.impl.CustomToStringStyle;
+
+/**
+ * A single result of joining two tables: a row from the "from" table along
+ * with a matching row from the "to" table (if any).
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ * @see HashJoiner
+ * @see MergeJoiner
+ */
+public final class JoinedRow
+{
+  private final Row _fromRow;
+  private final Row _toRow;
+
+  public JoinedRow(Row fromRow, Row toRow) {
+    _fromRow = fromRow;
+    _toRow = toRow;
+  }
+
+  public Row getFromRow() {
+    return _fromRow;
+  }
+
+  /**
+   * Returns the matching row from the "to" table, {@code null} for an outer
+   * join result which had no matching row.
+   */
+  public Row getToRow() {
+    return _toRow;
+  }
+
+  @Override
+  public String toString() {
+    return CustomToStringStyle.valueBuilder(this)
+      .append("fromRow", _fromRow)
+      .append("toRow", _toRow)
+      .toString();
+  }
+}
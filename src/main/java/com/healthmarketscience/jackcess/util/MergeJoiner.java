@@ -0,0 +1,292 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexCursor;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.RuntimeIOException;
+import com.healthmarketscience.jackcess.impl.ColumnImpl;
+import com.healthmarketscience.jackcess.impl.IndexData;
+import com.healthmarketscience.jackcess.impl.IndexImpl;
+
+/**
+ * Utility for joining the rows of two tables using a merge join over two
+ * indexes whose leading columns are the join columns.  Both tables are read
+ * a single time in index order, so the join requires only enough memory to
+ * hold the "to" rows for a single join key.  The results are in "from" index
+ * order.
+ * <p>
+ * The join columns of the two indexes must have the same types (and sort
+ * orders), since the rows are matched by comparing the encoded index entries
+ * (so, like the {@link Joiner}, text values are compared
+ * case-insensitively).  Rows with any {@code null} join column values never
+ * match.
+ * <p>
+ * Each iteration over the joiner resets and re-reads the given cursors.
+ *
+ * @author James Ahlborn
+ * @usage _general_class_
+ */
+public class MergeJoiner implements Iterable<JoinedRow>
+{
+  private final IndexCursor _fromCursor;
+  private final IndexCursor _toCursor;
+  private final int _numKeyColumns;
+  private final List<String> _fromKeyColumns = new ArrayList<String>();
+  private final List<String> _toKeyColumns = new ArrayList<String>();
+  private Collection<String> _fromColumnNames;
+  private Collection<String> _toColumnNames;
+  private boolean _outerJoin;
+
+  private MergeJoiner(IndexCursor fromCursor, IndexCursor toCursor,
+                      int numKeyColumns)
+  {
+    List<? extends Index.Column> fromCols = fromCursor.getIndex().getColumns();
+    List<? extends Index.Column> toCols = toCursor.getIndex().getColumns();
+    if((numKeyColumns <= 0) || (numKeyColumns > fromCols.size()) ||
+       (numKeyColumns > toCols.size())) {
+      throw new IllegalArgumentException(
+          "Invalid number of join columns " + numKeyColumns);
+    }
+
+    for(int i = 0; i < numKeyColumns; ++i) {
+      Index.Column fromCol = fromCols.get(i);
+      Index.Column toCol = toCols.get(i);
+      if((fromCol.getColumn().getType() != toCol.getColumn().getType()) ||
+         (fromCol.isAscending() != toCol.isAscending()) ||
+         !Objects.equals(
+             ((ColumnImpl)fromCol.getColumn()).getTextSortOrder(),
+             ((ColumnImpl)toCol.getColumn()).getTextSortOrder())) {
+        throw new IllegalArgumentException(
+            "Join columns " + fromCol.getName() + " and " + toCol.getName() +
+            " do not have compatible types");
+      }
+      _fromKeyColumns.add(fromCol.getName());
+      _toKeyColumns.add(toCol.getName());
+    }
+
+    _fromCursor = fromCursor;
+    _toCursor = toCursor;
+    _numKeyColumns = numKeyColumns;
+  }
+
+  /**
+   * Creates a new MergeJoiner which joins the rows of the given cursors on
+   * all the columns of the "from" cursor's index.
+   *
+   * @param fromCursor cursor for the "from" side of the join
+   * @param toCursor cursor for the "to" side of the join
+   * @throws IllegalArgumentException if the index columns are not compatible
+   */
+  public static MergeJoiner create(IndexCursor fromCursor,
+                                   IndexCursor toCursor)
+  {
+    return create(fromCursor, toCursor,
+                  fromCursor.getIndex().getColumnCount());
+  }
+
+  /**
+   * Creates a new MergeJoiner which joins the rows of the given cursors on
+   * the given number of leading index columns.
+   *
+   * @param fromCursor cursor for the "from" side of the join
+   * @param toCursor cursor for the "to" side of the join
+   * @param numKeyColumns the number of leading index columns to join on
+   * @throws IllegalArgumentException if the index columns are not compatible
+   */
+  public static MergeJoiner create(IndexCursor fromCursor,
+                                   IndexCursor toCursor, int numKeyColumns)
+  {
+    return new MergeJoiner(fromCursor, toCursor, numKeyColumns);
+  }
+
+  public IndexCursor getFromCursor() {
+    return _fromCursor;
+  }
+
+  public IndexCursor getToCursor() {
+    return _toCursor;
+  }
+
+  public int getNumKeyColumns() {
+    return _numKeyColumns;
+  }
+
+  /**
+   * Sets the columns which will be read from the "from" table (the join
+   * columns are always read).  By default, all columns are read.
+   */
+  public MergeJoiner setFromColumnNames(Collection<String> columnNames) {
+    _fromColumnNames = columnNames;
+    return this;
+  }
+
+  /**
+   * Sets the columns which will be read from the "to" table (the join
+   * columns are always read).  By default, all columns are read.
+   */
+  public MergeJoiner setToColumnNames(Collection<String> columnNames) {
+    _toColumnNames = columnNames;
+    return this;
+  }
+
+  /**
+   * If {@code true}, "from" rows without any matching "to" rows will be
+   * included in the results (a left outer join).  Defaults to {@code
+   * false}.
+   */
+  public MergeJoiner setOuterJoin(boolean outerJoin) {
+    _outerJoin = outerJoin;
+    return this;
+  }
+
+  /**
+   * Executes the join and returns an Iterator over the results.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  @Override
+  public Iterator<JoinedRow> iterator() {
+    return stream().iterator();
+  }
+
+  /**
+   * Executes the join and returns a Stream of the results.
+   * @throws RuntimeIOException if an IOException is thrown
+   */
+  public Stream<JoinedRow> stream() {
+    Merger merger = new Merger(
+        newIterable(_toCursor, _toColumnNames, _toKeyColumns).iterator());
+    return newIterable(_fromCursor, _fromColumnNames, _fromKeyColumns)
+      .stream()
+      .flatMap(merger::join);
+  }
+
+  private static IterableBuilder newIterable(
+      IndexCursor cursor, Collection<String> columnNames,
+      List<String> keyColumns)
+  {
+    IterableBuilder iterable = cursor.newIterable().reset(true).forward();
+    if(columnNames != null) {
+      Set<String> allNames = new LinkedHashSet<String>(columnNames);
+      allNames.addAll(keyColumns);
+      iterable.setColumnNames(allNames);
+    }
+    return iterable;
+  }
+
+  /**
+   * Returns the encoded join key for the given row, {@code null} if any of
+   * the key values are {@code null}.
+   */
+  private byte[] toKey(IndexCursor cursor, List<String> keyColumns, Row row)
+  {
+    Object[] values = new Object[_numKeyColumns];
+    for(int i = 0; i < values.length; ++i) {
+      values[i] = row.get(keyColumns.get(i));
+      if(values[i] == null) {
+        return null;
+      }
+    }
+    try {
+      return ((IndexImpl)cursor.getIndex()).getIndexData()
+        .createPrefixEntryBytes(values);
+    } catch(IOException e) {
+      throw new RuntimeIOException("Failed encoding join key", e);
+    }
+  }
+
+  private static int compare(byte[] key1, byte[] key2) {
+    return IndexData.BYTE_CODE_COMPARATOR.compare(key1, key2);
+  }
+
+  /**
+   * Maintains the current position in the "to" rows.
+   */
+  private final class Merger
+  {
+    private final Iterator<Row> _toIter;
+    /** the next "to" row (and its key) not yet in the current group */
+    private Row _nextToRow;
+    private byte[] _nextToKey;
+    /** the key of the current group of "to" rows */
+    private byte[] _groupKey;
+    private List<Row> _group = Collections.emptyList();
+
+    private Merger(Iterator<Row> toIter) {
+      _toIter = toIter;
+      advanceTo();
+    }
+
+    private void advanceTo() {
+      _nextToRow = null;
+      _nextToKey = null;
+      while(_toIter.hasNext()) {
+        Row toRow = _toIter.next();
+        byte[] toKey = toKey(_toCursor, _toKeyColumns, toRow);
+        if(toKey != null) {
+          _nextToRow = toRow;
+          _nextToKey = toKey;
+          return;
+        }
+      }
+    }
+
+    private Stream<JoinedRow> join(Row fromRow) {
+      byte[] fromKey = toKey(_fromCursor, _fromKeyColumns, fromRow);
+      if(fromKey != null) {
+
+        if((_groupKey == null) || (compare(fromKey, _groupKey) != 0)) {
+
+          // skip any "to" rows which are before the current "from" row
+          while((_nextToRow != null) && (compare(_nextToKey, fromKey) < 0)) {
+            advanceTo();
+          }
+
+          _groupKey = fromKey;
+          _group = Collections.emptyList();
+          if((_nextToRow != null) && (compare(_nextToKey, fromKey) == 0)) {
+            _group = new ArrayList<Row>();
+            do {
+              _group.add(_nextToRow);
+              advanceTo();
+            } while((_nextToRow != null) &&
+                    (compare(_nextToKey, fromKey) == 0));
+          }
+        }
+
+        if(!_group.isEmpty()) {
+          return _group.stream().map(r -> new JoinedRow(fromRow, r));
+        }
+      }
+
+      return (_outerJoin ? Stream.of(new JoinedRow(fromRow, null)) :
+              Stream.<JoinedRow>empty());
+    }
+  }
+}
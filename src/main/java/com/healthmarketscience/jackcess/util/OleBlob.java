@@ -27,6 +27,10 @@ import java.sql.Blob;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.impl.ColumnImpl;
+import com.healthmarketscience.jackcess.impl.CursorImpl;
 import com.healthmarketscience.jackcess.impl.OleUtil;
 
 /**
@@ -422,5 +426,20 @@ public interface OleBlob extends Blob, Closeable
     public static OleBlob fromInternalData(byte[] bytes) {
       return OleUtil.parseBlob(bytes);
     }
+
+    /**
+     * Returns an OleBlob for the value of the given ole column in the
+     * current row of the given cursor (or {@code null} if the value is
+     * {@code null}).  Unlike {@link #fromInternalData}, large values are
+     * not loaded into memory, the blob data (and the {@link
+     * EmbeddedContent#getStream content stream}) is read directly from the
+     * database as needed.  As such, the returned blob is only valid until
+     * the current row is modified or the database is closed.
+     */
+    public static OleBlob fromCurrentRow(Cursor cursor, Column column)
+      throws IOException
+    {
+      return OleUtil.parseBlob((CursorImpl)cursor, (ColumnImpl)column);
+    }
   }
 }
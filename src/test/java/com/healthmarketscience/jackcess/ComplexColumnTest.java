@@ -16,13 +16,19 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess;
 
+import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import com.healthmarketscience.jackcess.complex.Attachment;
+import com.healthmarketscience.jackcess.complex.ComplexColumnInfo;
 import com.healthmarketscience.jackcess.complex.ComplexDataType;
+import com.healthmarketscience.jackcess.complex.ComplexValue;
 import com.healthmarketscience.jackcess.complex.ComplexValueForeignKey;
 import com.healthmarketscience.jackcess.complex.SingleValue;
 import com.healthmarketscience.jackcess.complex.UnsupportedValue;
@@ -223,6 +229,19 @@ public class ComplexColumnTest extends TestCase
       assertEquals(0, bb.getInt());
       assertTrue(ByteUtil.matchesRange(bb, 28, newBytes));
 
+      // streaming access to the file data
+      byte[] fileBytes = getFileBytes("test_data.txt");
+      a.setFileType("txt");
+      a.setFileData(new ByteArrayInputStream(fileBytes));
+      assertTrue(Arrays.equals(getEncodedFileBytes("test_data.txt"),
+                               a.getEncodedFileData()));
+      a.update();
+      updated = row4ValFk.getAttachments().get(1);
+      assertTrue(Arrays.equals(fileBytes,
+                               toByteArray(updated.getFileDataStream(),
+                                           fileBytes.length)));
+      assertTrue(Arrays.equals(fileBytes, updated.getFileData()));
+
       updated.delete();
       checkAttachments(4, row4ValFk, "test_data2.txt");
       row4ValFk.getAttachments().get(0).delete();
@@ -316,6 +335,63 @@ public class ComplexColumnTest extends TestCase
     }
   }
 
+  public void testBulkLoadValues() throws Exception
+  {
+    for(final TestDB testDB : TestDB.getSupportedForBasename(Basename.COMPLEX)) {
+
+      Database db = openCopy(testDB);
+
+      Table t1 = db.getTable("Table1");
+      for(Column col : Arrays.asList(
+              t1.getColumn("multi-value-data"), t1.getColumn("attach-data"),
+              t1.getColumn("append-memo-data").getVersionHistoryColumn())) {
+        @SuppressWarnings("unchecked")
+        ComplexColumnInfo<ComplexValue> info =
+          (ComplexColumnInfo<ComplexValue>)col.getComplexInfo();
+
+        List<ComplexValueForeignKey> fks =
+          new ArrayList<ComplexValueForeignKey>();
+        for(Row row : t1) {
+          fks.add((ComplexValueForeignKey)col.getRowValue(row));
+        }
+        Collections.reverse(fks);
+
+        Map<Integer,List<ComplexValue>> bulkValues = info.getValues(fks);
+        assertEquals(fks.size(), bulkValues.size());
+
+        List<Integer> fkVals = new ArrayList<Integer>();
+        for(ComplexValueForeignKey fk : fks) {
+          fkVals.add(fk.get());
+          List<ComplexValue> expected = info.getValues(fk);
+          List<ComplexValue> actual = bulkValues.get(fk.get());
+          assertEquals(expected.size(), actual.size());
+          for(int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+          }
+          // values are cached in the foreign key
+          assertSame(actual, fk.getValues());
+        }
+
+        // keys are returned in ascending order
+        Map<Integer,List<Row>> bulkRawValues = info.getRawValues(
+            fkVals, Collections.<String>emptySet());
+        List<Integer> sortedFkVals = new ArrayList<Integer>(fkVals);
+        Collections.sort(sortedFkVals);
+        assertEquals(sortedFkVals,
+                     new ArrayList<Integer>(bulkRawValues.keySet()));
+        for(Integer fkVal : fkVals) {
+          assertEquals(info.getRawValues(fkVal, null).size(),
+                       bulkRawValues.get(fkVal).size());
+        }
+
+        assertTrue(info.getRawValues(Collections.<Integer>emptyList(), null)
+                   .isEmpty());
+      }
+
+      db.close();
+    }
+  }
+
   public void testUnsupported() throws Exception
   {
     for(final TestDB testDB : TestDB.getSupportedForBasename(Basename.UNSUPPORTED)) {
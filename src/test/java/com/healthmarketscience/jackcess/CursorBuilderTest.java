@@ -16,8 +16,15 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 import junit.framework.TestCase;
 
+import static com.healthmarketscience.jackcess.Database.*;
+import static com.healthmarketscience.jackcess.TestUtil.*;
 import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
 import com.healthmarketscience.jackcess.impl.IndexImpl;
 
@@ -155,4 +162,114 @@ public class CursorBuilderTest extends TestCase {
     }
   }
 
+  public void testFilterExpression() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+
+      Table table = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("name", DataType.TEXT))
+        .addColumn(new ColumnBuilder("qty", DataType.INT))
+        .addColumn(new ColumnBuilder("price", DataType.DOUBLE))
+        .addColumn(new ColumnBuilder("created", DataType.SHORT_DATE_TIME))
+        .setPrimaryKey("id")
+        .addIndex(new IndexBuilder("name").addColumns("name"))
+        .addIndex(new IndexBuilder("qtyCreated").addColumns("qty", "created"))
+        .toTable(db);
+
+      String[] names = {"Foo", "foo", "FOOD", "bar", null};
+      LocalDateTime baseDate = LocalDateTime.of(2020, 1, 1, 0, 0);
+      for(int i = 0; i < 100; ++i) {
+        table.addRow(i, names[i % names.length], i % 10, i * 1.5d,
+                     baseDate.plusDays(i));
+      }
+
+      LocalDateTime minDate = LocalDateTime.of(2020, 1, 20, 0, 0);
+
+      doTestFilter(table, "[name] = \"FOO\"", "name",
+                   r -> "foo".equalsIgnoreCase(r.getString("name")));
+      doTestFilter(table, "[name] Like \"fo*\"", "name",
+                   r -> ((r.getString("name") != null) &&
+                         r.getString("name").toLowerCase().startsWith("fo")));
+      doTestFilter(table, "[qty] = 3 And [created] >= #1/20/2020#",
+                   "qtyCreated",
+                   r -> ((r.getShort("qty") == 3) &&
+                         !r.getLocalDateTime("created").isBefore(minDate)));
+      doTestFilter(table, "[qty] In (2, 5)", "qtyCreated",
+                   r -> ((r.getShort("qty") == 2) || (r.getShort("qty") == 5)));
+      doTestFilter(table, "([id] Between 20.5 And 10) And [price] > 20",
+                   IndexBuilder.PRIMARY_KEY_NAME,
+                   r -> ((r.getInt("id") >= 10) && (r.getInt("id") <= 20) &&
+                         (r.getDouble("price") > 20)));
+      doTestFilter(table, "(95.5 < [id])", IndexBuilder.PRIMARY_KEY_NAME,
+                   r -> (r.getInt("id") > 95));
+      doTestFilter(table, "[id] < -3", IndexBuilder.PRIMARY_KEY_NAME,
+                   r -> false);
+      doTestFilter(table, "[price] < 10 Or [qty] = 9", null,
+                   r -> ((r.getDouble("price") < 10) || (r.getShort("qty") == 9)));
+      doTestFilter(table, "-[id] < -90", null,
+                   r -> (r.getInt("id") > 90));
+      doTestFilter(table, "[price] >= 100", null,
+                   r -> (r.getDouble("price") >= 100));
+
+      // explicit index is used as given
+      Cursor cursor = table.newCursor()
+        .setIndexByName("name")
+        .setFilterExpression("[qty] = 3")
+        .toCursor();
+      assertEquals("name", ((IndexCursor)cursor).getIndex().getName());
+      int count = 0;
+      for(Row row : cursor) {
+        assertEquals(3, (short)row.getShort("qty"));
+        ++count;
+      }
+      assertEquals(10, count);
+
+      // filter also applies to searches and reverse traversal
+      cursor = table.newCursor()
+        .setFilterExpression("[qty] > 7")
+        .afterLast()
+        .toCursor();
+      assertTrue(cursor.moveToPreviousRow());
+      assertTrue(cursor.getCurrentRowValue(table.getColumn("qty")) instanceof
+                 Short);
+      assertTrue((Short)cursor.getCurrentRowValue(table.getColumn("qty")) > 7);
+      cursor.beforeFirst();
+      assertFalse(cursor.findFirstRow(table.getColumn("qty"), (short)5));
+
+      db.close();
+    }
+  }
+
+  private static void doTestFilter(Table table, String filterExpr,
+                                   String expectedIndexName,
+                                   Predicate<Row> expected)
+    throws Exception
+  {
+    Cursor cursor = table.newCursor()
+      .setFilterExpression(filterExpr)
+      .toCursor();
+    if(expectedIndexName != null) {
+      assertEquals(expectedIndexName,
+                   ((IndexCursor)cursor).getIndex().getName());
+    } else {
+      assertFalse(cursor instanceof IndexCursor);
+    }
+
+    List<Integer> expectedIds = new ArrayList<Integer>();
+    for(Row row : CursorBuilder.createPrimaryKeyCursor(table)) {
+      if(expected.test(row)) {
+        expectedIds.add(row.getInt("id"));
+      }
+    }
+
+    List<Integer> foundIds = new ArrayList<Integer>();
+    for(Row row : cursor) {
+      foundIds.add(row.getInt("id"));
+    }
+    foundIds.sort(null);
+
+    assertEquals(filterExpr, expectedIds, foundIds);
+  }
 }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import com.healthmarketscience.jackcess.Database.FileFormat;
@@ -105,6 +106,21 @@ public class TableUpdaterTest extends TestCase
     newColumn("bigdata2", DataType.MEMO)
       .addToTable(t2);
 
+    // added columns can be looked up by name (case-insensitively)
+    assertEquals("bigdata", t1.getColumn("BigData").getName());
+    assertSame(t2.getColumn("data2"), t2.getColumn("DATA2"));
+    assertTrue(((TableImpl)t1).hasColumn("DATA"));
+    assertFalse(((TableImpl)t1).hasColumn("data2"));
+
+    // lookups do not depend on the default locale
+    Locale defLocale = Locale.getDefault();
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      assertEquals("bigdata", t1.getColumn("BIGDATA").getName());
+    } finally {
+      Locale.setDefault(defLocale);
+    }
+
     int t2idxs = 0;
     if(oneToOne) {
       ++t2idxs;
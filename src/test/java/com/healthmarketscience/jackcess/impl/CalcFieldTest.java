@@ -21,8 +21,10 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import com.healthmarketscience.jackcess.BatchUpdateException;
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
 import com.healthmarketscience.jackcess.DataType;
@@ -31,6 +33,10 @@ import com.healthmarketscience.jackcess.PropertyMap;
 import com.healthmarketscience.jackcess.Row;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
+import com.healthmarketscience.jackcess.expr.Expression;
+import com.healthmarketscience.jackcess.expr.TemporalConfig;
+import com.healthmarketscience.jackcess.expr.Value;
+import com.healthmarketscience.jackcess.impl.expr.Expressionator;
 import junit.framework.TestCase;
 import static com.healthmarketscience.jackcess.TestUtil.*;
 import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
@@ -168,4 +174,104 @@ public class CalcFieldTest extends TestCase
     }
   }
 
+  public void testBatchCalcFields() throws Exception {
+
+    for (final Database.FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      JetFormat format = DatabaseImpl.getFileFormatDetails(fileFormat).getFormat();
+      if(!format.isSupportedCalculatedDataType(DataType.TEXT)) {
+        continue;
+      }
+
+      Database db = createMem(fileFormat);
+
+      Table t = new TableBuilder("Test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("a", DataType.LONG))
+        .addColumn(new ColumnBuilder("b", DataType.LONG))
+        .addColumn(new ColumnBuilder("calc_desc", DataType.TEXT)
+                   .setCalculatedInfo("[id] & \":\" & [calc_sum]"))
+        .addColumn(new ColumnBuilder("calc_sum", DataType.LONG)
+                   .setCalculatedInfo("[a] + [b]"))
+        .addColumn(new ColumnBuilder("calc_div", DataType.LONG)
+                   .setCalculatedInfo("[a] \\ [b]"))
+        .toTable(db);
+
+      List<Object[]> rows = new ArrayList<Object[]>();
+      rows.add(new Object[]{1, 10, 2});
+      rows.add(new Object[]{2, 7, 3});
+      rows.add(new Object[]{3, 5, null});
+      List<? extends Object[]> addedRows = t.addRows(rows);
+      assertEquals(Arrays.asList("1:12", 12, 5),
+                   Arrays.asList(addedRows.get(0)).subList(3, 6));
+
+      rows = new ArrayList<Object[]>();
+      rows.add(new Object[]{4, 8, 4});
+      rows.add(new Object[]{5, 8, 0});
+      rows.add(new Object[]{6, 8, 8});
+      try {
+        t.addRows(rows);
+        fail("BatchUpdateException should have been thrown");
+      } catch(BatchUpdateException be) {
+        // success
+        assertEquals(1, be.getUpdateCount());
+      }
+
+      List<String> actualRows = new ArrayList<String>();
+      for(Row r : t) {
+        actualRows.add(r.entrySet().toString());
+      }
+      assertEquals(Arrays.asList(
+          "[id=1, a=10, b=2, calc_desc=1:12, calc_sum=12, calc_div=5]",
+          "[id=2, a=7, b=3, calc_desc=2:10, calc_sum=10, calc_div=2]",
+          "[id=3, a=5, b=null, calc_desc=3:, calc_sum=null, calc_div=null]",
+          "[id=4, a=8, b=4, calc_desc=4:12, calc_sum=12, calc_div=2]"),
+                   actualRows);
+
+      db.close();
+    }
+  }
+
+  public void testExpressionCache() throws Exception {
+
+    for (final Database.FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      DatabaseImpl db1 = (DatabaseImpl)createMem(fileFormat);
+      DatabaseImpl db2 = (DatabaseImpl)createMem(fileFormat);
+
+      String exprStr = "[FirstName] & \" \" & [LastName]";
+      Expression expr1 = db1.getEvalContext().parse(
+          Expressionator.Type.EXPRESSION, exprStr, Value.Type.STRING);
+      assertSame(expr1, db2.getEvalContext().parse(
+                     Expressionator.Type.EXPRESSION, exprStr,
+                     Value.Type.STRING));
+      assertNotSame(expr1, db2.getEvalContext().parse(
+                        Expressionator.Type.EXPRESSION, exprStr, null));
+      assertNotSame(expr1, db2.getEvalContext().parse(
+                        Expressionator.Type.DEFAULT_VALUE, exprStr,
+                        Value.Type.STRING));
+
+      // different configuration may parse differently
+      db2.getEvalContext().setTemporalConfig(new TemporalConfig(
+          "yyyy-MM-dd", "yyyy-MM-dd", "hh:mm:ss a", "HH:mm:ss", '/', ':',
+          Locale.GERMANY));
+      assertNotSame(expr1, db2.getEvalContext().parse(
+                        Expressionator.Type.EXPRESSION, exprStr,
+                        Value.Type.STRING));
+
+      if(db1.getFormat().isSupportedCalculatedDataType(DataType.TEXT)) {
+        Table t = new TableBuilder("Test")
+          .addColumn(new ColumnBuilder("FirstName", DataType.TEXT))
+          .addColumn(new ColumnBuilder("LastName", DataType.TEXT))
+          .addColumn(new ColumnBuilder("FullName", DataType.TEXT)
+                     .setCalculatedInfo(exprStr))
+          .toTable(db1);
+        t.addRow("Bruce", "Wayne");
+        assertEquals("Bruce Wayne",
+                     t.iterator().next().getString("FullName"));
+      }
+
+      db1.close();
+      db2.close();
+    }
+  }
+
 }
@@ -16,10 +16,13 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +32,7 @@ import com.healthmarketscience.jackcess.Cursor;
 import com.healthmarketscience.jackcess.CursorBuilder;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
 import static com.healthmarketscience.jackcess.Database.*;
 import com.healthmarketscience.jackcess.Row;
 import com.healthmarketscience.jackcess.Table;
@@ -234,6 +238,180 @@ public class DatabaseReadWriteTest extends TestCase
     }
   }
 
+  public void testReadAhead() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createFile(fileFormat);
+      assertEquals(0, db.getReadAheadPages());
+
+      Table t = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("data", DataType.TEXT))
+        .addColumn(new ColumnBuilder("memo", DataType.MEMO))
+        .toTable(db);
+
+      // mix of inline, single page and multi-page long values
+      int[] memoLens = {10, 1000, 5000, 10000};
+      List<Object[]> newRows = new ArrayList<Object[]>();
+      for(int i = 0; i < 1000; ++i) {
+        newRows.add(new Object[]{
+            i, "data " + i, createString(memoLens[i % memoLens.length])});
+      }
+      t.addRows(newRows);
+
+      // grow some rows so that they become overflow rows
+      Cursor c = CursorBuilder.createCursor(t);
+      while(c.moveToNextRow()) {
+        int id = (Integer)c.getCurrentRowValue(t.getColumn("id"));
+        if((id % 3) == 0) {
+          c.setCurrentRowValue(t.getColumn("data"),
+                               "updated data " + id + createString(200));
+        }
+      }
+
+      List<Row> expectedRows = RowFilterTest.toList(t);
+      assertEquals(1000, expectedRows.size());
+
+      ((DatabaseImpl)db).getPageChannel().getBufferPool()
+        .setDirectIoBuffers(true);
+      db.setReadAheadPages(16);
+      assertEquals(16, db.getReadAheadPages());
+
+      assertEquals(expectedRows, RowFilterTest.toList(t));
+
+      List<Row> reverseRows = new ArrayList<Row>();
+      c = CursorBuilder.createCursor(t);
+      c.afterLast();
+      while(c.moveToPreviousRow()) {
+        reverseRows.add(c.getCurrentRow());
+      }
+      Collections.reverse(reverseRows);
+      assertEquals(expectedRows, reverseRows);
+
+      // modifications must not be hidden by previously read pages
+      for(Row r : expectedRows) {
+        r.put("memo", createString(memoLens[(r.getInt("id") + 1) %
+                                            memoLens.length]));
+        t.updateRow(r);
+      }
+
+      assertEquals(expectedRows, RowFilterTest.toList(t));
+
+      db.setReadAheadPages(null);
+      assertEquals(0, db.getReadAheadPages());
+
+      assertEquals(expectedRows, RowFilterTest.toList(t));
+
+      db.close();
+    }
+
+    // malformed property values are ignored
+    System.setProperty(READ_AHEAD_PAGES_PROPERTY, "lots");
+    try {
+      assertEquals(0, DatabaseImpl.getDefaultReadAheadPages());
+      System.setProperty(READ_AHEAD_PAGES_PROPERTY, "-1");
+      assertEquals(0, DatabaseImpl.getDefaultReadAheadPages());
+      System.setProperty(READ_AHEAD_PAGES_PROPERTY, " 8 ");
+      assertEquals(8, DatabaseImpl.getDefaultReadAheadPages());
+    } finally {
+      System.clearProperty(READ_AHEAD_PAGES_PROPERTY);
+    }
+  }
+
+  public void testDeferMetadataUpdates() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createFile(fileFormat);
+      File dbFile = db.getFile();
+      db.close();
+
+      db = new DatabaseBuilder(dbFile).setAutoSync(false).open();
+      Table t = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG).setAutoNumber(true))
+        .addColumn(new ColumnBuilder("data", DataType.TEXT))
+        .setPrimaryKey("id")
+        .toTable(db);
+      db.flush();
+
+      assertFalse(db.isDeferMetadataUpdates());
+      db.setDeferMetadataUpdates(true);
+      assertTrue(db.isDeferMetadataUpdates());
+
+      for(int i = 0; i < 500; ++i) {
+        t.addRow(Column.AUTO_NUMBER, "data " + i);
+      }
+      assertEquals(500, t.getRowCount());
+      assertEquals(0, readPersistedRowCount(dbFile));
+      db.flush();
+      assertEquals(500, readPersistedRowCount(dbFile));
+
+      // failed deferred updates are retried on the next flush
+      final int[] numFlushes = new int[1];
+      PageChannel pageChannel = ((DatabaseImpl)db).getPageChannel();
+      pageChannel.addDeferredUpdate(() -> {
+          if(++numFlushes[0] == 1) {
+            throw new IOException("flush failed");
+          }
+        });
+      try {
+        db.flush();
+        fail("IOException should have been thrown");
+      } catch(IOException e) {
+        // success
+      }
+      db.flush();
+      assertEquals(2, numFlushes[0]);
+      db.flush();
+      assertEquals(2, numFlushes[0]);
+
+      for(int i = 500; i < 510; ++i) {
+        t.addRow(Column.AUTO_NUMBER, "data " + i);
+      }
+
+      // schema changes must see the current table definition
+      new ColumnBuilder("extra", DataType.LONG).addToTable(t);
+      assertEquals(510, readPersistedRowCount(dbFile));
+
+      for(int i = 510; i < 1000; ++i) {
+        t.addRow(Column.AUTO_NUMBER, "data " + i, i);
+      }
+      Cursor c = CursorBuilder.createCursor(t);
+      for(int i = 0; i < 100; ++i) {
+        c.moveToNextRow();
+        c.deleteCurrentRow();
+      }
+      assertEquals(900, t.getRowCount());
+
+      db.setDeferMetadataUpdates(null);
+      assertFalse(db.isDeferMetadataUpdates());
+
+      db.close();
+
+      db = DatabaseBuilder.open(dbFile);
+      t = db.getTable("test");
+      assertEquals(900, t.getRowCount());
+      assertEquals(900, RowFilterTest.toList(t).size());
+
+      Row row = CursorBuilder.findRowByPrimaryKey(t, 750);
+      assertEquals("data 749", row.get("data"));
+      assertEquals(749, row.get("extra"));
+      assertNull(CursorBuilder.findRowByPrimaryKey(t, 50));
+
+      // auto numbers continue from the last written value
+      t.addRow(Column.AUTO_NUMBER, "new data", 0);
+      assertEquals(1001, CursorBuilder.findRowByPrimaryKey(t, 1001).get("id"));
+
+      db.close();
+    }
+  }
+
+  private static int readPersistedRowCount(File dbFile) throws Exception
+  {
+    try(Database db = new DatabaseBuilder(dbFile).setReadOnly(true).open()) {
+      return db.getTable("test").getRowCount();
+    }
+  }
+
   public void testDateMath()
   {
     long now = System.currentTimeMillis();
@@ -187,6 +187,43 @@ public class LongValueTest extends TestCase
     }
   }
 
+  public void testLongValueBufferReuse() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+      Table table = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("memo", DataType.MEMO))
+        .addColumn(new ColumnBuilder("ole", DataType.OLE))
+        .toTable(db);
+
+      String longMemo = createString(5000);
+      byte[] oleValue = toByteArray(new File("src/test/data/test2BinData.dat"));
+      for(int i = 0; i < 100; ++i) {
+        table.addRow(i, longMemo, oleValue);
+      }
+
+      PageBufferPool bufferPool =
+        ((DatabaseImpl)db).getPageChannel().getBufferPool();
+      bufferPool.resetCounts();
+
+      int numRows = 0;
+      for(Row row : table) {
+        assertEquals(longMemo, row.get("memo"));
+        assertTrue(Arrays.equals(oleValue, row.getBytes("ole")));
+        ++numRows;
+      }
+      assertEquals(100, numRows);
+
+      // every long value read should reuse the same page buffer
+      assertTrue(bufferPool.getAllocatedCount() <= 1L);
+      assertEquals((numRows * 2) - bufferPool.getAllocatedCount(),
+                   bufferPool.getReusedCount());
+
+      db.close();
+    }
+  }
+
   public void testLongValueAsMiddleColumn() throws Exception
   {
     for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
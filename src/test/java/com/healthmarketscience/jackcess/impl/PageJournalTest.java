@@ -0,0 +1,131 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import static com.healthmarketscience.jackcess.Database.*;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import static com.healthmarketscience.jackcess.TestUtil.*;
+import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
+import com.healthmarketscience.jackcess.util.RowFilterTest;
+import junit.framework.TestCase;
+
+/**
+ * @author James Ahlborn
+ */
+public class PageJournalTest extends TestCase
+{
+
+  public PageJournalTest(String name) throws Exception {
+    super(name);
+  }
+
+  public void testRollback() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createFile(fileFormat);
+      File dbFile = db.getFile();
+      db.close();
+
+      db = new DatabaseBuilder(dbFile).setAutoSync(false).setJournal(true)
+        .open();
+      assertTrue(((DatabaseImpl)db).isJournaling());
+      Path journalPath = PageJournal.getJournalPath(dbFile.toPath());
+
+      Table t = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("data", DataType.TEXT))
+        .addColumn(new ColumnBuilder("memo", DataType.MEMO))
+        .setPrimaryKey("id")
+        .toTable(db);
+
+      for(int i = 0; i < 200; ++i) {
+        t.addRow(i, "data " + i, createString(i * 20));
+      }
+      db.flush();
+      assertEquals(0L, Files.size(journalPath));
+
+      List<Row> expectedRows = RowFilterTest.toList(t);
+
+      // make a bunch of changes which are never flushed
+      for(int i = 200; i < 500; ++i) {
+        t.addRow(i, "data " + i, createString(i * 20));
+      }
+      Cursor c = CursorBuilder.createCursor(t);
+      while(c.moveToNextRow()) {
+        int id = (Integer)c.getCurrentRowValue(t.getColumn("id"));
+        if((id % 5) == 0) {
+          c.deleteCurrentRow();
+        } else if((id % 3) == 0) {
+          c.setCurrentRowValue(t.getColumn("memo"), createString(5000));
+        }
+      }
+      assertTrue(Files.size(journalPath) > 0L);
+
+      // simulate a crash by copying the current files before closing
+      File crashFile = createTempFile(false);
+      Path crashJournalPath = PageJournal.getJournalPath(crashFile.toPath());
+      Files.copy(dbFile.toPath(), crashFile.toPath(),
+                 StandardCopyOption.REPLACE_EXISTING);
+      Files.copy(journalPath, crashJournalPath,
+                 StandardCopyOption.REPLACE_EXISTING);
+
+      db.close();
+      assertFalse(Files.exists(journalPath));
+
+      // read-only open leaves the journal alone
+      db = new DatabaseBuilder(crashFile).setReadOnly(true).open();
+      db.close();
+      assertTrue(Files.exists(crashJournalPath));
+
+      // the journal is rolled back on open regardless of the journal setting
+      db = DatabaseBuilder.open(crashFile);
+      assertFalse(Files.exists(crashJournalPath));
+      assertFalse(((DatabaseImpl)db).isJournaling());
+
+      t = db.getTable("test");
+      assertEquals(200, t.getRowCount());
+      assertEquals(expectedRows, RowFilterTest.toList(t));
+      assertEquals(150, CursorBuilder.findRowByPrimaryKey(t, 150).get("id"));
+      assertNull(CursorBuilder.findRowByPrimaryKey(t, 250));
+
+      // the recovered database is still usable
+      t.addRow(250, "data 250", createString(100));
+      assertEquals(201, t.getRowCount());
+      db.close();
+
+      db = DatabaseBuilder.open(dbFile);
+      t = db.getTable("test");
+      assertEquals(400, t.getRowCount());
+      assertEquals(400, RowFilterTest.toList(t).size());
+      db.close();
+    }
+  }
+}
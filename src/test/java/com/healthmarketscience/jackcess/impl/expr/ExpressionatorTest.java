@@ -29,7 +29,9 @@ import javax.script.SimpleBindings;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.TestUtil;
 import com.healthmarketscience.jackcess.expr.EvalContext;
+import com.healthmarketscience.jackcess.expr.EvalException;
 import com.healthmarketscience.jackcess.expr.Expression;
+import com.healthmarketscience.jackcess.expr.Function;
 import com.healthmarketscience.jackcess.expr.FunctionLookup;
 import com.healthmarketscience.jackcess.expr.Identifier;
 import com.healthmarketscience.jackcess.expr.NumericConfig;
@@ -419,6 +421,101 @@ public class ExpressionatorTest extends TestCase
     assertFalse(evalCondition("Like \"[abc*\"", "fcd"));
     assertTrue(evalCondition("Not Like \"[abc*\"", "fcd"));
     assertFalse(evalCondition("Like \"[abc*\"", ""));
+
+    // simple patterns
+    assertTrue(evalCondition("Like \"abc\"", "ABC"));
+    assertFalse(evalCondition("Like \"abc\"", "abcd"));
+    assertTrue(evalCondition("Like \"ab.*\"", "AB.xyz"));
+    assertFalse(evalCondition("Like \"ab.*\"", "abxyz"));
+    assertFalse(evalCondition("Like \"ab.*\"", "a"));
+    assertTrue(evalCondition("Like \"*(z)\"", "xy(Z)"));
+    assertFalse(evalCondition("Like \"*(z)\"", "xy(Z)a"));
+    assertTrue(evalCondition("Like \"**b$c*\"", "aaB$Cdd"));
+    assertTrue(evalCondition("Like \"*b$c*\"", "b$c"));
+    assertFalse(evalCondition("Like \"*b$c*\"", "b$"));
+    assertTrue(evalCondition("Not Like \"*b$c*\"", "bc"));
+    assertTrue(evalCondition("Like \"*\"", ""));
+    assertTrue(evalCondition("Like \"\"", ""));
+    assertFalse(evalCondition("Like \"\"", "a"));
+    assertTrue(evalCondition("Like \"a*c\"", "abbc"));
+    assertFalse(evalCondition("Like \"a*c\"", "abbcd"));
+  }
+
+  public void testConstantInExpression() throws Exception
+  {
+    final Value[] identVal = {null};
+    TestContext tc = new TestContext() {
+      @Override
+      public Value getIdentifierValue(Identifier identifier) {
+        return identVal[0];
+      }
+    };
+
+    Expression strExpr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE,
+        "=[A] In ('foo', 'Bar', Null, 'bl' & 'ah', '\u00DF')", null, tc);
+    Expression notStrExpr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE,
+        "=[A] Not In ('foo', 'Bar', Null, 'bl' & 'ah', '\u00DF')", null, tc);
+    for(String str : new String[]{"foo", "FOO", "bar", "blah", "BLAH",
+                                  "\u00DF"}) {
+      identVal[0] = ValueSupport.toValue(str);
+      assertEquals(TRUE_NUM, strExpr.eval(tc));
+      assertEquals(FALSE_NUM, notStrExpr.eval(tc));
+    }
+    for(String str : new String[]{"fo", "bars", "", "SS"}) {
+      identVal[0] = ValueSupport.toValue(str);
+      assertEquals(FALSE_NUM, strExpr.eval(tc));
+      assertEquals(TRUE_NUM, notStrExpr.eval(tc));
+    }
+    identVal[0] = ValueSupport.NULL_VAL;
+    assertNull(strExpr.eval(tc));
+    assertNull(notStrExpr.eval(tc));
+
+    Expression numExpr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE,
+        "=[A] In (3, 4.5, Null, 10.50, #1/1/1900#)", null, tc);
+    identVal[0] = ValueSupport.toValue(3);
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(3.0d);
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(4.5d);
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(new BigDecimal("10.500"));
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(new BigDecimal("10.5"));
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(2);
+    assertEquals(TRUE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(4);
+    assertEquals(FALSE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(10.25d);
+    assertEquals(FALSE_NUM, numExpr.eval(tc));
+    identVal[0] = ValueSupport.NULL_VAL;
+    assertNull(numExpr.eval(tc));
+
+    // mixed strings and numbers are compared in order
+    Expression mixedExpr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE,
+        "=[A] In (3, 'foo')", null, tc);
+    identVal[0] = ValueSupport.toValue(3);
+    assertEquals(TRUE_NUM, mixedExpr.eval(tc));
+    identVal[0] = ValueSupport.toValue(4);
+    try {
+      mixedExpr.eval(tc);
+      fail("EvalException should have been thrown");
+    } catch(EvalException e) {
+      // success
+    }
+
+    // numbers cannot be compared to strings
+    identVal[0] = ValueSupport.toValue(3);
+    try {
+      strExpr.eval(tc);
+      fail("EvalException should have been thrown");
+    } catch(EvalException e) {
+      // success
+    }
   }
 
   public void testLiteralDefaultValue() throws Exception
@@ -473,6 +570,81 @@ public class ExpressionatorTest extends TestCase
     br.close();
   }
 
+  public void testCompiledExpressions() throws Exception
+  {
+    final int[] numCalls = {0};
+    final Value[] identVal = {ValueSupport.toValue(3)};
+    final Function twice = new FunctionSupport.Func1("Twice") {
+      @Override
+      protected Value eval1(EvalContext ctx, Value param) {
+        ++numCalls[0];
+        return ValueSupport.toValue(param.getAsLongInt(ctx) * 2);
+      }
+    };
+
+    TestContext tc = new TestContext() {
+      @Override
+      public FunctionLookup getFunctionLookup() {
+        return (name) -> ("Twice".equalsIgnoreCase(name) ? twice :
+                          DefaultFunctions.LOOKUP.getFunction(name));
+      }
+
+      @Override
+      public Value getIdentifierValue(Identifier identifier) {
+        return identVal[0];
+      }
+    };
+
+    // constant sub-expressions are only evaluated once
+    Expression expr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE, "=((Twice(5) * 2) + [A])", null, tc);
+    assertFalse(expr.isConstant());
+    assertEquals(23, expr.eval(tc));
+    identVal[0] = ValueSupport.toValue(7);
+    assertEquals(27, expr.eval(tc));
+    assertEquals(1, numCalls[0]);
+    assertEquals("((Twice(5) * 2) + [A])", expr.toCleanString(tc));
+
+    // non-constant function params are evaluated every time
+    numCalls[0] = 0;
+    expr = Expressionator.parse(
+        Expressionator.Type.DEFAULT_VALUE, "=Twice([A]) + Twice(1)", null, tc);
+    assertEquals(16, expr.eval(tc));
+    identVal[0] = ValueSupport.toValue(4);
+    assertEquals(10, expr.eval(tc));
+    assertEquals(3, numCalls[0]);
+
+    // logical ops still short circuit
+    numCalls[0] = 0;
+    expr = Expressionator.parse(
+        Expressionator.Type.RECORD_VALIDATOR,
+        "[A] > 5 Or Twice([A]) = 8", null, tc);
+    assertEquals(Boolean.TRUE, expr.eval(tc));
+    assertEquals(1, numCalls[0]);
+    identVal[0] = ValueSupport.toValue(6);
+    assertEquals(Boolean.TRUE, expr.eval(tc));
+    assertEquals(1, numCalls[0]);
+    identVal[0] = ValueSupport.NULL_VAL;
+    try {
+      expr.eval(tc);
+      fail("EvalException should have been thrown");
+    } catch(EvalException e) {
+      // success
+    }
+    assertEquals(1, numCalls[0]);
+
+    expr = Expressionator.parse(
+        Expressionator.Type.RECORD_VALIDATOR,
+        "([A] In (1, Twice(2), 6)) And ([A] Between Twice(1) And (3 + 4))",
+        null, tc);
+    identVal[0] = ValueSupport.toValue(4);
+    assertEquals(Boolean.TRUE, expr.eval(tc));
+    identVal[0] = ValueSupport.toValue(1);
+    assertEquals(Boolean.FALSE, expr.eval(tc));
+    identVal[0] = ValueSupport.toValue(6);
+    assertEquals(Boolean.TRUE, expr.eval(tc));
+  }
+
   public void testInvalidExpressions() throws Exception
   {
     doTestEvalFail("", "empty");
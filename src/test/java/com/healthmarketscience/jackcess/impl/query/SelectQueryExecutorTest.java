@@ -0,0 +1,307 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.impl.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import static com.healthmarketscience.jackcess.Database.*;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import static com.healthmarketscience.jackcess.TestUtil.*;
+import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
+import com.healthmarketscience.jackcess.query.Query;
+import com.healthmarketscience.jackcess.query.SelectQuery;
+import com.healthmarketscience.jackcess.util.RowFilterTest;
+import junit.framework.TestCase;
+import static com.healthmarketscience.jackcess.impl.query.QueryFormat.*;
+
+/**
+ * @author James Ahlborn
+ */
+public class SelectQueryExecutorTest extends TestCase
+{
+
+  public SelectQueryExecutorTest(String name) throws Exception {
+    super(name);
+  }
+
+  public void testSelect() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createTestDb(fileFormat);
+
+      SelectQuery query = newQuery(
+          newRow(TABLE_ATTRIBUTE, null, "Customer", null),
+          newRow(COLUMN_ATTRIBUTE, "Customer.name", null, null),
+          newRow(COLUMN_ATTRIBUTE, "[id] * 10", "Big Id", null),
+          newRow(WHERE_ATTRIBUTE, "(Customer.id >= 2)", null, null),
+          newRow(ORDERBY_ATTRIBUTE, "Customer.name", "D", null));
+
+      SelectQueryExecutor exec = new SelectQueryExecutor(db, query);
+      assertEquals(Arrays.asList("name", "Big Id"), exec.getColumnNames());
+      assertEquals(createExpectedTable(
+                       createExpectedRow("name", "dave", "Big Id", 40),
+                       createExpectedRow("name", "carol", "Big Id", 30),
+                       createExpectedRow("name", "bob", "Big Id", 20)),
+                   RowFilterTest.toList(exec));
+
+      // top, distinct and parameters
+      query = newQuery(
+          newRow(TABLE_ATTRIBUTE, null, "Customer", "C"),
+          newRow(COLUMN_ATTRIBUTE, "C.region", null, null),
+          newRow(WHERE_ATTRIBUTE, "(C.id <> [SkipId])", null, null),
+          newRow(ORDERBY_ATTRIBUTE, "C.region", null, null));
+      setFlag(query, DISTINCT_SELECT_TYPE);
+
+      exec = new SelectQueryExecutor(db, query).setParameter("SkipId", 3);
+      assertEquals(createExpectedTable(
+                       createExpectedRow("region", "EAST"),
+                       createExpectedRow("region", "west")),
+                   RowFilterTest.toList(exec));
+
+      setFlag(query, DISTINCT_SELECT_TYPE | TOP_SELECT_TYPE, "1");
+      assertEquals(createExpectedTable(
+                       createExpectedRow("region", "EAST")),
+                   RowFilterTest.toList(exec));
+
+      try {
+        RowFilterTest.toList(new SelectQueryExecutor(db, query));
+        fail("IllegalStateException should have been thrown");
+      } catch(IllegalStateException e) {
+        // success
+        assertTrue(e.getMessage().contains("SkipId"));
+      }
+
+      db.close();
+    }
+  }
+
+  public void testJoins() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createTestDb(fileFormat);
+
+      SelectQuery query = newQuery(
+          newRow(TABLE_ATTRIBUTE, null, "Customer", null),
+          newRow(TABLE_ATTRIBUTE, null, "Orders", "O"),
+          newRow(COLUMN_ATTRIBUTE, "Customer.name", null, null),
+          newRow(COLUMN_ATTRIBUTE, "O.amount", null, null),
+          newRow(JOIN_ATTRIBUTE, "Customer.id = O.custId", 1, "Customer", "O"),
+          newRow(ORDERBY_ATTRIBUTE, "O.id", null, null));
+
+      SelectQueryExecutor exec = new SelectQueryExecutor(db, query);
+      assertEquals(createExpectedTable(
+                       createExpectedRow("name", "alice", "amount", 10.0d),
+                       createExpectedRow("name", "bob", "amount", 5.0d),
+                       createExpectedRow("name", "alice", "amount", 20.0d),
+                       createExpectedRow("name", "dave", "amount", 7.5d)),
+                   RowFilterTest.toList(exec));
+
+      // left join
+      replaceRows(query, newRow(JOIN_ATTRIBUTE, "Customer.id = O.custId", 2,
+                                "Customer", "O"));
+      replaceRows(query, newRow(ORDERBY_ATTRIBUTE, "Customer.id", null, null),
+                  newRow(ORDERBY_ATTRIBUTE, "O.id", null, null));
+      assertEquals(createExpectedTable(
+                       createExpectedRow("name", "alice", "amount", 10.0d),
+                       createExpectedRow("name", "alice", "amount", 20.0d),
+                       createExpectedRow("name", "bob", "amount", 5.0d),
+                       createExpectedRow("name", "carol", "amount", null),
+                       createExpectedRow("name", "dave", "amount", 7.5d)),
+                   RowFilterTest.toList(exec));
+
+      // right join (order with no customer)
+      replaceRows(query, newRow(JOIN_ATTRIBUTE, "Customer.id = O.custId", 3,
+                                "Customer", "O"));
+      replaceRows(query, newRow(ORDERBY_ATTRIBUTE, "O.id", null, null));
+      replaceRows(query, newRow(WHERE_ATTRIBUTE, "O.amount > 6", null, null));
+      assertEquals(createExpectedTable(
+                       createExpectedRow("name", "alice", "amount", 10.0d),
+                       createExpectedRow("name", "alice", "amount", 20.0d),
+                       createExpectedRow("name", "dave", "amount", 7.5d),
+                       createExpectedRow("name", null, "amount", 100.0d)),
+                   RowFilterTest.toList(exec));
+
+      db.close();
+    }
+  }
+
+  public void testGroupBy() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createTestDb(fileFormat);
+
+      SelectQuery query = newQuery(
+          newRow(TABLE_ATTRIBUTE, null, "Customer", null),
+          newRow(TABLE_ATTRIBUTE, null, "Orders", null),
+          newRow(COLUMN_ATTRIBUTE, "Customer.region", null, null),
+          newRow(COLUMN_ATTRIBUTE, "Sum(Orders.amount)", "Total", null),
+          newRow(COLUMN_ATTRIBUTE, "Count(*)", null, null),
+          newRow(COLUMN_ATTRIBUTE, "Avg([amount]) * 2", null, null),
+          newRow(JOIN_ATTRIBUTE, "Customer.id = Orders.custId", 1,
+                 "Customer", "Orders"),
+          newRow(GROUPBY_ATTRIBUTE, "Customer.region", null, null),
+          newRow(ORDERBY_ATTRIBUTE, "Sum(Orders.amount)", "D", null));
+
+      SelectQueryExecutor exec = new SelectQueryExecutor(db, query);
+      assertEquals(Arrays.asList("region", "Total", "Expr1000", "Expr1001"),
+                   exec.getColumnNames());
+      assertEquals(createExpectedTable(
+                       createExpectedRow("region", "EAST", "Total", 35.0d,
+                                         "Expr1000", 3, "Expr1001", 23.3d),
+                       createExpectedRow("region", "west", "Total", 7.5d,
+                                         "Expr1000", 1, "Expr1001", 15.0d)),
+                   roundDoubles(RowFilterTest.toList(exec)));
+
+      addRows(query, newRow(HAVING_ATTRIBUTE, "(Count(*) < 2)", null, null));
+      assertEquals(createExpectedTable(
+                       createExpectedRow("region", "west", "Total", 7.5d,
+                                         "Expr1000", 1, "Expr1001", 15.0d)),
+                   RowFilterTest.toList(exec));
+
+      // aggregates without grouping always return a row
+      query = newQuery(
+          newRow(TABLE_ATTRIBUTE, null, "Orders", null),
+          newRow(COLUMN_ATTRIBUTE, "Count(*)", "Num", null),
+          newRow(COLUMN_ATTRIBUTE, "Max([amount])", "MaxAmount", null),
+          newRow(WHERE_ATTRIBUTE, "[amount] > 1000", null, null));
+      assertEquals(createExpectedTable(
+                       createExpectedRow("Num", 0, "MaxAmount", null)),
+                   RowFilterTest.toList(new SelectQueryExecutor(db, query)));
+
+      db.close();
+    }
+  }
+
+  public void testSavedQuery() throws Exception
+  {
+    for (final TestDB testDB : TestDB.getSupportedForBasename(Basename.QUERY)) {
+      Database db = openMem(testDB);
+
+      for(Query query : db.getQueries()) {
+        if(query.getType() == Query.Type.SELECT) {
+          SelectQueryExecutor exec = new SelectQueryExecutor(
+              db, (SelectQuery)query);
+          List<Row> rows = RowFilterTest.toList(exec);
+          for(Row row : rows) {
+            assertEquals(exec.getColumnNames(),
+                         new ArrayList<String>(row.keySet()));
+          }
+        }
+      }
+
+      db.close();
+    }
+  }
+
+  private static Database createTestDb(FileFormat fileFormat) throws Exception
+  {
+    Database db = createMem(fileFormat);
+
+    Table cust = new TableBuilder("Customer")
+      .addColumn(new ColumnBuilder("id", DataType.LONG))
+      .addColumn(new ColumnBuilder("name", DataType.TEXT))
+      .addColumn(new ColumnBuilder("region", DataType.TEXT))
+      .setPrimaryKey("id")
+      .toTable(db);
+    cust.addRow(1, "alice", "EAST");
+    cust.addRow(2, "bob", "east");
+    cust.addRow(3, "carol", "north");
+    cust.addRow(4, "dave", "west");
+
+    Table orders = new TableBuilder("Orders")
+      .addColumn(new ColumnBuilder("id", DataType.LONG))
+      .addColumn(new ColumnBuilder("custId", DataType.LONG))
+      .addColumn(new ColumnBuilder("amount", DataType.DOUBLE))
+      .setPrimaryKey("id")
+      .addIndex(new IndexBuilder("custId").addColumns("custId"))
+      .toTable(db);
+    orders.addRow(1, 1, 10.0d);
+    orders.addRow(2, 2, 5.0d);
+    orders.addRow(3, 1, 20.0d);
+    orders.addRow(4, 4, 7.5d);
+    orders.addRow(5, 9, 100.0d);
+
+    return db;
+  }
+
+  private static List<Row> roundDoubles(List<Row> rows)
+  {
+    for(Row row : rows) {
+      for(String key : row.keySet()) {
+        Object val = row.get(key);
+        if(val instanceof Double) {
+          row.put(key, Math.round((Double)val * 10.0d) / 10.0d);
+        }
+      }
+    }
+    return rows;
+  }
+
+  private static SelectQuery newQuery(QueryImpl.Row... rows)
+  {
+    List<QueryImpl.Row> rowList = new ArrayList<QueryImpl.Row>();
+    rowList.add(newRow(TYPE_ATTRIBUTE, null, Query.Type.SELECT.getValue(),
+                       null, null));
+    rowList.addAll(Arrays.asList(rows));
+    return (SelectQuery)QueryImpl.create(
+        Query.Type.SELECT.getObjectFlag(), "TestQuery", rowList, 13);
+  }
+
+  private static QueryImpl.Row newRow(Byte attr, String expr, String name1,
+                                      String name2)
+  {
+    return newRow(attr, expr, null, name1, name2);
+  }
+
+  private static QueryImpl.Row newRow(Byte attr, String expr, Number flagNum,
+                                      String name1, String name2)
+  {
+    Short flag = ((flagNum != null) ? flagNum.shortValue() : null);
+    return new QueryImpl.Row(null, attr, expr, flag, null, name1, name2,
+                             null, null);
+  }
+
+  private static void setFlag(Query query, Number flagNum)
+  {
+    setFlag(query, flagNum, null);
+  }
+
+  private static void setFlag(Query query, Number flagNum, String name1)
+  {
+    replaceRows(query, newRow(FLAG_ATTRIBUTE, null, flagNum, name1, null));
+  }
+
+  private static void addRows(Query query, QueryImpl.Row... rows)
+  {
+    ((QueryImpl)query).getRows().addAll(Arrays.asList(rows));
+  }
+
+  private static void replaceRows(Query query, QueryImpl.Row... rows)
+  {
+    ((QueryImpl)query).getRows().removeIf(
+        r -> rows[0].attribute.equals(r.attribute));
+    addRows(query, rows);
+  }
+}
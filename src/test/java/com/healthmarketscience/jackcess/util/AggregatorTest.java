@@ -0,0 +1,179 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import static com.healthmarketscience.jackcess.Database.*;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import static com.healthmarketscience.jackcess.TestUtil.*;
+import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
+import junit.framework.TestCase;
+
+/**
+ * @author James Ahlborn
+ */
+public class AggregatorTest extends TestCase
+{
+
+  public AggregatorTest(String name) {
+    super(name);
+  }
+
+  public void testAggregate() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+      Table t = createTestTable(db);
+
+      Aggregator agg = Aggregator.create(t)
+        .addGroupByColumns("region")
+        .count("numRows")
+        .count("numQty", "qty")
+        .sum("totalQty", "qty")
+        .sum("totalPrice", "price")
+        .sum("totalCost", "cost")
+        .avg("avgQty", "qty")
+        .min("minName", "name")
+        .max("maxQty", "qty");
+      assertFalse(agg.isSortedGrouping());
+
+      List<Row> expected = createExpectedTable(
+          createExpectedRow("region", "east", "numRows", 34L, "numQty", 31L,
+                            "totalQty", 1503L, "totalPrice", 841.5d,
+                            "totalCost", new BigDecimal("17.0000"),
+                            "avgQty", 1503.0d / 31, "minName", "Item0",
+                            "maxQty", 99),
+          createExpectedRow("region", "West", "numRows", 33L, "numQty", 30L,
+                            "totalQty", 1470L, "totalPrice", 808.5d,
+                            "totalCost", new BigDecimal("16.5000"),
+                            "avgQty", 1470.0d / 30, "minName", "item1",
+                            "maxQty", 97),
+          createExpectedRow("region", null, "numRows", 33L, "numQty", 30L,
+                            "totalQty", 1536L, "totalPrice", 825.0d,
+                            "totalCost", new BigDecimal("16.5000"),
+                            "avgQty", 1536.0d / 30, "minName", "ITEM11",
+                            "maxQty", 98));
+      assertEquals(expected, toList(agg));
+
+      // the same results using the index order
+      agg = Aggregator.create(CursorBuilder.createCursor(t.getIndex("region")))
+        .addGroupByColumns("region")
+        .count("numRows")
+        .count("numQty", "qty")
+        .sum("totalQty", "qty")
+        .sum("totalPrice", "price")
+        .sum("totalCost", "cost")
+        .avg("avgQty", "qty")
+        .min("minName", "name")
+        .max("maxQty", "qty");
+      assertTrue(agg.isSortedGrouping());
+      List<Row> sortedExpected = new ArrayList<Row>(expected);
+      sortedExpected.sort(Comparator.comparing(
+          r -> (String)r.get("region"),
+          Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+      assertEquals(sortedExpected, toList(agg));
+
+      // no grouping
+      agg = Aggregator.create(t)
+        .count("numRows")
+        .sum("totalQty", "qty")
+        .avg("avgCost", "cost");
+      assertEquals(createExpectedTable(
+                       createExpectedRow("numRows", 100L,
+                                         "totalQty", 4509L,
+                                         "avgCost", new BigDecimal("0.5000"))),
+                   toList(agg));
+
+      // no rows
+      t = new TableBuilder("empty")
+        .addColumn(new ColumnBuilder("qty", DataType.LONG))
+        .toTable(db);
+      assertEquals(createExpectedTable(
+                       createExpectedRow("numRows", 0L, "totalQty", null)),
+                   Aggregator.create(t).count("numRows").sum("totalQty", "qty")
+                   .stream().collect(Collectors.toList()));
+      assertEquals(createExpectedTable(),
+                   toList(Aggregator.create(t).addGroupByColumns("qty")
+                          .count("numRows")));
+
+      try {
+        Aggregator.create(db.getTable("test")).sum("bad", "name");
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+
+      try {
+        Aggregator.create(db.getTable("test")).count("qty")
+          .addGroupByColumns("qty");
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+
+      db.close();
+    }
+  }
+
+  private static Table createTestTable(Database db) throws Exception
+  {
+    Table t = new TableBuilder("test")
+      .addColumn(new ColumnBuilder("id", DataType.LONG))
+      .addColumn(new ColumnBuilder("region", DataType.TEXT))
+      .addColumn(new ColumnBuilder("name", DataType.TEXT))
+      .addColumn(new ColumnBuilder("qty", DataType.LONG))
+      .addColumn(new ColumnBuilder("price", DataType.DOUBLE))
+      .addColumn(new ColumnBuilder("cost", DataType.MONEY))
+      .setPrimaryKey("id")
+      .addIndex(new IndexBuilder("region").addColumns("region"))
+      .toTable(db);
+
+    String[] regions = {"east", "West", null, "EAST", "west"};
+    String[] prefixes = {"Item", "item", "ITEM"};
+    for(int i = 0; i < 100; ++i) {
+      int regionIdx = i % 3;
+      if(i >= 50) {
+        // mix up the case of the text values
+        regionIdx = ((regionIdx == 2) ? 2 : (regionIdx + 3));
+      }
+      t.addRow(i, regions[regionIdx], prefixes[i % 3] + i,
+               (((i % 11) == 5) ? null : (Object)(i % 100)),
+               i / 2.0d, new BigDecimal("0.5"));
+    }
+    return t;
+  }
+
+  private static List<Row> toList(Aggregator agg) {
+    List<Row> rows = new ArrayList<Row>();
+    for(Row row : agg) {
+      rows.add(row);
+    }
+    return rows;
+  }
+}
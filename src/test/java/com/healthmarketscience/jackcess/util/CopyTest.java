@@ -0,0 +1,223 @@
+/*
+Copyright (c) 2026 James Ahlborn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.healthmarketscience.jackcess.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import static com.healthmarketscience.jackcess.Database.*;
+import com.healthmarketscience.jackcess.DateTimeType;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import com.healthmarketscience.jackcess.complex.ComplexValueForeignKey;
+import com.healthmarketscience.jackcess.impl.TableImpl;
+import static com.healthmarketscience.jackcess.TestUtil.*;
+import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
+import junit.framework.TestCase;
+
+/**
+ * @author James Ahlborn
+ */
+public class CopyTest extends TestCase
+{
+
+  public CopyTest(String name) {
+    super(name);
+  }
+
+  public void testCopyTable() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database srcDb = createMem(fileFormat);
+      srcDb.setDateTimeType(DateTimeType.LOCAL_DATE_TIME);
+
+      Table src = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG).setAutoNumber(true))
+        .addColumn(new ColumnBuilder("code", DataType.TEXT).setLength(40))
+        .addColumn(new ColumnBuilder("notes", DataType.MEMO))
+        .addColumn(new ColumnBuilder("blob", DataType.OLE))
+        .addColumn(new ColumnBuilder("amount", DataType.NUMERIC)
+                   .setPrecision(12).setScale(2))
+        .addColumn(new ColumnBuilder("created", DataType.SHORT_DATE_TIME))
+        .addColumn(new ColumnBuilder("flag", DataType.BOOLEAN))
+        .addColumn(new ColumnBuilder("ratio", DataType.DOUBLE))
+        .addIndex(new IndexBuilder(IndexBuilder.PRIMARY_KEY_NAME)
+                  .addColumns("id").setPrimaryKey())
+        .addIndex(new IndexBuilder("codeIdx").addColumns("code"))
+        .toTable(srcDb);
+
+      String longNotes = createString(5000);
+      List<Object[]> rows = new ArrayList<Object[]>();
+      for(int i = 0; i < 500; ++i) {
+        rows.add(new Object[]{
+            Column.AUTO_NUMBER,
+            (((i % 10) == 0) ? null : "code" + (i % 37)),
+            (((i % 7) == 0) ? longNotes + i :
+             (((i % 5) == 0) ? "" : "note " + i)),
+            (((i % 3) == 0) ? new byte[]{(byte)i, 1, 2, 3} : null),
+            new BigDecimal(i).movePointLeft(2),
+            LocalDateTime.of(2020, 1, 1, 0, 0).plusHours(i),
+            ((i % 2) == 0),
+            (((i % 4) == 0) ? null : (i / 3.0d))});
+      }
+      src.addRows(rows);
+      // leave a gap in the autonumber values
+      src.deleteRow(CursorBuilder.findRowByPrimaryKey(src, 2));
+
+      Database destDb = createMem(fileFormat);
+      destDb.setDateTimeType(DateTimeType.LOCAL_DATE_TIME);
+
+      Table dest = CopyUtil.copyTable(src, destDb);
+      assertEquals("test", dest.getName());
+      assertNotNull(((TableImpl)src).newRowCopier((TableImpl)dest));
+      assertSameRows(src, dest);
+
+      // the indexes of the copy work
+      Row row = CursorBuilder.findRowByPrimaryKey(dest, 123);
+      assertEquals("code" + (122 % 37), row.getString("code"));
+      assertNull(CursorBuilder.findRowByPrimaryKey(dest, 2));
+      assertEquals(countEntries(src.getIndex("codeIdx"), "code12"),
+                   countEntries(dest.getIndex("codeIdx"), "code12"));
+
+      // copying again appends to the existing table (so the primary key is
+      // violated)
+      try {
+        CopyUtil.copyTable(src, destDb);
+        fail("IOException should have been thrown");
+      } catch(IOException e) {
+        // success
+      }
+      assertEquals(499, dest.getRowCount());
+
+      // compare with a decoded copy
+      Table decoded = new CopyUtil.Builder(src, destDb)
+        .setDestTableName("decoded")
+        .setAllowRawCopy(false)
+        .copy();
+      assertSameRows(src, decoded);
+
+      // incompatible tables (different text length) use a decoded copy
+      new TableBuilder("other")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("code", DataType.TEXT).setLength(60))
+        .addColumn(new ColumnBuilder("notes", DataType.MEMO))
+        .addColumn(new ColumnBuilder("blob", DataType.OLE))
+        .addColumn(new ColumnBuilder("amount", DataType.NUMERIC)
+                   .setPrecision(12).setScale(2))
+        .addColumn(new ColumnBuilder("created", DataType.SHORT_DATE_TIME))
+        .addColumn(new ColumnBuilder("flag", DataType.BOOLEAN))
+        .addColumn(new ColumnBuilder("ratio", DataType.DOUBLE))
+        .toTable(destDb);
+      Table other = new CopyUtil.Builder(
+          CursorBuilder.createCursor(src), destDb)
+        .setDestTableName("other")
+        .setBatchSize(7)
+        .copy();
+      assertNull(((TableImpl)src).newRowCopier((TableImpl)other));
+      assertSameRows(src, other);
+
+      srcDb.close();
+      destDb.close();
+    }
+  }
+
+  public void testCopyComplexTable() throws Exception
+  {
+    for(final TestDB testDB : TestDB.getSupportedForBasename(Basename.COMPLEX)) {
+      Database srcDb = open(testDB);
+      Database destDb = openCopy(testDB);
+
+      Table src = srcDb.getTable("Table1");
+      Table dest = destDb.getTable("Table1");
+      Cursor destCursor = CursorBuilder.createCursor(dest);
+      while(destCursor.moveToNextRow()) {
+        destCursor.deleteCurrentRow();
+      }
+      assertNull(((TableImpl)src).newRowCopier((TableImpl)dest));
+
+      // the complex values are not copied, the new rows get new (empty)
+      // complex values
+      CopyUtil.copyTable(src, destDb);
+      assertEquals(src.getRowCount(), dest.getRowCount());
+
+      Column attachCol = dest.getColumn("attach-data");
+      List<Row> destRows = toRows(dest);
+      List<Row> srcRows = toRows(src);
+      for(int i = 0; i < srcRows.size(); ++i) {
+        Row row = destRows.get(i);
+        assertEquals(srcRows.get(i).getString("id"), row.getString("id"));
+        ComplexValueForeignKey fk =
+          (ComplexValueForeignKey)attachCol.getRowValue(row);
+        assertTrue(fk.get() > 0);
+        assertTrue(fk.getAttachments().isEmpty());
+      }
+
+      srcDb.close();
+      destDb.close();
+    }
+  }
+
+  private static int countEntries(Index index, Object... key)
+    throws Exception
+  {
+    int count = 0;
+    for(Row row : index.newCursor().toIndexCursor().newEntryIterable(key)) {
+      ++count;
+    }
+    return count;
+  }
+
+  private static void assertSameRows(Table expected, Table actual)
+    throws Exception
+  {
+    List<Row> expectedRows = toRows(expected);
+    List<Row> actualRows = toRows(actual);
+    assertEquals(expectedRows.size(), actualRows.size());
+    assertEquals(expected.getRowCount(), actual.getRowCount());
+    for(int i = 0; i < expectedRows.size(); ++i) {
+      Row expectedRow = expectedRows.get(i);
+      Row actualRow = actualRows.get(i);
+      assertEquals(expectedRow.keySet(), actualRow.keySet());
+      for(String colName : expectedRow.keySet()) {
+        assertTrue(colName + " row " + i, Arrays.deepEquals(
+                       new Object[]{expectedRow.get(colName)},
+                       new Object[]{actualRow.get(colName)}));
+      }
+    }
+  }
+
+  private static List<Row> toRows(Table table) throws Exception {
+    List<Row> rows = new ArrayList<Row>();
+    for(Row row : CursorBuilder.createCursor(table)) {
+      rows.add(row);
+    }
+    return rows;
+  }
+}
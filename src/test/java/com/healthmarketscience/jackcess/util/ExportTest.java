@@ -17,10 +17,27 @@ limitations under the License.
 package com.healthmarketscience.jackcess.util;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static com.healthmarketscience.jackcess.Database.*;
 import com.healthmarketscience.jackcess.ColumnBuilder;
@@ -29,6 +46,7 @@ import com.healthmarketscience.jackcess.Database;
 import com.healthmarketscience.jackcess.DateTimeType;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
+import com.healthmarketscience.jackcess.impl.ByteUtil;
 import com.healthmarketscience.jackcess.impl.JetFormatTest;
 import junit.framework.TestCase;
 import static com.healthmarketscience.jackcess.TestUtil.*;
@@ -126,4 +144,322 @@ public class ExportTest extends TestCase
     }
   }
 
+  public void testArrowExport() throws Exception
+  {
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+      db.setDateTimeType(DateTimeType.LOCAL_DATE_TIME);
+
+      Table t = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("name", DataType.TEXT))
+        .addColumn(new ColumnBuilder("flag", DataType.BOOLEAN))
+        .addColumn(new ColumnBuilder("amount", DataType.MONEY))
+        .addColumn(new ColumnBuilder("created", DataType.SHORT_DATE_TIME))
+        .addColumn(new ColumnBuilder("data", DataType.OLE))
+        .toTable(db);
+
+      for(int i = 0; i < 500; ++i) {
+        t.addRow(i, getArrowName(i), ((i % 2) == 0), getArrowAmount(i),
+                 getArrowCreated(i), new byte[]{(byte)i});
+      }
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new ArrowExportUtil.Builder(db, "test")
+        .setBatchSize(100)
+        .exportStream(out);
+      ByteBuffer bb = ByteBuffer.wrap(out.toByteArray())
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+      byte[] magic = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+      assertTrue(ByteUtil.matchesRange(bb, 0, magic));
+      assertTrue(ByteUtil.matchesRange(bb, bb.limit() - 6, magic));
+      // the schema message
+      assertEquals(-1, bb.getInt(8));
+
+      // find the record batch blocks in the footer
+      int footerLen = bb.getInt(bb.limit() - 10);
+      int footerPos = bb.limit() - 10 - footerLen;
+      int tablePos = footerPos + bb.getInt(footerPos);
+      int vtablePos = tablePos - bb.getInt(tablePos);
+      int batchesPos = tablePos + bb.getShort(vtablePos + 4 + (3 * 2));
+      batchesPos += bb.getInt(batchesPos);
+      int numBatches = bb.getInt(batchesPos);
+
+      // batches end at data page boundaries
+      assertTrue((numBatches > 1) && (numBatches <= 5));
+      long numRows = 0L;
+      for(int i = 0; i < numBatches; ++i) {
+        int blockPos = batchesPos + 4 + (i * 24);
+        int msgPos = (int)bb.getLong(blockPos);
+        assertEquals(-1, bb.getInt(msgPos));
+        // metadata length, body length
+        assertEquals(bb.getInt(blockPos + 8), bb.getInt(msgPos + 4) + 8);
+        assertEquals(0, bb.getLong(blockPos + 16) % 8);
+        numRows += getRecordBatchLength(bb, msgPos + 8);
+      }
+      assertEquals(500L, numRows);
+
+      // decode the values of the first record batch
+      int blockPos = batchesPos + 4;
+      int msgPos = (int)bb.getLong(blockPos);
+      int bodyPos = msgPos + bb.getInt(blockPos + 8);
+      int batchLen = (int)getRecordBatchLength(bb, msgPos + 8);
+      ByteBuffer[] bufs = getRecordBatchBuffers(bb, msgPos + 8, bodyPos);
+      // validity + values (offsets + data for variable length columns)
+      assertEquals(14, bufs.length);
+
+      for(int i = 0; i < batchLen; ++i) {
+
+        // id: 32-bit Int
+        assertTrue(isBitSet(bufs[0], i));
+        assertEquals(i, bufs[1].getInt(i * 4));
+
+        // name: Utf8
+        String name = getArrowName(i);
+        assertEquals(name != null, isBitSet(bufs[2], i));
+        int start = bufs[3].getInt(i * 4);
+        int end = bufs[3].getInt((i + 1) * 4);
+        byte[] nameBytes = new byte[end - start];
+        ((ByteBuffer)bufs[4].duplicate().position(start)).get(nameBytes);
+        assertEquals(((name != null) ? name : ""),
+                     new String(nameBytes, StandardCharsets.UTF_8));
+
+        // flag: Bool
+        assertTrue(isBitSet(bufs[5], i));
+        assertEquals(((i % 2) == 0), isBitSet(bufs[6], i));
+
+        // amount: 128-bit little-endian Decimal with scale 4
+        assertTrue(isBitSet(bufs[7], i));
+        long unscaled = getArrowAmount(i).setScale(4).unscaledValue()
+          .longValue();
+        assertEquals(unscaled, bufs[8].getLong(i * 16));
+        assertEquals(((unscaled < 0L) ? -1L : 0L),
+                     bufs[8].getLong((i * 16) + 8));
+
+        // created: microsecond Timestamp
+        LocalDateTime created = getArrowCreated(i);
+        assertEquals(created != null, isBitSet(bufs[9], i));
+        assertEquals(((created != null) ?
+                      (created.toEpochSecond(ZoneOffset.UTC) * 1000000L) : 0L),
+                     bufs[10].getLong(i * 8));
+
+        // data: Binary
+        assertTrue(isBitSet(bufs[11], i));
+        assertEquals(i + 1, bufs[12].getInt((i + 1) * 4));
+        assertEquals((byte)i, bufs[13].get(i));
+      }
+
+      db.close();
+    }
+  }
+
+  private static String getArrowName(int i) {
+    return (((i % 5) == 4) ? null : "v\u00e4lue" + i);
+  }
+
+  private static BigDecimal getArrowAmount(int i) {
+    return new BigDecimal(i - 250).movePointLeft(2);
+  }
+
+  private static LocalDateTime getArrowCreated(int i) {
+    return (((i % 3) == 0) ? null :
+            LocalDateTime.of(2020, 1, 1, 0, 0).plusHours(i));
+  }
+
+  private static long getRecordBatchLength(ByteBuffer bb, int msgPos) {
+    // Message.header -> RecordBatch.length
+    int tablePos = msgPos + bb.getInt(msgPos);
+    int vtablePos = tablePos - bb.getInt(tablePos);
+    int batchPos = tablePos + bb.getShort(vtablePos + 4 + (2 * 2));
+    batchPos += bb.getInt(batchPos);
+    vtablePos = batchPos - bb.getInt(batchPos);
+    return bb.getLong(batchPos + bb.getShort(vtablePos + 4));
+  }
+
+  private static ByteBuffer[] getRecordBatchBuffers(
+      ByteBuffer bb, int msgPos, int bodyPos)
+  {
+    // Message.header -> RecordBatch.buffers
+    int tablePos = msgPos + bb.getInt(msgPos);
+    int vtablePos = tablePos - bb.getInt(tablePos);
+    int batchPos = tablePos + bb.getShort(vtablePos + 4 + (2 * 2));
+    batchPos += bb.getInt(batchPos);
+    vtablePos = batchPos - bb.getInt(batchPos);
+    int buffersPos = batchPos + bb.getShort(vtablePos + 4 + (2 * 2));
+    buffersPos += bb.getInt(buffersPos);
+
+    // each Buffer struct is an offset and length in the message body
+    ByteBuffer[] bufs = new ByteBuffer[bb.getInt(buffersPos)];
+    for(int i = 0; i < bufs.length; ++i) {
+      int bufPos = buffersPos + 4 + (i * 16);
+      int start = bodyPos + (int)bb.getLong(bufPos);
+      int end = start + (int)bb.getLong(bufPos + 8);
+      bufs[i] = ((ByteBuffer)bb.duplicate().limit(end).position(start))
+        .slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return bufs;
+  }
+
+  private static boolean isBitSet(ByteBuffer bits, int idx) {
+    return ((bits.get(idx / 8) & (1 << (idx % 8))) != 0);
+  }
+
+  public void testParallelExport() throws Exception
+  {
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+
+      Table t = new TableBuilder("test")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("name", DataType.TEXT))
+        .addColumn(new ColumnBuilder("data", DataType.BINARY))
+        .toTable(db);
+
+      for(int i = 0; i < 1000; ++i) {
+        String name = (((i % 7) == 0) ? "quoted, \"value\" " + i :
+                       (((i % 11) == 0) ? null : "value" + i));
+        t.addRow(i, name, (((i % 3) == 0) ? new byte[]{(byte)i} : null));
+      }
+
+      StringWriter out = new StringWriter();
+      new ExportUtil.Builder(db, "test")
+        .setHeader(true)
+        .exportWriter(new BufferedWriter(out));
+      String expected = out.toString();
+
+      assertTrue(expected.startsWith("id,name,data" + NL + "0,\"quoted, " +
+                                     "\"\"value\"\" 0\",00" + NL +
+                                     "1,value1," + NL));
+
+      out = new StringWriter();
+      new ExportUtil.Builder(db, "test")
+        .setHeader(true)
+        .setNumThreads(4)
+        .exportWriter(new BufferedWriter(out));
+
+      assertEquals(expected, out.toString());
+
+      try {
+        new ExportUtil.Builder(db, "test").setNumThreads(0);
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+
+      try {
+        new ExportUtil.Builder(db).setNumTableThreads(-1);
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+
+      db.close();
+    }
+  }
+
+  public void testParallelDump() throws Exception
+  {
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createFile(fileFormat);
+
+      for(int i = 0; i < 5; ++i) {
+        Table t = new TableBuilder("table" + i)
+          .addColumn(new ColumnBuilder("id", DataType.LONG))
+          .addColumn(new ColumnBuilder("value", DataType.TEXT))
+          .toTable(db);
+        for(int j = 0; j < (i * 100); ++j) {
+          t.addRow(j, "value, " + i + "-" + j);
+        }
+      }
+
+      File dir = Files.createTempDirectory("dumptest").toFile();
+      File zipFile = new File(dir, "dump.zip");
+      try {
+
+        Map<String,String> expected = new TreeMap<String,String>();
+        for(String tableName : db.getTableNames()) {
+          StringWriter out = new StringWriter();
+          new ExportUtil.Builder(db, tableName)
+            .setHeader(true)
+            .exportWriter(new BufferedWriter(out));
+          expected.put(tableName + ".csv", out.toString());
+        }
+
+        final List<String> progress = new ArrayList<String>();
+        ExportProgressListener listener = (tableName, numExported, numTables)
+          -> progress.add(numExported + "/" + numTables);
+
+        new ExportUtil.Builder(db)
+          .setHeader(true)
+          .setNumTableThreads(3)
+          .setProgressListener(listener)
+          .exportAll(dir);
+
+        Map<String,String> actual = new TreeMap<String,String>();
+        for(String fileName : expected.keySet()) {
+          actual.put(fileName, new String(
+                         toByteArray(new File(dir, fileName)),
+                         Charset.defaultCharset()));
+        }
+        assertEquals(expected, actual);
+        assertEquals(5, progress.size());
+        assertEquals("5/5", progress.get(4));
+
+        for(int numThreads : new int[]{1, 3}) {
+          new ExportUtil.Builder(db)
+            .setHeader(true)
+            .setNumTableThreads(numThreads)
+            .exportZip(zipFile);
+
+          actual.clear();
+          ZipInputStream in = new ZipInputStream(new FileInputStream(zipFile));
+          try {
+            ZipEntry entry = null;
+            while((entry = in.getNextEntry()) != null) {
+              ByteArrayOutputStream bout = new ByteArrayOutputStream();
+              ByteUtil.copy(in, bout);
+              actual.put(entry.getName(), new String(
+                             bout.toByteArray(), Charset.defaultCharset()));
+            }
+          } finally {
+            in.close();
+          }
+          assertEquals(expected, actual);
+        }
+
+      } finally {
+        for(File f : dir.listFiles()) {
+          f.delete();
+        }
+        dir.delete();
+      }
+
+      db.close();
+
+      // in-memory databases are exported on the calling thread
+      db = createMem(fileFormat);
+      new TableBuilder("memTable")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .toTable(db)
+        .addRow(1);
+      dir = Files.createTempDirectory("dumptest").toFile();
+      try {
+        new ExportUtil.Builder(db)
+          .setNumTableThreads(3)
+          .exportAll(dir);
+        assertEquals("1" + ImportUtil.LINE_SEPARATOR, new String(
+                         toByteArray(new File(dir, "memTable.csv")),
+                         Charset.defaultCharset()));
+      } finally {
+        for(File f : dir.listFiles()) {
+          f.delete();
+        }
+        dir.delete();
+      }
+
+      db.close();
+    }
+  }
+
 }
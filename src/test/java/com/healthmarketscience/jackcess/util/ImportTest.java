@@ -16,22 +16,30 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.util;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Row;
 import static com.healthmarketscience.jackcess.Database.*;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
@@ -201,6 +209,235 @@ public class ImportTest extends TestCase
     }
   }
 
+  public void testParallelImport() throws Exception
+  {
+    StringBuilder sb = new StringBuilder("Col1,Col2,Col3\n");
+    for(int i = 0; i < 1000; ++i) {
+      sb.append("row").append(i).append(',');
+      if((i % 7) == 0) {
+        sb.append("\"multi\nline \"\"").append(i).append("\"\"\"");
+      } else if((i % 5) == 0) {
+        sb.append("\"with, delim\"");
+      } else {
+        sb.append("val\"").append(i);
+      }
+      sb.append(',').append(i).append('\n');
+    }
+    String input = sb.toString();
+
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+
+      String serialName = new ImportUtil.Builder(db, "serial")
+        .importReader(new BufferedReader(new StringReader(input)));
+      String parallelName = new ImportUtil.Builder(db, "parallel")
+        .setNumThreads(4)
+        .setBatchSize(17)
+        .importReader(new BufferedReader(new StringReader(input)));
+
+      List<Row> serialRows = RowFilterTest.toList(db.getTable(serialName));
+      assertEquals(1000, serialRows.size());
+      assertEquals("multi" + ImportUtil.LINE_SEPARATOR + "line \"7\"",
+                   serialRows.get(7).get("Col2"));
+      assertEquals("7", serialRows.get(7).get("Col3"));
+      assertEquals("with, delim", serialRows.get(5).get("Col2"));
+      assertEquals("val\"1", serialRows.get(1).get("Col2"));
+      assertEquals(serialRows,
+                   RowFilterTest.toList(db.getTable(parallelName)));
+
+      // failures are propagated to the caller
+      ImportFilter badFilter = new SimpleImportFilter() {
+        @Override
+        public Object[] filterRow(Object[] row) throws IOException {
+          if("row500".equals(row[0])) {
+            throw new IOException("bad row");
+          }
+          return row;
+        }
+      };
+      try {
+        new ImportUtil.Builder(db, "bad")
+          .setNumThreads(3)
+          .setBatchSize(10)
+          .setFilter(badFilter)
+          .importReader(new BufferedReader(new StringReader(input)));
+        fail("IOException should have been thrown");
+      } catch(IOException e) {
+        assertEquals("bad row", e.getMessage());
+      }
+
+      // the input is no longer read once the failed import returns
+      final AtomicBoolean closed = new AtomicBoolean();
+      final AtomicBoolean readAfterClose = new AtomicBoolean();
+      BufferedReader in = new BufferedReader(new StringReader(input) {
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+          if(closed.get()) {
+            readAfterClose.set(true);
+          }
+          return super.read(cbuf, off, len);
+        }
+      }, 64);
+      try {
+        new ImportUtil.Builder(db, "bad3")
+          .setNumThreads(3)
+          .setBatchSize(10)
+          .setFilter(badFilter)
+          .importReader(in);
+        fail("IOException should have been thrown");
+      } catch(IOException e) {
+        assertEquals("bad row", e.getMessage());
+      }
+      closed.set(true);
+      Thread.sleep(100L);
+      assertFalse(readAfterClose.get());
+
+      try {
+        new ImportUtil.Builder(db, "bad4").setNumThreads(0);
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+
+      // unterminated quoted value
+      try {
+        new ImportUtil.Builder(db, "bad2")
+          .setNumThreads(2)
+          .importReader(new BufferedReader(new StringReader(
+                            "Col1,Col2\nfoo,\"bar\nbaz\n")));
+        fail("EOFException should have been thrown");
+      } catch(EOFException e) {
+        // success
+      }
+
+      db.close();
+    }
+  }
+
+  public void testDelimitedTokenizer() throws Exception
+  {
+    String input =
+      "Col1,Col2,Col3,Col4\r\n" +
+      "a,b,c,d\r\n" +
+      "\"quoted, value\",\"embedded \"\"quote\"\"\",plain\"quote\r\n" +
+      "\r\n" +
+      "trailing,delim,\n" +
+      "\"multi\r\nline\nvalue\"ignored,after,\"\"\r" +
+      "last,line,\"\",no newline";
+
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+
+      // the regex delimiter does not use the tokenizer
+      String regexName = new ImportUtil.Builder(db, "regex")
+        .setDelimiter("[,]")
+        .importReader(new BufferedReader(new StringReader(input)));
+      String tokenName = new ImportUtil.Builder(db, "token")
+        .setDelimiter(",")
+        .importReader(new BufferedReader(new StringReader(input)));
+
+      List<Row> rows = RowFilterTest.toList(db.getTable(tokenName));
+      assertEquals(RowFilterTest.toList(db.getTable(regexName)), rows);
+
+      String sep = ImportUtil.LINE_SEPARATOR;
+      assertEquals(createExpectedTable(
+          createExpectedRow("Col1", "a", "Col2", "b", "Col3", "c",
+                            "Col4", "d"),
+          createExpectedRow("Col1", "quoted, value",
+                            "Col2", "embedded \"quote\"",
+                            "Col3", "plain\"quote", "Col4", null),
+          createExpectedRow("Col1", null, "Col2", null, "Col3", null,
+                            "Col4", null),
+          createExpectedRow("Col1", "trailing", "Col2", "delim",
+                            "Col3", null, "Col4", null),
+          createExpectedRow("Col1", "multi" + sep + "line" + sep + "value",
+                            "Col2", "after", "Col3", "", "Col4", null),
+          createExpectedRow("Col1", "last", "Col2", "line", "Col3", "",
+                            "Col4", "no newline")),
+          rows);
+
+      db.close();
+    }
+  }
+
+  public void testInferColumnTypes() throws Exception
+  {
+    String input =
+      "id,amount,ratio,flag,created,zip,label\n" +
+      "1,10.5,1.5e3,yes,2024-01-15,01234,foo\n" +
+      "-2,3,2.25,No,2024-02-29 13:45:10,98765,\n" +
+      ",,,,,,bar\n" +
+      "3,0.5,7,TRUE,,12345,3\n" +
+      "4,4,8,false,2024-03-01,54321,baz\n";
+
+    for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+
+      for(String delim : new String[]{",", "[,]"}) {
+        String name = new ImportUtil.Builder(db, "infer")
+          .setDelimiter(delim)
+          .setInferColumnTypes(3)
+          .setBatchSize(2)
+          .importReader(new BufferedReader(new StringReader(input)));
+
+        Table t = db.getTable(name);
+        assertEquals(DataType.LONG, t.getColumn("id").getType());
+        assertEquals(DataType.NUMERIC, t.getColumn("amount").getType());
+        assertEquals(1, t.getColumn("amount").getScale());
+        assertEquals(DataType.DOUBLE, t.getColumn("ratio").getType());
+        assertEquals(DataType.BOOLEAN, t.getColumn("flag").getType());
+        assertEquals(DataType.SHORT_DATE_TIME, t.getColumn("created").getType());
+        assertEquals(DataType.TEXT, t.getColumn("zip").getType());
+        assertEquals(DataType.TEXT, t.getColumn("label").getType());
+
+        List<Row> rows = RowFilterTest.toList(t);
+        assertEquals(5, rows.size());
+
+        Row row = rows.get(0);
+        assertEquals(1, row.get("id"));
+        assertEquals(new BigDecimal("10.5"), row.get("amount"));
+        assertEquals(1500.0d, row.get("ratio"));
+        assertEquals(Boolean.TRUE, row.get("flag"));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 0, 0),
+                     row.getLocalDateTime("created"));
+        assertEquals("01234", row.get("zip"));
+
+        row = rows.get(1);
+        assertEquals(-2, row.get("id"));
+        assertEquals(Boolean.FALSE, row.get("flag"));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 13, 45, 10),
+                     row.getLocalDateTime("created"));
+
+        row = rows.get(2);
+        assertNull(row.get("id"));
+        assertNull(row.get("amount"));
+        assertNull(row.get("created"));
+        assertEquals("bar", row.get("label"));
+
+        // rows after the sample are converted as well
+        row = rows.get(3);
+        assertEquals(3, row.get("id"));
+        assertEquals(new BigDecimal("0.5"), row.get("amount"));
+        assertEquals(Boolean.TRUE, row.get("flag"));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0),
+                     rows.get(4).getLocalDateTime("created"));
+      }
+
+      // values which do not match the inferred type fail the import
+      try {
+        new ImportUtil.Builder(db, "bad")
+          .setInferColumnTypes(1)
+          .importReader(new BufferedReader(new StringReader(
+                            "num\n1\nfoo\n")));
+        fail("IOException should have been thrown");
+      } catch(IOException e) {
+        // success
+      }
+
+      db.close();
+    }
+  }
+
   public void testCopySqlHeaders() throws Exception
   {
     for (final FileFormat fileFormat : JetFormatTest.SUPPORTED_FILEFORMATS) {
@@ -16,19 +16,32 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.util;
 
+import java.io.Closeable;
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
+import static com.healthmarketscience.jackcess.Database.*;
 import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.IndexCursor;
 import com.healthmarketscience.jackcess.Row;
 import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
 import com.healthmarketscience.jackcess.impl.RowImpl;
 import static com.healthmarketscience.jackcess.impl.JetFormatTest.*;
 import junit.framework.TestCase;
@@ -82,6 +95,196 @@ public class JoinerTest extends TestCase {
     }
   }
 
+  public void testHashJoiner() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+      Table parent = createParentTable(db);
+      Table child = createChildTable(db);
+
+      List<String> expected = joinNestedLoop(child, "parentName",
+                                             parent, "name", false);
+      HashJoiner join = HashJoiner.create(
+          child, Arrays.asList("parentName"), parent, Arrays.asList("name"));
+      assertEquals(expected, toJoinKeys(join));
+
+      // spill to partition files
+      join.setMaxBuildRows(7);
+      assertEquals(expected, toJoinKeys(join));
+
+      join.setOuterJoin(true);
+      expected = joinNestedLoop(child, "parentName", parent, "name", true);
+      assertEquals(expected, toJoinKeys(join));
+      join.setMaxBuildRows(Integer.MAX_VALUE);
+      assertEquals(expected, toJoinKeys(join));
+
+      // partition files are removed when the iterator is exhausted or closed
+      File tmpDir = Files.createTempDirectory("jackcess_join_test").toFile();
+      join.setMaxBuildRows(7).setTempDirectory(tmpDir);
+      Iterator<JoinedRow> iter = join.iterator();
+      iter.next();
+      assertTrue(tmpDir.list().length > 0);
+      ((Closeable)iter).close();
+      assertEquals(0, tmpDir.list().length);
+      assertEquals(expected, toJoinKeys(join));
+      assertEquals(0, tmpDir.list().length);
+      assertTrue(tmpDir.delete());
+
+      // numeric values match regardless of type
+      join = HashJoiner.create(
+          child, Arrays.asList("amount"), parent, Arrays.asList("id"))
+        .setFromColumnNames(Arrays.asList("id"))
+        .setToColumnNames(Arrays.asList("name"));
+      expected = joinNestedLoop(child, "amount", parent, "id", false);
+      assertFalse(expected.isEmpty());
+      assertEquals(expected, toJoinKeys(join));
+      JoinedRow joinedRow = join.iterator().next();
+      assertEquals(new HashSet<String>(Arrays.asList("id", "amount")),
+                   joinedRow.getFromRow().keySet());
+      assertEquals(new HashSet<String>(Arrays.asList("id", "name")),
+                   joinedRow.getToRow().keySet());
+    }
+
+    // text keys do not depend on the default locale
+    Locale defLocale = Locale.getDefault();
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      assertEquals(HashJoiner.toKeyValue("title"),
+                   HashJoiner.toKeyValue("TITLE"));
+    } finally {
+      Locale.setDefault(defLocale);
+    }
+  }
+
+  public void testMergeJoiner() throws Exception
+  {
+    for (final FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = createMem(fileFormat);
+      Table parent = createParentTable(db);
+      Table child = createChildTable(db);
+
+      IndexCursor childCursor = CursorBuilder.createCursor(
+          child.getIndex("parentId"));
+      IndexCursor parentCursor = CursorBuilder.createCursor(
+          parent.getPrimaryKeyIndex());
+
+      MergeJoiner join = MergeJoiner.create(childCursor, parentCursor);
+      List<String> expected = joinNestedLoop(child, "parentId",
+                                             parent, "id", false);
+      assertEquals(expected, toJoinKeys(join));
+      assertInFromOrder(join, "parentId");
+
+      join.setOuterJoin(true);
+      expected = joinNestedLoop(child, "parentId", parent, "id", true);
+      assertEquals(expected, toJoinKeys(join));
+      assertInFromOrder(join, "parentId");
+
+      // text keys
+      join = MergeJoiner.create(
+          CursorBuilder.createCursor(child.getIndex("parentName")),
+          CursorBuilder.createCursor(parent.getIndex("name")));
+      expected = joinNestedLoop(child, "parentName", parent, "name", false);
+      assertEquals(expected, toJoinKeys(join));
+
+      try {
+        MergeJoiner.create(
+            CursorBuilder.createCursor(child.getIndex("parentName")),
+            parentCursor);
+        fail("IllegalArgumentException should have been thrown");
+      } catch(IllegalArgumentException e) {
+        // success
+      }
+    }
+  }
+
+  private static Table createParentTable(Database db) throws Exception
+  {
+    Table parent = new TableBuilder("Parent")
+      .addColumn(new ColumnBuilder("id", DataType.LONG))
+      .addColumn(new ColumnBuilder("name", DataType.TEXT))
+      .setPrimaryKey("id")
+      .addIndex(new IndexBuilder("name").addColumns("name"))
+      .toTable(db);
+    for(int i = 0; i < 50; ++i) {
+      parent.addRow(i, ((i % 2) == 0) ? "name" + (i % 20) : "NAME" + (i % 20));
+    }
+    return parent;
+  }
+
+  private static Table createChildTable(Database db) throws Exception
+  {
+    Table child = new TableBuilder("Child")
+      .addColumn(new ColumnBuilder("id", DataType.LONG))
+      .addColumn(new ColumnBuilder("parentId", DataType.LONG))
+      .addColumn(new ColumnBuilder("parentName", DataType.TEXT))
+      .addColumn(new ColumnBuilder("amount", DataType.DOUBLE))
+      .setPrimaryKey("id")
+      .addIndex(new IndexBuilder("parentId").addColumns("parentId"))
+      .addIndex(new IndexBuilder("parentName").addColumns("parentName"))
+      .toTable(db);
+    for(int i = 0; i < 200; ++i) {
+      Integer parentId = (((i % 17) == 0) ? null : ((i * 7) % 60));
+      String parentName = (((i % 11) == 0) ? null : "Name" + (i % 23));
+      child.addRow(i, parentId, parentName, ((i % 3) == 0) ? i / 2.0d : i);
+    }
+    return child;
+  }
+
+  private static List<String> joinNestedLoop(
+      Table from, String fromCol, Table to, String toCol, boolean outer)
+  {
+    List<String> keys = new ArrayList<String>();
+    for(Row fromRow : from) {
+      Object fromVal = fromRow.get(fromCol);
+      boolean found = false;
+      for(Row toRow : to) {
+        Object toVal = toRow.get(toCol);
+        if((fromVal == null) || (toVal == null)) {
+          continue;
+        }
+        boolean matches = ((fromVal instanceof String) ?
+                           ((String)fromVal).equalsIgnoreCase((String)toVal) :
+                           (((Number)fromVal).doubleValue() ==
+                            ((Number)toVal).doubleValue()));
+        if(matches) {
+          keys.add(fromRow.get("id") + ":" + toRow.get("id"));
+          found = true;
+        }
+      }
+      if(!found && outer) {
+        keys.add(fromRow.get("id") + ":null");
+      }
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+
+  private static List<String> toJoinKeys(Iterable<JoinedRow> join)
+  {
+    List<String> keys = new ArrayList<String>();
+    for(JoinedRow joinedRow : join) {
+      Row toRow = joinedRow.getToRow();
+      keys.add(joinedRow.getFromRow().get("id") + ":" +
+               ((toRow != null) ? toRow.get("id") : null));
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+
+  private static void assertInFromOrder(MergeJoiner join, String fromCol)
+  {
+    Integer prevVal = null;
+    for(JoinedRow joinedRow : join) {
+      Integer val = (Integer)joinedRow.getFromRow().get(fromCol);
+      if((prevVal != null) && (val != null)) {
+        assertTrue(prevVal <= val);
+      }
+      if(val != null) {
+        prevVal = val;
+      }
+    }
+  }
+
   private static void doTestJoiner(
       Joiner join, Map<Integer,List<Row>> expectedData)
     throws Exception
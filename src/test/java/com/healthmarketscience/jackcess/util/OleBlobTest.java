@@ -16,12 +16,16 @@ limitations under the License.
 
 package com.healthmarketscience.jackcess.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.util.Arrays;
 
+import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
 import com.healthmarketscience.jackcess.Database.FileFormat;
@@ -153,6 +157,122 @@ public class OleBlobTest extends TestCase
     }
   }
 
+  public void testStreamBlob() throws Exception
+  {
+    byte[] bigBytes = new byte[100 * 1024];
+    for(int i = 0; i < bigBytes.length; ++i) {
+      bigBytes[i] = (byte)(i * 31);
+    }
+    byte[] smallBytes = Arrays.copyOf(bigBytes, 200);
+
+    for(FileFormat fileFormat : SUPPORTED_FILEFORMATS) {
+      Database db = create(fileFormat);
+
+      Table t = new TableBuilder("TestOle")
+        .addColumn(new ColumnBuilder("id", DataType.LONG))
+        .addColumn(new ColumnBuilder("ole", DataType.OLE))
+        .toTable(db);
+
+      OleBlob blob = null;
+      try {
+        blob = t.newBlob()
+          .setSimplePackageBytes(bigBytes)
+          .setSimplePackageFileName("big_data\u00e9.bin")
+          .setSimplePackageFilePath("C:\\data\\big_data\u00e9.bin")
+          .toBlob();
+        t.addRow(1, blob);
+      } finally {
+        ByteUtil.closeQuietly(blob);
+      }
+
+      try {
+        blob = t.newBlob()
+          .setSimplePackageBytes(smallBytes)
+          .setSimplePackageFileName("small_data.bin")
+          .setSimplePackageFilePath("C:\\data\\small_data.bin")
+          .toBlob();
+        t.addRow(2, blob);
+      } finally {
+        ByteUtil.closeQuietly(blob);
+      }
+
+      try {
+        blob = t.newBlob()
+          .setPackagePrettyName("Big Data")
+          .setPackageClassName("Big.Data")
+          .setOtherBytes(bigBytes)
+          .toBlob();
+        t.addRow(3, blob);
+      } finally {
+        ByteUtil.closeQuietly(blob);
+      }
+
+      t.addRow(4, null);
+
+      Cursor c = CursorBuilder.createCursor(t);
+      Column oleCol = t.getColumn("ole");
+      while(c.moveToNextRow()) {
+        Row row = c.getCurrentRow();
+        OleBlob expected = row.getBlob("ole");
+        OleBlob actual = OleBlob.Builder.fromCurrentRow(c, oleCol);
+        try {
+
+          if(expected == null) {
+            assertEquals(4, (int)row.getInt("id"));
+            assertNull(actual);
+            continue;
+          }
+
+          byte[] expectedBytes = expected.getBytes(1L, (int)expected.length());
+          assertEquals(expected.length(), actual.length());
+          assertTrue(Arrays.equals(
+                         expectedBytes,
+                         toByteArray(actual.getBinaryStream(),
+                                     actual.length())));
+          assertTrue(Arrays.equals(
+                         Arrays.copyOfRange(expectedBytes, 100, 5100),
+                         actual.getBytes(101L, 5000)));
+          ByteArrayOutputStream bout = new ByteArrayOutputStream();
+          actual.writeTo(bout);
+          assertTrue(Arrays.equals(expectedBytes, bout.toByteArray()));
+
+          OleBlob.Content expectedContent = expected.getContent();
+          OleBlob.Content content = actual.getContent();
+          assertEquals(expectedContent.getType(), content.getType());
+          assertEquals(((OleBlob.PackageContent)expectedContent).getPrettyName(),
+                       ((OleBlob.PackageContent)content).getPrettyName());
+
+          OleBlob.EmbeddedContent ec = (OleBlob.EmbeddedContent)content;
+          byte[] contentBytes = ((row.getInt("id") == 2) ?
+                                 smallBytes : bigBytes);
+          assertEquals(contentBytes.length, ec.length());
+          assertTrue(Arrays.equals(contentBytes,
+                                   toByteArray(ec.getStream(), ec.length())));
+          bout = new ByteArrayOutputStream();
+          ec.writeTo(bout);
+          assertTrue(Arrays.equals(contentBytes, bout.toByteArray()));
+
+          if(content.getType() == OleBlob.ContentType.SIMPLE_PACKAGE) {
+            OleBlob.SimplePackageContent expectedSpc =
+              (OleBlob.SimplePackageContent)expectedContent;
+            OleBlob.SimplePackageContent spc =
+              (OleBlob.SimplePackageContent)content;
+            assertEquals(expectedSpc.getFileName(), spc.getFileName());
+            assertEquals(expectedSpc.getFilePath(), spc.getFilePath());
+            assertEquals(expectedSpc.getLocalFilePath(),
+                         spc.getLocalFilePath());
+          }
+
+        } finally {
+          ByteUtil.closeQuietly(expected);
+          ByteUtil.closeQuietly(actual);
+        }
+      }
+
+      db.close();
+    }
+  }
+
   public void testReadBlob() throws Exception
   {
     for(TestDB testDb : TestDB.getSupportedForBasename(Basename.BLOB, true)) {